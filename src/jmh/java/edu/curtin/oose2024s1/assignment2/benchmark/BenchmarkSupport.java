@@ -0,0 +1,32 @@
+package edu.curtin.oose2024s1.assignment2.benchmark;
+
+import java.util.logging.Level;
+import java.util.logging.LogManager;
+import java.util.logging.Logger;
+
+/**
+Purpose:
+    - Shared helpers for the JMH benchmarks.
+Role:
+    - Silences java.util.logging so the benchmarks measure the shop logic rather than the console/file log handlers.
+*/
+// Utility methods for benchmarks.
+public final class BenchmarkSupport
+{
+    private BenchmarkSupport()
+    {
+    }
+
+    /**
+    METHOD: silenceLogging
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Removes all log handlers and turns the root logger off.
+    */
+    public static void silenceLogging()
+    {
+        LogManager.getLogManager().reset();
+        Logger.getLogger("").setLevel(Level.OFF);
+    }
+}
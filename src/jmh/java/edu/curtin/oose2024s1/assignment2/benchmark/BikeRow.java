@@ -0,0 +1,96 @@
+package edu.curtin.oose2024s1.assignment2.benchmark;
+
+import edu.curtin.oose2024s1.assignment2.state.BikeStateType;
+
+/**
+ Purpose:
+ - A lightweight, read-only view of one bike stored in an OffHeapBikeStore.
+ Responsibilities:
+ - Expose the same accessors callers use on Bike (state, associated email, days in servicing) by reading the store's columns.
+ Role:
+ - Holds only a store reference and a row id, so it is cheap to create and does not copy the bike onto the heap. It reflects the row's current contents, and is invalid once the bike leaves the store.
+ */
+// View of an off-heap bike row.
+public class BikeRow
+{
+    private final OffHeapBikeStore store;
+    private final int id;
+
+    /**
+     METHOD: BikeRow
+     IMPORT: store (OffHeapBikeStore), id (int)
+     EXPORT: None
+     ALGORITHM:
+     Constructor that records the store and row id.
+     */
+    public BikeRow(OffHeapBikeStore store, int id)
+    {
+        this.store = store;
+        this.id = id;
+    }
+
+    /**
+     METHOD: getId
+     IMPORT: None
+     EXPORT: id (int)
+     ALGORITHM:
+     Returns the row id of the bike.
+     */
+    public int getId()
+    {
+        return id;
+    }
+
+    /**
+     METHOD: getStateType
+     IMPORT: None
+     EXPORT: type (BikeStateType)
+     ALGORITHM:
+     Returns the bike's current state.
+     */
+    public BikeStateType getStateType()
+    {
+        return store.getStateType(id);
+    }
+
+    /**
+     METHOD: getAssociatedEmail
+     IMPORT: None
+     EXPORT: email (String)
+     ALGORITHM:
+     Returns the email associated with the bike, or null.
+     */
+    public String getAssociatedEmail()
+    {
+        return store.getAssociatedEmail(id);
+    }
+
+    /**
+     METHOD: getDaysInServicingState
+     IMPORT: None
+     EXPORT: days (int)
+     ALGORITHM:
+     Returns the number of days the bike has spent being serviced.
+     */
+    public int getDaysInServicingState()
+    {
+        return store.getDaysInServicingState(id);
+    }
+
+    /**
+     METHOD: toString
+     IMPORT: None
+     EXPORT: String
+     ALGORITHM:
+     Returns a string representation of the bike in the same format as Bike.toString().
+     */
+    @Override
+    public String toString()
+    {
+        return "Bike{" +
+                "state=" + getStateType().toState() +
+                ", associatedEmail='" + getAssociatedEmail() + '\'' +
+                ", daysInServicingState=" + getDaysInServicingState() +
+                '}';
+    }
+}
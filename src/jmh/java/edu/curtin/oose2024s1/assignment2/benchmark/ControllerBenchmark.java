@@ -0,0 +1,114 @@
+package edu.curtin.oose2024s1.assignment2.benchmark;
+
+import edu.curtin.oose2024s1.assignment2.controller.BikeShopController;
+import edu.curtin.oose2024s1.assignment2.controller.ResultCode;
+import edu.curtin.oose2024s1.assignment2.model.BankAccount;
+import edu.curtin.oose2024s1.assignment2.model.Bike;
+import edu.curtin.oose2024s1.assignment2.model.Inventory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+Purpose:
+    - Measures BikeShopController.processMessage for each message type.
+Role:
+    - Every invocation runs against a freshly set-up shop (50 available bikes, $15000, one bike awaiting pick-up for PICK-UP) so each message type takes its success path, plus an INVALID case for the rejection path.
+*/
+// JMH benchmark for the controller's message handling.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ControllerBenchmark
+{
+    private static final String EMAIL = "rider@bench.com";
+
+    @Param({"DELIVERY", "DROP-OFF", "PURCHASE-ONLINE", "PURCHASE-IN-STORE", "PICK-UP", "INVALID"})
+    public String messageType;
+
+    private BikeShopController controller;
+    private String message;
+
+    /**
+    METHOD: prepareMessage
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Turns logging off and builds the message for the configured type once per trial.
+    */
+    @Setup(Level.Trial)
+    public void prepareMessage()
+    {
+        BenchmarkSupport.silenceLogging();
+        message = switch(messageType)
+        {
+            case "DELIVERY", "PURCHASE-IN-STORE" -> messageType;
+            case "INVALID" -> "#!~ garbage " + EMAIL;
+            default -> messageType + " " + EMAIL;
+        };
+    }
+
+    /**
+    METHOD: resetShop
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Builds a fresh shop before each invocation so every call sees the same starting state.
+    */
+    @Setup(Level.Invocation)
+    public void resetShop()
+    {
+        Inventory inventory = new Inventory();
+        BankAccount bankAccount = new BankAccount(15000);
+        for(int i = 0; i < 50; i++)
+        {
+            inventory.addAvailableBike(new Bike());
+        }
+        controller = new BikeShopController(inventory, bankAccount);
+        if("PICK-UP".equals(messageType))
+        {
+            controller.processMessage("PURCHASE-ONLINE " + EMAIL);
+        }
+    }
+
+    /**
+    METHOD: processMessage
+    IMPORT: None
+    EXPORT: result (String)
+    ALGORITHM:
+    Processes one message of the configured type and builds its result text.
+    */
+    @Benchmark
+    public String processMessage()
+    {
+        return controller.processMessage(message);
+    }
+
+    /**
+    METHOD: process
+    IMPORT: None
+    EXPORT: code (ResultCode)
+    ALGORITHM:
+    Processes one message of the configured type, returning only the result code.
+    */
+    @Benchmark
+    public ResultCode process()
+    {
+        return controller.process(message);
+    }
+}
@@ -0,0 +1,72 @@
+package edu.curtin.oose2024s1.assignment2.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ Purpose:
+ - Maps email addresses to small integer ids (and back).
+ Responsibilities:
+ - Store each distinct email once, so bulk bike storage can refer to an email with a 4-byte id instead of a String reference.
+ Role:
+ - Used by OffHeapBikeStore for its email column.
+ - Lives on the heap and never forgets an email (ids must stay valid while any row refers to them), so it grows with the number of distinct emails seen.
+ */
+// Interning table of email addresses.
+public class EmailSymbolTable
+{
+    // Id used for "no email".
+    public static final int NONE = -1;
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> emails = new ArrayList<>();
+
+    /**
+     METHOD: intern
+     IMPORT: email (String)
+     EXPORT: id (int)
+     ALGORITHM:
+     Returns the id for email, assigning the next free id if it has not been seen before. A null email maps to NONE.
+     */
+    public int intern(String email)
+    {
+        if (email == null)
+        {
+            return NONE;
+        }
+        Integer id = ids.get(email);
+        if (id == null)
+        {
+            id = emails.size();
+            ids.put(email, id);
+            emails.add(email);
+        }
+        return id;
+    }
+
+    /**
+     METHOD: lookup
+     IMPORT: id (int)
+     EXPORT: email (String)
+     ALGORITHM:
+     Returns the email for id, or null for NONE.
+     */
+    public String lookup(int id)
+    {
+        return id == NONE ? null : emails.get(id);
+    }
+
+    /**
+     METHOD: size
+     IMPORT: None
+     EXPORT: size (int)
+     ALGORITHM:
+     Returns the number of distinct emails interned.
+     */
+    public int size()
+    {
+        return emails.size();
+    }
+}
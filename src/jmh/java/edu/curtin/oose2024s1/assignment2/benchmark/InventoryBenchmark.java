@@ -0,0 +1,94 @@
+package edu.curtin.oose2024s1.assignment2.benchmark;
+
+import edu.curtin.oose2024s1.assignment2.model.Bike;
+import edu.curtin.oose2024s1.assignment2.model.Inventory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+Purpose:
+    - Measures Inventory add/remove operations as the number of bikes grows from 100 to 10 million.
+Role:
+    - Each operation removes a bike and adds it back, so the inventory size stays constant across invocations.
+*/
+// JMH benchmark for inventory operations by inventory size.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class InventoryBenchmark
+{
+    @Param({"100", "10000", "1000000", "10000000"})
+    public int size;
+
+    private Inventory inventory;
+    private Bike[] bikes;
+    private int cursor;
+
+    /**
+    METHOD: fillInventory
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Creates an inventory holding size available bikes.
+    */
+    @Setup
+    public void fillInventory()
+    {
+        BenchmarkSupport.silenceLogging();
+        inventory = new Inventory();
+        bikes = new Bike[size];
+        for(int i = 0; i < size; i++)
+        {
+            bikes[i] = new Bike();
+            inventory.addAvailableBike(bikes[i]);
+        }
+        cursor = 0;
+    }
+
+    /**
+    METHOD: removeAvailableBike
+    IMPORT: None
+    EXPORT: bike (Bike)
+    ALGORITHM:
+    Removes a bike by reference (cycling through every bike, so most removals are from the middle of the list) and re-adds it at the back.
+    */
+    @Benchmark
+    public Bike removeAvailableBike()
+    {
+        Bike bike = bikes[cursor];
+        cursor = (cursor + 1) % size;
+        inventory.removeAvailableBike(bike);
+        inventory.addAvailableBike(bike);
+        return bike;
+    }
+
+    /**
+    METHOD: takeNextAvailableBike
+    IMPORT: None
+    EXPORT: bike (Bike)
+    ALGORITHM:
+    Takes the next available bike the way the purchase handlers do and re-adds it at the back.
+    */
+    @Benchmark
+    public Bike takeNextAvailableBike()
+    {
+        Bike bike = inventory.takeNextAvailableBike();
+        inventory.addAvailableBike(bike);
+        return bike;
+    }
+}
@@ -0,0 +1,88 @@
+package edu.curtin.oose2024s1.assignment2.benchmark;
+
+import edu.curtin.oose2024s1.assignment2.input.MessageSource;
+import edu.curtin.oose2024s1.assignment2.input.SeededMessageGenerator;
+import edu.curtin.oose2024s1.assignment2.input.SyntheticMessageSource;
+import edu.curtin.oose2024s1.assignment2.input.Workload;
+import edu.curtin.oose2024s1.assignment2.simulation.VirtualClock;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+Purpose:
+    - Measures how fast message sources produce messages: the seeded BikeShopInput port against SyntheticMessageSource at a low and a very high daily rate.
+Role:
+    - Each call returns one message, advancing the virtual clock whenever the current day has run out, so day set-up is included in the cost.
+*/
+// JMH benchmark for message generation.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageSourceBenchmark
+{
+    @Param({"seeded", "synthetic", "synthetic-1M"})
+    public String source;
+
+    private VirtualClock clock;
+    private MessageSource messageSource;
+
+    /**
+    METHOD: createSource
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Builds the chosen source on a fresh virtual clock ("synthetic-1M" scales the default rates to about a million messages a day).
+    */
+    @Setup
+    public void createSource()
+    {
+        BenchmarkSupport.silenceLogging();
+        clock = new VirtualClock();
+        messageSource = switch(source)
+        {
+            case "seeded" -> new SeededMessageGenerator(42L, clock);
+            case "synthetic" -> new SyntheticMessageSource(Workload.defaults(), 42L, clock);
+            default ->
+            {
+                Properties properties = new Properties();
+                properties.setProperty("scale", "400000");
+                yield new SyntheticMessageSource(Workload.parse(properties), 42L, clock);
+            }
+        };
+    }
+
+    /**
+    METHOD: nextMessage
+    IMPORT: None
+    EXPORT: message (CharSequence)
+    ALGORITHM:
+    Returns the next message, moving on to the next day whenever the current one is exhausted.
+    */
+    @Benchmark
+    public CharSequence nextMessage()
+    {
+        CharSequence message = messageSource.nextMessage();
+        while(message == null)
+        {
+            clock.advanceDay();
+            message = messageSource.nextMessage();
+        }
+        return message;
+    }
+}
@@ -0,0 +1,119 @@
+package edu.curtin.oose2024s1.assignment2.benchmark;
+
+import edu.curtin.oose2024s1.assignment2.model.BankAccount;
+import edu.curtin.oose2024s1.assignment2.observer.AsyncObserver;
+import edu.curtin.oose2024s1.assignment2.observer.Observer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+Purpose:
+    - Measures observer fan-out cost on BankAccount with 0, 1 and 100 registered observers, dispatched synchronously or through AsyncObserver.
+Role:
+    - Observers sink each update into a Blackhole so the JIT cannot remove the calls.
+    - In async mode the score is the producer-side cost only (copying into the ring); the default COALESCE policy keeps the producer from waiting.
+*/
+// JMH benchmark for observer notification.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ObserverBenchmark
+{
+    @Param({"0", "1", "100"})
+    public int observerCount;
+
+    @Param({"sync", "async"})
+    public String dispatch;
+
+    private final List<AsyncObserver> asyncObservers = new ArrayList<>();
+    private BankAccount bankAccount;
+
+    /**
+    METHOD: registerObservers
+    IMPORT: blackhole (Blackhole)
+    EXPORT: None
+    ALGORITHM:
+    Creates a bank account and registers observerCount observers on it (each wrapped in an AsyncObserver in async mode).
+    */
+    @Setup
+    public void registerObservers(Blackhole blackhole)
+    {
+        BenchmarkSupport.silenceLogging();
+        bankAccount = new BankAccount(15000);
+        for(int i = 0; i < observerCount; i++)
+        {
+            Observer observer = () -> blackhole.consume(bankAccount);
+            if("async".equals(dispatch))
+            {
+                AsyncObserver asyncObserver = new AsyncObserver(observer);
+                asyncObservers.add(asyncObserver);
+                observer = asyncObserver;
+            }
+            bankAccount.addObserver(observer);
+        }
+    }
+
+    /**
+    METHOD: stopAsyncObservers
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Closes any AsyncObservers so their consumer threads stop between trials.
+    */
+    @TearDown
+    public void stopAsyncObservers()
+    {
+        for(AsyncObserver asyncObserver : asyncObservers)
+        {
+            asyncObserver.close();
+        }
+        asyncObservers.clear();
+    }
+
+    /**
+    METHOD: notifyObservers
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Notifies all observers once.
+    */
+    @Benchmark
+    public void notifyObservers()
+    {
+        bankAccount.notifyObservers();
+    }
+
+    /**
+    METHOD: depositAndWithdraw
+    IMPORT: None
+    EXPORT: balance (int)
+    ALGORITHM:
+    Deposits and withdraws the same amount (two notifications), keeping the balance stable.
+    */
+    @Benchmark
+    public int depositAndWithdraw()
+    {
+        bankAccount.deposit(100);
+        bankAccount.withdraw(100);
+        return bankAccount.getBalance();
+    }
+}
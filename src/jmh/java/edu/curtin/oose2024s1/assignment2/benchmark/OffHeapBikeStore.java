@@ -0,0 +1,516 @@
+package edu.curtin.oose2024s1.assignment2.benchmark;
+
+import edu.curtin.oose2024s1.assignment2.model.Inventory;
+import edu.curtin.oose2024s1.assignment2.state.BikeStateType;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.logging.Logger;
+
+/**
+ Purpose:
+ - A standalone columnar bike store for fleet-scale studies, storing bikes as rows of primitive columns in off-heap (direct) memory.
+ - It is not an Inventory backend: it has its own id-based API, with no observers, customers or per-email lookup. It lives with the benchmarks, as the fixture
+   OffHeapBikeStoreBenchmark compares against the heap-based Inventory at sizes the simulation never reaches; the simulation itself only uses Inventory.
+ Responsibilities:
+ - Keep one row per bike, addressed by an int id, with columns for state, email symbol id and service-start day.
+ - Keep the same per-state bookkeeping as Inventory: FIFO lists of available and awaiting-pickup bikes, a per-day timer wheel for servicing, and exact counts. List links are stored in two more int columns, so every operation is O(1) and allocates nothing on the Java heap.
+ - Reuse the rows of bikes that leave the shop (sold in store or picked up).
+ Role:
+ - A bike row takes no heap at all, so heap usage does not grow with the number of bikes stored. It does grow with the number of distinct emails:
+   each one is kept on the heap (once) by the EmailSymbolTable, and never freed.
+ - Columns are allocated in chunks of direct ByteBuffers (CHUNK_ROWS rows each) as the store grows, so no single buffer hits the 2GB ByteBuffer limit.
+ - BikeRow provides a lightweight read-only view of a row for callers that want Bike-like accessors.
+ */
+// Columnar off-heap bike storage.
+public class OffHeapBikeStore
+{
+    private static final Logger logger = Logger.getLogger(OffHeapBikeStore.class.getName());
+
+    // Rows per column chunk (must be a power of two).
+    public static final int CHUNK_ROWS = 1 << 20;
+    private static final int CHUNK_SHIFT = 20;
+    private static final int CHUNK_MASK = CHUNK_ROWS - 1;
+
+    // Value used for "no row" in link columns and return values.
+    public static final int NONE = -1;
+
+    private static final byte FREE = -1;
+    // State of an available bike that takeNextAvailableBike() has unlinked but that has not been sold yet.
+    private static final byte TAKEN = -2;
+    private static final BikeStateType[] STATE_TYPES = BikeStateType.values();
+    private static final int AVAILABLE_LIST = 0;
+    private static final int AWAITING_LIST = 1;
+    private static final int FIRST_SERVICE_LIST = 2;
+
+    private final EmailSymbolTable emails = new EmailSymbolTable();
+
+    // Column chunks.
+    private ByteBuffer[] stateColumn = new ByteBuffer[0];
+    private IntBuffer[] emailColumn = new IntBuffer[0];
+    private IntBuffer[] serviceStartColumn = new IntBuffer[0];
+    private IntBuffer[] prevColumn = new IntBuffer[0];
+    private IntBuffer[] nextColumn = new IntBuffer[0];
+
+    // Intrusive lists: available, awaiting pick-up, then one per servicing-wheel day.
+    private final int[] heads;
+    private final int[] tails;
+    private final int[] sizes;
+
+    private int rowCount;
+    private int freeHead = NONE;
+    private int today;
+
+    /**
+     METHOD: OffHeapBikeStore
+     IMPORT: None
+     EXPORT: None
+     ALGORITHM:
+     Constructor that creates an empty store on day 0.
+     */
+    public OffHeapBikeStore()
+    {
+        int lists = FIRST_SERVICE_LIST + Inventory.SERVICE_DAYS + 1;
+        heads = new int[lists];
+        tails = new int[lists];
+        sizes = new int[lists];
+        Arrays.fill(heads, NONE);
+        Arrays.fill(tails, NONE);
+        logger.info("Off-heap bike store initialised.");
+    }
+
+    /**
+     METHOD: addAvailableBike
+     IMPORT: None
+     EXPORT: id (int)
+     ALGORITHM:
+     Creates a new available bike and appends it to the available list.
+     */
+    public int addAvailableBike()
+    {
+        int id = allocateRow(BikeStateType.AVAILABLE, EmailSymbolTable.NONE, NONE);
+        append(AVAILABLE_LIST, id);
+        return id;
+    }
+
+    /**
+     METHOD: takeNextAvailableBike
+     IMPORT: None
+     EXPORT: id (int)
+     ALGORITHM:
+     Unlinks the oldest available bike, marks it as taken and returns its id (NONE if there are none). The bike must then be purchased with purchaseOnline or sellInStore.
+     */
+    public int takeNextAvailableBike()
+    {
+        int id = heads[AVAILABLE_LIST];
+        if (id != NONE)
+        {
+            unlink(AVAILABLE_LIST, id);
+            stateColumn[id >>> CHUNK_SHIFT].put(id & CHUNK_MASK, TAKEN);
+        }
+        return id;
+    }
+
+    /**
+     METHOD: purchaseOnline
+     IMPORT: id (int), email (String)
+     EXPORT: None
+     ALGORITHM:
+     Marks a bike taken with takeNextAvailableBike as bought by email and appends it to the awaiting pick-up list.
+     Throws IllegalStateException if the bike has not been taken (e.g. it is still linked in the available list).
+     */
+    public void purchaseOnline(int id, String email)
+    {
+        checkTaken(id);
+        setState(id, BikeStateType.AWAITING_PICKUP);
+        emailColumn[id >>> CHUNK_SHIFT].put(id & CHUNK_MASK, emails.intern(email));
+        append(AWAITING_LIST, id);
+    }
+
+    /**
+     METHOD: sellInStore
+     IMPORT: id (int)
+     EXPORT: None
+     ALGORITHM:
+     Releases the row of a bike taken with takeNextAvailableBike (the bike leaves the shop).
+     Throws IllegalStateException if the bike has not been taken (e.g. it is still linked in the available list).
+     */
+    public void sellInStore(int id)
+    {
+        checkTaken(id);
+        releaseRow(id);
+    }
+
+    /**
+     METHOD: dropOff
+     IMPORT: email (String)
+     EXPORT: id (int)
+     ALGORITHM:
+     Creates a bike being serviced for email (starting today) and schedules it on the servicing wheel.
+     */
+    public int dropOff(String email)
+    {
+        int id = allocateRow(BikeStateType.SERVICING, emails.intern(email), today);
+        append(serviceList(today + Inventory.SERVICE_DAYS), id);
+        return id;
+    }
+
+    /**
+     METHOD: pickUp
+     IMPORT: id (int)
+     EXPORT: serviced (boolean)
+     ALGORITHM:
+     Removes a bike that is awaiting pick-up from the store and releases its row. Returns true if the bike had been serviced (so a service fee applies).
+     Throws IllegalStateException if the bike is not awaiting pick-up.
+     */
+    public boolean pickUp(int id)
+    {
+        if (getStateType(id) != BikeStateType.AWAITING_PICKUP)
+        {
+            throw new IllegalStateException("Bike " + id + " is not awaiting pick-up.");
+        }
+        boolean serviced = serviceStartColumn[id >>> CHUNK_SHIFT].get(id & CHUNK_MASK) != NONE;
+        unlink(AWAITING_LIST, id);
+        releaseRow(id);
+        return serviced;
+    }
+
+    /**
+     METHOD: advanceDay
+     IMPORT: None
+     EXPORT: completed (int)
+     ALGORITHM:
+     Moves to the next day and moves every bike whose servicing finishes today to the awaiting pick-up list. Returns the number of bikes moved.
+     */
+    public int advanceDay()
+    {
+        today++;
+        int list = serviceList(today);
+        int completed = sizes[list];
+        int id = heads[list];
+        while (id != NONE)
+        {
+            int next = nextColumn[id >>> CHUNK_SHIFT].get(id & CHUNK_MASK);
+            unlink(list, id);
+            setState(id, BikeStateType.AWAITING_PICKUP);
+            append(AWAITING_LIST, id);
+            id = next;
+        }
+        return completed;
+    }
+
+    /**
+     METHOD: getAvailableBikeCount
+     IMPORT: None
+     EXPORT: int
+     ALGORITHM:
+     Returns the number of available bikes.
+     */
+    public int getAvailableBikeCount()
+    {
+        return sizes[AVAILABLE_LIST];
+    }
+
+    /**
+     METHOD: getServicedBikeCount
+     IMPORT: None
+     EXPORT: int
+     ALGORITHM:
+     Returns the number of bikes being serviced.
+     */
+    public int getServicedBikeCount()
+    {
+        int count = 0;
+        for (int list = FIRST_SERVICE_LIST; list < sizes.length; list++)
+        {
+            count += sizes[list];
+        }
+        return count;
+    }
+
+    /**
+     METHOD: getAwaitingPickupBikeCount
+     IMPORT: None
+     EXPORT: int
+     ALGORITHM:
+     Returns the number of bikes awaiting pick-up.
+     */
+    public int getAwaitingPickupBikeCount()
+    {
+        return sizes[AWAITING_LIST];
+    }
+
+    /**
+     METHOD: getStateType
+     IMPORT: id (int)
+     EXPORT: type (BikeStateType)
+     ALGORITHM:
+     Returns the state of the bike in row id (AVAILABLE for a bike that has been taken but not yet sold). Throws IllegalArgumentException if the row is not in use.
+     */
+    public BikeStateType getStateType(int id)
+    {
+        byte state = stateAt(id);
+        if (state == FREE)
+        {
+            throw new IllegalArgumentException("No bike with id " + id + ".");
+        }
+        return state == TAKEN ? BikeStateType.AVAILABLE : STATE_TYPES[state];
+    }
+
+    /**
+     METHOD: getAssociatedEmail
+     IMPORT: id (int)
+     EXPORT: email (String)
+     ALGORITHM:
+     Returns the email associated with the bike in row id, or null.
+     */
+    public String getAssociatedEmail(int id)
+    {
+        return emails.lookup(emailColumn[id >>> CHUNK_SHIFT].get(id & CHUNK_MASK));
+    }
+
+    /**
+     METHOD: getDaysInServicingState
+     IMPORT: id (int)
+     EXPORT: days (int)
+     ALGORITHM:
+     Returns how many days the bike in row id has spent being serviced (0 if it was never serviced).
+     */
+    public int getDaysInServicingState(int id)
+    {
+        int start = serviceStartColumn[id >>> CHUNK_SHIFT].get(id & CHUNK_MASK);
+        if (start == NONE)
+        {
+            return 0;
+        }
+        return getStateType(id) == BikeStateType.SERVICING ? today - start : Inventory.SERVICE_DAYS;
+    }
+
+    /**
+     METHOD: view
+     IMPORT: id (int)
+     EXPORT: row (BikeRow)
+     ALGORITHM:
+     Returns a lightweight view of row id.
+     */
+    public BikeRow view(int id)
+    {
+        return new BikeRow(this, id);
+    }
+
+    /**
+     METHOD: getRowCapacity
+     IMPORT: None
+     EXPORT: capacity (long)
+     ALGORITHM:
+     Returns the number of rows currently allocated off-heap.
+     */
+    public long getRowCapacity()
+    {
+        return (long)stateColumn.length * CHUNK_ROWS;
+    }
+
+    /**
+     METHOD: allocateRow
+     IMPORT: type (BikeStateType), emailId (int), serviceStart (int)
+     EXPORT: id (int)
+     ALGORITHM:
+     Takes a row from the free list (or the end of the table, growing it by a chunk if needed) and fills in its columns.
+     */
+    private int allocateRow(BikeStateType type, int emailId, int serviceStart)
+    {
+        int id;
+        if (freeHead != NONE)
+        {
+            id = freeHead;
+            freeHead = nextColumn[id >>> CHUNK_SHIFT].get(id & CHUNK_MASK);
+        }
+        else
+        {
+            if (rowCount == Integer.MAX_VALUE)
+            {
+                throw new IllegalStateException("Off-heap bike store is full.");
+            }
+            id = rowCount++;
+            if ((id >>> CHUNK_SHIFT) >= stateColumn.length)
+            {
+                addChunk();
+            }
+        }
+        int chunk = id >>> CHUNK_SHIFT;
+        int offset = id & CHUNK_MASK;
+        stateColumn[chunk].put(offset, (byte)type.ordinal());
+        emailColumn[chunk].put(offset, emailId);
+        serviceStartColumn[chunk].put(offset, serviceStart);
+        prevColumn[chunk].put(offset, NONE);
+        nextColumn[chunk].put(offset, NONE);
+        return id;
+    }
+
+    /**
+     METHOD: releaseRow
+     IMPORT: id (int)
+     EXPORT: None
+     ALGORITHM:
+     Marks the row as free and pushes it onto the free list.
+     */
+    private void releaseRow(int id)
+    {
+        int chunk = id >>> CHUNK_SHIFT;
+        int offset = id & CHUNK_MASK;
+        stateColumn[chunk].put(offset, FREE);
+        nextColumn[chunk].put(offset, freeHead);
+        freeHead = id;
+    }
+
+    /**
+     METHOD: addChunk
+     IMPORT: None
+     EXPORT: None
+     ALGORITHM:
+     Allocates one more chunk of direct memory for every column.
+     */
+    private void addChunk()
+    {
+        int chunks = stateColumn.length + 1;
+        stateColumn = Arrays.copyOf(stateColumn, chunks);
+        emailColumn = Arrays.copyOf(emailColumn, chunks);
+        serviceStartColumn = Arrays.copyOf(serviceStartColumn, chunks);
+        prevColumn = Arrays.copyOf(prevColumn, chunks);
+        nextColumn = Arrays.copyOf(nextColumn, chunks);
+
+        int last = chunks - 1;
+        stateColumn[last] = ByteBuffer.allocateDirect(CHUNK_ROWS);
+        emailColumn[last] = newIntColumn();
+        serviceStartColumn[last] = newIntColumn();
+        prevColumn[last] = newIntColumn();
+        nextColumn[last] = newIntColumn();
+        logger.fine(() -> "Off-heap bike store grew to " + chunks + " chunks.");
+    }
+
+    /**
+     METHOD: newIntColumn
+     IMPORT: None
+     EXPORT: column (IntBuffer)
+     ALGORITHM:
+     Allocates a direct, native-order int buffer of CHUNK_ROWS entries.
+     */
+    private static IntBuffer newIntColumn()
+    {
+        return ByteBuffer.allocateDirect(CHUNK_ROWS * Integer.BYTES).order(ByteOrder.nativeOrder()).asIntBuffer();
+    }
+
+    /**
+     METHOD: append
+     IMPORT: list (int), id (int)
+     EXPORT: None
+     ALGORITHM:
+     Appends row id to the end of the given intrusive list.
+     */
+    private void append(int list, int id)
+    {
+        int tail = tails[list];
+        prevColumn[id >>> CHUNK_SHIFT].put(id & CHUNK_MASK, tail);
+        nextColumn[id >>> CHUNK_SHIFT].put(id & CHUNK_MASK, NONE);
+        if (tail == NONE)
+        {
+            heads[list] = id;
+        }
+        else
+        {
+            nextColumn[tail >>> CHUNK_SHIFT].put(tail & CHUNK_MASK, id);
+        }
+        tails[list] = id;
+        sizes[list]++;
+    }
+
+    /**
+     METHOD: unlink
+     IMPORT: list (int), id (int)
+     EXPORT: None
+     ALGORITHM:
+     Removes row id from the given intrusive list.
+     */
+    private void unlink(int list, int id)
+    {
+        int prev = prevColumn[id >>> CHUNK_SHIFT].get(id & CHUNK_MASK);
+        int next = nextColumn[id >>> CHUNK_SHIFT].get(id & CHUNK_MASK);
+        if (prev == NONE)
+        {
+            heads[list] = next;
+        }
+        else
+        {
+            nextColumn[prev >>> CHUNK_SHIFT].put(prev & CHUNK_MASK, next);
+        }
+        if (next == NONE)
+        {
+            tails[list] = prev;
+        }
+        else
+        {
+            prevColumn[next >>> CHUNK_SHIFT].put(next & CHUNK_MASK, prev);
+        }
+        prevColumn[id >>> CHUNK_SHIFT].put(id & CHUNK_MASK, NONE);
+        nextColumn[id >>> CHUNK_SHIFT].put(id & CHUNK_MASK, NONE);
+        sizes[list]--;
+    }
+
+    /**
+     METHOD: setState
+     IMPORT: id (int), type (BikeStateType)
+     EXPORT: None
+     ALGORITHM:
+     Writes the state column of row id.
+     */
+    private void setState(int id, BikeStateType type)
+    {
+        stateColumn[id >>> CHUNK_SHIFT].put(id & CHUNK_MASK, (byte)type.ordinal());
+    }
+
+    /**
+     METHOD: checkTaken
+     IMPORT: id (int)
+     EXPORT: None
+     ALGORITHM:
+     Throws IllegalStateException unless row id holds a bike taken with takeNextAvailableBike and not yet sold, so a bike that is still linked in a list
+     can never be linked into a second one or freed.
+     */
+    private void checkTaken(int id)
+    {
+        if (stateAt(id) != TAKEN)
+        {
+            throw new IllegalStateException("Bike " + id + " was not taken with takeNextAvailableBike().");
+        }
+    }
+
+    /**
+     METHOD: stateAt
+     IMPORT: id (int)
+     EXPORT: state (byte)
+     ALGORITHM:
+     Reads the raw state column of row id (FREE for rows beyond the end of the table).
+     */
+    private byte stateAt(int id)
+    {
+        if (id < 0 || id >= rowCount)
+        {
+            return FREE;
+        }
+        return stateColumn[id >>> CHUNK_SHIFT].get(id & CHUNK_MASK);
+    }
+
+    /**
+     METHOD: serviceList
+     IMPORT: day (int)
+     EXPORT: list (int)
+     ALGORITHM:
+     Returns the servicing-wheel list for the given day.
+     */
+    private int serviceList(int day)
+    {
+        return FIRST_SERVICE_LIST + day % (Inventory.SERVICE_DAYS + 1);
+    }
+}
@@ -0,0 +1,87 @@
+package edu.curtin.oose2024s1.assignment2.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+Purpose:
+    - Measures the off-heap bike store at the same sizes as InventoryBenchmark, plus 100 million bikes.
+Role:
+    - Each operation keeps the store size constant, so results are comparable across sizes and with the heap-based Inventory.
+*/
+// JMH benchmark for OffHeapBikeStore operations by store size.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx1g", "-XX:MaxDirectMemorySize=4g"})
+public class OffHeapBikeStoreBenchmark
+{
+    private static final String EMAIL = "rider@bench.com";
+
+    @Param({"100", "10000", "1000000", "10000000", "100000000"})
+    public int size;
+
+    private OffHeapBikeStore store;
+
+    /**
+    METHOD: fillStore
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Creates a store holding size available bikes.
+    */
+    @Setup
+    public void fillStore()
+    {
+        BenchmarkSupport.silenceLogging();
+        store = new OffHeapBikeStore();
+        for(int i = 0; i < size; i++)
+        {
+            store.addAvailableBike();
+        }
+    }
+
+    /**
+    METHOD: sellAndRestock
+    IMPORT: None
+    EXPORT: id (int)
+    ALGORITHM:
+    Sells the next available bike in store and adds a new one (reusing the freed row).
+    */
+    @Benchmark
+    public int sellAndRestock()
+    {
+        store.sellInStore(store.takeNextAvailableBike());
+        return store.addAvailableBike();
+    }
+
+    /**
+    METHOD: purchaseAndPickUp
+    IMPORT: None
+    EXPORT: serviced (boolean)
+    ALGORITHM:
+    Sells the next available bike online, picks it up, and restocks one bike.
+    */
+    @Benchmark
+    public boolean purchaseAndPickUp()
+    {
+        int id = store.takeNextAvailableBike();
+        store.purchaseOnline(id, EMAIL);
+        boolean serviced = store.pickUp(id);
+        store.addAvailableBike();
+        return serviced;
+    }
+}
@@ -1,12 +1,45 @@
 package edu.curtin.oose2024s1.assignment2;
 
+import edu.curtin.oose2024s1.assignment2.chain.ChainRunner;
+import edu.curtin.oose2024s1.assignment2.chain.ChainStatistics;
+import edu.curtin.oose2024s1.assignment2.chain.ShardScheduler;
 import edu.curtin.oose2024s1.assignment2.controller.BikeShopController;
 import edu.curtin.oose2024s1.assignment2.controller.EventLoop;
+import edu.curtin.oose2024s1.assignment2.controller.ResultCounters;
+import edu.curtin.oose2024s1.assignment2.experiment.ExperimentAggregate;
+import edu.curtin.oose2024s1.assignment2.experiment.ExperimentRunner;
+import edu.curtin.oose2024s1.assignment2.ingest.IngestServer;
+import edu.curtin.oose2024s1.assignment2.ingest.LoadClient;
+import edu.curtin.oose2024s1.assignment2.input.BikeShopInputSource;
+import edu.curtin.oose2024s1.assignment2.input.MessageSource;
+import edu.curtin.oose2024s1.assignment2.input.SeededMessageGenerator;
+import edu.curtin.oose2024s1.assignment2.input.SyntheticMessageSource;
+import edu.curtin.oose2024s1.assignment2.input.TraceMessageSource;
+import edu.curtin.oose2024s1.assignment2.input.TraceRecorder;
+import edu.curtin.oose2024s1.assignment2.input.Workload;
+import edu.curtin.oose2024s1.assignment2.journal.ShopJournal;
+import edu.curtin.oose2024s1.assignment2.metrics.MetricsHttpServer;
+import edu.curtin.oose2024s1.assignment2.metrics.ShopMetrics;
 import edu.curtin.oose2024s1.assignment2.model.BankAccount;
+import edu.curtin.oose2024s1.assignment2.model.Customer;
 import edu.curtin.oose2024s1.assignment2.model.Inventory;
+import edu.curtin.oose2024s1.assignment2.observer.AsyncObserver;
+import edu.curtin.oose2024s1.assignment2.observer.Observer;
+import edu.curtin.oose2024s1.assignment2.query.ShopQueries;
+import edu.curtin.oose2024s1.assignment2.simulation.SimulationClock;
+import edu.curtin.oose2024s1.assignment2.simulation.VirtualClock;
+import edu.curtin.oose2024s1.assignment2.simulation.WallClock;
 import edu.curtin.oose2024s1.assignment2.view.BikeShopView;
+import edu.curtin.oose2024s1.assignment2.view.ConsoleRenderer;
+import edu.curtin.oose2024s1.assignment2.view.FlushPolicy;
 
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.logging.Logger;
 
 /**
@@ -18,6 +51,15 @@ import java.util.logging.Logger;
 public class App
 {
     private static final Logger logger = Logger.getLogger(App.class.getName());
+    private static final int DEFAULT_HEADLESS_DAYS = 365;
+    private static final int DEFAULT_EPOCH_DAYS = 7;
+    private static final String DEFAULT_SUMMARY_FILE = "experiment_summary.csv";
+    private static final int DEFAULT_SNAPSHOT_DAYS = 30;
+    private static final int DEFAULT_INGEST_QUEUE = 1 << 16;
+    private static final int DEFAULT_LOAD_CONNECTIONS = 4;
+    private static final long DEFAULT_LOAD_MESSAGES = 1_000_000L;
+    private static final int REPLAY_TOP_CUSTOMERS = 5;
+    private static final int REPLAY_WAITING_DAYS = 7;
 
     /**
     METHOD: main
@@ -25,27 +67,560 @@ public class App
     EXPORT: None
     ALGORITHM:
     Initialises the simulation components and starts the event loop.
+    With no arguments, runs interactively until Enter is pressed. With "--headless", runs a fixed number of days ("--days N", default 365) as fast as possible.
+    "--seed N" makes either mode reproducible.
+    "--render FPS" replaces line-by-line console output with a live status display redrawn at most FPS times per second (also works with "--headless").
+    "--flush day|shutdown|bytes=N|ms=N" chooses when sim_results.txt output is committed to disk (default: once per day).
+    "--shops N" instead runs a chain of N isolated shops in parallel (always headless), with "--scheduler forkjoin|virtual", "--epoch DAYS" and "--chain-csv FILE".
+    "--runs N" instead runs a Monte Carlo experiment of N seeded headless simulations in parallel ("--parallelism P", default all cores) and writes a summary of their final statistics ("--summary FILE").
+    "--shops" and "--runs" exclude each other and every option that only applies to a single shop ("--journal", "--pipeline", "--trace", "--metrics", ...).
+    "--journal DIR" journals the shop to DIR and carries on from it on the next start, with a snapshot every "--snapshot-every DAYS" (default 30) and "--journal-sync" to force each day to disk.
+    "--replay-to DAY" (with "--journal DIR") instead prints the journalled shop as it was at the end of DAY.
+    "--trace FILE" runs the days recorded in a trace file (headless, all of them unless "--days" is given) as fast as possible, or "--speed X" times faster than real time.
+    "--record FILE" records whatever messages the run takes in to a trace file.
+    "--serve PORT" takes messages from TCP clients on the loopback interface instead (see IngestServer), holding at most "--queue N" waiting messages; "--speed X" sets the day length.
+    "--workload FILE" replaces the random input with a SyntheticMessageSource driven by the given workload description (also for "--load").
+    "--pipeline" parses, validates and writes out messages on separate threads from the one applying them (see MessagePipeline); not with "--serve".
+    "--batch-apply" applies each day's messages together, folding runs of in-store purchases and deliveries into bulk updates (see BikeShopController.applyDay()); not with "--pipeline" or "--serve".
+    "--metrics PORT" publishes live latency and outcome metrics over JMX and at http://127.0.0.1:PORT/metrics (Prometheus format) while a single shop runs.
+    "--async-metrics" (with "--metrics PORT") delivers the model changes behind the metrics' balance and bike gauges through an AsyncObserver, on its own thread.
+    "--load PORT" instead runs a load generator against a server on PORT, sending "--messages N" messages (default 1000000) over "--connections C" connections (default 4).
     */
     public static void main(String[] args)
     {
         logger.info("Starting Bike Shop Simulation...");
 
-        BikeShopInput inp = new BikeShopInput();
+        boolean headless = false;
+        int days = DEFAULT_HEADLESS_DAYS;
+        boolean daysGiven = false;
+        Long seed = null;
+        FlushPolicy flushPolicy = FlushPolicy.PER_DAY;
+        long flushThreshold = 0;
+        int renderFps = 0;
+        int shops = 0;
+        ShardScheduler scheduler = ShardScheduler.FORK_JOIN;
+        int epochDays = DEFAULT_EPOCH_DAYS;
+        String chainCsv = null;
+        int runs = 0;
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        String summaryFile = DEFAULT_SUMMARY_FILE;
+        String journalDir = null;
+        int snapshotDays = DEFAULT_SNAPSHOT_DAYS;
+        boolean journalSync = false;
+        int replayDay = -1;
+        String traceFile = null;
+        double speed = 0;
+        String recordFile = null;
+        int servePort = -1;
+        int ingestQueue = DEFAULT_INGEST_QUEUE;
+        int loadPort = -1;
+        int loadConnections = DEFAULT_LOAD_CONNECTIONS;
+        long loadMessages = DEFAULT_LOAD_MESSAGES;
+        String workloadFile = null;
+        int metricsPort = -1;
+        boolean pipelined = false;
+        boolean batchApply = false;
+        boolean asyncMetrics = false;
+        try
+        {
+            for(int i = 0; i < args.length; i++)
+            {
+                switch(args[i])
+                {
+                    case "--headless" -> headless = true;
+                    case "--days" ->
+                    {
+                        days = Integer.parseInt(args[++i]);
+                        daysGiven = true;
+                    }
+                    case "--seed" -> seed = Long.parseLong(args[++i]);
+                    case "--render" -> renderFps = Integer.parseInt(args[++i]);
+                    case "--shops" -> shops = Integer.parseInt(args[++i]);
+                    case "--scheduler" -> scheduler = parseScheduler(args[++i]);
+                    case "--epoch" -> epochDays = Integer.parseInt(args[++i]);
+                    case "--chain-csv" -> chainCsv = args[++i];
+                    case "--runs" -> runs = Integer.parseInt(args[++i]);
+                    case "--parallelism" -> parallelism = Integer.parseInt(args[++i]);
+                    case "--summary" -> summaryFile = args[++i];
+                    case "--journal" -> journalDir = args[++i];
+                    case "--snapshot-every" -> snapshotDays = Integer.parseInt(args[++i]);
+                    case "--journal-sync" -> journalSync = true;
+                    case "--replay-to" -> replayDay = Integer.parseInt(args[++i]);
+                    case "--trace" -> traceFile = args[++i];
+                    case "--speed" -> speed = Double.parseDouble(args[++i]);
+                    case "--record" -> recordFile = args[++i];
+                    case "--serve" -> servePort = Integer.parseInt(args[++i]);
+                    case "--queue" -> ingestQueue = Integer.parseInt(args[++i]);
+                    case "--load" -> loadPort = Integer.parseInt(args[++i]);
+                    case "--connections" -> loadConnections = Integer.parseInt(args[++i]);
+                    case "--messages" -> loadMessages = Long.parseLong(args[++i]);
+                    case "--workload" -> workloadFile = args[++i];
+                    case "--metrics" -> metricsPort = Integer.parseInt(args[++i]);
+                    case "--pipeline" -> pipelined = true;
+                    case "--batch-apply" -> batchApply = true;
+                    case "--async-metrics" -> asyncMetrics = true;
+                    case "--flush" ->
+                    {
+                        String[] flush = args[++i].split("=", 2);
+                        flushPolicy = parseFlushPolicy(flush[0]);
+                        flushThreshold = flush.length > 1 ? Long.parseLong(flush[1]) : 0;
+                        if(flushThreshold <= 0 && (flushPolicy == FlushPolicy.BYTES || flushPolicy == FlushPolicy.INTERVAL))
+                        {
+                            throw new IllegalArgumentException("--flush " + flush[0] + " needs a positive value, e.g. " + flush[0] + "=4096");
+                        }
+                    }
+                    default -> throw new IllegalArgumentException("Unknown argument: " + args[i]);
+                }
+            }
+            if(replayDay >= 0 && journalDir == null)
+            {
+                throw new IllegalArgumentException("--replay-to needs --journal DIR");
+            }
+            if(speed != 0 && ((traceFile == null && servePort < 0) || !(speed > 0)))
+            {
+                throw new IllegalArgumentException("--speed needs --trace FILE or --serve PORT, and a positive multiple");
+            }
+            if((traceFile != null ? 1 : 0) + (servePort >= 0 ? 1 : 0) + (workloadFile != null && loadPort < 0 ? 1 : 0) > 1)
+            {
+                throw new IllegalArgumentException("only one of --trace, --serve and --workload can supply the input");
+            }
+            if(pipelined && servePort >= 0)
+            {
+                throw new IllegalArgumentException("--pipeline cannot be used with --serve");
+            }
+            if(pipelined && batchApply)
+            {
+                throw new IllegalArgumentException("--pipeline cannot be used with --batch-apply");
+            }
+            if(batchApply && servePort >= 0)
+            {
+                throw new IllegalArgumentException("--batch-apply cannot be used with --serve");
+            }
+            if(asyncMetrics && metricsPort < 0)
+            {
+                throw new IllegalArgumentException("--async-metrics needs --metrics PORT");
+            }
+            if(runs > 0 && shops > 0)
+            {
+                throw new IllegalArgumentException("--runs cannot be used with --shops");
+            }
+            if((runs > 0 || shops > 0) && (journalDir != null || pipelined || batchApply || metricsPort >= 0 || renderFps > 0 || traceFile != null ||
+                                          recordFile != null || servePort >= 0 || workloadFile != null || loadPort >= 0 || flushPolicy != FlushPolicy.PER_DAY))
+            {
+                throw new IllegalArgumentException((runs > 0 ? "--runs" : "--shops") + " cannot be used with --journal, --pipeline, --batch-apply, --metrics, " +
+                                                   "--render, --trace, --record, --serve, --workload, --load or --flush");
+            }
+        }
+        catch(IllegalArgumentException | ArrayIndexOutOfBoundsException e)
+        {
+            logger.severe(() -> "Invalid command-line arguments: " + e.getMessage());
+            System.out.println("Invalid command-line arguments: " + e.getMessage());
+            System.out.println("Usage: App [--headless] [--days N] [--seed N] [--render FPS] [--flush day|shutdown|bytes=N|ms=N] [--journal DIR [--snapshot-every DAYS] [--journal-sync]] [--record FILE] [--workload FILE] [--pipeline | --batch-apply] [--metrics PORT [--async-metrics]]");
+            System.out.println("       App --trace FILE [--speed X] [--days N] [--record FILE] [--render FPS] [--journal DIR ...] [--pipeline | --batch-apply] [--metrics PORT [--async-metrics]]");
+            System.out.println("       App --serve PORT [--queue N] [--speed X] [--headless --days N] [--record FILE] [--render FPS] [--journal DIR ...] [--metrics PORT [--async-metrics]]");
+            System.out.println("       App --load PORT [--messages N] [--connections C] [--seed N] [--workload FILE]");
+            System.out.println("       App --journal DIR --replay-to DAY");
+            System.out.println("       App --shops N [--days N] [--seed N] [--scheduler forkjoin|virtual] [--epoch DAYS] [--chain-csv FILE]");
+            System.out.println("       App --runs N [--days N] [--seed N] [--parallelism P] [--summary FILE]");
+            return;
+        }
+
+        if(replayDay >= 0)
+        {
+            replayJournal(Path.of(journalDir), replayDay);
+            return;
+        }
+
+        Workload workload = null;
+        if(workloadFile != null)
+        {
+            try
+            {
+                workload = Workload.load(Path.of(workloadFile));
+            }
+            catch(IOException | IllegalArgumentException e)
+            {
+                logger.severe(() -> "Error reading the workload: " + e.getMessage());
+                System.out.println("Error reading the workload: " + e.getMessage());
+                return;
+            }
+        }
+
+        if(loadPort >= 0)
+        {
+            runLoad(loadPort, loadConnections, loadMessages, seed != null ? seed : System.currentTimeMillis(), workload);
+            return;
+        }
+
+        if(runs > 0)
+        {
+            runExperiment(runs, days, seed != null ? seed : System.currentTimeMillis(), parallelism, summaryFile);
+            return;
+        }
+
+        if(shops > 0)
+        {
+            runChain(shops, days, seed != null ? seed : System.currentTimeMillis(), scheduler, epochDays, chainCsv);
+            return;
+        }
+
+        SimulationClock clock;
+        MessageSource input;
+        TraceMessageSource trace = null;
+        IngestServer server = null;
+        if(servePort >= 0)
+        {
+            try
+            {
+                server = new IngestServer(servePort, ingestQueue);
+            }
+            catch(IOException e)
+            {
+                logger.severe(() -> "Error starting the ingest server: " + e.getMessage());
+                System.out.println("Error starting the ingest server: " + e.getMessage());
+                return;
+            }
+            System.out.println("Listening for messages on port " + server.getPort());
+            clock = speed > 0 ? new WallClock(speed) : new WallClock();
+            input = server;
+        }
+        else if(traceFile != null)
+        {
+            try
+            {
+                trace = new TraceMessageSource(Path.of(traceFile));
+            }
+            catch(IOException e)
+            {
+                logger.severe(() -> "Error opening the trace: " + e.getMessage());
+                System.out.println("Error opening the trace: " + e.getMessage());
+                return;
+            }
+            clock = speed > 0 ? new WallClock(speed) : new VirtualClock();
+            input = trace;
+            headless = true;
+            if(!daysGiven)
+            {
+                days = trace.getDayCount();
+            }
+        }
+        else if(workload != null)
+        {
+            clock = headless ? new VirtualClock() : new WallClock();
+            input = new SyntheticMessageSource(workload, seed != null ? seed : System.currentTimeMillis(), clock);
+        }
+        else if(headless)
+        {
+            clock = new VirtualClock();
+            input = new SeededMessageGenerator(seed != null ? seed : System.currentTimeMillis(), clock);
+        }
+        else
+        {
+            clock = new WallClock();
+            input = new BikeShopInputSource(seed != null ? new BikeShopInput(seed) : new BikeShopInput());
+        }
+
+        TraceRecorder recorder = null;
+        if(recordFile != null)
+        {
+            try
+            {
+                recorder = new TraceRecorder(input, Path.of(recordFile));
+                input = recorder;
+            }
+            catch(IOException e)
+            {
+                logger.severe(() -> "Error creating the trace: " + e.getMessage());
+                System.out.println("Error creating the trace: " + e.getMessage());
+                closeInput(trace);
+                closeInput(server);
+                return;
+            }
+        }
+
         BankAccount bankAccount = new BankAccount(15000);
         Inventory inventory = new Inventory();
-        BikeShopView bikeShopView = new BikeShopView();
+        BikeShopView bikeShopView = new BikeShopView(flushPolicy, flushThreshold);
+        if(renderFps > 0)
+        {
+            bikeShopView.setRenderer(new ConsoleRenderer(System.out, renderFps));
+        }
         BikeShopController bikeShopController = new BikeShopController(inventory, bankAccount);
 
-        EventLoop eventLoop = new EventLoop(inp, bikeShopController, inventory, bankAccount, bikeShopView);
+        ShopJournal journal = null;
+        if(journalDir != null)
+        {
+            try
+            {
+                journal = new ShopJournal(Path.of(journalDir), snapshotDays, journalSync);
+            }
+            catch(IOException e)
+            {
+                logger.severe(() -> "Error opening the journal: " + e.getMessage());
+                System.out.println("Error opening the journal: " + e.getMessage());
+                closeInput(recorder);
+                closeInput(trace);
+                closeInput(server);
+                return;
+            }
+        }
+        EventLoop eventLoop = new EventLoop(input, clock, bikeShopController, inventory, bankAccount, bikeShopView, journal);
+        if(server != null)
+        {
+            eventLoop.setResultListener(server);
+        }
+        eventLoop.setPipelined(pipelined);
+        eventLoop.setBatchApply(batchApply);
+        ShopMetrics metrics = null;
+        Observer metricsObserver = null;
+        MetricsHttpServer metricsServer = null;
+        if(metricsPort >= 0)
+        {
+            metrics = new ShopMetrics();
+            metrics.register();
+            eventLoop.setMetrics(metrics);
+            metrics.setModelTotals(bankAccount.getBalance(), inventory.getAvailableBikeCount(), inventory.getServicedBikeCount(), inventory.getAwaitingPickupBikeCount());
+            metricsObserver = asyncMetrics ? new AsyncObserver(metrics) : metrics;
+            bankAccount.addObserver(metricsObserver);
+            inventory.addObserver(metricsObserver);
+            try
+            {
+                metricsServer = new MetricsHttpServer(metricsPort, metrics);
+                System.out.println("Serving metrics at http://127.0.0.1:" + metricsServer.getPort() + "/metrics");
+            }
+            catch(IOException e)
+            {
+                logger.warning(() -> "Error starting the metrics endpoint: " + e.getMessage());
+                System.out.println("Error starting the metrics endpoint (metrics are still published over JMX): " + e.getMessage());
+            }
+        }
+        if(journal != null && !eventLoop.isJournaling())
+        {
+            System.out.println("The journal could not be used; running without it (see the log).");
+        }
 
         try
         {
-            eventLoop.run();
+            if(headless)
+            {
+                eventLoop.runHeadless(days);
+            }
+            else
+            {
+                eventLoop.run();
+            }
         }
         catch(IOException e)
         {
             logger.severe(() -> "Error running the simulation: " + e.getMessage());
             System.out.println("Error running the simulation: " + e.getMessage());
         }
+        finally
+        {
+            closeInput(recorder);
+            closeInput(trace);
+            closeInput(server);
+            closeInput(metricsServer);
+            if(metricsObserver != null)
+            {
+                bankAccount.removeObserver(metricsObserver);
+                inventory.removeObserver(metricsObserver);
+                if(metricsObserver instanceof AsyncObserver asyncObserver)
+                {
+                    asyncObserver.close();
+                }
+            }
+            if(metrics != null)
+            {
+                metrics.unregister();
+            }
+        }
+    }
+
+    /**
+    METHOD: closeInput
+    IMPORT: input (Closeable)
+    EXPORT: None
+    ALGORITHM:
+    Closes a trace reader, recorder, ingest server or metrics endpoint (if there is one), logging rather than propagating any error.
+    */
+    private static void closeInput(Closeable input)
+    {
+        if(input == null)
+        {
+            return;
+        }
+        try
+        {
+            input.close();
+        }
+        catch(IOException e)
+        {
+            logger.warning(() -> "Error closing the input: " + e.getMessage());
+        }
+    }
+
+    /**
+    METHOD: parseFlushPolicy
+    IMPORT: name (String)
+    EXPORT: policy (FlushPolicy)
+    ALGORITHM:
+    Maps a "--flush" option name to its FlushPolicy.
+    */
+    private static FlushPolicy parseFlushPolicy(String name)
+    {
+        return switch(name)
+        {
+            case "day" -> FlushPolicy.PER_DAY;
+            case "shutdown" -> FlushPolicy.SHUTDOWN;
+            case "bytes" -> FlushPolicy.BYTES;
+            case "ms" -> FlushPolicy.INTERVAL;
+            default -> throw new IllegalArgumentException("Unknown flush policy: " + name);
+        };
+    }
+
+    /**
+    METHOD: runChain
+    IMPORT: shops (int), days (int), seed (long), scheduler (ShardScheduler), epochDays (int), chainCsv (String)
+    EXPORT: None
+    ALGORITHM:
+    Runs a chain of isolated shops in parallel and prints the chain-wide summary and throughput, optionally writing per-day chain figures to a CSV file.
+    */
+    private static void runChain(int shops, int days, long seed, ShardScheduler scheduler, int epochDays, String chainCsv)
+    {
+        ChainRunner runner = new ChainRunner(shops, seed, epochDays, scheduler);
+        try(Writer csv = chainCsv == null ? null : Files.newBufferedWriter(Path.of(chainCsv)))
+        {
+            ChainStatistics statistics = runner.run(days, csv);
+            System.out.println(statistics.describe(runner.getShards()));
+            System.out.println(runner.describeThroughput(statistics));
+        }
+        catch(IOException e)
+        {
+            logger.severe(() -> "Error writing the chain statistics: " + e.getMessage());
+            System.out.println("Error writing the chain statistics: " + e.getMessage());
+        }
+        catch(InterruptedException e)
+        {
+            logger.severe(() -> "Chain simulation interrupted: " + e.getMessage());
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+    METHOD: runExperiment
+    IMPORT: runs (int), days (int), seed (long), parallelism (int), summaryFile (String)
+    EXPORT: None
+    ALGORITHM:
+    Runs a Monte Carlo experiment, writes its summary file and prints the summary to the console.
+    */
+    private static void runExperiment(int runs, int days, long seed, int parallelism, String summaryFile)
+    {
+        ExperimentRunner runner = new ExperimentRunner(runs, days, seed, parallelism);
+        long start = System.nanoTime();
+        ExperimentAggregate aggregate = runner.run();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        StringWriter summary = new StringWriter();
+        try
+        {
+            aggregate.writeSummary(summary, runner.describe());
+            Files.writeString(Path.of(summaryFile), summary.toString());
+        }
+        catch(IOException e)
+        {
+            logger.severe(() -> "Error writing the experiment summary: " + e.getMessage());
+            System.out.println("Error writing the experiment summary: " + e.getMessage());
+            return;
+        }
+
+        System.out.print(summary);
+        System.out.println(runs + " runs in " + elapsedMillis + " ms; summary written to " + summaryFile);
+    }
+
+    /**
+    METHOD: replayJournal
+    IMPORT: directory (Path), day (int)
+    EXPORT: None
+    ALGORITHM:
+    Rebuilds the journalled shop as it was at the end of the given day (from the nearest snapshot) and prints its status, a few queries over its customers and bikes, and its message counts.
+    */
+    private static void replayJournal(Path directory, int day)
+    {
+        BankAccount bankAccount = new BankAccount(15000);
+        Inventory inventory = new Inventory();
+        BikeShopController bikeShopController = new BikeShopController(inventory, bankAccount);
+        ResultCounters counters = new ResultCounters();
+        int reached;
+        try
+        {
+            reached = ShopJournal.replayTo(directory, day, inventory, bankAccount, bikeShopController, counters);
+        }
+        catch(IOException e)
+        {
+            logger.severe(() -> "Error reading the journal: " + e.getMessage());
+            System.out.println("Error reading the journal: " + e.getMessage());
+            return;
+        }
+        if(reached < 0)
+        {
+            System.out.println("No journal found in " + directory);
+            return;
+        }
+        if(reached < day)
+        {
+            System.out.println("The journal ends at day " + reached + ".");
+        }
+        BikeShopView.withoutResultsFile().displayStatus(reached, bankAccount, inventory);
+        System.out.println("Customers: " + bikeShopController.getCustomers().size());
+        ShopQueries queries = bikeShopController.getQueries();
+        System.out.println("Customers with bikes in the shop: " + queries.getCustomersWithBikesCount());
+        var top = new StringBuilder();
+        for(Customer customer : queries.getTopCustomersByBikeCount(REPLAY_TOP_CUSTOMERS))
+        {
+            top.append(top.length() == 0 ? "" : ", ").append(customer.getEmail()).append(" (").append(customer.getBikeCount()).append(')');
+        }
+        System.out.println("Top customers by bikes: " + (top.length() == 0 ? "none" : top));
+        System.out.println("Customers waiting more than " + REPLAY_WAITING_DAYS + " days for a pick-up: " + queries.getCustomersAwaitingPickupLongerThan(REPLAY_WAITING_DAYS).size());
+        System.out.println("Bikes in servicing by days since drop-off: " + Arrays.toString(queries.getServicingCountsByDropOffDay()));
+        System.out.println("Total number of input messages: " + counters.getTotal() + "\n" +
+                "Total number of failures: " + counters.getFailures() + counters.describeFailures());
+    }
+
+    /**
+    METHOD: runLoad
+    IMPORT: port (int), connections (int), messages (long), seed (long), workload (Workload)
+    EXPORT: None
+    ALGORITHM:
+    Runs the load generator (with the given workload, or the seeded random stream if it is null) against an ingest server on the given port and prints what it achieved.
+    */
+    private static void runLoad(int port, int connections, long messages, long seed, Workload workload)
+    {
+        try
+        {
+            System.out.println(new LoadClient(port, connections, messages, seed, workload).run());
+        }
+        catch(InterruptedException e)
+        {
+            logger.severe(() -> "Load generator interrupted: " + e.getMessage());
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+    METHOD: parseScheduler
+    IMPORT: name (String)
+    EXPORT: scheduler (ShardScheduler)
+    ALGORITHM:
+    Maps a "--scheduler" option name to its ShardScheduler.
+    */
+    private static ShardScheduler parseScheduler(String name)
+    {
+        return switch(name)
+        {
+            case "forkjoin" -> ShardScheduler.FORK_JOIN;
+            case "virtual" -> ShardScheduler.VIRTUAL_THREADS;
+            default -> throw new IllegalArgumentException("Unknown scheduler: " + name);
+        };
     }
 }
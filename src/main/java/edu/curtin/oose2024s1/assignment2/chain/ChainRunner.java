@@ -0,0 +1,182 @@
+package edu.curtin.oose2024s1.assignment2.chain;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
+
+/**
+Purpose:
+    - Simulates a chain of N fully isolated shops in parallel and aggregates their statistics at day boundaries.
+Role:
+    - Each shop is a ShopShard with its own seeded input (derived from one base seed, so a chain run is reproducible). Shops share no mutable state, and their per-message logging is quieted (see ShopShard), so they scale with the number of cores.
+    - The run advances in epochs: every shop simulates epochDays days as an independent task (on a work-stealing pool or virtual threads), then, with all shops stopped, ChainStatistics folds each day of the epoch into the chain-wide figures.
+    - Longer epochs mean fewer barriers; the epoch length does not change the results.
+*/
+// Runs a multi-shop chain simulation across all cores.
+public class ChainRunner
+{
+    private static final Logger logger = Logger.getLogger(ChainRunner.class.getName());
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final List<ShopShard> shards;
+    private final List<Callable<Void>> tasks;
+    private final int epochDays;
+    private final ShardScheduler scheduler;
+    private int currentEpochDays;
+    private long elapsedNanos;
+
+    /**
+    METHOD: ChainRunner
+    IMPORT: shops (int), baseSeed (long), epochDays (int), scheduler (ShardScheduler)
+    EXPORT: None
+    ALGORITHM:
+    Constructor that quiets shop-level logging, then creates the shops, each seeded with a distinct seed derived from the base seed, and one reusable
+    task per shop.
+    */
+    public ChainRunner(int shops, long baseSeed, int epochDays, ShardScheduler scheduler)
+    {
+        if(shops <= 0 || epochDays <= 0)
+        {
+            throw new IllegalArgumentException("Need at least one shop and one day per epoch: " + shops + " shops, " + epochDays + " days");
+        }
+
+        this.epochDays = epochDays;
+        this.scheduler = scheduler;
+        ShopShard.quietShopLogging();
+        shards = new ArrayList<>(shops);
+        tasks = new ArrayList<>(shops);
+        for(int i = 0; i < shops; i++)
+        {
+            ShopShard shard = new ShopShard(i, shopSeed(baseSeed, i), epochDays);
+            shards.add(shard);
+            tasks.add(() ->
+            {
+                shard.runEpoch(currentEpochDays);
+                return null;
+            });
+        }
+    }
+
+    /**
+    METHOD: run
+    IMPORT: days (int), dailyCsv (Writer)
+    EXPORT: statistics (ChainStatistics)
+    ALGORITHM:
+    Runs every shop for the given number of days, epoch by epoch, aggregating each epoch once all shops have finished it.
+    Writes one chain-wide CSV row per day to dailyCsv, if it is not null.
+    */
+    public ChainStatistics run(int days, Writer dailyCsv) throws IOException, InterruptedException
+    {
+        ChainStatistics statistics = new ChainStatistics(dailyCsv);
+        long start = System.nanoTime();
+        try(ExecutorService executor = createExecutor())
+        {
+            int remaining = days;
+            while(remaining > 0)
+            {
+                currentEpochDays = Math.min(epochDays, remaining);
+                runEpoch(executor);
+                statistics.addEpoch(shards, currentEpochDays);
+                remaining -= currentEpochDays;
+            }
+        }
+        elapsedNanos = System.nanoTime() - start;
+
+        for(ShopShard shard : shards)
+        {
+            shard.finish();
+        }
+        logger.info(() -> "Chain run finished: " + describeThroughput(statistics));
+        return statistics;
+    }
+
+    /**
+    METHOD: getShards
+    IMPORT: None
+    EXPORT: shards (List<ShopShard>)
+    ALGORITHM:
+    Returns the shops of the chain.
+    */
+    public List<ShopShard> getShards()
+    {
+        return shards;
+    }
+
+    /**
+    METHOD: describeThroughput
+    IMPORT: statistics (ChainStatistics)
+    EXPORT: String
+    ALGORITHM:
+    Describes how long the last run took, and its throughput in shop-days and messages per second.
+    */
+    public String describeThroughput(ChainStatistics statistics)
+    {
+        double seconds = elapsedNanos / 1e9;
+        long shopDays = (long) shards.size() * statistics.getTotalDays();
+        return String.format("%d shops on %s (%d cores): %.2f s, %.0f shop-days/s, %.0f messages/s",
+                shards.size(), scheduler, Runtime.getRuntime().availableProcessors(), seconds,
+                shopDays / seconds, statistics.getTotalMessages() / seconds);
+    }
+
+    /**
+    METHOD: runEpoch
+    IMPORT: executor (ExecutorService)
+    EXPORT: None
+    ALGORITHM:
+    Runs every shop's task for the current epoch and waits for all of them; rethrows the first failure.
+    */
+    private void runEpoch(ExecutorService executor) throws InterruptedException
+    {
+        List<Future<Void>> results = executor.invokeAll(tasks);
+        for(int i = 0; i < results.size(); i++)
+        {
+            try
+            {
+                results.get(i).get();
+            }
+            catch(ExecutionException e)
+            {
+                throw new IllegalStateException("Shop " + i + " failed: " + e.getCause(), e.getCause());
+            }
+        }
+    }
+
+    /**
+    METHOD: createExecutor
+    IMPORT: None
+    EXPORT: executor (ExecutorService)
+    ALGORITHM:
+    Creates a work-stealing pool with one worker per core, or a virtual-thread-per-task executor.
+    */
+    private ExecutorService createExecutor()
+    {
+        return switch(scheduler)
+        {
+            case FORK_JOIN -> new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+            case VIRTUAL_THREADS -> Executors.newVirtualThreadPerTaskExecutor();
+        };
+    }
+
+    /**
+    METHOD: shopSeed
+    IMPORT: baseSeed (long), shop (int)
+    EXPORT: seed (long)
+    ALGORITHM:
+    Derives a well-mixed, distinct seed for each shop from the base seed (the SplitMix64 step).
+    */
+    public static long shopSeed(long baseSeed, int shop)
+    {
+        long z = baseSeed + (shop + 1L) * GOLDEN_GAMMA;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
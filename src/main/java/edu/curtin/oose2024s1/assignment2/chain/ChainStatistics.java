@@ -0,0 +1,193 @@
+package edu.curtin.oose2024s1.assignment2.chain;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+Purpose:
+    - Aggregates the end-of-day figures of every shop in a chain into chain-wide statistics, one day at a time.
+Role:
+    - Called by the ChainRunner between epochs, when no shop is running, so it reads the shops' epoch buffers without synchronisation.
+    - Keeps running totals only (fixed memory however many days are simulated); optionally streams one CSV row per day.
+    - Describes the chain-wide and per-shop results at the end of the run.
+*/
+// Chain-wide statistics built at day boundaries.
+public class ChainStatistics
+{
+    private static final int MAX_SHOPS_LISTED = 16;
+    private static final String CSV_HEADER = "day,total_balance,min_shop_balance,max_shop_balance,available,servicing,awaiting_pickup,messages,failures";
+
+    private final Writer dailyCsv;
+    private int days;
+    private long totalMessages;
+    private long totalFailures;
+    private long lowestChainBalance = Long.MAX_VALUE;
+    private int lowestChainBalanceDay;
+    private long finalChainBalance;
+    private long finalAvailable;
+    private long finalServicing;
+    private long finalAwaitingPickup;
+
+    /**
+    METHOD: ChainStatistics
+    IMPORT: dailyCsv (Writer)
+    EXPORT: None
+    ALGORITHM:
+    Constructor; if dailyCsv is not null, writes the CSV header to it and one row per simulated day thereafter.
+    */
+    public ChainStatistics(Writer dailyCsv) throws IOException
+    {
+        this.dailyCsv = dailyCsv;
+        if(dailyCsv != null)
+        {
+            dailyCsv.write(CSV_HEADER);
+            dailyCsv.write(System.lineSeparator());
+        }
+    }
+
+    /**
+    METHOD: addEpoch
+    IMPORT: shards (List<ShopShard>), epochDays (int)
+    EXPORT: None
+    ALGORITHM:
+    For each day of the epoch just run, sums the shops' figures into chain-wide totals and writes that day's CSV row.
+    */
+    public void addEpoch(List<ShopShard> shards, int epochDays) throws IOException
+    {
+        for(int day = 0; day < epochDays; day++)
+        {
+            long chainBalance = 0;
+            long minBalance = Long.MAX_VALUE;
+            long maxBalance = Long.MIN_VALUE;
+            long available = 0;
+            long servicing = 0;
+            long awaitingPickup = 0;
+            long messages = 0;
+            long failures = 0;
+            for(ShopShard shard : shards)
+            {
+                int balance = shard.getBalance(day);
+                chainBalance += balance;
+                minBalance = Math.min(minBalance, balance);
+                maxBalance = Math.max(maxBalance, balance);
+                available += shard.getAvailable(day);
+                servicing += shard.getServicing(day);
+                awaitingPickup += shard.getAwaitingPickup(day);
+                messages += shard.getMessages(day);
+                failures += shard.getFailures(day);
+            }
+
+            days++;
+            totalMessages += messages;
+            totalFailures += failures;
+            if(chainBalance < lowestChainBalance)
+            {
+                lowestChainBalance = chainBalance;
+                lowestChainBalanceDay = days;
+            }
+            finalChainBalance = chainBalance;
+            finalAvailable = available;
+            finalServicing = servicing;
+            finalAwaitingPickup = awaitingPickup;
+
+            if(dailyCsv != null)
+            {
+                dailyCsv.write(days + "," + chainBalance + "," + minBalance + "," + maxBalance + "," +
+                               available + "," + servicing + "," + awaitingPickup + "," + messages + "," + failures);
+                dailyCsv.write(System.lineSeparator());
+            }
+        }
+    }
+
+    /**
+    METHOD: getTotalDays
+    IMPORT: None
+    EXPORT: days (int)
+    ALGORITHM:
+    Returns the number of days aggregated so far.
+    */
+    public int getTotalDays()
+    {
+        return days;
+    }
+
+    /**
+    METHOD: getTotalMessages
+    IMPORT: None
+    EXPORT: count (long)
+    ALGORITHM:
+    Returns the number of messages processed by all shops so far.
+    */
+    public long getTotalMessages()
+    {
+        return totalMessages;
+    }
+
+    /**
+    METHOD: getTotalFailures
+    IMPORT: None
+    EXPORT: count (long)
+    ALGORITHM:
+    Returns the number of failed messages across all shops so far.
+    */
+    public long getTotalFailures()
+    {
+        return totalFailures;
+    }
+
+    /**
+    METHOD: getFinalChainBalance
+    IMPORT: None
+    EXPORT: balance (long)
+    ALGORITHM:
+    Returns the sum of all shops' balances at the end of the last aggregated day.
+    */
+    public long getFinalChainBalance()
+    {
+        return finalChainBalance;
+    }
+
+    /**
+    METHOD: describe
+    IMPORT: shards (List<ShopShard>)
+    EXPORT: String
+    ALGORITHM:
+    Builds the chain-wide summary, the spread of final shop balances, and (for small chains) one line per shop.
+    */
+    public String describe(List<ShopShard> shards)
+    {
+        int lastDay = shards.get(0).getRecordedDays() - 1;
+        int[] finalBalances = new int[shards.size()];
+        for(int i = 0; i < finalBalances.length; i++)
+        {
+            finalBalances[i] = shards.get(i).getBalance(lastDay);
+        }
+        Arrays.sort(finalBalances);
+
+        StringBuilder text = new StringBuilder(256)
+                .append("Chain of ").append(shards.size()).append(" shops after ").append(days).append(" days\n")
+                .append("Total number of input messages: ").append(totalMessages).append('\n')
+                .append("Total number of failures: ").append(totalFailures).append('\n')
+                .append("Total cash across the chain: $").append(finalChainBalance)
+                .append(" (lowest $").append(lowestChainBalance).append(" on day ").append(lowestChainBalanceDay).append(")\n")
+                .append("Shop balances: min $").append(finalBalances[0])
+                .append(", median $").append(finalBalances[finalBalances.length / 2])
+                .append(", max $").append(finalBalances[finalBalances.length - 1]).append('\n')
+                .append("Bikes available / being serviced / awaiting pick-up: ")
+                .append(finalAvailable).append(" / ").append(finalServicing).append(" / ").append(finalAwaitingPickup);
+
+        if(shards.size() <= MAX_SHOPS_LISTED)
+        {
+            for(ShopShard shard : shards)
+            {
+                text.append("\n  Shop ").append(shard.getId())
+                    .append(" (seed ").append(shard.getSeed()).append("): $").append(shard.getBalance(lastDay))
+                    .append(", ").append(shard.getResultCounters().getTotal()).append(" messages, ")
+                    .append(shard.getResultCounters().getFailures()).append(" failures");
+            }
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,15 @@
+package edu.curtin.oose2024s1.assignment2.chain;
+
+/**
+Purpose:
+    - Names how a ChainRunner schedules its shops onto threads.
+Role:
+    - FORK_JOIN runs the shops on a work-stealing ForkJoinPool with one worker per core, so idle workers take shops from busy ones.
+    - VIRTUAL_THREADS runs each shop of an epoch on its own virtual thread (carried by the JDK's own ForkJoinPool).
+*/
+// Enum of schedulers for the multi-shop runner.
+public enum ShardScheduler
+{
+    FORK_JOIN,
+    VIRTUAL_THREADS
+}
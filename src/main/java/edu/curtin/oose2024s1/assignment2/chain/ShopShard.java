@@ -0,0 +1,264 @@
+package edu.curtin.oose2024s1.assignment2.chain;
+
+import edu.curtin.oose2024s1.assignment2.controller.BikeShopController;
+import edu.curtin.oose2024s1.assignment2.controller.EventLoop;
+import edu.curtin.oose2024s1.assignment2.controller.ResultCounters;
+import edu.curtin.oose2024s1.assignment2.input.SeededMessageGenerator;
+import edu.curtin.oose2024s1.assignment2.model.BankAccount;
+import edu.curtin.oose2024s1.assignment2.model.Inventory;
+import edu.curtin.oose2024s1.assignment2.simulation.VirtualClock;
+import edu.curtin.oose2024s1.assignment2.view.BikeShopView;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+Purpose:
+    - One shop of a chain: a complete, isolated simulation (its own clock, seeded input, inventory, bank account, controller and event loop) that can be advanced an epoch at a time.
+Role:
+    - Owns everything it touches, so any thread may run it without locks; the ChainRunner only hands it to one thread at a time, and the epoch barrier orders those hand-offs.
+    - Records its end-of-day figures for the current epoch in small preallocated arrays, which the ChainRunner reads between epochs.
+    - Writes no results file; only the statistics are kept.
+    - The model, controller and view classes log through shared static loggers (a WARNING per failed message, INFO per event), and every shard would write
+      through the same console and file handlers. Runners that build shards call quietShopLogging() first, so only SEVERE records get through; failures are
+      still counted per shop in its ResultCounters.
+*/
+// A single isolated shop of a simulated chain.
+public class ShopShard
+{
+    private static final int INITIAL_BALANCE = 15000;
+    private static final String[] SHOP_PACKAGES = { "controller", "model", "state", "observer", "factory", "input", "view" };
+
+    // Strong references, so the LogManager cannot discard the package loggers (and their levels)
+    private static final List<Logger> QUIETED_LOGGERS = new ArrayList<>();
+
+    private final int id;
+    private final long seed;
+    private final Inventory inventory;
+    private final BankAccount bankAccount;
+    private final EventLoop eventLoop;
+    private final ResultCounters resultCounters;
+
+    // End-of-day figures for each day of the current epoch
+    private final int[] balance;
+    private final int[] available;
+    private final int[] servicing;
+    private final int[] awaitingPickup;
+    private final long[] messages;
+    private final long[] failures;
+    private int recordedDays;
+    private long lastTotal;
+    private long lastFailures;
+
+    /**
+    METHOD: ShopShard
+    IMPORT: id (int), seed (long), epochDays (int)
+    EXPORT: None
+    ALGORITHM:
+    Constructor that wires up a fresh shop, driven by a seeded message generator on its own virtual clock, with room to record epochDays days.
+    */
+    public ShopShard(int id, long seed, int epochDays)
+    {
+        this.id = id;
+        this.seed = seed;
+
+        VirtualClock clock = new VirtualClock();
+        inventory = new Inventory();
+        bankAccount = new BankAccount(INITIAL_BALANCE);
+        BikeShopController controller = new BikeShopController(inventory, bankAccount);
+        eventLoop = new EventLoop(new SeededMessageGenerator(seed, clock), clock, controller, inventory, bankAccount, BikeShopView.withoutResultsFile());
+        resultCounters = eventLoop.getResultCounters();
+
+        balance = new int[epochDays];
+        available = new int[epochDays];
+        servicing = new int[epochDays];
+        awaitingPickup = new int[epochDays];
+        messages = new long[epochDays];
+        failures = new long[epochDays];
+    }
+
+    /**
+    METHOD: quietShopLogging
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Raises the level of the loggers of every package a shard runs code from to SEVERE, for the rest of the process. The chain and experiment runners' own
+    loggers are left alone.
+    */
+    public static synchronized void quietShopLogging()
+    {
+        if(!QUIETED_LOGGERS.isEmpty())
+        {
+            return;
+        }
+        String root = ShopShard.class.getPackageName().substring(0, ShopShard.class.getPackageName().lastIndexOf('.') + 1);
+        for(String name : SHOP_PACKAGES)
+        {
+            Logger packageLogger = Logger.getLogger(root + name);
+            packageLogger.setLevel(Level.SEVERE);
+            QUIETED_LOGGERS.add(packageLogger);
+        }
+    }
+
+    /**
+    METHOD: runEpoch
+    IMPORT: days (int)
+    EXPORT: None
+    ALGORITHM:
+    Simulates the given number of days (at most epochDays), recording the shop's figures at the end of each day.
+    */
+    public void runEpoch(int days)
+    {
+        recordedDays = 0;
+        for(int day = 0; day < days; day++)
+        {
+            eventLoop.runDays(1);
+
+            long total = resultCounters.getTotal();
+            long failed = resultCounters.getFailures();
+            balance[day] = bankAccount.getBalance();
+            available[day] = inventory.getAvailableBikeCount();
+            servicing[day] = inventory.getServicedBikeCount();
+            awaitingPickup[day] = inventory.getAwaitingPickupBikeCount();
+            messages[day] = total - lastTotal;
+            failures[day] = failed - lastFailures;
+            lastTotal = total;
+            lastFailures = failed;
+            recordedDays++;
+        }
+    }
+
+    /**
+    METHOD: finish
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Ends the shop's simulation (nothing is printed).
+    */
+    public void finish()
+    {
+        eventLoop.finishQuietly();
+    }
+
+    /**
+    METHOD: getId
+    IMPORT: None
+    EXPORT: id (int)
+    ALGORITHM:
+    Returns the shop's index within the chain.
+    */
+    public int getId()
+    {
+        return id;
+    }
+
+    /**
+    METHOD: getSeed
+    IMPORT: None
+    EXPORT: seed (long)
+    ALGORITHM:
+    Returns the seed of the shop's message generator.
+    */
+    public long getSeed()
+    {
+        return seed;
+    }
+
+    /**
+    METHOD: getRecordedDays
+    IMPORT: None
+    EXPORT: days (int)
+    ALGORITHM:
+    Returns how many days of the current epoch have been recorded.
+    */
+    public int getRecordedDays()
+    {
+        return recordedDays;
+    }
+
+    /**
+    METHOD: getBalance
+    IMPORT: day (int)
+    EXPORT: balance (int)
+    ALGORITHM:
+    Returns the bank balance at the end of the given day of the current epoch.
+    */
+    public int getBalance(int day)
+    {
+        return balance[day];
+    }
+
+    /**
+    METHOD: getAvailable
+    IMPORT: day (int)
+    EXPORT: count (int)
+    ALGORITHM:
+    Returns the number of bikes available at the end of the given day of the current epoch.
+    */
+    public int getAvailable(int day)
+    {
+        return available[day];
+    }
+
+    /**
+    METHOD: getServicing
+    IMPORT: day (int)
+    EXPORT: count (int)
+    ALGORITHM:
+    Returns the number of bikes being serviced at the end of the given day of the current epoch.
+    */
+    public int getServicing(int day)
+    {
+        return servicing[day];
+    }
+
+    /**
+    METHOD: getAwaitingPickup
+    IMPORT: day (int)
+    EXPORT: count (int)
+    ALGORITHM:
+    Returns the number of bikes awaiting pick-up at the end of the given day of the current epoch.
+    */
+    public int getAwaitingPickup(int day)
+    {
+        return awaitingPickup[day];
+    }
+
+    /**
+    METHOD: getMessages
+    IMPORT: day (int)
+    EXPORT: count (long)
+    ALGORITHM:
+    Returns the number of messages processed on the given day of the current epoch.
+    */
+    public long getMessages(int day)
+    {
+        return messages[day];
+    }
+
+    /**
+    METHOD: getFailures
+    IMPORT: day (int)
+    EXPORT: count (long)
+    ALGORITHM:
+    Returns the number of failed messages on the given day of the current epoch.
+    */
+    public long getFailures(int day)
+    {
+        return failures[day];
+    }
+
+    /**
+    METHOD: getResultCounters
+    IMPORT: None
+    EXPORT: counters (ResultCounters)
+    ALGORITHM:
+    Returns the shop's per-outcome counters for the whole run so far.
+    */
+    public ResultCounters getResultCounters()
+    {
+        return resultCounters;
+    }
+}
@@ -0,0 +1,93 @@
+package edu.curtin.oose2024s1.assignment2.command;
+
+import java.nio.ByteBuffer;
+
+/**
+Purpose:
+    - A reusable CharSequence view over ASCII bytes in a ByteBuffer.
+Role:
+    - Lets the MessageParser decode messages straight out of a byte buffer (e.g. a mapped file or socket buffer) without first decoding them into Strings.
+*/
+// Re-pointable ASCII view over a ByteBuffer region.
+public class ByteSlice implements CharSequence
+{
+    private ByteBuffer buffer = ByteBuffer.allocate(0);
+    private int offset;
+    private int length;
+
+    /**
+    METHOD: wrap
+    IMPORT: buffer (ByteBuffer), offset (int), length (int)
+    EXPORT: this (ByteSlice)
+    ALGORITHM:
+    Points the slice at length bytes of buffer starting at the absolute index offset.
+    */
+    public ByteSlice wrap(ByteBuffer buffer, int offset, int length)
+    {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+        return this;
+    }
+
+    /**
+    METHOD: length
+    IMPORT: None
+    EXPORT: length (int)
+    ALGORITHM:
+    Returns the number of bytes (characters) in the slice.
+    */
+    @Override
+    public int length()
+    {
+        return length;
+    }
+
+    /**
+    METHOD: charAt
+    IMPORT: index (int)
+    EXPORT: char
+    ALGORITHM:
+    Returns the byte at index as an unsigned ASCII/Latin-1 character.
+    */
+    @Override
+    public char charAt(int index)
+    {
+        if(index < 0 || index >= length)
+        {
+            throw new IndexOutOfBoundsException("Index " + index + " outside slice of length " + length);
+        }
+        return (char)(buffer.get(offset + index) & 0xFF);
+    }
+
+    /**
+    METHOD: subSequence
+    IMPORT: from (int), to (int)
+    EXPORT: CharSequence
+    ALGORITHM:
+    Returns a copy of the requested sub-range as a String.
+    */
+    @Override
+    public CharSequence subSequence(int from, int to)
+    {
+        var sb = new StringBuilder(to - from);
+        for(int i = from; i < to; i++)
+        {
+            sb.append(charAt(i));
+        }
+        return sb.toString();
+    }
+
+    /**
+    METHOD: toString
+    IMPORT: None
+    EXPORT: String
+    ALGORITHM:
+    Copies the whole slice into a new String.
+    */
+    @Override
+    public String toString()
+    {
+        return subSequence(0, length).toString();
+    }
+}
@@ -0,0 +1,87 @@
+package edu.curtin.oose2024s1.assignment2.command;
+
+/**
+Purpose:
+    - A reusable, read-only view of part of another CharSequence.
+Role:
+    - Used to hand the email portion of a message to the controller without copying it into a new String.
+    - The view is only valid until it is re-wrapped, so callers that need to keep the text must call toString().
+*/
+// Re-pointable view over a range of characters.
+public class CharSlice implements CharSequence
+{
+    private CharSequence source = "";
+    private int start;
+    private int end;
+
+    /**
+    METHOD: wrap
+    IMPORT: source (CharSequence), start (int), end (int)
+    EXPORT: this (CharSlice)
+    ALGORITHM:
+    Points the slice at characters [start, end) of source.
+    */
+    public CharSlice wrap(CharSequence source, int start, int end)
+    {
+        this.source = source;
+        this.start = start;
+        this.end = end;
+        return this;
+    }
+
+    /**
+    METHOD: length
+    IMPORT: None
+    EXPORT: length (int)
+    ALGORITHM:
+    Returns the number of characters in the slice.
+    */
+    @Override
+    public int length()
+    {
+        return end - start;
+    }
+
+    /**
+    METHOD: charAt
+    IMPORT: index (int)
+    EXPORT: char
+    ALGORITHM:
+    Returns the character at index, relative to the start of the slice.
+    */
+    @Override
+    public char charAt(int index)
+    {
+        if(index < 0 || index >= end - start)
+        {
+            throw new IndexOutOfBoundsException("Index " + index + " outside slice of length " + (end - start));
+        }
+        return source.charAt(start + index);
+    }
+
+    /**
+    METHOD: subSequence
+    IMPORT: from (int), to (int)
+    EXPORT: CharSequence
+    ALGORITHM:
+    Returns the requested sub-range of the underlying source.
+    */
+    @Override
+    public CharSequence subSequence(int from, int to)
+    {
+        return source.subSequence(start + from, start + to);
+    }
+
+    /**
+    METHOD: toString
+    IMPORT: None
+    EXPORT: String
+    ALGORITHM:
+    Copies the slice into a new String.
+    */
+    @Override
+    public String toString()
+    {
+        return source.subSequence(start, end).toString();
+    }
+}
@@ -0,0 +1,57 @@
+package edu.curtin.oose2024s1.assignment2.command;
+
+/**
+Purpose:
+    - Holds one decoded input message: its type and (if present) the email that follows it.
+Role:
+    - A single instance is reused for every message, so decoding and dispatching a message does not allocate.
+    - The email is a view into the original message and is only valid until the next message is parsed into this command.
+*/
+// Reusable decoded message.
+public class Command
+{
+    private final CharSlice email = new CharSlice();
+    private MessageType type = MessageType.INVALID;
+    private boolean hasEmail;
+
+    /**
+    METHOD: set
+    IMPORT: type (MessageType), source (CharSequence), emailStart (int), emailEnd (int)
+    EXPORT: None
+    ALGORITHM:
+    Stores the type and points the email view at [emailStart, emailEnd) of source. A negative emailStart means the message had no email part.
+    */
+    public void set(MessageType type, CharSequence source, int emailStart, int emailEnd)
+    {
+        this.type = type;
+        this.hasEmail = emailStart >= 0;
+        if(hasEmail)
+        {
+            email.wrap(source, emailStart, emailEnd);
+        }
+    }
+
+    /**
+    METHOD: getType
+    IMPORT: None
+    EXPORT: type (MessageType)
+    ALGORITHM:
+    Returns the decoded message type.
+    */
+    public MessageType getType()
+    {
+        return type;
+    }
+
+    /**
+    METHOD: getEmail
+    IMPORT: None
+    EXPORT: email (CharSequence)
+    ALGORITHM:
+    Returns a view of the email part of the message, or null if the message had none.
+    */
+    public CharSequence getEmail()
+    {
+        return hasEmail ? email : null;
+    }
+}
@@ -0,0 +1,75 @@
+package edu.curtin.oose2024s1.assignment2.command;
+
+import java.nio.ByteBuffer;
+
+/**
+Purpose:
+    - Decodes raw input messages into a reusable Command without allocating.
+Role:
+    - Splits a message at its first space into a type and an email (the same rule as message.split(" ", 2)), matches the type against MessageType, and rejects malformed input as early as possible.
+    - Random "screw-up" lines are usually rejected on the first character, since every valid type starts with 'D' or 'P'.
+*/
+// Allocation-free message decoder.
+public class MessageParser
+{
+    private final ByteSlice bytes = new ByteSlice();
+
+    /**
+    METHOD: parse
+    IMPORT: message (CharSequence), command (Command)
+    EXPORT: valid (boolean)
+    ALGORITHM:
+    Decodes message into command and returns true if the type is recognised (otherwise the command's type is INVALID).
+    */
+    public boolean parse(CharSequence message, Command command)
+    {
+        int length = message.length();
+        if(length == 0)
+        {
+            command.set(MessageType.INVALID, message, -1, -1);
+            return false;
+        }
+
+        char first = message.charAt(0);
+        if(first != 'D' && first != 'P')
+        {
+            command.set(MessageType.INVALID, message, -1, -1);
+            return false;
+        }
+
+        // Only look as far as the longest type name (plus its trailing space).
+        int limit = Math.min(length, MessageType.MAX_NAME_LENGTH + 1);
+        int space = -1;
+        for(int i = 1; i < limit && space < 0; i++)
+        {
+            if(message.charAt(i) == ' ')
+            {
+                space = i;
+            }
+        }
+
+        int typeEnd = space >= 0 ? space : length;
+        MessageType type = typeEnd <= MessageType.MAX_NAME_LENGTH ? MessageType.match(message, typeEnd) : MessageType.INVALID;
+        if(space >= 0)
+        {
+            command.set(type, message, space + 1, length);
+        }
+        else
+        {
+            command.set(type, message, -1, -1);
+        }
+        return type != MessageType.INVALID;
+    }
+
+    /**
+    METHOD: parse
+    IMPORT: buffer (ByteBuffer), offset (int), length (int), command (Command)
+    EXPORT: valid (boolean)
+    ALGORITHM:
+    Decodes an ASCII message held in buffer at [offset, offset + length). The command's email view refers to the buffer, so it is only valid while those bytes are unchanged.
+    */
+    public boolean parse(ByteBuffer buffer, int offset, int length, Command command)
+    {
+        return parse(bytes.wrap(buffer, offset, length), command);
+    }
+}
@@ -0,0 +1,88 @@
+package edu.curtin.oose2024s1.assignment2.command;
+
+/**
+Purpose:
+    - Enumerates the message types understood by the bike shop, along with the exact text each one has on the wire.
+Role:
+    - Lets the controller switch on a typed value instead of comparing strings, and lets the parser match a type name without allocating.
+*/
+// Enumeration of input message types.
+public enum MessageType
+{
+    DELIVERY("DELIVERY"),
+    DROP_OFF("DROP-OFF"),
+    PURCHASE_ONLINE("PURCHASE-ONLINE"),
+    PURCHASE_IN_STORE("PURCHASE-IN-STORE"),
+    PICK_UP("PICK-UP"),
+    INVALID("");
+
+    // Longest wire name (PURCHASE-IN-STORE); anything longer cannot be a valid type.
+    public static final int MAX_NAME_LENGTH = 17;
+
+    private static final MessageType[] VALID_TYPES = {DELIVERY, DROP_OFF, PURCHASE_ONLINE, PURCHASE_IN_STORE, PICK_UP};
+
+    private final String wireName;
+
+    /**
+    METHOD: MessageType
+    IMPORT: wireName (String)
+    EXPORT: None
+    ALGORITHM:
+    Constructor that stores the text form of the type.
+    */
+    MessageType(String wireName)
+    {
+        this.wireName = wireName;
+    }
+
+    /**
+    METHOD: getWireName
+    IMPORT: None
+    EXPORT: wireName (String)
+    ALGORITHM:
+    Returns the text form of the type as it appears in input messages.
+    */
+    public String getWireName()
+    {
+        return wireName;
+    }
+
+    /**
+    METHOD: match
+    IMPORT: text (CharSequence), length (int)
+    EXPORT: type (MessageType)
+    ALGORITHM:
+    Compares the first length characters of text against each valid wire name and returns the matching type, or INVALID if none match.
+    */
+    public static MessageType match(CharSequence text, int length)
+    {
+        for(MessageType type : VALID_TYPES)
+        {
+            String name = type.wireName;
+            if(name.length() == length && regionEquals(name, text, length))
+            {
+                return type;
+            }
+        }
+        return INVALID;
+    }
+
+    /**
+    METHOD: regionEquals
+    IMPORT: name (String), text (CharSequence), length (int)
+    EXPORT: boolean
+    ALGORITHM:
+    Returns true if the first length characters of name and text are identical.
+    */
+    private static boolean regionEquals(String name, CharSequence text, int length)
+    {
+        for(int i = 0; i < length; i++)
+        {
+            if(name.charAt(i) != text.charAt(i))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+}
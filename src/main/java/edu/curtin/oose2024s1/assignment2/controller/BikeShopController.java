@@ -1,12 +1,14 @@
 package edu.curtin.oose2024s1.assignment2.controller;
 
+import edu.curtin.oose2024s1.assignment2.command.Command;
+import edu.curtin.oose2024s1.assignment2.command.MessageParser;
+import edu.curtin.oose2024s1.assignment2.command.MessageType;
 import edu.curtin.oose2024s1.assignment2.factory.BikeFactory;
 import edu.curtin.oose2024s1.assignment2.model.*;
-import edu.curtin.oose2024s1.assignment2.state.AvailableState;
-import edu.curtin.oose2024s1.assignment2.state.AwaitingPickupState;
+import edu.curtin.oose2024s1.assignment2.query.ShopQueries;
+import edu.curtin.oose2024s1.assignment2.state.BikeStateType;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
@@ -21,11 +23,17 @@ Reference:
 public class BikeShopController
 {
     private static final Logger logger = Logger.getLogger(BikeShopController.class.getName());
+    private static final int BIKES_PER_DELIVERY = 10;
+    private static final int DELIVERY_COST = 5000;
+    private static final int IN_STORE_PRICE = 1000;
 
     private final Inventory inventory;
     private final BankAccount bankAccount;
     private final BikeFactory bikeFactory;
-    private final Map<String, Customer> customers = new HashMap<>();
+    private final CustomerDirectory customers = new CustomerDirectory();
+    private final ShopQueries queries;
+    private final MessageParser messageParser = new MessageParser();
+    private final Command command = new Command();
 
     /**
     METHOD: BikeShopController
@@ -39,234 +47,480 @@ public class BikeShopController
         this.inventory = inventory;
         this.bankAccount = bankAccount;
         this.bikeFactory = new BikeFactory();
+        this.queries = new ShopQueries(inventory, customers);
+    }
+
+    /**
+    METHOD: getCustomers
+    IMPORT: None
+    EXPORT: customers (CustomerDirectory)
+    ALGORITHM:
+    Returns the directory of customers the controller has seen (read when writing a snapshot, filled when loading one).
+    */
+    public CustomerDirectory getCustomers()
+    {
+        return customers;
+    }
+
+    /**
+    METHOD: getQueries
+    IMPORT: None
+    EXPORT: queries (ShopQueries)
+    ALGORITHM:
+    Returns the indexed queries over this controller's inventory and customers.
+    */
+    public ShopQueries getQueries()
+    {
+        return queries;
     }
 
     /**
      METHOD: processMessage
-     IMPORT: message (String)
+     IMPORT: message (CharSequence)
      EXPORT: String (indicating success or failure message)
      ALGORITHM:
-     Processes the input message and delegates to the appropriate handler based on message type.
+     Processes the message and returns the human-readable result text. Callers that do not need the text should use process() instead.
+     */
+    public String processMessage(CharSequence message)
+    {
+        return describe(process(message));
+    }
+
+    /**
+     METHOD: process
+     IMPORT: message (CharSequence)
+     EXPORT: code (ResultCode)
+     ALGORITHM:
+     Parses the input message into the reusable command and dispatches it to the appropriate handler based on message type. Does not build any result text.
      */
-    public String processMessage(String message)
+    public ResultCode process(CharSequence message)
     {
-        if(message == null || message.isEmpty())
+        if(message == null || message.length() == 0)
         {
             logger.warning("Received invalid message.");
-            return "FAILURE: Invalid message.";
+            command.set(MessageType.INVALID, message, -1, -1);
+            return ResultCode.FAIL_INVALID_MESSAGE;
         }
 
-        String[] parts = message.split(" ", 2);
-        String type = parts[0];
-        String email = parts.length > 1 ? parts[1] : null;
-
-        String result = switch (type) {
-            case "DELIVERY" -> handleDelivery();
-            case "DROP-OFF" -> handleDropOff(email);
-            case "PURCHASE-ONLINE" -> handlePurchaseOnline(email);
-            case "PURCHASE-IN-STORE" -> handlePurchaseInStore();
-            case "PICK-UP" -> handlePickUp(email);
-            default -> "FAILURE: Invalid message type.";
-        };
+        messageParser.parse(message, command);
+        ResultCode result = dispatch(command);
+        logResult(result, command);
+        return result;
+    }
 
-        if(result.startsWith("FAILURE"))
+    /**
+     METHOD: apply
+     IMPORT: decoded (Command), precheck (ResultCode)
+     EXPORT: code (ResultCode)
+     ALGORITHM:
+     Applies a message decoded elsewhere (e.g. by a pipeline's parse stage), or, if a pre-check has already decided its failure (non-null precheck), just reports that.
+     Logs the result as process() does.
+     */
+    public ResultCode apply(Command decoded, ResultCode precheck)
+    {
+        if(precheck == ResultCode.FAIL_INVALID_MESSAGE)
         {
-            logger.warning(result);
+            logger.warning("Received invalid message.");
+            return precheck;
         }
-        else
+        ResultCode result = precheck == null ? dispatch(decoded) : precheck;
+        logResult(result, decoded);
+        return result;
+    }
+
+    /**
+     METHOD: applyDay
+     IMPORT: batch (CommandBatch)
+     EXPORT: None
+     ALGORITHM:
+     Applies a whole day's messages in order and stores each one's result in the batch. The results, log messages and final state of the shop are the same as
+     processing the messages one by one, but each run of consecutive in-store purchases is applied as one bulk removal from the inventory and one deposit,
+     and each run of consecutive deliveries as one bulk addition and one withdrawal, so observers see one change per run rather than several per message.
+     getLastMessageType() and describe() are not updated; read the results (and the messages' emails) from the batch instead.
+     */
+    public void applyDay(CommandBatch batch)
+    {
+        int size = batch.size();
+        int from = 0;
+        while(from < size)
         {
-            logger.info(result);
-        }
+            MessageType type = batch.getCommand(from).getType();
+            int to = from + 1;
+            if(type == MessageType.PURCHASE_IN_STORE || type == MessageType.DELIVERY)
+            {
+                while(to < size && batch.getCommand(to).getType() == type)
+                {
+                    to++;
+                }
+            }
 
-        return result;
+            if(batch.isEmptyMessage(from))
+            {
+                logger.warning("Received invalid message.");
+                batch.setResult(from, ResultCode.FAIL_INVALID_MESSAGE);
+            }
+            else if(type == MessageType.PURCHASE_IN_STORE)
+            {
+                applyPurchasesInStore(batch, from, to);
+            }
+            else if(type == MessageType.DELIVERY)
+            {
+                applyDeliveries(batch, from, to);
+            }
+            else
+            {
+                Command decoded = batch.getCommand(from);
+                ResultCode result = dispatch(decoded);
+                logResult(result, decoded);
+                batch.setResult(from, result);
+            }
+            from = to;
+        }
     }
 
     /**
-     METHOD: handleDelivery
+     METHOD: getLastMessageType
      IMPORT: None
-     EXPORT: String (result message)
+     EXPORT: type (MessageType)
      ALGORITHM:
-     Handles the "DELIVERY" message by adding bikes to the inventory and deducting the cost from the bank account if conditions are met.
+     Returns the type of the most recently processed message (INVALID if it could not be decoded), e.g. so its handling time can be attributed to it.
      */
-    private String handleDelivery()
+    public MessageType getLastMessageType()
     {
-        boolean notEnoughSpace = inventory.getAvailableBikeCount() + inventory.getServicedBikeCount() + inventory.getAwaitingPickupBikeCount() > 90;
-        boolean notEnoughCash = bankAccount.getBalance() < 10000;
+        return command.getType();
+    }
 
-        if (notEnoughSpace && notEnoughCash)
+    /**
+     METHOD: describe
+     IMPORT: code (ResultCode)
+     EXPORT: code (ResultCode)
+     ALGORITHM:
+     Builds the result text for code using the email of the most recently processed message (only valid until the next message is processed).
+     */
+    public String describe(ResultCode code)
+    {
+        return code.format(command.getEmail());
+    }
+
+    /**
+     METHOD: logResult
+     IMPORT: result (ResultCode), decoded (Command)
+     EXPORT: None
+     ALGORITHM:
+     Logs a failure as a warning and a success as info, only building the text if it will be logged.
+     */
+    private void logResult(ResultCode result, Command decoded)
+    {
+        if(result.isFailure())
         {
-            return "FAILURE: Not enough space AND not enough cash to purchase new bikes";
+            if(logger.isLoggable(Level.WARNING))
+            {
+                logger.warning(result.format(decoded.getEmail()));
+            }
         }
-        else if (notEnoughSpace)
+        else if(logger.isLoggable(Level.INFO))
         {
-            return "FAILURE: Not enough space (to store more bikes)";
+            logger.info(result.format(decoded.getEmail()));
         }
-        else if (notEnoughCash)
+    }
+
+    /**
+     METHOD: applyPurchasesInStore
+     IMPORT: batch (CommandBatch), from (int), to (int)
+     EXPORT: None
+     ALGORITHM:
+     Applies the run of in-store purchases at [from, to) of the batch: the first of them (as many as there are available bikes) each take the next bike, the rest fail
+     with FAIL_NO_BIKES. The bikes are taken in one bulk removal and every successful sale is paid for in one deposit, as handlePurchaseInStore() would for each message;
+     observers see the same changes (and mutation count) as they would from the messages one by one.
+     */
+    private void applyPurchasesInStore(CommandBatch batch, int from, int to)
+    {
+        int taken = inventory.takeAvailableBikes(to - from, (bike, i) ->
+                batch.setResult(from + i, bike.tryPurchase() ? ResultCode.SUCCESS_PURCHASE_IN_STORE : ResultCode.FAIL_BIKE_NOT_AVAILABLE));
+
+        int sold = 0;
+        for(int i = from; i < to; i++)
         {
-            return "FAILURE: Not enough cash (for the shop to purchase new bikes)";
+            if(i >= from + taken)
+            {
+                batch.setResult(i, ResultCode.FAIL_NO_BIKES);
+            }
+            else if(batch.getResult(i) == ResultCode.SUCCESS_PURCHASE_IN_STORE)
+            {
+                sold++;
+            }
         }
-        else
+        if(sold > 0)
+        {
+            bankAccount.depositPayments(IN_STORE_PRICE, sold);
+        }
+
+        for(int i = from; i < to; i++)
+        {
+            logResult(batch.getResult(i), batch.getCommand(i));
+        }
+    }
+
+    /**
+     METHOD: applyDeliveries
+     IMPORT: batch (CommandBatch), from (int), to (int)
+     EXPORT: None
+     ALGORITHM:
+     Applies the run of deliveries at [from, to) of the batch. Each delivery is checked against the occupancy and balance the ones before it would have left,
+     then all the accepted deliveries' bikes are added in one bulk addition and paid for in one withdrawal, as handleDelivery() would for each message
+     (again with the same changes for observers).
+     The withdrawal cannot fail: each accepted delivery needed at least twice its cost in the account.
+     */
+    private void applyDeliveries(CommandBatch batch, int from, int to)
+    {
+        int occupancy = inventory.getOccupancy();
+        int balance = bankAccount.getBalance();
+        int accepted = 0;
+        for(int i = from; i < to; i++)
+        {
+            ResultCode result = deliveryOutcome(occupancy, balance);
+            if(result == ResultCode.SUCCESS_DELIVERY)
+            {
+                occupancy += BIKES_PER_DELIVERY;
+                balance -= DELIVERY_COST;
+                accepted++;
+            }
+            batch.setResult(i, result);
+        }
+        if(accepted > 0)
+        {
+            inventory.addAvailableBikes(accepted * BIKES_PER_DELIVERY, bikeFactory::createBike);
+            bankAccount.withdrawPayments(DELIVERY_COST, accepted);
+        }
+
+        for(int i = from; i < to; i++)
+        {
+            ResultCode result = batch.getResult(i);
+            if(result == ResultCode.SUCCESS_DELIVERY)
+            {
+                logger.info("DELIVERY accepted: 10 bikes added.");
+            }
+            logResult(result, batch.getCommand(i));
+        }
+    }
+
+    /**
+     METHOD: dispatch
+     IMPORT: command (Command)
+     EXPORT: code (ResultCode)
+     ALGORITHM:
+     Delegates an already-decoded command to the handler for its type.
+     */
+    private ResultCode dispatch(Command command)
+    {
+        CharSequence email = command.getEmail();
+        return switch (command.getType()) {
+            case DELIVERY -> handleDelivery();
+            case DROP_OFF -> handleDropOff(email);
+            case PURCHASE_ONLINE -> handlePurchaseOnline(email);
+            case PURCHASE_IN_STORE -> handlePurchaseInStore();
+            case PICK_UP -> handlePickUp(email);
+            case INVALID -> ResultCode.FAIL_INVALID_TYPE;
+        };
+    }
+
+    /**
+     METHOD: handleDelivery
+     IMPORT: None
+     EXPORT: code (ResultCode)
+     ALGORITHM:
+     Handles the "DELIVERY" message by adding bikes to the inventory and deducting the cost from the bank account if conditions are met.
+     */
+    private ResultCode handleDelivery()
+    {
+        ResultCode result = deliveryOutcome(inventory.getOccupancy(), bankAccount.getBalance());
+        if (result == ResultCode.SUCCESS_DELIVERY)
         {
-            for(int i = 0; i < 10; i++)
+            for(int i = 0; i < BIKES_PER_DELIVERY; i++)
             {
                 Bike bike = bikeFactory.createBike(); // Use factory to create bikes
                 inventory.addAvailableBike(bike);
             }
-            bankAccount.withdraw(5000);
+            bankAccount.withdraw(DELIVERY_COST);
             logger.info("DELIVERY accepted: 10 bikes added.");
-            return "DELIVERY";
         }
+        return result;
+    }
+
+    /**
+     METHOD: deliveryOutcome
+     IMPORT: occupancy (int), balance (int)
+     EXPORT: code (ResultCode)
+     ALGORITHM:
+     Decides whether a delivery is accepted given the shop's occupancy and balance: it needs room (at most 90 bikes) and at least $10000 in the account.
+     */
+    private static ResultCode deliveryOutcome(int occupancy, int balance)
+    {
+        boolean notEnoughSpace = occupancy > 90;
+        boolean notEnoughCash = balance < 10000;
+
+        if (notEnoughSpace && notEnoughCash)
+        {
+            return ResultCode.FAIL_NO_SPACE_AND_CASH;
+        }
+        else if (notEnoughSpace)
+        {
+            return ResultCode.FAIL_NO_SPACE_FOR_DELIVERY;
+        }
+        else if (notEnoughCash)
+        {
+            return ResultCode.FAIL_NO_CASH;
+        }
+        return ResultCode.SUCCESS_DELIVERY;
     }
 
     /**
      METHOD: handleDropOff
-     IMPORT: email (String)
-     EXPORT: String (result message)
+     IMPORT: email (CharSequence)
+     EXPORT: code (ResultCode)
      ALGORITHM:
      Handles the "DROP-OFF" message by adding a bike to the serviced bikes if conditions are met.
      */
-    private String handleDropOff(String email)
+    private ResultCode handleDropOff(CharSequence email)
     {
-        if(email != null && inventory.getAvailableBikeCount() + inventory.getServicedBikeCount() + inventory.getAwaitingPickupBikeCount() <= 99)
+        if(email != null && inventory.getOccupancy() <= 99)
         {
+            Customer customer = customers.findOrCreate(email);
             Bike bike = bikeFactory.createBike(); // Use factory to create bikes
-            bike.setAssociatedEmail(email);
-            bike.dropOff();
+            bike.setAssociatedEmail(customer.getEmail());
+            if (!bike.tryDropOff())
+            {
+                logger.warning("Unknown drop-off error.");
+                return ResultCode.FAIL_UNKNOWN_DROP_OFF;
+            }
+            // Add bike to customer (first, so inventory changes can report the customer's email)
+            customer.addBike(bike);
             inventory.addServicedBike(bike);
 
-            // Add bike to customer
-            customers.putIfAbsent(email, new Customer(email));
-            customers.get(email).addBike(bike);
-
-            return "DROP-OFF " + email;
+            return ResultCode.SUCCESS_DROP_OFF;
         }
         else
         {
             if(email == null)
             {
                 logger.warning("Invalid email for drop-off.");
-                return "FAILURE: Invalid email.";
+                return ResultCode.FAIL_INVALID_EMAIL;
             }
-            if(inventory.getAvailableBikeCount() + inventory.getServicedBikeCount() + inventory.getAwaitingPickupBikeCount() > 99)
+            if(inventory.getOccupancy() > 99)
             {
                 logger.warning("Not enough space for drop-off.");
-                return "FAILURE: Not enough space.";
+                return ResultCode.FAIL_NO_SPACE;
             }
         }
         logger.warning("Unknown drop-off error.");
-        return "FAILURE: Unknown drop-off error.";
+        return ResultCode.FAIL_UNKNOWN_DROP_OFF;
     }
 
     /**
      METHOD: handlePurchaseOnline
-     IMPORT: email (String)
-     EXPORT: String (result message)
+     IMPORT: email (CharSequence)
+     EXPORT: code (ResultCode)
      ALGORITHM:
      Handles the "PURCHASE-ONLINE" message by selling a bike to a customer if conditions are met.
      */
-    private String handlePurchaseOnline(String email)
+    private ResultCode handlePurchaseOnline(CharSequence email)
     {
         if (email != null && inventory.getAvailableBikeCount() > 0)
         {
-            Bike bike = inventory.getAvailableBikes().removeFirst();
-            if (bike.getState() instanceof AvailableState) {
-                bike.setAssociatedEmail(email);
-                bike.purchase();
-                inventory.removeAvailableBike(bike); // Ensure bike is removed from the available list
+            Bike bike = inventory.takeNextAvailableBike(); // O(1): removes the oldest available bike
+            if (bike.tryPurchase()) {
+                Customer customer = customers.findOrCreate(email);
+                bike.setAssociatedEmail(customer.getEmail());
                 inventory.addAwaitingPickupBike(bike);
                 bankAccount.deposit(1000);
 
                 // Add bike to customer
-                customers.putIfAbsent(email, new Customer(email));
-                customers.get(email).addBike(bike);
+                customer.addBike(bike);
 
-                return "PURCHASE-ONLINE " + email;
+                return ResultCode.SUCCESS_PURCHASE_ONLINE;
             } else {
-                return "FAILURE: Bike is not available for purchase.";
+                return ResultCode.FAIL_BIKE_NOT_AVAILABLE;
             }
         }
         else
         {
             if (email == null)
             {
-                return "FAILURE: Invalid email.";
+                return ResultCode.FAIL_INVALID_EMAIL;
             }
             if (inventory.getAvailableBikeCount() == 0)
             {
-                return "FAILURE: No bikes left (for a customer to purchase)";
+                return ResultCode.FAIL_NO_BIKES;
             }
         }
-        return "FAILURE: Unknown online purchase error.";
+        return ResultCode.FAIL_UNKNOWN_ONLINE_PURCHASE;
     }
 
     /**
      METHOD: handlePurchaseInStore
      IMPORT: None
-     EXPORT: String (result message)
+     EXPORT: code (ResultCode)
      ALGORITHM:
      Handles the "PURCHASE-IN-STORE" message by selling a bike to a customer if conditions are met.
      */
-    private String handlePurchaseInStore()
+    private ResultCode handlePurchaseInStore()
     {
         if (inventory.getAvailableBikeCount() > 0)
         {
-            Bike bike = inventory.getAvailableBikes().removeFirst(); // Correctly remove the bike from the list
-            if (bike.getState() instanceof AvailableState) {
-                bike.purchase();
-                inventory.removeAvailableBike(bike); // Ensure bike is removed from the available list
-                bankAccount.deposit(1000);
-                return "PURCHASE-IN-STORE";
+            Bike bike = inventory.takeNextAvailableBike(); // O(1): removes the oldest available bike
+            if (bike.tryPurchase()) {
+                bankAccount.deposit(IN_STORE_PRICE);
+                return ResultCode.SUCCESS_PURCHASE_IN_STORE;
             } else {
-                return "FAILURE: Bike is not available for purchase.";
+                return ResultCode.FAIL_BIKE_NOT_AVAILABLE;
             }
         }
         else
         {
-            return "FAILURE: No bikes left (for a customer to purchase)";
+            return ResultCode.FAIL_NO_BIKES;
         }
     }
 
     /**
      METHOD: handlePickUp
-     IMPORT: email (String)
-     EXPORT: String (result message)
+     IMPORT: email (CharSequence)
+     EXPORT: code (ResultCode)
      ALGORITHM:
      Handles the "PICK-UP" message by allowing a customer to pick up their bike if conditions are met.
      */
-    private String handlePickUp(String email)
+    private ResultCode handlePickUp(CharSequence email)
     {
         if (email != null)
         {
-            Customer customer = customers.get(email);
+            Customer customer = customers.find(email);
             if (customer != null)
             {
-                for (Bike bike : customer.getBikes())
+                // O(1): the customer keeps its bikes awaiting pick-up in a FIFO
+                Bike bike = customer.getNextBikeAwaitingPickup();
+                if (bike != null)
                 {
-                    if (bike.getState() instanceof AwaitingPickupState)
-                    {
-                        customer.removeBike(bike);
-                        bike.pickUp();
-                        inventory.removeAwaitingPickupBike(bike);
-
-                        // Charge the $100 service fee if the bike was serviced
-                        if (bike.getState() instanceof AvailableState && bike.getDaysInServicingState() > 0) {
-                            bankAccount.deposit(100); // Charge for servicing
-                            logger.info("$100 Service Fee Received");
-                        }
-
-                        return "PICK-UP " + email;
+                    bike.tryPickUp();
+                    inventory.removeAwaitingPickupBike(bike);
+                    customer.removeBike(bike);
+
+                    // Charge the $100 service fee if the bike was serviced
+                    if (bike.getStateType() == BikeStateType.AVAILABLE && bike.getDaysInServicingState() > 0) {
+                        bankAccount.deposit(100); // Charge for servicing
+                        logger.info("$100 Service Fee Received");
                     }
+
+                    return ResultCode.SUCCESS_PICK_UP;
                 }
-                return "FAILURE: No bike matching customer email (for pick-up): " + email + ".";
+                return ResultCode.FAIL_NO_MATCHING_BIKE;
             }
             else
             {
-                return "FAILURE: No customer with email: " + email + ".";
+                return ResultCode.FAIL_NO_CUSTOMER;
             }
         }
         else
         {
-            return "FAILURE: Invalid email.";
+            return ResultCode.FAIL_INVALID_EMAIL;
         }
     }
 }
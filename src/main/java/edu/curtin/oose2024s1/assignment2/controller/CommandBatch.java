@@ -0,0 +1,203 @@
+package edu.curtin.oose2024s1.assignment2.controller;
+
+import edu.curtin.oose2024s1.assignment2.command.Command;
+import edu.curtin.oose2024s1.assignment2.command.MessageParser;
+import edu.curtin.oose2024s1.assignment2.command.MessageType;
+
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+/**
+Purpose:
+    - Holds a whole day's messages, decoded, so BikeShopController.applyDay() can apply them together and fold runs of commutative messages into bulk operations.
+Role:
+    - Each message is copied into an entry's own buffer (a source's view is only valid until its next call) and decoded into the entry's Command, whose email then points
+      into that buffer. Entries are kept and reused from day to day, so once the batch has grown to a day's size, adding a message allocates nothing.
+    - applyDay() fills in each entry's result, which stays readable until the batch is cleared.
+*/
+// Reusable list of one day's decoded messages and their results.
+public final class CommandBatch
+{
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int INITIAL_TEXT_CAPACITY = 64;
+
+    private final MessageParser parser = new MessageParser();
+    private char[][] chars = new char[0][];
+    private CharBuffer[] texts = new CharBuffer[0];
+    private Command[] commands = new Command[0];
+    private ResultCode[] results = new ResultCode[0];
+    private int size;
+
+    /**
+    METHOD: add
+    IMPORT: message (CharSequence)
+    EXPORT: None
+    ALGORITHM:
+    Copies the message into the next entry (growing the batch or the entry's buffer if needed) and decodes it; an empty message is decoded as INVALID.
+    */
+    public void add(CharSequence message)
+    {
+        if(size == commands.length)
+        {
+            grow();
+        }
+
+        int length = message.length();
+        char[] buffer = chars[size];
+        if(length > buffer.length)
+        {
+            buffer = new char[Math.max(length, buffer.length * 2)];
+            chars[size] = buffer;
+            texts[size] = CharBuffer.wrap(buffer);
+        }
+        if(message instanceof String string)
+        {
+            string.getChars(0, length, buffer, 0);
+        }
+        else
+        {
+            for(int i = 0; i < length; i++)
+            {
+                buffer[i] = message.charAt(i);
+            }
+        }
+        CharBuffer text = texts[size];
+        text.clear().limit(length);
+
+        Command command = commands[size];
+        if(length == 0)
+        {
+            command.set(MessageType.INVALID, text, -1, -1);
+        }
+        else
+        {
+            parser.parse(text, command);
+        }
+        results[size] = null;
+        size++;
+    }
+
+    /**
+    METHOD: size
+    IMPORT: None
+    EXPORT: size (int)
+    ALGORITHM:
+    Returns the number of messages in the batch.
+    */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+    METHOD: getText
+    IMPORT: index (int)
+    EXPORT: text (CharSequence)
+    ALGORITHM:
+    Returns the text of the message at index (valid until the batch is cleared).
+    */
+    public CharSequence getText(int index)
+    {
+        return texts[checkIndex(index)];
+    }
+
+    /**
+    METHOD: getCommand
+    IMPORT: index (int)
+    EXPORT: command (Command)
+    ALGORITHM:
+    Returns the decoded message at index (valid until the batch is cleared).
+    */
+    public Command getCommand(int index)
+    {
+        return commands[checkIndex(index)];
+    }
+
+    /**
+    METHOD: getResult
+    IMPORT: index (int)
+    EXPORT: result (ResultCode)
+    ALGORITHM:
+    Returns the result of the message at index, or null if the batch has not been applied yet.
+    */
+    public ResultCode getResult(int index)
+    {
+        return results[checkIndex(index)];
+    }
+
+    /**
+    METHOD: clear
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Empties the batch, keeping its entries for the next day.
+    */
+    public void clear()
+    {
+        Arrays.fill(results, 0, size, null);
+        size = 0;
+    }
+
+    /**
+    METHOD: setResult
+    IMPORT: index (int), result (ResultCode)
+    EXPORT: None
+    ALGORITHM:
+    Records the result of the message at index (set by BikeShopController.applyDay()).
+    */
+    /* default */ void setResult(int index, ResultCode result)
+    {
+        results[checkIndex(index)] = result;
+    }
+
+    /**
+    METHOD: isEmptyMessage
+    IMPORT: index (int)
+    EXPORT: boolean
+    ALGORITHM:
+    Returns true if the message at index was empty (so it is rejected as an invalid message rather than as an invalid type).
+    */
+    /* default */ boolean isEmptyMessage(int index)
+    {
+        return texts[checkIndex(index)].length() == 0;
+    }
+
+    /**
+    METHOD: checkIndex
+    IMPORT: index (int)
+    EXPORT: index (int)
+    ALGORITHM:
+    Returns index, or throws IndexOutOfBoundsException if it is not that of a message in the batch.
+    */
+    private int checkIndex(int index)
+    {
+        if(index < 0 || index >= size)
+        {
+            throw new IndexOutOfBoundsException("Batch index " + index + " out of range for size " + size);
+        }
+        return index;
+    }
+
+    /**
+    METHOD: grow
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Doubles the number of entries (or creates the first INITIAL_CAPACITY), each new one with its own buffer and Command.
+    */
+    private void grow()
+    {
+        int capacity = commands.length == 0 ? INITIAL_CAPACITY : commands.length * 2;
+        int old = commands.length;
+        chars = Arrays.copyOf(chars, capacity);
+        texts = Arrays.copyOf(texts, capacity);
+        commands = Arrays.copyOf(commands, capacity);
+        results = Arrays.copyOf(results, capacity);
+        for(int i = old; i < capacity; i++)
+        {
+            chars[i] = new char[INITIAL_TEXT_CAPACITY];
+            texts[i] = CharBuffer.wrap(chars[i]);
+            commands[i] = new Command();
+        }
+    }
+}
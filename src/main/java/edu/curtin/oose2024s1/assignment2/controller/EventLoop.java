@@ -1,7 +1,14 @@
 package edu.curtin.oose2024s1.assignment2.controller;
 
-import edu.curtin.oose2024s1.assignment2.BikeShopInput;
+import edu.curtin.oose2024s1.assignment2.command.Command;
+import edu.curtin.oose2024s1.assignment2.input.MessageSource;
+import edu.curtin.oose2024s1.assignment2.journal.ShopJournal;
+import edu.curtin.oose2024s1.assignment2.metrics.LoopPhase;
+import edu.curtin.oose2024s1.assignment2.metrics.ShopMetrics;
 import edu.curtin.oose2024s1.assignment2.model.*;
+import edu.curtin.oose2024s1.assignment2.pipeline.MessagePipeline;
+import edu.curtin.oose2024s1.assignment2.pipeline.MessageSlot;
+import edu.curtin.oose2024s1.assignment2.simulation.SimulationClock;
 import edu.curtin.oose2024s1.assignment2.view.BikeShopView;
 
 import java.io.IOException;
@@ -9,46 +16,95 @@ import java.util.logging.Logger;
 
 /**
  Purpose:
- - This class will handle the simulation loop, controlling the flow of the simulation based on time (1 second = 1 day in the simulation). It will interact with the BikeShopController to process incoming messages and update the state of the bike shop.
+ - This class will handle the simulation loop, controlling the flow of the simulation based on time (1 day per tick of the SimulationClock). It will interact with the BikeShopController to process incoming messages and update the state of the bike shop.
  Role:
  - Ensures the simulation progresses, handles the timing, and invokes the BikeShopController to process events/messages.
+ - Supports an interactive mode (runs until the user presses Enter) and a headless mode (runs a fixed number of days without console output).
+ - Coalesces model change notifications according to its NotificationScope.
+ - Reports each message's outcome to an optional ResultListener (e.g. so a network client can be answered).
+ - With a ShopJournal, restores the shop from the journal on start-up (instead of setting up a new one) and journals every message outcome, payment and day end.
+ - With ShopMetrics, times every message and every phase of the day; without them, it does not even read the clock.
+ - When pipelined, parses, validates and writes out messages on their own threads (see MessagePipeline) while this thread stays the only one that applies them to the model.
+ - When batch-applying, collects each day's messages into a CommandBatch and applies them together (see BikeShopController.applyDay()).
  */
 // Manages the event loop for the simulation.
 public class EventLoop
 {
     private static final Logger logger = Logger.getLogger(EventLoop.class.getName());
 
-    private final BikeShopInput bikeShopInput;
+    private final MessageSource messageSource;
+    private final SimulationClock clock;
     private final BikeShopController bikeShopController;
     private final Inventory inventory;
     private final BankAccount bankAccount;
     private final BikeShopView bikeShopView;
+    private ShopJournal journal;
+    private ResultListener resultListener;
+    private ShopMetrics metrics;
+    private boolean pipelined;
+    private MessagePipeline pipeline;
+    private CommandBatch dayBatch;
+    private long phaseStart;
 
-    private int totalMessages = 0;
-    private int totalFailures = 0;
+    private final ResultCounters resultCounters = new ResultCounters();
+    private NotificationScope notificationScope = NotificationScope.PER_DAY;
+    private int daysElapsed = 0;
 
     /**
      METHOD: EventLoop
-     IMPORT: bikeShopInput (BikeShopInput), bikeShopController (BikeShopController), inventory (Inventory), bankAccount (BankAccount), bikeShopView (BikeShopView)
+     IMPORT: messageSource (MessageSource), clock (SimulationClock), bikeShopController (BikeShopController), inventory (Inventory), bankAccount (BankAccount), bikeShopView (BikeShopView)
      EXPORT: None
      ALGORITHM:
-     Constructor that initialises the input, controller, inventory, bank account, and view, and registers observers.
+     Constructor that initialises the input, clock, controller, inventory, bank account, and view, and registers observers.
      */
-    public EventLoop(BikeShopInput bikeShopInput, BikeShopController bikeShopController, Inventory inventory, BankAccount bankAccount, BikeShopView bikeShopView)
+    public EventLoop(MessageSource messageSource, SimulationClock clock, BikeShopController bikeShopController, Inventory inventory, BankAccount bankAccount, BikeShopView bikeShopView)
     {
-        this.bikeShopInput = bikeShopInput;
+        this(messageSource, clock, bikeShopController, inventory, bankAccount, bikeShopView, null);
+    }
+
+    /**
+     METHOD: EventLoop
+     IMPORT: messageSource (MessageSource), clock (SimulationClock), bikeShopController (BikeShopController), inventory (Inventory), bankAccount (BankAccount), bikeShopView (BikeShopView), journal (ShopJournal)
+     EXPORT: None
+     ALGORITHM:
+     Constructor that also journals the shop (null for no journal). If the journal already holds a shop, the (empty) model is restored from it and the simulation
+     carries on from its last complete day; otherwise a new shop is set up and its day 0 snapshot taken. If the journal cannot be used, it is switched off and a new shop is set up.
+     */
+    public EventLoop(MessageSource messageSource, SimulationClock clock, BikeShopController bikeShopController, Inventory inventory, BankAccount bankAccount, BikeShopView bikeShopView, ShopJournal journal)
+    {
+        this.messageSource = messageSource;
+        this.clock = clock;
         this.bikeShopController = bikeShopController;
         this.inventory = inventory;
         this.bankAccount = bankAccount;
         this.bikeShopView = bikeShopView;
+        this.journal = journal;
 
         // Register observers after full initialisation
         this.bikeShopView.registerObservers(bankAccount, inventory);
 
+        int restoredDay = openJournal();
+        if (restoredDay >= 0)
+        {
+            daysElapsed = restoredDay;
+            return;
+        }
+
         // Initialise the inventory with 50 bikes
         for (int i = 0; i < 50; i++) {
             inventory.addAvailableBike(new Bike());
         }
+        if (this.journal != null)
+        {
+            try
+            {
+                this.journal.start();
+            }
+            catch (IOException e)
+            {
+                journalFailed(e);
+            }
+        }
     }
 
     /**
@@ -56,75 +112,718 @@ public class EventLoop
      IMPORT: None
      EXPORT: None
      ALGORITHM:
-     Executes the event loop, processing messages and updating the bike shop's state.
+     Executes the interactive event loop until the user presses Enter, processing messages and updating the bike shop's state.
      */
     public void run() throws IOException
     {
-        int daysElapsed = 0;
         logger.info("\n\nStarting event loop.");
 
         try
         {
             while(System.in.available() == 0)
             {
-                // Clear the console for better UX
-                System.out.print("\033[H\033[2J");
-                System.out.flush();
+                // Clear the console for better UX (unless a renderer owns it)
+                if(!bikeShopView.isRendering())
+                {
+                    System.out.print("\033[H\033[2J");
+                    System.out.flush();
+                }
+
+                simulateDay();
+                advanceClock();
+            }
+        }
+        catch (IOException e)
+        {
+            logger.severe(() -> "I/O error during event loop: " + e.getMessage());
+            throw e;
+        }
 
-                // Simulate one day
-                daysElapsed++;
-                int finalDaysElapsed = daysElapsed;
-                logger.fine(() -> "\n\nSimulated day: " + finalDaysElapsed);
+        finish(true);
+    }
 
-                // Display status
-                bikeShopView.displayStatus(daysElapsed, bankAccount, inventory);
+    /**
+     METHOD: runHeadless
+     IMPORT: days (int)
+     EXPORT: None
+     ALGORITHM:
+     Executes the event loop for a fixed number of days without console output, advancing the clock as fast as it allows.
+     */
+    public void runHeadless(int days)
+    {
+        logger.info(() -> "\n\nStarting headless event loop for " + days + " days.");
+        runDays(days);
+        finish(true);
+    }
 
-                // Pay the employee every 7 days
-                if (daysElapsed % 7 == 0)
-                {
-                    bankAccount.withdraw(1000, true); // $1000 payment to the employee
-                    int finalDaysElapsed1 = daysElapsed;
-                    logger.info(() -> "Employee paid $1000 on day " + finalDaysElapsed1 + ".");
-                }
+    /**
+     METHOD: runDays
+     IMPORT: days (int)
+     EXPORT: None
+     ALGORITHM:
+     Simulates the given number of further days without console output and without finishing, so a caller can step the simulation (e.g. one shop of a chain) and inspect the model between calls.
+     */
+    public void runDays(int days)
+    {
+        bikeShopView.setConsoleOutput(false);
 
-                // Process all messages for this day
-                String message = bikeShopInput.nextMessage();
-                while(message != null)
-                {
-                    totalMessages++;
-                    String result = bikeShopController.processMessage(message);
-                    if(result.startsWith("FAILURE"))
-                    {
-                        totalFailures++;
-                    }
-                    System.out.println(result);
-                    bikeShopView.logToFile(result);
-                    message = bikeShopInput.nextMessage();
-                }
+        for (int i = 0; i < days; i++)
+        {
+            simulateDay();
+            advanceClock();
+        }
+    }
+
+    /**
+     METHOD: finishQuietly
+     IMPORT: None
+     EXPORT: None
+     ALGORITHM:
+     Ends a simulation stepped with runDays: writes the final statistics to the view's file (not the console) and unregisters the view.
+     */
+    public void finishQuietly()
+    {
+        finish(false);
+    }
+
+    /**
+     METHOD: getDaysElapsed
+     IMPORT: None
+     EXPORT: days (int)
+     ALGORITHM:
+     Returns the number of days simulated so far.
+     */
+    public int getDaysElapsed()
+    {
+        return daysElapsed;
+    }
+
+    /**
+     METHOD: setNotificationScope
+     IMPORT: notificationScope (NotificationScope)
+     EXPORT: None
+     ALGORITHM:
+     Sets how far model change notifications are coalesced before observers receive them (PER_DAY by default).
+     */
+    public void setNotificationScope(NotificationScope notificationScope)
+    {
+        this.notificationScope = notificationScope;
+    }
+
+    /**
+     METHOD: setResultListener
+     IMPORT: resultListener (ResultListener)
+     EXPORT: None
+     ALGORITHM:
+     Sets a listener to be told the outcome of every message (null for none). Not with pipelining or batch apply, which report results a day at a time,
+     while a listener such as IngestServer expects each result straight after the message it took.
+     */
+    public void setResultListener(ResultListener resultListener)
+    {
+        if(resultListener != null && pipelined)
+        {
+            throw new IllegalStateException("A pipelined event loop cannot report results to a ResultListener.");
+        }
+        if(resultListener != null && dayBatch != null)
+        {
+            throw new IllegalStateException("A batch-applying event loop cannot report results to a ResultListener.");
+        }
+        this.resultListener = resultListener;
+    }
 
-                // Increment the days in servicing state for all serviced bikes
-                inventory.incrementDaysInServicingState();
+    /**
+     METHOD: setMetrics
+     IMPORT: metrics (ShopMetrics)
+     EXPORT: None
+     ALGORITHM:
+     Sets the metrics to record message latencies, phase durations and daily throughput into (null for none).
+     */
+    public void setMetrics(ShopMetrics metrics)
+    {
+        this.metrics = metrics;
+    }
 
-                // Sleep for 1 second (simulates 1 day)
+    /**
+     METHOD: setPipelined
+     IMPORT: pipelined (boolean)
+     EXPORT: None
+     ALGORITHM:
+     Chooses whether messages are handled by a MessagePipeline instead of one at a time on this thread; results are the same either way. Must be called before the loop runs.
+     A pipelined loop cannot have a ResultListener, since the listener would be called on a different thread from the one taking its messages.
+     */
+    public void setPipelined(boolean pipelined)
+    {
+        if(pipeline != null)
+        {
+            throw new IllegalStateException("The message pipeline is already running.");
+        }
+        if(pipelined && resultListener != null)
+        {
+            throw new IllegalStateException("A pipelined event loop cannot report results to a ResultListener.");
+        }
+        if(pipelined && dayBatch != null)
+        {
+            throw new IllegalStateException("A pipelined event loop cannot batch-apply its days.");
+        }
+        this.pipelined = pipelined;
+    }
+
+    /**
+     METHOD: setBatchApply
+     IMPORT: batchApply (boolean)
+     EXPORT: None
+     ALGORITHM:
+     Chooses whether each day's messages are collected and applied together by BikeShopController.applyDay() instead of one at a time; results are the same either way.
+     A folded run of messages reaches observers as a single change, so with the PER_MESSAGE or IMMEDIATE scope observers may see fewer (larger) notifications.
+     Cannot be combined with pipelining or a ResultListener.
+     */
+    public void setBatchApply(boolean batchApply)
+    {
+        if(batchApply && pipelined)
+        {
+            throw new IllegalStateException("A pipelined event loop cannot batch-apply its days.");
+        }
+        if(batchApply && resultListener != null)
+        {
+            throw new IllegalStateException("A batch-applying event loop cannot report results to a ResultListener.");
+        }
+        if(!batchApply)
+        {
+            dayBatch = null;
+        }
+        else if(dayBatch == null)
+        {
+            dayBatch = new CommandBatch();
+        }
+    }
+
+    /**
+     METHOD: isJournaling
+     IMPORT: None
+     EXPORT: boolean
+     ALGORITHM:
+     Returns true if a journal is recording the shop (false if none was given or it failed).
+     */
+    public boolean isJournaling()
+    {
+        return journal != null;
+    }
+
+    /**
+     METHOD: getResultCounters
+     IMPORT: None
+     EXPORT: resultCounters (ResultCounters)
+     ALGORITHM:
+     Returns the per-outcome counters for all messages processed so far.
+     */
+    public ResultCounters getResultCounters()
+    {
+        return resultCounters;
+    }
+
+    /**
+     METHOD: simulateDay
+     IMPORT: None
+     EXPORT: None
+     ALGORITHM:
+     Simulates one day: displays status, pays the employee every 7 days, processes the day's messages and advances servicing.
+     With the PER_DAY scope, the whole day runs inside one batch so observers see a single coalesced change set.
+     */
+    private void simulateDay()
+    {
+        boolean batchDay = notificationScope == NotificationScope.PER_DAY;
+        if (batchDay)
+        {
+            beginBatch();
+        }
+        try
+        {
+            runDay();
+        }
+        finally
+        {
+            if (batchDay)
+            {
+                endBatch();
+            }
+        }
+    }
+
+    /**
+     METHOD: runDay
+     IMPORT: None
+     EXPORT: None
+     ALGORITHM:
+     Performs the work of one simulated day (see simulateDay).
+     */
+    private void runDay()
+    {
+        daysElapsed++;
+        int finalDaysElapsed = daysElapsed;
+        if(pipelined)
+        {
+            startPipelinedDay();
+        }
+        logger.fine(() -> "\n\nSimulated day: " + finalDaysElapsed);
+
+        // Display status
+        startPhase();
+        bikeShopView.displayStatus(daysElapsed, bankAccount, inventory);
+        endPhase(LoopPhase.STATUS);
+
+        // Pay the employee every 7 days
+        if (daysElapsed % 7 == 0)
+        {
+            bankAccount.withdraw(1000, true); // $1000 payment to the employee
+            if (journal != null)
+            {
                 try
                 {
-                    Thread.sleep(1000);
+                    journal.recordPayroll(1000);
                 }
-                catch(InterruptedException e)
+                catch (IOException e)
                 {
-                    logger.severe(() -> "Thread interrupted: " + e.getMessage());
-                    throw new AssertionError(e);
+                    journalFailed(e);
                 }
             }
+            logger.info(() -> "Employee paid $1000 on day " + finalDaysElapsed + ".");
+            endPhase(LoopPhase.PAYROLL);
+        }
+
+        // Process all messages for this day
+        long dayMessages;
+        if(pipeline != null)
+        {
+            dayMessages = drainPipeline();
+        }
+        else
+        {
+            dayMessages = dayBatch == null ? drainMessages() : drainBatch();
+        }
+        long drainNanos = endPhase(LoopPhase.DRAIN);
+
+        // Increment the days in servicing state for all serviced bikes
+        inventory.incrementDaysInServicingState();
+        endPhase(LoopPhase.SERVICING);
+
+        // Journal the day (and take a snapshot when one is due)
+        if (journal != null)
+        {
+            try
+            {
+                journal.endDay(daysElapsed);
+            }
+            catch (IOException e)
+            {
+                journalFailed(e);
+            }
+        }
+
+        // Let the view commit the day's output
+        bikeShopView.endOfDay();
+        endPhase(LoopPhase.END_OF_DAY);
+        if(metrics != null)
+        {
+            metrics.recordDay(daysElapsed, dayMessages, drainNanos);
+        }
+    }
+
+    /**
+     METHOD: drainMessages
+     IMPORT: None
+     EXPORT: count (long)
+     ALGORITHM:
+     Takes the day's messages from the source one at a time, applying each and then journaling, reporting and displaying its result. Returns how many there were.
+     */
+    private long drainMessages()
+    {
+        long dayMessages = 0;
+        CharSequence message = messageSource.nextMessage();
+        while(message != null)
+        {
+            ResultCode result;
+            if(metrics == null)
+            {
+                result = processMessage(message);
+            }
+            else
+            {
+                long start = System.nanoTime();
+                result = processMessage(message);
+                metrics.recordMessage(bikeShopController.getLastMessageType(), result, System.nanoTime() - start);
+            }
+            dayMessages++;
+            resultCounters.record(result);
+            journalMessage(message, result);
+            if(resultListener != null)
+            {
+                resultListener.messageProcessed(result);
+            }
+            if(bikeShopView.isDisplayingResults())
+            {
+                bikeShopView.displayResult(result, bikeShopController.describe(result));
+            }
+            message = messageSource.nextMessage();
+        }
+        return dayMessages;
+    }
+
+    /**
+     METHOD: drainBatch
+     IMPORT: None
+     EXPORT: count (long)
+     ALGORITHM:
+     Takes all of the day's messages from the source into the day batch, applies them together, then journals, reports and displays each result in order.
+     Returns how many there were. With metrics, each message is credited with an equal share of the time the whole batch took to apply.
+     */
+    private long drainBatch()
+    {
+        CharSequence message = messageSource.nextMessage();
+        while(message != null)
+        {
+            dayBatch.add(message);
+            message = messageSource.nextMessage();
+        }
+
+        int size = dayBatch.size();
+        long share = 0;
+        if(metrics == null)
+        {
+            bikeShopController.applyDay(dayBatch);
+        }
+        else
+        {
+            long start = System.nanoTime();
+            bikeShopController.applyDay(dayBatch);
+            share = size == 0 ? 0 : (System.nanoTime() - start) / size;
+        }
+
+        for(int i = 0; i < size; i++)
+        {
+            ResultCode result = dayBatch.getResult(i);
+            Command command = dayBatch.getCommand(i);
+            if(metrics != null)
+            {
+                metrics.recordMessage(command.getType(), result, share);
+            }
+            resultCounters.record(result);
+            journalMessage(dayBatch.getText(i), result);
+            if(resultListener != null)
+            {
+                resultListener.messageProcessed(result);
+            }
+            if(bikeShopView.isDisplayingResults())
+            {
+                bikeShopView.displayResult(result, result.format(command.getEmail()));
+            }
+        }
+        dayBatch.clear();
+        return size;
+    }
+
+    /**
+     METHOD: startPipelinedDay
+     IMPORT: None
+     EXPORT: None
+     ALGORITHM:
+     Starts the pipeline on the first pipelined day, then releases the day's messages to its parse stage.
+     */
+    private void startPipelinedDay()
+    {
+        if(pipeline == null)
+        {
+            pipeline = new MessagePipeline(messageSource, this::writePipelinedResult);
+        }
+        pipeline.startDay();
+    }
+
+    /**
+     METHOD: drainPipeline
+     IMPORT: None
+     EXPORT: count (long)
+     ALGORITHM:
+     Applies the day's messages as the pipeline's validate stage hands them over, then waits for its output stage to finish writing them, so the day ends as it
+     does when sequential. Returns how many there were.
+     */
+    private long drainPipeline()
+    {
+        long dayMessages = 0;
+        MessageSlot slot = pipeline.nextMessage();
+        while(slot != null)
+        {
+            ResultCode result;
+            if(metrics == null)
+            {
+                result = applyMessage(slot);
+            }
+            else
+            {
+                long start = System.nanoTime();
+                result = applyMessage(slot);
+                metrics.recordMessage(slot.getCommand().getType(), result, System.nanoTime() - start);
+            }
+            dayMessages++;
+            resultCounters.record(result);
+            pipeline.applied(slot, result);
+            slot = pipeline.nextMessage();
+        }
+        pipeline.awaitOutput();
+        return dayMessages;
+    }
+
+    /**
+     METHOD: writePipelinedResult
+     IMPORT: message (CharSequence), command (Command), result (ResultCode)
+     EXPORT: None
+     ALGORITHM:
+     The pipeline's output stage: journals and displays one applied message (on the pipeline's output thread).
+     */
+    private void writePipelinedResult(CharSequence message, Command command, ResultCode result)
+    {
+        journalMessage(message, result);
+        if(bikeShopView.isDisplayingResults())
+        {
+            bikeShopView.displayResult(result, result.format(command.getEmail()));
+        }
+    }
+
+    /**
+     METHOD: journalMessage
+     IMPORT: message (CharSequence), result (ResultCode)
+     EXPORT: None
+     ALGORITHM:
+     Journals a processed message (if journaling), switching journaling off if that fails.
+     */
+    private void journalMessage(CharSequence message, ResultCode result)
+    {
+        if(journal != null)
+        {
+            try
+            {
+                journal.recordMessage(message, result);
+            }
+            catch(IOException e)
+            {
+                journalFailed(e);
+            }
+        }
+    }
+
+    /**
+     METHOD: startPhase
+     IMPORT: None
+     EXPORT: None
+     ALGORITHM:
+     Notes the time a phase of the day starts (only when recording metrics).
+     */
+    private void startPhase()
+    {
+        if(metrics != null)
+        {
+            phaseStart = System.nanoTime();
+        }
+    }
+
+    /**
+     METHOD: endPhase
+     IMPORT: phase (LoopPhase)
+     EXPORT: nanos (long)
+     ALGORITHM:
+     Records the time since the last phase started or ended as the given phase's duration and starts timing the next phase from now. Returns the duration (0 without metrics).
+     */
+    private long endPhase(LoopPhase phase)
+    {
+        if(metrics == null)
+        {
+            return 0;
+        }
+        long now = System.nanoTime();
+        long nanos = now - phaseStart;
+        metrics.recordPhase(phase, nanos);
+        phaseStart = now;
+        return nanos;
+    }
+
+    /**
+     METHOD: processMessage
+     IMPORT: message (CharSequence)
+     EXPORT: result (ResultCode)
+     ALGORITHM:
+     Processes one message, wrapping it in its own batch when the scope is PER_MESSAGE.
+     */
+    private ResultCode processMessage(CharSequence message)
+    {
+        if (notificationScope != NotificationScope.PER_MESSAGE)
+        {
+            return bikeShopController.process(message);
+        }
+
+        beginBatch();
+        try
+        {
+            return bikeShopController.process(message);
+        }
+        finally
+        {
+            endBatch();
+        }
+    }
+
+    /**
+     METHOD: applyMessage
+     IMPORT: slot (MessageSlot)
+     EXPORT: result (ResultCode)
+     ALGORITHM:
+     Applies one message decoded by the pipeline, wrapping it in its own batch when the scope is PER_MESSAGE.
+     */
+    private ResultCode applyMessage(MessageSlot slot)
+    {
+        if (notificationScope != NotificationScope.PER_MESSAGE)
+        {
+            return bikeShopController.apply(slot.getCommand(), slot.getPrecheck());
+        }
+
+        beginBatch();
+        try
+        {
+            return bikeShopController.apply(slot.getCommand(), slot.getPrecheck());
+        }
+        finally
+        {
+            endBatch();
+        }
+    }
+
+    /**
+     METHOD: beginBatch
+     IMPORT: None
+     EXPORT: None
+     ALGORITHM:
+     Opens a notification batch on both the bank account and the inventory.
+     */
+    private void beginBatch()
+    {
+        bankAccount.beginBatch();
+        inventory.beginBatch();
+    }
+
+    /**
+     METHOD: endBatch
+     IMPORT: None
+     EXPORT: None
+     ALGORITHM:
+     Closes the notification batches (in reverse order), delivering the coalesced changes to observers.
+     */
+    private void endBatch()
+    {
+        inventory.endBatch();
+        bankAccount.endBatch();
+    }
+
+    /**
+     METHOD: openJournal
+     IMPORT: None
+     EXPORT: day (int)
+     ALGORITHM:
+     Restores the shop from the journal, returning the day reached, or -1 if there is no journal or it holds no shop yet.
+     */
+    private int openJournal()
+    {
+        if (journal == null)
+        {
+            return -1;
+        }
+
+        try
+        {
+            return journal.open(inventory, bankAccount, bikeShopController, resultCounters);
         }
         catch (IOException e)
         {
-            logger.severe(() -> "I/O error during event loop: " + e.getMessage());
-            throw e;
+            journalFailed(e);
+            return -1;
         }
+    }
+
+    /**
+     METHOD: journalFailed
+     IMPORT: e (IOException)
+     EXPORT: None
+     ALGORITHM:
+     Logs a journal error and switches journaling off, so the simulation carries on without it.
+     */
+    private void journalFailed(IOException e)
+    {
+        logger.severe(() -> "Journal error, journaling switched off: " + e.getMessage());
+        closeJournal();
+    }
+
+    /**
+     METHOD: closeJournal
+     IMPORT: None
+     EXPORT: None
+     ALGORITHM:
+     Closes the journal (if any) and forgets it.
+     */
+    private void closeJournal()
+    {
+        if (journal == null)
+        {
+            return;
+        }
+
+        try
+        {
+            journal.close();
+        }
+        catch (IOException e)
+        {
+            logger.severe(() -> "Error closing the journal: " + e.getMessage());
+        }
+        journal = null;
+    }
+
+    /**
+     METHOD: advanceClock
+     IMPORT: None
+     EXPORT: None
+     ALGORITHM:
+     Advances the simulation clock by one day (for the wall clock, this sleeps for 1 second).
+     */
+    private void advanceClock()
+    {
+        try
+        {
+            startPhase();
+            clock.advanceDay();
+            endPhase(LoopPhase.SLEEP);
+        }
+        catch(InterruptedException e)
+        {
+            logger.severe(() -> "Thread interrupted: " + e.getMessage());
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     METHOD: finish
+     IMPORT: toConsole (boolean)
+     EXPORT: None
+     ALGORITHM:
+     Stops any console renderer and message pipeline, closes the journal, displays the final statistics (on the console too, if toConsole) and unregisters the view from the model.
+     */
+    private void finish(boolean toConsole)
+    {
+        bikeShopView.stopRendering();
+        if(pipeline != null)
+        {
+            pipeline.close();
+            pipeline = null;
+        }
+        closeJournal();
 
         // Final statistics
-        displayFinalStatistics(totalMessages, totalFailures);
+        displayFinalStatistics(toConsole);
         logger.info("Event loop ended.");
 
         // Unregister observers at the end of the simulation
@@ -134,17 +833,21 @@ public class EventLoop
 
     /**
      METHOD: displayFinalStatistics
-     IMPORT: totalMessages (int), totalFailures (int)
+     IMPORT: toConsole (boolean)
      EXPORT: None
      ALGORITHM:
-     Displays final statistics at the end of the simulation and logs them to the file.
+     Displays final statistics (including failures broken down by reason) at the end of the simulation (if toConsole) and logs them to the file.
      */
-    private void displayFinalStatistics(int totalMessages, int totalFailures)
+    private void displayFinalStatistics(boolean toConsole)
     {
         String finalStats = "\nSimulation Ended\n" +
-                "Total number of input messages: " + totalMessages + "\n" +
-                "Total number of failures: " + totalFailures;
-        System.out.println(finalStats);
+                "Total number of input messages: " + resultCounters.getTotal() + "\n" +
+                "Total number of failures: " + resultCounters.getFailures() +
+                resultCounters.describeFailures();
+        if(toConsole)
+        {
+            System.out.println(finalStats);
+        }
         bikeShopView.logToFile(finalStats);
         bikeShopView.close();
         logger.info(() -> "Final statistics: " + finalStats);
@@ -0,0 +1,17 @@
+package edu.curtin.oose2024s1.assignment2.controller;
+
+/**
+ Purpose:
+ - Names how far the EventLoop coalesces model change notifications before delivering them to observers.
+ Role:
+ - IMMEDIATE delivers one notification per mutation (the original behaviour).
+ - PER_MESSAGE delivers at most one notification per Observable for each processed message.
+ - PER_DAY delivers at most one notification per Observable for each simulated day.
+ */
+// Enum of notification coalescing scopes.
+public enum NotificationScope
+{
+    IMMEDIATE,
+    PER_MESSAGE,
+    PER_DAY
+}
@@ -0,0 +1,81 @@
+package edu.curtin.oose2024s1.assignment2.controller;
+
+/**
+Purpose:
+    - Enumerates every outcome BikeShopController can produce for a message.
+Role:
+    - Lets the hot path return a constant instead of building a result string, so failures can be counted per reason.
+    - The human-readable text (identical to the strings the controller used to return) is only built by format() when something actually prints it.
+*/
+// Enumeration of message processing outcomes.
+public enum ResultCode
+{
+    SUCCESS_DELIVERY(false, "DELIVERY", Detail.NONE),
+    SUCCESS_DROP_OFF(false, "DROP-OFF ", Detail.EMAIL),
+    SUCCESS_PURCHASE_ONLINE(false, "PURCHASE-ONLINE ", Detail.EMAIL),
+    SUCCESS_PURCHASE_IN_STORE(false, "PURCHASE-IN-STORE", Detail.NONE),
+    SUCCESS_PICK_UP(false, "PICK-UP ", Detail.EMAIL),
+    FAIL_INVALID_MESSAGE(true, "FAILURE: Invalid message.", Detail.NONE),
+    FAIL_INVALID_TYPE(true, "FAILURE: Invalid message type.", Detail.NONE),
+    FAIL_INVALID_EMAIL(true, "FAILURE: Invalid email.", Detail.NONE),
+    FAIL_NO_SPACE_AND_CASH(true, "FAILURE: Not enough space AND not enough cash to purchase new bikes", Detail.NONE),
+    FAIL_NO_SPACE_FOR_DELIVERY(true, "FAILURE: Not enough space (to store more bikes)", Detail.NONE),
+    FAIL_NO_CASH(true, "FAILURE: Not enough cash (for the shop to purchase new bikes)", Detail.NONE),
+    FAIL_NO_SPACE(true, "FAILURE: Not enough space.", Detail.NONE),
+    FAIL_NO_BIKES(true, "FAILURE: No bikes left (for a customer to purchase)", Detail.NONE),
+    FAIL_BIKE_NOT_AVAILABLE(true, "FAILURE: Bike is not available for purchase.", Detail.NONE),
+    FAIL_NO_MATCHING_BIKE(true, "FAILURE: No bike matching customer email (for pick-up): ", Detail.EMAIL_SENTENCE),
+    FAIL_NO_CUSTOMER(true, "FAILURE: No customer with email: ", Detail.EMAIL_SENTENCE),
+    FAIL_UNKNOWN_DROP_OFF(true, "FAILURE: Unknown drop-off error.", Detail.NONE),
+    FAIL_UNKNOWN_ONLINE_PURCHASE(true, "FAILURE: Unknown online purchase error.", Detail.NONE);
+
+    // How the email (if any) is appended to the text.
+    private enum Detail { NONE, EMAIL, EMAIL_SENTENCE }
+
+    private final boolean failure;
+    private final String text;
+    private final Detail detail;
+
+    /**
+    METHOD: ResultCode
+    IMPORT: failure (boolean), text (String), detail (Detail)
+    EXPORT: None
+    ALGORITHM:
+    Constructor that stores whether the outcome is a failure and how to describe it.
+    */
+    ResultCode(boolean failure, String text, Detail detail)
+    {
+        this.failure = failure;
+        this.text = text;
+        this.detail = detail;
+    }
+
+    /**
+    METHOD: isFailure
+    IMPORT: None
+    EXPORT: boolean
+    ALGORITHM:
+    Returns true if this outcome is a failure.
+    */
+    public boolean isFailure()
+    {
+        return failure;
+    }
+
+    /**
+    METHOD: format
+    IMPORT: email (CharSequence)
+    EXPORT: String
+    ALGORITHM:
+    Builds the human-readable result text. Outcomes that do not mention an email return a constant string without allocating.
+    */
+    public String format(CharSequence email)
+    {
+        return switch(detail)
+        {
+            case NONE -> text;
+            case EMAIL -> text + email;
+            case EMAIL_SENTENCE -> text + email + ".";
+        };
+    }
+}
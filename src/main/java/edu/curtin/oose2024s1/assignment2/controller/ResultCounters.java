@@ -0,0 +1,108 @@
+package edu.curtin.oose2024s1.assignment2.controller;
+
+/**
+Purpose:
+    - Counts processed messages by ResultCode.
+Role:
+    - Replaces a single failure total with one primitive counter per outcome, indexed by the code's ordinal so recording a result never allocates.
+*/
+// Per-outcome message counters.
+public class ResultCounters
+{
+    private static final ResultCode[] CODES = ResultCode.values();
+
+    private final long[] counts = new long[CODES.length];
+
+    /**
+    METHOD: record
+    IMPORT: code (ResultCode)
+    EXPORT: None
+    ALGORITHM:
+    Increments the counter for code.
+    */
+    public void record(ResultCode code)
+    {
+        counts[code.ordinal()]++;
+    }
+
+    /**
+    METHOD: add
+    IMPORT: code (ResultCode), count (long)
+    EXPORT: None
+    ALGORITHM:
+    Adds count to the counter for code (used when loading saved counters).
+    */
+    public void add(ResultCode code, long count)
+    {
+        counts[code.ordinal()] += count;
+    }
+
+    /**
+    METHOD: getCount
+    IMPORT: code (ResultCode)
+    EXPORT: count (long)
+    ALGORITHM:
+    Returns the number of times code has been recorded.
+    */
+    public long getCount(ResultCode code)
+    {
+        return counts[code.ordinal()];
+    }
+
+    /**
+    METHOD: getTotal
+    IMPORT: None
+    EXPORT: total (long)
+    ALGORITHM:
+    Returns the total number of results recorded.
+    */
+    public long getTotal()
+    {
+        long total = 0;
+        for(long count : counts)
+        {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+    METHOD: getFailures
+    IMPORT: None
+    EXPORT: failures (long)
+    ALGORITHM:
+    Returns the number of failure results recorded.
+    */
+    public long getFailures()
+    {
+        long failures = 0;
+        for(ResultCode code : CODES)
+        {
+            if(code.isFailure())
+            {
+                failures += counts[code.ordinal()];
+            }
+        }
+        return failures;
+    }
+
+    /**
+    METHOD: describeFailures
+    IMPORT: None
+    EXPORT: String
+    ALGORITHM:
+    Returns one line per failure reason that occurred, in the form "  CODE: count".
+    */
+    public String describeFailures()
+    {
+        var sb = new StringBuilder();
+        for(ResultCode code : CODES)
+        {
+            if(code.isFailure() && counts[code.ordinal()] > 0)
+            {
+                sb.append("\n  ").append(code).append(": ").append(counts[code.ordinal()]);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,20 @@
+package edu.curtin.oose2024s1.assignment2.controller;
+
+/**
+Purpose:
+    - Receives the outcome of every message the EventLoop processes, in processing order.
+Role:
+    - Lets whoever supplied a message (e.g. a network client) be told what became of it, without the EventLoop knowing where messages come from.
+*/
+// Callback for per-message results.
+public interface ResultListener
+{
+    /**
+    METHOD: messageProcessed
+    IMPORT: result (ResultCode)
+    EXPORT: None
+    ALGORITHM:
+    Called once for each message, right after it has been applied, with its outcome.
+    */
+    void messageProcessed(ResultCode result);
+}
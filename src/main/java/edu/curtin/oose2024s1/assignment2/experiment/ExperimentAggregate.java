@@ -0,0 +1,179 @@
+package edu.curtin.oose2024s1.assignment2.experiment;
+
+import edu.curtin.oose2024s1.assignment2.controller.ResultCode;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+Purpose:
+    - Aggregates the final statistics of many simulation runs, one MetricSummary per metric, in memory that does not grow with the number of runs.
+Role:
+    - Metrics: final balance, lowest balance, messages, failures (in total and per failure reason), final bike counts per state, and mean daily occupancy.
+    - Mergeable, so each fork/join leaf builds its own aggregate and they are combined up the task tree.
+    - Writes the compact summary file (one CSV row per metric).
+*/
+// Fixed-memory aggregate of experiment run statistics.
+public class ExperimentAggregate
+{
+    public static final int FINAL_BALANCE = 0;
+    public static final int MIN_BALANCE = 1;
+    public static final int MESSAGES = 2;
+    public static final int FAILURES = 3;
+    public static final int FINAL_AVAILABLE = 4;
+    public static final int FINAL_SERVICING = 5;
+    public static final int FINAL_AWAITING_PICKUP = 6;
+    public static final int MEAN_OCCUPANCY = 7;
+    public static final int FIRST_FAILURE_REASON = 8;
+
+    private static final double[] QUANTILES = { 0.05, 0.5, 0.95, 0.99 };
+    private static final List<ResultCode> FAILURE_REASONS = new ArrayList<>();
+    private static final List<String> METRIC_NAMES = new ArrayList<>(List.of(
+            "final_balance", "min_balance", "messages", "failures",
+            "final_available", "final_servicing", "final_awaiting_pickup", "mean_occupancy"));
+
+    static
+    {
+        for(ResultCode code : ResultCode.values())
+        {
+            if(code.isFailure())
+            {
+                FAILURE_REASONS.add(code);
+                METRIC_NAMES.add(code.name().toLowerCase(Locale.ROOT));
+            }
+        }
+    }
+
+    private final MetricSummary[] metrics = new MetricSummary[METRIC_NAMES.size()];
+
+    /**
+    METHOD: ExperimentAggregate
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Constructor that creates an empty summary for every metric.
+    */
+    public ExperimentAggregate()
+    {
+        for(int i = 0; i < metrics.length; i++)
+        {
+            metrics[i] = new MetricSummary();
+        }
+    }
+
+    /**
+    METHOD: getMetricCount
+    IMPORT: None
+    EXPORT: count (int)
+    ALGORITHM:
+    Returns the number of metrics recorded per run.
+    */
+    public static int getMetricCount()
+    {
+        return METRIC_NAMES.size();
+    }
+
+    /**
+    METHOD: getFailureReasons
+    IMPORT: None
+    EXPORT: reasons (List<ResultCode>)
+    ALGORITHM:
+    Returns the failure codes in the order of their metrics (starting at FIRST_FAILURE_REASON).
+    */
+    public static List<ResultCode> getFailureReasons()
+    {
+        return FAILURE_REASONS;
+    }
+
+    /**
+    METHOD: addRun
+    IMPORT: values (double ARRAY)
+    EXPORT: None
+    ALGORITHM:
+    Folds one run's metric values (indexed by the metric constants) into the summaries.
+    */
+    public void addRun(double[] values)
+    {
+        for(int i = 0; i < metrics.length; i++)
+        {
+            metrics[i].add(values[i]);
+        }
+    }
+
+    /**
+    METHOD: merge
+    IMPORT: other (ExperimentAggregate)
+    EXPORT: None
+    ALGORITHM:
+    Merges another aggregate's summaries into this one.
+    */
+    public void merge(ExperimentAggregate other)
+    {
+        for(int i = 0; i < metrics.length; i++)
+        {
+            metrics[i].merge(other.metrics[i]);
+        }
+    }
+
+    /**
+    METHOD: getMetric
+    IMPORT: index (int)
+    EXPORT: summary (MetricSummary)
+    ALGORITHM:
+    Returns the summary of one metric.
+    */
+    public MetricSummary getMetric(int index)
+    {
+        return metrics[index];
+    }
+
+    /**
+    METHOD: writeSummary
+    IMPORT: out (Writer), description (String)
+    EXPORT: None
+    ALGORITHM:
+    Writes a "#" description line, a CSV header, and one row per metric: count, mean, standard deviation, min, quantiles and max.
+    Numbers are formatted locale-independently so identical aggregates give identical files.
+    */
+    public void writeSummary(Writer out, String description) throws IOException
+    {
+        String newline = System.lineSeparator();
+        out.write("# " + description + newline);
+        StringBuilder header = new StringBuilder("metric,count,mean,stddev,min");
+        for(double q : QUANTILES)
+        {
+            header.append(",p").append(Math.round(q * 100));
+        }
+        out.write(header.append(",max").append(newline).toString());
+
+        for(int i = 0; i < metrics.length; i++)
+        {
+            MetricSummary metric = metrics[i];
+            StringBuilder row = new StringBuilder(METRIC_NAMES.get(i))
+                    .append(',').append(metric.getCount())
+                    .append(',').append(format(metric.getMean()))
+                    .append(',').append(format(Math.sqrt(metric.getVariance())))
+                    .append(',').append(format(metric.getMin()));
+            for(double q : QUANTILES)
+            {
+                row.append(',').append(format(metric.quantile(q)));
+            }
+            out.write(row.append(',').append(format(metric.getMax())).append(newline).toString());
+        }
+    }
+
+    /**
+    METHOD: format
+    IMPORT: value (double)
+    EXPORT: String
+    ALGORITHM:
+    Formats a number with up to three decimal places, independent of the default locale.
+    */
+    private static String format(double value)
+    {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+}
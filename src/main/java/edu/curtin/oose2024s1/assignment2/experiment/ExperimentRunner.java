@@ -0,0 +1,181 @@
+package edu.curtin.oose2024s1.assignment2.experiment;
+
+import edu.curtin.oose2024s1.assignment2.chain.ChainRunner;
+import edu.curtin.oose2024s1.assignment2.chain.ShopShard;
+import edu.curtin.oose2024s1.assignment2.controller.ResultCode;
+import edu.curtin.oose2024s1.assignment2.controller.ResultCounters;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.logging.Logger;
+
+/**
+Purpose:
+    - Monte Carlo experiment engine: runs many seeded, fast-forward simulations in parallel with fork/join and aggregates their final statistics.
+Role:
+    - Run i uses the seed ChainRunner.shopSeed(baseSeed, i), so run i of an experiment is the same simulation as shop i of a chain with the same base seed.
+    - The run range is split in halves down to fixed-size leaves, whatever the parallelism, and partial aggregates are always merged left then right. The task tree, and so every floating-point merge, is the same on every rerun, which makes the summary deterministic.
+    - Each run streams its figures into its leaf's aggregate as soon as it ends, so memory does not grow with the number of runs.
+    - Runs are ShopShards, so their per-message logging is quieted as in a chain; failures are still counted in the aggregate.
+*/
+// Runs seeded simulations in parallel and aggregates their outcomes.
+public class ExperimentRunner
+{
+    private static final Logger logger = Logger.getLogger(ExperimentRunner.class.getName());
+    private static final int RUNS_PER_LEAF = 4;
+
+    private final int runs;
+    private final int days;
+    private final long baseSeed;
+    private final int parallelism;
+
+    /**
+    METHOD: ExperimentRunner
+    IMPORT: runs (int), days (int), baseSeed (long), parallelism (int)
+    EXPORT: None
+    ALGORITHM:
+    Constructor that sets up an experiment of the given number of runs, each simulating the given number of days, with shop-level logging quieted
+    (see ShopShard.quietShopLogging).
+    */
+    public ExperimentRunner(int runs, int days, long baseSeed, int parallelism)
+    {
+        if(runs <= 0 || days <= 0 || parallelism <= 0)
+        {
+            throw new IllegalArgumentException("Runs, days and parallelism must be positive: " + runs + ", " + days + ", " + parallelism);
+        }
+
+        this.runs = runs;
+        this.days = days;
+        this.baseSeed = baseSeed;
+        this.parallelism = parallelism;
+        ShopShard.quietShopLogging();
+    }
+
+    /**
+    METHOD: run
+    IMPORT: None
+    EXPORT: aggregate (ExperimentAggregate)
+    ALGORITHM:
+    Runs every simulation on a fork/join pool of the configured parallelism and returns the merged aggregate.
+    */
+    public ExperimentAggregate run()
+    {
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try
+        {
+            ExperimentAggregate aggregate = pool.invoke(new RunRange(0, runs));
+            long elapsed = System.nanoTime() - start;
+            logger.info(() -> "Experiment of " + runs + " runs x " + days + " days finished in " + elapsed / 1_000_000 + " ms.");
+            return aggregate;
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
+    /**
+    METHOD: describe
+    IMPORT: None
+    EXPORT: String
+    ALGORITHM:
+    Returns a one-line description of the experiment's parameters (used as the summary file's header).
+    */
+    public String describe()
+    {
+        return "runs=" + runs + " days=" + days + " seed=" + baseSeed;
+    }
+
+    /**
+    METHOD: simulate
+    IMPORT: run (int)
+    EXPORT: values (double ARRAY)
+    ALGORITHM:
+    Simulates one seeded run day by day, tracking the lowest balance and the total bikes held each day, and returns its metric values.
+    */
+    private double[] simulate(int run)
+    {
+        ShopShard shop = new ShopShard(run, ChainRunner.shopSeed(baseSeed, run), 1);
+        int minBalance = Integer.MAX_VALUE;
+        long occupancyDays = 0;
+        for(int day = 0; day < days; day++)
+        {
+            shop.runEpoch(1);
+            minBalance = Math.min(minBalance, shop.getBalance(0));
+            occupancyDays += shop.getAvailable(0) + shop.getServicing(0) + shop.getAwaitingPickup(0);
+        }
+        shop.finish();
+
+        ResultCounters counters = shop.getResultCounters();
+        double[] values = new double[ExperimentAggregate.getMetricCount()];
+        values[ExperimentAggregate.FINAL_BALANCE] = shop.getBalance(0);
+        values[ExperimentAggregate.MIN_BALANCE] = minBalance;
+        values[ExperimentAggregate.MESSAGES] = counters.getTotal();
+        values[ExperimentAggregate.FAILURES] = counters.getFailures();
+        values[ExperimentAggregate.FINAL_AVAILABLE] = shop.getAvailable(0);
+        values[ExperimentAggregate.FINAL_SERVICING] = shop.getServicing(0);
+        values[ExperimentAggregate.FINAL_AWAITING_PICKUP] = shop.getAwaitingPickup(0);
+        values[ExperimentAggregate.MEAN_OCCUPANCY] = (double) occupancyDays / days;
+
+        List<ResultCode> reasons = ExperimentAggregate.getFailureReasons();
+        for(int i = 0; i < reasons.size(); i++)
+        {
+            values[ExperimentAggregate.FIRST_FAILURE_REASON + i] = counters.getCount(reasons.get(i));
+        }
+        return values;
+    }
+
+    // Fork/join task over the runs [from, to).
+    private final class RunRange extends RecursiveTask<ExperimentAggregate>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+
+        /**
+        METHOD: RunRange
+        IMPORT: from (int), to (int)
+        EXPORT: None
+        ALGORITHM:
+        Constructor for the task covering runs from (inclusive) to to (exclusive).
+        */
+        private RunRange(int from, int to)
+        {
+            super();
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+        METHOD: compute
+        IMPORT: None
+        EXPORT: aggregate (ExperimentAggregate)
+        ALGORITHM:
+        Runs small ranges directly; otherwise forks the left half, computes the right half, and merges right into left.
+        */
+        @Override
+        protected ExperimentAggregate compute()
+        {
+            if(to - from <= RUNS_PER_LEAF)
+            {
+                ExperimentAggregate aggregate = new ExperimentAggregate();
+                for(int run = from; run < to; run++)
+                {
+                    aggregate.addRun(simulate(run));
+                }
+                return aggregate;
+            }
+
+            int middle = (from + to) >>> 1;
+            RunRange left = new RunRange(from, middle);
+            left.fork();
+            ExperimentAggregate right = new RunRange(middle, to).compute();
+            ExperimentAggregate result = left.join();
+            result.merge(right);
+            return result;
+        }
+    }
+}
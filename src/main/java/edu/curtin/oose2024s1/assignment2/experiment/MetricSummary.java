@@ -0,0 +1,137 @@
+package edu.curtin.oose2024s1.assignment2.experiment;
+
+/**
+Purpose:
+    - Streaming summary of one metric over many runs: count, mean, variance, min, max and a quantile sketch, in fixed memory.
+Role:
+    - Mean and variance use Welford's update for single values and Chan et al.'s pairwise formula for merging, so partial summaries from parallel workers can be combined.
+    - Floating-point merges depend on order; ExperimentRunner always merges in the same tree order, which keeps reruns bit-for-bit identical.
+*/
+// Mergeable running statistics for one metric.
+public class MetricSummary
+{
+    private final QuantileSketch sketch = new QuantileSketch();
+    private long count;
+    private double mean;
+    private double m2;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+    METHOD: add
+    IMPORT: value (double)
+    EXPORT: None
+    ALGORITHM:
+    Folds one value into the running moments, extremes and sketch.
+    */
+    public void add(double value)
+    {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        sketch.add(value);
+    }
+
+    /**
+    METHOD: merge
+    IMPORT: other (MetricSummary)
+    EXPORT: None
+    ALGORITHM:
+    Combines another summary into this one using the pairwise mean/variance formula.
+    */
+    public void merge(MetricSummary other)
+    {
+        if(other.count == 0)
+        {
+            return;
+        }
+
+        long total = count + other.count;
+        double delta = other.mean - mean;
+        mean += delta * other.count / total;
+        m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+        count = total;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        sketch.merge(other.sketch);
+    }
+
+    /**
+    METHOD: getCount
+    IMPORT: None
+    EXPORT: count (long)
+    ALGORITHM:
+    Returns the number of values summarised.
+    */
+    public long getCount()
+    {
+        return count;
+    }
+
+    /**
+    METHOD: getMean
+    IMPORT: None
+    EXPORT: mean (double)
+    ALGORITHM:
+    Returns the mean of the values.
+    */
+    public double getMean()
+    {
+        return mean;
+    }
+
+    /**
+    METHOD: getVariance
+    IMPORT: None
+    EXPORT: variance (double)
+    ALGORITHM:
+    Returns the sample variance of the values (0 for fewer than two).
+    */
+    public double getVariance()
+    {
+        return count < 2 ? 0.0 : m2 / (count - 1);
+    }
+
+    /**
+    METHOD: getMin
+    IMPORT: None
+    EXPORT: min (double)
+    ALGORITHM:
+    Returns the smallest value.
+    */
+    public double getMin()
+    {
+        return min;
+    }
+
+    /**
+    METHOD: getMax
+    IMPORT: None
+    EXPORT: max (double)
+    ALGORITHM:
+    Returns the largest value.
+    */
+    public double getMax()
+    {
+        return max;
+    }
+
+    /**
+    METHOD: quantile
+    IMPORT: q (double)
+    EXPORT: value (double)
+    ALGORITHM:
+    Returns the approximate q-quantile (within 1% relative error), clamped to the exact min and max.
+    */
+    public double quantile(double q)
+    {
+        if(count == 0)
+        {
+            return Double.NaN;
+        }
+        return Math.max(min, Math.min(max, sketch.quantile(q)));
+    }
+}
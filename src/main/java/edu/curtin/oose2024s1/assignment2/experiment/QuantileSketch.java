@@ -0,0 +1,146 @@
+package edu.curtin.oose2024s1.assignment2.experiment;
+
+/**
+Purpose:
+    - Fixed-memory, mergeable quantile sketch with bounded relative error (a logarithmic-bucket histogram in the style of DDSketch).
+Role:
+    - A value v lands in bucket ceil(log_gamma(|v|)), with gamma = (1 + a) / (1 - a) for relative accuracy a, so any quantile is reported within a factor (1 +/- a) of a true sample value.
+    - Positive and negative values have separate bucket arrays and zero is counted on its own, so balances below zero are handled.
+    - Bucket counts are integers, so merging sketches in any order gives identical results (needed for deterministic parallel experiments).
+    - Magnitudes outside [MIN_MAGNITUDE, MAX_MAGNITUDE] are clamped into the end buckets.
+*/
+// Mergeable quantile sketch with relative-error guarantees.
+public class QuantileSketch
+{
+    private static final double RELATIVE_ACCURACY = 0.01;
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    private static final double MIN_MAGNITUDE = 1e-3;
+    private static final double MAX_MAGNITUDE = 1e15;
+    private static final int MIN_INDEX = (int) Math.ceil(Math.log(MIN_MAGNITUDE) / LOG_GAMMA);
+    private static final int BUCKETS = (int) Math.ceil(Math.log(MAX_MAGNITUDE) / LOG_GAMMA) - MIN_INDEX + 1;
+
+    private final long[] positive = new long[BUCKETS];
+    private final long[] negative = new long[BUCKETS];
+    private long zeroCount;
+    private long count;
+
+    /**
+    METHOD: add
+    IMPORT: value (double)
+    EXPORT: None
+    ALGORITHM:
+    Counts the value in the bucket for its sign and magnitude.
+    */
+    public void add(double value)
+    {
+        if(value == 0.0)
+        {
+            zeroCount++;
+        }
+        else if(value > 0.0)
+        {
+            positive[bucket(value)]++;
+        }
+        else
+        {
+            negative[bucket(-value)]++;
+        }
+        count++;
+    }
+
+    /**
+    METHOD: merge
+    IMPORT: other (QuantileSketch)
+    EXPORT: None
+    ALGORITHM:
+    Adds the other sketch's bucket counts to this one.
+    */
+    public void merge(QuantileSketch other)
+    {
+        for(int i = 0; i < BUCKETS; i++)
+        {
+            positive[i] += other.positive[i];
+            negative[i] += other.negative[i];
+        }
+        zeroCount += other.zeroCount;
+        count += other.count;
+    }
+
+    /**
+    METHOD: quantile
+    IMPORT: q (double)
+    EXPORT: value (double)
+    ALGORITHM:
+    Walks the buckets from the most negative value upwards until the rank q * (count - 1) is reached, and returns that bucket's representative value (NaN if empty).
+    */
+    public double quantile(double q)
+    {
+        if(count == 0)
+        {
+            return Double.NaN;
+        }
+
+        long rank = (long) Math.floor(q * (count - 1));
+        long seen = 0;
+        for(int i = BUCKETS - 1; i >= 0; i--)
+        {
+            seen += negative[i];
+            if(seen > rank)
+            {
+                return -value(i);
+            }
+        }
+        seen += zeroCount;
+        if(seen > rank)
+        {
+            return 0.0;
+        }
+        for(int i = 0; i < BUCKETS; i++)
+        {
+            seen += positive[i];
+            if(seen > rank)
+            {
+                return value(i);
+            }
+        }
+        return value(BUCKETS - 1);
+    }
+
+    /**
+    METHOD: getCount
+    IMPORT: None
+    EXPORT: count (long)
+    ALGORITHM:
+    Returns the number of values added.
+    */
+    public long getCount()
+    {
+        return count;
+    }
+
+    /**
+    METHOD: bucket
+    IMPORT: magnitude (double)
+    EXPORT: index (int)
+    ALGORITHM:
+    Returns the array index of the bucket holding a positive magnitude, clamped to the sketch's range.
+    */
+    private static int bucket(double magnitude)
+    {
+        int index = (int) Math.ceil(Math.log(magnitude) / LOG_GAMMA) - MIN_INDEX;
+        return Math.max(0, Math.min(BUCKETS - 1, index));
+    }
+
+    /**
+    METHOD: value
+    IMPORT: bucket (int)
+    EXPORT: magnitude (double)
+    ALGORITHM:
+    Returns the representative magnitude of a bucket: the point with equal relative error to both of its bounds.
+    */
+    private static double value(int bucket)
+    {
+        return 2 * Math.pow(GAMMA, bucket + MIN_INDEX) / (GAMMA + 1);
+    }
+}
@@ -2,6 +2,7 @@ package edu.curtin.oose2024s1.assignment2.factory;
 
 import edu.curtin.oose2024s1.assignment2.model.Bike;
 
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
@@ -27,7 +28,10 @@ public class BikeFactory
     public Bike createBike()
     {
         Bike bike = new Bike();
-        logger.info(() -> "Created new bike: " + bike);
-        return new Bike();
+        if(logger.isLoggable(Level.INFO))
+        {
+            logger.log(Level.INFO, "Created new bike: state={0}", bike.getStateType());
+        }
+        return bike;
     }
 }
@@ -0,0 +1,65 @@
+package edu.curtin.oose2024s1.assignment2.ingest;
+
+/**
+Purpose:
+    - Holds the complete lines taken from one socket read, waiting to be processed.
+Role:
+    - One batch per read (rather than one object per message) keeps the network thread's allocation down to a single copy of the bytes it read.
+*/
+// The messages received from one connection in one read.
+/* default */ final class IngestBatch
+{
+    private final IngestConnection connection;
+    private final byte[] bytes;
+    private final int messageCount;
+
+    /**
+    METHOD: IngestBatch
+    IMPORT: connection (IngestConnection), bytes (byte ARRAY), messageCount (int)
+    EXPORT: None
+    ALGORITHM:
+    Constructor; bytes holds messageCount complete lines, each ending in '\n'.
+    */
+    /* default */ IngestBatch(IngestConnection connection, byte[] bytes, int messageCount)
+    {
+        this.connection = connection;
+        this.bytes = bytes; // NOPMD - the batch owns this copy of the bytes read
+        this.messageCount = messageCount;
+    }
+
+    /**
+    METHOD: getConnection
+    IMPORT: None
+    EXPORT: connection (IngestConnection)
+    ALGORITHM:
+    Returns the connection the messages came from (and their results go back to).
+    */
+    /* default */ IngestConnection getConnection()
+    {
+        return connection;
+    }
+
+    /**
+    METHOD: getBytes
+    IMPORT: None
+    EXPORT: bytes (byte ARRAY)
+    ALGORITHM:
+    Returns the lines, each ending in '\n'.
+    */
+    /* default */ byte[] getBytes()
+    {
+        return bytes; // NOPMD - read in place by the consumer to avoid a copy
+    }
+
+    /**
+    METHOD: getMessageCount
+    IMPORT: None
+    EXPORT: count (int)
+    ALGORITHM:
+    Returns the number of lines in the batch.
+    */
+    /* default */ int getMessageCount()
+    {
+        return messageCount;
+    }
+}
@@ -0,0 +1,218 @@
+package edu.curtin.oose2024s1.assignment2.ingest;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.logging.Logger;
+
+/**
+Purpose:
+    - The state of one client connection to the IngestServer: its socket, the bytes read but not yet split into lines, and the results waiting to be sent back.
+Role:
+    - Reading and writing the socket happen only on the server's network thread. Results are added by the thread running the shop, so the response buffer is guarded by
+      this object's lock; the network thread holds it only while copying into the socket.
+    - A partial line at the end of a read stays in the read buffer until the rest of it arrives.
+*/
+// One client of the ingest server.
+/* default */ final class IngestConnection
+{
+    private static final Logger logger = Logger.getLogger(IngestConnection.class.getName());
+    private static final int READ_BUFFER_BYTES = 64 * 1024;
+    private static final int INITIAL_RESPONSE_BYTES = 4 * 1024;
+
+    private final SocketChannel channel;
+    private final SelectionKey key;
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_BYTES);
+    private ByteBuffer responses = ByteBuffer.allocate(INITIAL_RESPONSE_BYTES);
+    private boolean readPaused;
+    private volatile boolean closed;
+
+    /**
+    METHOD: IngestConnection
+    IMPORT: channel (SocketChannel), key (SelectionKey)
+    EXPORT: None
+    ALGORITHM:
+    Constructor for a newly accepted (non-blocking, registered) connection.
+    */
+    /* default */ IngestConnection(SocketChannel channel, SelectionKey key)
+    {
+        this.channel = channel;
+        this.key = key;
+    }
+
+    /**
+    METHOD: read
+    IMPORT: None
+    EXPORT: batch (IngestBatch)
+    ALGORITHM:
+    Reads what the socket has and returns the complete lines as a batch (null if there are none yet). Throws EOFException at end of stream,
+    or IOException if a line does not fit in the read buffer.
+    */
+    /* default */ IngestBatch read() throws IOException
+    {
+        int count = channel.read(readBuffer);
+        if(count < 0)
+        {
+            throw new EOFException("Client closed the connection.");
+        }
+
+        int lastLineEnd = -1;
+        int messages = 0;
+        int filled = readBuffer.position();
+        for(int i = 0; i < filled; i++)
+        {
+            if(readBuffer.get(i) == '\n')
+            {
+                lastLineEnd = i;
+                messages++;
+            }
+        }
+        if(messages == 0)
+        {
+            if(!readBuffer.hasRemaining())
+            {
+                throw new IOException("Message longer than " + READ_BUFFER_BYTES + " bytes.");
+            }
+            return null;
+        }
+
+        byte[] lines = new byte[lastLineEnd + 1];
+        readBuffer.flip();
+        readBuffer.get(lines);
+        readBuffer.compact();
+        return new IngestBatch(this, lines, messages);
+    }
+
+    /**
+    METHOD: addResponses
+    IMPORT: bytes (byte ARRAY), length (int)
+    EXPORT: None
+    ALGORITHM:
+    Appends the first length bytes of bytes (whole response lines, to be sent by the network thread), growing the buffer if needed. Responses for a closed connection are dropped.
+    */
+    /* default */ synchronized void addResponses(byte[] bytes, int length)
+    {
+        if(closed)
+        {
+            return;
+        }
+        if(responses.remaining() < length)
+        {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(responses.capacity() * 2, responses.position() + length));
+            responses.flip();
+            larger.put(responses);
+            responses = larger;
+        }
+        responses.put(bytes, 0, length);
+    }
+
+    /**
+    METHOD: writeResponses
+    IMPORT: None
+    EXPORT: pending (int)
+    ALGORITHM:
+    Writes as much of the waiting responses as the socket will take and returns the number of bytes still waiting.
+    */
+    /* default */ synchronized int writeResponses() throws IOException
+    {
+        if(responses.position() == 0)
+        {
+            return 0;
+        }
+        responses.flip();
+        channel.write(responses);
+        responses.compact();
+        return responses.position();
+    }
+
+    /**
+    METHOD: pendingResponseBytes
+    IMPORT: None
+    EXPORT: bytes (int)
+    ALGORITHM:
+    Returns the number of response bytes not yet sent.
+    */
+    /* default */ synchronized int pendingResponseBytes()
+    {
+        return responses.position();
+    }
+
+    /**
+    METHOD: setInterest
+    IMPORT: read (boolean), write (boolean)
+    EXPORT: None
+    ALGORITHM:
+    Sets which socket events the network thread waits for; turning reading off is what pushes back on the client once the kernel buffers fill up.
+    */
+    /* default */ void setInterest(boolean read, boolean write)
+    {
+        if(!key.isValid())
+        {
+            return;
+        }
+        readPaused = !read;
+        int ops = (read ? SelectionKey.OP_READ : 0) | (write ? SelectionKey.OP_WRITE : 0);
+        if(key.interestOps() != ops)
+        {
+            key.interestOps(ops);
+        }
+    }
+
+    /**
+    METHOD: isReadPaused
+    IMPORT: None
+    EXPORT: boolean
+    ALGORITHM:
+    Returns true if reading from this connection is currently paused.
+    */
+    /* default */ boolean isReadPaused()
+    {
+        return readPaused;
+    }
+
+    /**
+    METHOD: close
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Closes the socket and drops any responses still waiting.
+    */
+    /* default */ void close()
+    {
+        closed = true;
+        key.cancel();
+        synchronized(this)
+        {
+            responses = ByteBuffer.allocate(0);
+        }
+        try
+        {
+            channel.close();
+        }
+        catch(IOException e)
+        {
+            logger.fine(() -> "Error closing a client connection: " + e.getMessage());
+        }
+    }
+
+    /**
+    METHOD: describe
+    IMPORT: None
+    EXPORT: String
+    ALGORITHM:
+    Returns the client's address for log messages.
+    */
+    /* default */ String describe()
+    {
+        try
+        {
+            return String.valueOf(channel.getRemoteAddress());
+        }
+        catch(IOException e)
+        {
+            return "closed connection";
+        }
+    }
+}
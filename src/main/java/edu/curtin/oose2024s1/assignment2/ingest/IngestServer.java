@@ -0,0 +1,560 @@
+package edu.curtin.oose2024s1.assignment2.ingest;
+
+import edu.curtin.oose2024s1.assignment2.command.ByteSlice;
+import edu.curtin.oose2024s1.assignment2.controller.ResultCode;
+import edu.curtin.oose2024s1.assignment2.controller.ResultListener;
+import edu.curtin.oose2024s1.assignment2.input.MessageSource;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+Purpose:
+    - Accepts newline-delimited messages from local TCP clients and feeds them to the EventLoop, answering each one with its result code (the ResultCode name and a newline).
+Role:
+    - One network thread runs a NIO selector over every connection. It splits what it reads into complete lines and queues them, one IngestBatch per read.
+    - As a MessageSource, each EventLoop day takes the messages that were queued when the day started (later arrivals wait for the next day), so messages are applied in
+      per-day batches, in arrival order per connection. As a ResultListener, it collects the results of each batch and hands them back to the network thread in one go.
+    - Backpressure is TCP's own: once queueCapacity messages are waiting (or a client has too many unread results), the network thread stops reading from the socket, so
+      the kernel buffers fill and the client's writes block. Reading resumes when the queue is half drained.
+    - Listens on the loopback interface only.
+*/
+// Loopback TCP ingest endpoint for the shop.
+public final class IngestServer implements MessageSource, ResultListener, Closeable
+{
+    private static final Logger logger = Logger.getLogger(IngestServer.class.getName());
+    private static final int MAX_UNSENT_RESPONSE_BYTES = 1024 * 1024;
+    private static final byte[][] RESPONSES = encodeResponses();
+
+    private final int queueCapacity;
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final Thread networkThread;
+    private volatile boolean running = true;
+
+    // Shared between the network thread and the thread running the shop
+    private final Queue<IngestBatch> batches = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queuedMessages = new AtomicInteger();
+    private final Queue<IngestConnection> toFlush = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean wakeupPending = new AtomicBoolean();
+    private volatile boolean readsPaused;
+    private final AtomicLong messagesReceived = new AtomicLong();
+    private final AtomicLong messagesProcessed = new AtomicLong();
+
+    // Network thread only
+    private final List<IngestConnection> connections = new ArrayList<>();
+    private long pauses;
+
+    // Shop thread only
+    private final ByteSlice slice = new ByteSlice();
+    private IngestBatch current;
+    private ByteBuffer currentBytes;
+    private int offset;
+    private int remainingInCurrent;
+    private int dayBudget = -1;
+    private byte[] results = new byte[4096];
+    private int resultsLength;
+
+    /**
+    METHOD: IngestServer
+    IMPORT: port (int), queueCapacity (int)
+    EXPORT: None
+    ALGORITHM:
+    Binds to the given loopback port (0 for any free port) and starts the network thread. queueCapacity is the number of waiting messages at which reading stops.
+    */
+    public IngestServer(int port, int queueCapacity) throws IOException
+    {
+        if(queueCapacity < 2)
+        {
+            throw new IllegalArgumentException("queueCapacity must be at least 2: " + queueCapacity);
+        }
+        this.queueCapacity = queueCapacity;
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        try
+        {
+            serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        }
+        catch(IOException e)
+        {
+            serverChannel.close();
+            selector.close();
+            throw e;
+        }
+        this.networkThread = new Thread(this::runNetwork, "ingest-network");
+        networkThread.setDaemon(true);
+        networkThread.start();
+        logger.info(() -> "Ingest server listening on " + describeAddress() + " (queue capacity " + queueCapacity + " messages).");
+    }
+
+    /**
+    METHOD: getPort
+    IMPORT: None
+    EXPORT: port (int)
+    ALGORITHM:
+    Returns the port the server is listening on.
+    */
+    public int getPort()
+    {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+    METHOD: getMessagesReceived
+    IMPORT: None
+    EXPORT: count (long)
+    ALGORITHM:
+    Returns the number of messages read from clients so far.
+    */
+    public long getMessagesReceived()
+    {
+        return messagesReceived.get();
+    }
+
+    /**
+    METHOD: getMessagesProcessed
+    IMPORT: None
+    EXPORT: count (long)
+    ALGORITHM:
+    Returns the number of messages handed to the shop so far.
+    */
+    public long getMessagesProcessed()
+    {
+        return messagesProcessed.get();
+    }
+
+    /**
+    METHOD: nextMessage
+    IMPORT: None
+    EXPORT: message (CharSequence)
+    ALGORITHM:
+    On the first call of a day, fixes the day's budget at the number of messages waiting. Returns the next waiting message as a reused view over the received bytes
+    (valid until the next call), or null (sending the results collected so far) once the budget is used up.
+    */
+    @Override
+    public CharSequence nextMessage()
+    {
+        if(dayBudget < 0)
+        {
+            dayBudget = queuedMessages.get() + remainingInCurrent;
+        }
+        if(dayBudget == 0)
+        {
+            dayBudget = -1;
+            sendResults();
+            return null;
+        }
+        if(remainingInCurrent == 0)
+        {
+            takeBatch();
+        }
+
+        int end = offset;
+        while(currentBytes.get(end) != '\n')
+        {
+            end++;
+        }
+        int lineEnd = end > offset && currentBytes.get(end - 1) == '\r' ? end - 1 : end;
+        slice.wrap(currentBytes, offset, lineEnd - offset);
+        offset = end + 1;
+        remainingInCurrent--;
+        dayBudget--;
+        messagesProcessed.incrementAndGet();
+        return slice;
+    }
+
+    /**
+    METHOD: messageProcessed
+    IMPORT: result (ResultCode)
+    EXPORT: None
+    ALGORITHM:
+    Adds the result line for the message just returned to the current batch's results.
+    */
+    @Override
+    public void messageProcessed(ResultCode result)
+    {
+        byte[] response = RESPONSES[result.ordinal()];
+        if(resultsLength + response.length > results.length)
+        {
+            byte[] larger = new byte[results.length * 2];
+            System.arraycopy(results, 0, larger, 0, resultsLength);
+            results = larger;
+        }
+        System.arraycopy(response, 0, results, resultsLength, response.length);
+        resultsLength += response.length;
+    }
+
+    /**
+    METHOD: close
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Stops the network thread and closes every connection and the listening socket. Messages still waiting are dropped (and counted in the log).
+    */
+    @Override
+    public void close() throws IOException
+    {
+        running = false;
+        selector.wakeup();
+        try
+        {
+            networkThread.join();
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        for(IngestConnection connection : connections)
+        {
+            connection.close();
+        }
+        connections.clear();
+        serverChannel.close();
+        selector.close();
+        long received = messagesReceived.get();
+        long processed = messagesProcessed.get();
+        long pauseCount = pauses;
+        logger.info(() -> "Ingest server closed: " + received + " messages received, " + processed + " processed, reading paused " + pauseCount + " times.");
+    }
+
+    /**
+    METHOD: takeBatch
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Sends the results of the finished batch and moves on to the next waiting batch, waking the network thread if it paused reading and the queue is now half drained.
+    */
+    private void takeBatch()
+    {
+        sendResults();
+        current = batches.poll();
+        if(current == null)
+        {
+            throw new IllegalStateException("Ingest queue is empty but messages were counted.");
+        }
+        currentBytes = ByteBuffer.wrap(current.getBytes());
+        offset = 0;
+        remainingInCurrent = current.getMessageCount();
+        int waiting = queuedMessages.addAndGet(-remainingInCurrent);
+        if(readsPaused && waiting < queueCapacity / 2)
+        {
+            wakeNetworkThread();
+        }
+    }
+
+    /**
+    METHOD: sendResults
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Hands the results collected for the current batch to its connection and asks the network thread to send them.
+    */
+    private void sendResults()
+    {
+        if(resultsLength == 0)
+        {
+            return;
+        }
+        IngestConnection connection = current.getConnection();
+        connection.addResponses(results, resultsLength);
+        resultsLength = 0;
+        toFlush.add(connection);
+        wakeNetworkThread();
+    }
+
+    /**
+    METHOD: wakeNetworkThread
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Wakes the selector, unless a wake-up is already on its way.
+    */
+    private void wakeNetworkThread()
+    {
+        if(wakeupPending.compareAndSet(false, true))
+        {
+            selector.wakeup();
+        }
+    }
+
+    /**
+    METHOD: runNetwork
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    The network thread: waits for socket events, then sends waiting results, resumes paused connections once the queue has drained, and accepts, reads and writes.
+    */
+    private void runNetwork()
+    {
+        while(running)
+        {
+            try
+            {
+                selector.select();
+            }
+            catch(IOException e)
+            {
+                logger.severe(() -> "Ingest selector failed: " + e.getMessage());
+                return;
+            }
+            wakeupPending.set(false);
+            flushRequested();
+            if(readsPaused && queuedMessages.get() < queueCapacity / 2)
+            {
+                resumeReading();
+            }
+
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while(keys.hasNext())
+            {
+                SelectionKey key = keys.next();
+                keys.remove();
+                if(!key.isValid())
+                {
+                    continue;
+                }
+                if(key.isAcceptable())
+                {
+                    accept();
+                }
+                else
+                {
+                    IngestConnection connection = (IngestConnection) key.attachment();
+                    if(key.isWritable())
+                    {
+                        write(connection);
+                    }
+                    if(key.isValid() && key.isReadable())
+                    {
+                        read(connection);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+    METHOD: accept
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Accepts a waiting client and registers it for reading.
+    */
+    private void accept()
+    {
+        try
+        {
+            SocketChannel channel = serverChannel.accept();
+            if(channel == null)
+            {
+                return;
+            }
+            channel.configureBlocking(false);
+            SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+            IngestConnection connection = new IngestConnection(channel, key);
+            key.attach(connection);
+            connections.add(connection);
+            logger.info(() -> "Ingest client connected: " + connection.describe());
+        }
+        catch(IOException e)
+        {
+            logger.warning(() -> "Error accepting an ingest client: " + e.getMessage());
+        }
+    }
+
+    /**
+    METHOD: read
+    IMPORT: connection (IngestConnection)
+    EXPORT: None
+    ALGORITHM:
+    Queues the complete lines the client has sent, unless the queue is full, in which case reading from the client is paused instead.
+    */
+    private void read(IngestConnection connection)
+    {
+        if(queuedMessages.get() >= queueCapacity)
+        {
+            pause(connection);
+            return;
+        }
+        try
+        {
+            IngestBatch batch = connection.read();
+            if(batch != null)
+            {
+                batches.add(batch);
+                queuedMessages.addAndGet(batch.getMessageCount());
+                messagesReceived.addAndGet(batch.getMessageCount());
+            }
+        }
+        catch(EOFException e)
+        {
+            disconnect(connection, null);
+        }
+        catch(IOException e)
+        {
+            disconnect(connection, e);
+        }
+    }
+
+    /**
+    METHOD: write
+    IMPORT: connection (IngestConnection)
+    EXPORT: None
+    ALGORITHM:
+    Sends as many waiting results as the socket will take, then updates what the connection waits for.
+    */
+    private void write(IngestConnection connection)
+    {
+        try
+        {
+            int unsent = connection.writeResponses();
+            boolean read = queuedMessages.get() < queueCapacity && unsent <= MAX_UNSENT_RESPONSE_BYTES;
+            if(!read && !connection.isReadPaused())
+            {
+                pauses++;
+                readsPaused = true;
+            }
+            connection.setInterest(read, unsent > 0);
+        }
+        catch(IOException e)
+        {
+            disconnect(connection, e);
+        }
+    }
+
+    /**
+    METHOD: flushRequested
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Tries to send the results of every connection the shop thread has added results to.
+    */
+    private void flushRequested()
+    {
+        IngestConnection connection = toFlush.poll();
+        while(connection != null)
+        {
+            write(connection);
+            connection = toFlush.poll();
+        }
+    }
+
+    /**
+    METHOD: pause
+    IMPORT: connection (IngestConnection)
+    EXPORT: None
+    ALGORITHM:
+    Stops reading from the connection (still sending it results) until the queue drains.
+    */
+    private void pause(IngestConnection connection)
+    {
+        if(!connection.isReadPaused())
+        {
+            pauses++;
+        }
+        readsPaused = true;
+        connection.setInterest(false, connection.pendingResponseBytes() > 0);
+    }
+
+    /**
+    METHOD: resumeReading
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Starts reading again from every paused connection that does not have too many unsent results.
+    */
+    private void resumeReading()
+    {
+        boolean stillPaused = false;
+        for(IngestConnection connection : connections)
+        {
+            if(connection.isReadPaused())
+            {
+                int unsent = connection.pendingResponseBytes();
+                boolean read = unsent <= MAX_UNSENT_RESPONSE_BYTES;
+                connection.setInterest(read, unsent > 0);
+                stillPaused |= !read;
+            }
+        }
+        readsPaused = stillPaused;
+    }
+
+    /**
+    METHOD: disconnect
+    IMPORT: connection (IngestConnection), error (IOException)
+    EXPORT: None
+    ALGORITHM:
+    Closes a connection the client has closed (error is null) or that failed. Its queued messages are still applied; their results are dropped.
+    */
+    private void disconnect(IngestConnection connection, IOException error)
+    {
+        String client = connection.describe();
+        if(error == null)
+        {
+            logger.info(() -> "Ingest client disconnected: " + client);
+        }
+        else
+        {
+            logger.warning(() -> "Dropping ingest client " + client + ": " + error.getMessage());
+        }
+        connection.close();
+        connections.remove(connection);
+    }
+
+    /**
+    METHOD: describeAddress
+    IMPORT: None
+    EXPORT: String
+    ALGORITHM:
+    Returns the listening address for log messages.
+    */
+    private String describeAddress()
+    {
+        try
+        {
+            return String.valueOf(serverChannel.getLocalAddress());
+        }
+        catch(IOException e)
+        {
+            return "port " + getPort();
+        }
+    }
+
+    /**
+    METHOD: encodeResponses
+    IMPORT: None
+    EXPORT: responses (byte ARRAY ARRAY)
+    ALGORITHM:
+    Encodes each ResultCode's response line once, indexed by ordinal.
+    */
+    private static byte[][] encodeResponses()
+    {
+        ResultCode[] codes = ResultCode.values();
+        byte[][] responses = new byte[codes.length][];
+        for(ResultCode code : codes)
+        {
+            responses[code.ordinal()] = (code.name() + "\n").getBytes(StandardCharsets.US_ASCII);
+        }
+        return responses;
+    }
+}
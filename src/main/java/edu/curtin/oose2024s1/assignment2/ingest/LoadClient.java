@@ -0,0 +1,212 @@
+package edu.curtin.oose2024s1.assignment2.ingest;
+
+import edu.curtin.oose2024s1.assignment2.input.MessageSource;
+import edu.curtin.oose2024s1.assignment2.input.SeededMessageGenerator;
+import edu.curtin.oose2024s1.assignment2.input.SyntheticMessageSource;
+import edu.curtin.oose2024s1.assignment2.input.Workload;
+import edu.curtin.oose2024s1.assignment2.simulation.VirtualClock;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+Purpose:
+    - Load generator for the IngestServer: pushes a fixed number of messages over several connections as fast as the server will take them and counts the results it gets back.
+Role:
+    - The messages are the seeded random stream (BikeShopInput's, or a synthetic Workload's), built once into a block of bytes that every connection writes over and over, so generating load costs nothing per message.
+    - Each connection has a writer and a reader thread (virtual threads, blocking sockets). A blocked writer is the server's backpressure at work.
+    - Results are counted by line; a line starting with 'F' is a FAIL_ result.
+*/
+// TCP load generator for the ingest server.
+public final class LoadClient
+{
+    private static final Logger logger = Logger.getLogger(LoadClient.class.getName());
+    private static final int BLOCK_BYTES = 1024 * 1024;
+    private static final int READ_BUFFER_BYTES = 64 * 1024;
+
+    private final int port;
+    private final int connections;
+    private final long messages;
+    private final byte[] block;
+    private final int[] lineEnds;
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong answered = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    /**
+    METHOD: LoadClient
+    IMPORT: port (int), connections (int), messages (long), seed (long), workload (Workload)
+    EXPORT: None
+    ALGORITHM:
+    Constructor that builds the block of messages (about BLOCK_BYTES of whole lines) from the seeded generator, or from a SyntheticMessageSource if a workload is given (null for none).
+    */
+    public LoadClient(int port, int connections, long messages, long seed, Workload workload)
+    {
+        if(connections < 1 || messages < 1)
+        {
+            throw new IllegalArgumentException("Need at least one connection and one message.");
+        }
+        this.port = port;
+        this.connections = connections;
+        this.messages = messages;
+
+        VirtualClock clock = new VirtualClock();
+        MessageSource generator;
+        if(workload == null)
+        {
+            generator = new SeededMessageGenerator(seed, clock);
+        }
+        else
+        {
+            generator = new SyntheticMessageSource(workload, seed, clock);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(BLOCK_BYTES + 256);
+        List<Integer> ends = new ArrayList<>();
+        while(bytes.size() < BLOCK_BYTES)
+        {
+            clock.advanceDay();
+            CharSequence message = generator.nextMessage();
+            while(message != null && bytes.size() < BLOCK_BYTES)
+            {
+                bytes.writeBytes((message + "\n").getBytes(StandardCharsets.ISO_8859_1));
+                ends.add(bytes.size());
+                message = generator.nextMessage();
+            }
+        }
+        this.block = bytes.toByteArray();
+        this.lineEnds = ends.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+    METHOD: run
+    IMPORT: None
+    EXPORT: report (String)
+    ALGORITHM:
+    Splits the messages across the connections, sends them all, waits until every one has been answered (or a connection fails) and returns a summary with the rates achieved.
+    */
+    public String run() throws InterruptedException
+    {
+        long start = System.nanoTime();
+        List<Thread> threads = new ArrayList<>();
+        for(int i = 0; i < connections; i++)
+        {
+            long share = messages / connections + (i < messages % connections ? 1 : 0);
+            if(share > 0)
+            {
+                threads.add(Thread.ofVirtual().name("load-" + i).start(() -> runConnection(share)));
+            }
+        }
+        for(Thread thread : threads)
+        {
+            thread.join();
+        }
+        long elapsedNanos = Math.max(1L, System.nanoTime() - start);
+
+        double seconds = elapsedNanos / 1e9;
+        return String.format("Sent %d messages over %d connections in %.3f s (%.0f messages/s); %d answered, %d failures.",
+                sent.get(), connections, seconds, answered.get() / seconds, answered.get(), failures.get());
+    }
+
+    /**
+    METHOD: runConnection
+    IMPORT: share (long)
+    EXPORT: None
+    ALGORITHM:
+    Opens one connection, writes share messages from a writer thread while this thread reads and counts the results, until all share results are in.
+    */
+    private void runConnection(long share)
+    {
+        try(SocketChannel channel = SocketChannel.open(new InetSocketAddress(InetAddress.getLoopbackAddress(), port)))
+        {
+            Thread writer = Thread.ofVirtual().start(() -> writeMessages(channel, share));
+            readResults(channel, share);
+            writer.join();
+        }
+        catch(IOException e)
+        {
+            logger.warning(() -> "Load connection failed: " + e.getMessage());
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+    METHOD: writeMessages
+    IMPORT: channel (SocketChannel), share (long)
+    EXPORT: None
+    ALGORITHM:
+    Writes the message block repeatedly, ending with as many of its leading lines as are needed to make up share messages.
+    */
+    private void writeMessages(SocketChannel channel, long share)
+    {
+        long remaining = share;
+        try
+        {
+            while(remaining > 0)
+            {
+                int lines = (int) Math.min(remaining, lineEnds.length);
+                channel.write(ByteBuffer.wrap(block, 0, lineEnds[lines - 1]));
+                sent.addAndGet(lines);
+                remaining -= lines;
+            }
+        }
+        catch(IOException e)
+        {
+            logger.warning(() -> "Error sending load: " + e.getMessage());
+        }
+    }
+
+    /**
+    METHOD: readResults
+    IMPORT: channel (SocketChannel), share (long)
+    EXPORT: None
+    ALGORITHM:
+    Reads result lines until share of them have arrived or the server closes the connection.
+    */
+    private void readResults(SocketChannel channel, long share) throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_BYTES);
+        long remaining = share;
+        boolean lineStart = true;
+        while(remaining > 0)
+        {
+            buffer.clear();
+            if(channel.read(buffer) < 0)
+            {
+                long missing = remaining;
+                logger.warning(() -> "Server closed the connection with " + missing + " results outstanding.");
+                return;
+            }
+            int limit = buffer.position();
+            long lines = 0;
+            long failed = 0;
+            for(int i = 0; i < limit; i++)
+            {
+                byte b = buffer.get(i);
+                if(lineStart && b == 'F')
+                {
+                    failed++;
+                }
+                lineStart = b == '\n';
+                if(lineStart)
+                {
+                    lines++;
+                }
+            }
+            remaining -= lines;
+            answered.addAndGet(lines);
+            failures.addAndGet(failed);
+        }
+    }
+}
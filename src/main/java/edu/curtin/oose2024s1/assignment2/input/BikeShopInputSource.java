@@ -0,0 +1,40 @@
+package edu.curtin.oose2024s1.assignment2.input;
+
+import edu.curtin.oose2024s1.assignment2.BikeShopInput;
+
+/**
+Purpose:
+    - Adapts the provided BikeShopInput class to the MessageSource interface.
+Role:
+    - BikeShopInput must not be modified, so this adapter is how the interactive run mode feeds it into the EventLoop.
+*/
+// Adapter from BikeShopInput to MessageSource.
+public class BikeShopInputSource implements MessageSource
+{
+    private final BikeShopInput bikeShopInput;
+
+    /**
+    METHOD: BikeShopInputSource
+    IMPORT: bikeShopInput (BikeShopInput)
+    EXPORT: None
+    ALGORITHM:
+    Constructor that stores the wrapped input.
+    */
+    public BikeShopInputSource(BikeShopInput bikeShopInput)
+    {
+        this.bikeShopInput = bikeShopInput;
+    }
+
+    /**
+    METHOD: nextMessage
+    IMPORT: None
+    EXPORT: message (String)
+    ALGORITHM:
+    Delegates to BikeShopInput.nextMessage().
+    */
+    @Override
+    public String nextMessage()
+    {
+        return bikeShopInput.nextMessage();
+    }
+}
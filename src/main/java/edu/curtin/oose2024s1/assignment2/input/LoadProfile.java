@@ -0,0 +1,15 @@
+package edu.curtin.oose2024s1.assignment2.input;
+
+/**
+Purpose:
+    - Enumerates how a Workload's daily message rates vary from day to day.
+Role:
+    - STEADY keeps the configured rates, BURSTY multiplies them on randomly chosen burst days, and SEASONAL scales them along a sine wave over a fixed period.
+*/
+// Day-to-day shape of a synthetic workload.
+public enum LoadProfile
+{
+    STEADY,
+    BURSTY,
+    SEASONAL
+}
@@ -0,0 +1,21 @@
+package edu.curtin.oose2024s1.assignment2.input;
+
+/**
+Purpose:
+    - Defines the contract for anything that supplies input messages to the bike shop simulation.
+Role:
+    - Lets the EventLoop drain messages without knowing whether they come from BikeShopInput, another generator or a recorded trace.
+    - A message is a CharSequence that only has to stay valid until the next call, so a source can hand out a reusable view over its own buffer (e.g. a memory-mapped trace) instead of a new String per message.
+*/
+// Interface for input message sources.
+public interface MessageSource
+{
+    /**
+    METHOD: nextMessage
+    IMPORT: None
+    EXPORT: message (CharSequence)
+    ALGORITHM:
+    Returns the next pending message, or null when there are no more messages for the current day. The message may change or become invalid on the next call.
+    */
+    CharSequence nextMessage();
+}
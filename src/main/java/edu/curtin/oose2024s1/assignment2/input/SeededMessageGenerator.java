@@ -0,0 +1,152 @@
+package edu.curtin.oose2024s1.assignment2.input;
+
+import edu.curtin.oose2024s1.assignment2.simulation.SimulationClock;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+/**
+Purpose:
+    - Generates the same random message stream as BikeShopInput, but measures elapsed time with a SimulationClock instead of System.currentTimeMillis().
+Role:
+    - Makes fast-forward runs possible: with a VirtualClock, one batch of messages is produced per simulated day regardless of how fast the days are processed.
+    - For a given seed, the messages in each daily batch are identical to those BikeShopInput produces for the same seed (the random number generator is consumed in exactly the same order).
+*/
+// Clock-driven port of BikeShopInput's message generator.
+public class SeededMessageGenerator implements MessageSource
+{
+    // Same probabilities as BikeShopInput.
+    private static final double DELIVERY_P = 0.1;
+    private static final double DROP_OFF_P = 0.25;
+    private static final double PURCHASE_ONLINE_P = 0.4;
+    private static final double PURCHASE_IN_STORE_P = 0.4;
+    private static final double PICK_UP_P = 0.25;
+    private static final double SCREW_UP_P = 0.05;
+
+    private final SimulationClock clock;
+    private final Random random;
+    private final List<String> emails = new ArrayList<>();
+
+    @SuppressWarnings("PMD.LooseCoupling")  // We call LinkedList.poll(), which List doesn't have.
+    private final LinkedList<String> messages = new LinkedList<>();
+
+    private long lastDay;
+
+    /**
+    METHOD: SeededMessageGenerator
+    IMPORT: seed (long), clock (SimulationClock)
+    EXPORT: None
+    ALGORITHM:
+    Constructor that seeds the random number generator and records the clock's current day as the starting point.
+    */
+    public SeededMessageGenerator(long seed, SimulationClock clock)
+    {
+        this.random = new Random(seed);
+        this.clock = clock;
+        this.lastDay = clock.currentDay();
+    }
+
+    /**
+    METHOD: genLetters
+    IMPORT: sb (StringBuilder), base (char), range (int), len (int)
+    EXPORT: None
+    ALGORITHM:
+    Appends len random characters in [base, base + range) to sb.
+    */
+    private void genLetters(StringBuilder sb, char base, int range, int len)
+    {
+        for(int i = 0; i < len; i++)
+        {
+            sb.append((char)(base + random.nextInt(range)));
+        }
+    }
+
+    /**
+    METHOD: makeEmail
+    IMPORT: None
+    EXPORT: email (String)
+    ALGORITHM:
+    Builds a random email address of the same shape as BikeShopInput's.
+    */
+    private String makeEmail()
+    {
+        var sb = new StringBuilder();
+        genLetters(sb, 'a', 26, random.nextInt(5) + 3);
+        sb.append('@');
+        genLetters(sb, 'a', 26, random.nextInt(5) + 3);
+        sb.append('.');
+        genLetters(sb, 'a', 26, 3);
+        return sb.toString();
+    }
+
+    /**
+    METHOD: generateDay
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Generates one day's worth of messages, shuffles them and appends them to the pending queue.
+    */
+    private void generateDay()
+    {
+        var newMessages = new ArrayList<String>();
+        while(random.nextDouble() < DELIVERY_P)
+        {
+            newMessages.add("DELIVERY");
+        }
+        while(random.nextDouble() < DROP_OFF_P)
+        {
+            var email = makeEmail();
+            emails.add(email);
+            newMessages.add("DROP-OFF " + email);
+        }
+        while(random.nextDouble() < PURCHASE_ONLINE_P)
+        {
+            var email = makeEmail();
+            emails.add(email);
+            newMessages.add("PURCHASE-ONLINE " + email);
+        }
+        while(random.nextDouble() < PURCHASE_IN_STORE_P)
+        {
+            newMessages.add("PURCHASE-IN-STORE");
+        }
+        while(!emails.isEmpty() && random.nextDouble() < PICK_UP_P)
+        {
+            newMessages.add("PICK-UP " + emails.get(random.nextInt(emails.size())));
+        }
+        while(random.nextDouble() < SCREW_UP_P)
+        {
+            var sb = new StringBuilder();
+            genLetters(sb, ' ', 95, random.nextInt(30));
+            if(!emails.isEmpty() && random.nextBoolean())
+            {
+                sb.append(' ');
+                sb.append(emails.get(random.nextInt(emails.size())));
+            }
+            newMessages.add(sb.toString());
+        }
+        Collections.shuffle(newMessages, random);
+        messages.addAll(newMessages);
+    }
+
+    /**
+    METHOD: nextMessage
+    IMPORT: None
+    EXPORT: message (String)
+    ALGORITHM:
+    Generates one batch for every day the clock has advanced since the last call, then returns the next pending message (or null if none).
+    */
+    @Override
+    public String nextMessage()
+    {
+        long today = clock.currentDay();
+        for(long day = lastDay; day < today; day++)
+        {
+            generateDay();
+        }
+        lastDay = today;
+        return messages.poll();
+    }
+}
@@ -0,0 +1,294 @@
+package edu.curtin.oose2024s1.assignment2.input;
+
+import edu.curtin.oose2024s1.assignment2.command.ByteSlice;
+import edu.curtin.oose2024s1.assignment2.simulation.SimulationClock;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.logging.Logger;
+
+/**
+Purpose:
+    - Generates messages in BikeShopInput's grammar at very high rates, with the mix, customer skew and day-to-day shape taken from a Workload.
+Role:
+    - Clock-driven like SeededMessageGenerator: each day the clock advances, the number of messages of each type for that day is drawn (Poisson around the
+      profile-adjusted rate) and the day's messages are then handed out in random order until they run out.
+    - Nothing is queued and nothing is allocated per message: each message is written into one reused byte buffer (a fixed prefix plus an email copied from a
+      pre-built pool) and returned as a reused ByteSlice, valid until the next call.
+    - Emails come from a fixed pool chosen with a Zipf skew, so memory stays bounded and popular customers come back, unlike BikeShopInput's ever-growing list.
+    - Malformed messages replace a configurable fraction of messages with random printable text (sometimes followed by a known email), as BikeShopInput's "screw-ups" do.
+*/
+// Fast, configurable synthetic message generator.
+public class SyntheticMessageSource implements MessageSource
+{
+    private static final Logger logger = Logger.getLogger(SyntheticMessageSource.class.getName());
+    private static final int MAX_MESSAGE_BYTES = 128;
+    private static final int MAX_MALFORMED_LENGTH = 30;
+    private static final double POISSON_EXACT_LIMIT = 30.0;
+    private static final byte[][] PREFIXES = encodePrefixes();
+
+    private final Workload workload;
+    private final SimulationClock clock;
+    private final SplittableRandom random;
+    private final ZipfSampler emailSampler;
+    private final byte[] emailBytes;
+    private final int[] emailOffsets;
+    private final long malformedThreshold;
+    private final long[] remaining = new long[Workload.TYPE_COUNT];
+    private long remainingTotal;
+    private final byte[] message = new byte[MAX_MESSAGE_BYTES];
+    private final ByteBuffer messageBuffer = ByteBuffer.wrap(message);
+    private final ByteSlice slice = new ByteSlice();
+    private long lastDay;
+
+    /**
+    METHOD: SyntheticMessageSource
+    IMPORT: workload (Workload), seed (long), clock (SimulationClock)
+    EXPORT: None
+    ALGORITHM:
+    Constructor that builds the email pool and its Zipf sampler from the seed, and records the clock's current day as the starting point.
+    */
+    public SyntheticMessageSource(Workload workload, long seed, SimulationClock clock)
+    {
+        this.workload = workload;
+        this.clock = clock;
+        this.random = new SplittableRandom(seed);
+        this.malformedThreshold = (long) (workload.getMalformedRate() * 0x1.0p53);
+        this.emailSampler = new ZipfSampler(workload.getEmailPoolSize(), workload.getZipfExponent());
+
+        int pool = workload.getEmailPoolSize();
+        this.emailOffsets = new int[pool + 1];
+        byte[] bytes = new byte[pool * 20];
+        int length = 0;
+        for(int i = 0; i < pool; i++)
+        {
+            emailOffsets[i] = length;
+            length = appendEmail(bytes, length);
+        }
+        emailOffsets[pool] = length;
+        this.emailBytes = Arrays.copyOf(bytes, length);
+        this.lastDay = clock.currentDay();
+        logger.info(workload::describe);
+    }
+
+    /**
+    METHOD: nextMessage
+    IMPORT: None
+    EXPORT: message (CharSequence)
+    ALGORITHM:
+    Draws the message counts for every day the clock has advanced since the last call, then picks one of the remaining messages at random (weighted by
+    how many of each type remain), writes it into the reused buffer and returns a view of it; null when none remain.
+    */
+    @Override
+    public CharSequence nextMessage()
+    {
+        long today = clock.currentDay();
+        for(long day = lastDay; day < today; day++)
+        {
+            drawDay(day + 1);
+        }
+        lastDay = today;
+        if(remainingTotal == 0)
+        {
+            return null;
+        }
+
+        // Scaling a 53-bit fraction avoids the division in nextLong(bound); the bias is far below one in a million.
+        long pick = (long) ((random.nextLong() >>> 11) * 0x1.0p-53 * remainingTotal);
+        int type = 0;
+        while(pick >= remaining[type])
+        {
+            pick -= remaining[type];
+            type++;
+        }
+        remaining[type]--;
+        remainingTotal--;
+
+        int length = (random.nextLong() >>> 11) < malformedThreshold ? writeMalformed() : writeMessage(type);
+        return slice.wrap(messageBuffer, 0, length);
+    }
+
+    /**
+    METHOD: drawDay
+    IMPORT: day (long)
+    EXPORT: None
+    ALGORITHM:
+    Adds the given day's message counts: for each type, a Poisson draw around its rate scaled by the profile's factor for that day.
+    */
+    private void drawDay(long day)
+    {
+        double factor = profileFactor(day);
+        for(int type = 0; type < remaining.length; type++)
+        {
+            long count = poisson(workload.getRate(type) * factor);
+            remaining[type] += count;
+            remainingTotal += count;
+        }
+    }
+
+    /**
+    METHOD: profileFactor
+    IMPORT: day (long)
+    EXPORT: factor (double)
+    ALGORITHM:
+    Returns the multiplier the workload's profile applies to the rates on the given day.
+    */
+    private double profileFactor(long day)
+    {
+        return switch(workload.getProfile())
+        {
+            case STEADY -> 1.0;
+            case BURSTY -> random.nextDouble() < workload.getBurstProbability() ? workload.getBurstFactor() : 1.0;
+            case SEASONAL -> 1.0 + workload.getSeasonAmplitude() * Math.sin(2.0 * Math.PI * (day % workload.getSeasonDays()) / workload.getSeasonDays());
+        };
+    }
+
+    /**
+    METHOD: poisson
+    IMPORT: mean (double)
+    EXPORT: count (long)
+    ALGORITHM:
+    Draws a Poisson-distributed count: exactly (Knuth's method) for small means, by the normal approximation for large ones.
+    */
+    private long poisson(double mean)
+    {
+        if(mean <= 0.0)
+        {
+            return 0;
+        }
+        if(mean > POISSON_EXACT_LIMIT)
+        {
+            return Math.max(0L, Math.round(mean + Math.sqrt(mean) * gaussian()));
+        }
+        double limit = Math.exp(-mean);
+        long count = 0;
+        double product = random.nextDouble();
+        while(product > limit)
+        {
+            count++;
+            product *= random.nextDouble();
+        }
+        return count;
+    }
+
+    /**
+    METHOD: gaussian
+    IMPORT: None
+    EXPORT: value (double)
+    ALGORITHM:
+    Returns a standard normal value (Box-Muller).
+    */
+    private double gaussian()
+    {
+        double u = 1.0 - random.nextDouble();
+        return Math.sqrt(-2.0 * Math.log(u)) * Math.cos(2.0 * Math.PI * random.nextDouble());
+    }
+
+    /**
+    METHOD: writeMessage
+    IMPORT: type (int)
+    EXPORT: length (int)
+    ALGORITHM:
+    Writes the type's prefix (with its trailing space) into the buffer, followed by a Zipf-chosen email for the types that carry one.
+    */
+    private int writeMessage(int type)
+    {
+        byte[] prefix = PREFIXES[type];
+        System.arraycopy(prefix, 0, message, 0, prefix.length);
+        if(type == Workload.DELIVERY || type == Workload.PURCHASE_IN_STORE)
+        {
+            return prefix.length;
+        }
+        return writeEmail(prefix.length);
+    }
+
+    /**
+    METHOD: writeMalformed
+    IMPORT: None
+    EXPORT: length (int)
+    ALGORITHM:
+    Writes up to MAX_MALFORMED_LENGTH - 1 random printable characters, followed half the time by a space and a known email (BikeShopInput's "screw-up" shape).
+    */
+    private int writeMalformed()
+    {
+        int length = random.nextInt(MAX_MALFORMED_LENGTH);
+        for(int i = 0; i < length; i++)
+        {
+            message[i] = (byte) (' ' + random.nextInt(95));
+        }
+        if(random.nextBoolean())
+        {
+            message[length++] = ' ';
+            length = writeEmail(length);
+        }
+        return length;
+    }
+
+    /**
+    METHOD: writeEmail
+    IMPORT: at (int)
+    EXPORT: length (int)
+    ALGORITHM:
+    Copies a Zipf-chosen email from the pool into the buffer at the given position and returns the new message length.
+    */
+    private int writeEmail(int at)
+    {
+        int email = emailSampler.next(random);
+        int start = emailOffsets[email];
+        int length = emailOffsets[email + 1] - start;
+        System.arraycopy(emailBytes, start, message, at, length);
+        return at + length;
+    }
+
+    /**
+    METHOD: appendEmail
+    IMPORT: bytes (byte ARRAY), at (int)
+    EXPORT: length (int)
+    ALGORITHM:
+    Appends a random email of BikeShopInput's shape (3-7 letters, '@', 3-7 letters, '.', 3 letters) and returns the new length.
+    */
+    private int appendEmail(byte[] bytes, int at)
+    {
+        int length = appendLetters(bytes, at, random.nextInt(5) + 3);
+        bytes[length++] = '@';
+        length = appendLetters(bytes, length, random.nextInt(5) + 3);
+        bytes[length++] = '.';
+        return appendLetters(bytes, length, 3);
+    }
+
+    /**
+    METHOD: appendLetters
+    IMPORT: bytes (byte ARRAY), at (int), count (int)
+    EXPORT: length (int)
+    ALGORITHM:
+    Appends count random lower-case letters and returns the new length.
+    */
+    private int appendLetters(byte[] bytes, int at, int count)
+    {
+        for(int i = 0; i < count; i++)
+        {
+            bytes[at + i] = (byte) ('a' + random.nextInt(26));
+        }
+        return at + count;
+    }
+
+    /**
+    METHOD: encodePrefixes
+    IMPORT: None
+    EXPORT: prefixes (byte ARRAY ARRAY)
+    ALGORITHM:
+    Encodes each message type's text once, with a trailing space for the types that are followed by an email.
+    */
+    private static byte[][] encodePrefixes()
+    {
+        byte[][] prefixes = new byte[Workload.TYPE_COUNT][];
+        for(int type = 0; type < prefixes.length; type++)
+        {
+            boolean withEmail = type != Workload.DELIVERY && type != Workload.PURCHASE_IN_STORE;
+            prefixes[type] = (Workload.typeName(type) + (withEmail ? " " : "")).getBytes(StandardCharsets.US_ASCII);
+        }
+        return prefixes;
+    }
+}
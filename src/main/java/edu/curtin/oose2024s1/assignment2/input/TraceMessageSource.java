@@ -0,0 +1,244 @@
+package edu.curtin.oose2024s1.assignment2.input;
+
+import edu.curtin.oose2024s1.assignment2.command.ByteSlice;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.logging.Logger;
+
+/**
+Purpose:
+    - Replays a trace file recorded by TraceRecorder: one message per line, with a day marker line (TraceRecorder.DAY_MARKER followed by the day number) ending each day.
+Role:
+    - The file is memory-mapped read-only in large windows and each message is handed out as a reused ByteSlice over the mapped bytes, so no line is ever copied into a String or byte array.
+    - A day marker ends the current day's batch: nextMessage returns null there, which is where the EventLoop stops draining, and carries on with the next day on the next call.
+      At the end of the trace, nextMessage keeps returning null (so any further days are empty).
+    - The source ignores the clock; how fast the days go by is up to the EventLoop's SimulationClock (a VirtualClock for maximum speed, or a sped-up WallClock).
+*/
+// Memory-mapped, zero-copy replay of a recorded message trace.
+public class TraceMessageSource implements MessageSource, Closeable
+{
+    private static final Logger logger = Logger.getLogger(TraceMessageSource.class.getName());
+    private static final long WINDOW_BYTES = 64L * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final int dayCount;
+    private final ByteSlice slice = new ByteSlice();
+
+    private MappedByteBuffer window;
+    private long windowStart;
+    private int position;
+    private boolean exhausted;
+
+    /**
+    METHOD: TraceMessageSource
+    IMPORT: file (Path)
+    EXPORT: None
+    ALGORITHM:
+    Opens and maps the trace file and counts the days it holds (a final day without a marker, e.g. after a crash while recording, still counts).
+    */
+    public TraceMessageSource(Path file) throws IOException
+    {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try
+        {
+            this.fileSize = channel.size();
+            this.dayCount = countDays();
+            mapWindow(0L);
+        }
+        catch(IOException e)
+        {
+            channel.close();
+            throw e;
+        }
+        logger.info(() -> "Replaying " + dayCount + " days (" + fileSize + " bytes) from trace " + file);
+    }
+
+    /**
+    METHOD: getDayCount
+    IMPORT: None
+    EXPORT: days (int)
+    ALGORITHM:
+    Returns the number of days recorded in the trace.
+    */
+    public int getDayCount()
+    {
+        return dayCount;
+    }
+
+    /**
+    METHOD: isExhausted
+    IMPORT: None
+    EXPORT: boolean
+    ALGORITHM:
+    Returns true once every message in the trace has been handed out.
+    */
+    public boolean isExhausted()
+    {
+        return exhausted;
+    }
+
+    /**
+    METHOD: nextMessage
+    IMPORT: None
+    EXPORT: message (CharSequence)
+    ALGORITHM:
+    Finds the end of the next line, remapping the window at the start of the line if the line crosses the end of the window.
+    Returns null for a day marker (consuming it) and at the end of the trace; otherwise returns the reused slice over the line (without its line ending), valid until the next call.
+    */
+    @Override
+    public CharSequence nextMessage()
+    {
+        if(exhausted)
+        {
+            return null;
+        }
+        if(windowStart + position >= fileSize)
+        {
+            exhausted = true;
+            return null;
+        }
+
+        int end = findLineEnd();
+        if(end < 0 && windowStart + window.limit() < fileSize)
+        {
+            if(!remapAtLine())
+            {
+                return null;
+            }
+            end = findLineEnd();
+        }
+
+        int lineStart = position;
+        int lineEnd = end < 0 ? window.limit() : end;
+        position = end < 0 ? window.limit() : end + 1;
+        if(lineEnd > lineStart && window.get(lineEnd - 1) == '\r')
+        {
+            lineEnd--;
+        }
+        if(lineEnd > lineStart && window.get(lineStart) == TraceRecorder.DAY_MARKER)
+        {
+            return null;
+        }
+        return slice.wrap(window, lineStart, lineEnd - lineStart);
+    }
+
+    /**
+    METHOD: close
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Closes the trace file (the mapping itself is released by the garbage collector).
+    */
+    @Override
+    public void close() throws IOException
+    {
+        exhausted = true;
+        channel.close();
+    }
+
+    /**
+    METHOD: findLineEnd
+    IMPORT: None
+    EXPORT: index (int)
+    ALGORITHM:
+    Returns the index of the next '\n' in the window at or after position, or -1 if there is none.
+    */
+    private int findLineEnd()
+    {
+        int limit = window.limit();
+        for(int i = position; i < limit; i++)
+        {
+            if(window.get(i) == '\n')
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+    METHOD: remapAtLine
+    IMPORT: None
+    EXPORT: remapped (boolean)
+    ALGORITHM:
+    Maps a new window starting at the current line. Gives up on the rest of the trace (returning false) if the line is longer than a whole window or the file cannot be mapped.
+    */
+    private boolean remapAtLine()
+    {
+        if(position == 0)
+        {
+            long offset = windowStart;
+            logger.severe(() -> "Trace line at byte " + offset + " is longer than " + WINDOW_BYTES + " bytes; stopping the replay there.");
+            exhausted = true;
+            return false;
+        }
+        try
+        {
+            mapWindow(windowStart + position);
+            return true;
+        }
+        catch(IOException e)
+        {
+            logger.severe(() -> "Error mapping the trace: " + e.getMessage());
+            exhausted = true;
+            return false;
+        }
+    }
+
+    /**
+    METHOD: mapWindow
+    IMPORT: start (long)
+    EXPORT: None
+    ALGORITHM:
+    Maps up to WINDOW_BYTES of the file from start and moves to the start of the new window.
+    */
+    private void mapWindow(long start) throws IOException
+    {
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW_BYTES, fileSize - start));
+        windowStart = start;
+        position = 0;
+    }
+
+    /**
+    METHOD: countDays
+    IMPORT: None
+    EXPORT: days (int)
+    ALGORITHM:
+    Scans the file window by window for lines starting with a day marker, counting one more day if messages follow the last marker.
+    */
+    private int countDays() throws IOException
+    {
+        int days = 0;
+        boolean atLineStart = true;
+        boolean pending = false;
+        for(long start = 0; start < fileSize; start += WINDOW_BYTES)
+        {
+            MappedByteBuffer scan = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW_BYTES, fileSize - start));
+            int limit = scan.limit();
+            for(int i = 0; i < limit; i++)
+            {
+                byte b = scan.get(i);
+                if(atLineStart)
+                {
+                    if(b == TraceRecorder.DAY_MARKER)
+                    {
+                        days++;
+                        pending = false;
+                    }
+                    else
+                    {
+                        pending = true;
+                    }
+                }
+                atLineStart = b == '\n';
+            }
+        }
+        return pending ? days + 1 : days;
+    }
+}
@@ -0,0 +1,205 @@
+package edu.curtin.oose2024s1.assignment2.input;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.logging.Logger;
+
+/**
+Purpose:
+    - Records the messages produced by any MessageSource to a trace file that TraceMessageSource can replay.
+Role:
+    - Wraps the source and passes every message through unchanged, writing it as one line of single-byte (Latin-1) characters.
+    - Each null from the source ends an EventLoop day, so it is written as a day marker line (DAY_MARKER followed by the day number) and the day is flushed to the file.
+    - Recording must never stop the simulation: if the file cannot be written, the error is logged and the recorder carries on as a plain pass-through.
+*/
+// Decorator that captures a message stream to a trace file.
+public class TraceRecorder implements MessageSource, Closeable
+{
+    /** First byte of a day marker line (ASCII record separator, which no message contains). */
+    public static final byte DAY_MARKER = 0x1E;
+
+    private static final Logger logger = Logger.getLogger(TraceRecorder.class.getName());
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final MessageSource source;
+    private final Path file;
+    private OutputStream out;
+    private final byte[] buffer = new byte[BUFFER_BYTES];
+    private int buffered;
+    private int day;
+
+    /**
+    METHOD: TraceRecorder
+    IMPORT: source (MessageSource), file (Path)
+    EXPORT: None
+    ALGORITHM:
+    Constructor that wraps source and creates (or truncates) the trace file.
+    */
+    public TraceRecorder(MessageSource source, Path file) throws IOException
+    {
+        this.source = source;
+        this.file = file;
+        this.out = Files.newOutputStream(file);
+    }
+
+    /**
+    METHOD: nextMessage
+    IMPORT: None
+    EXPORT: message (CharSequence)
+    ALGORITHM:
+    Takes the next message from the wrapped source and records it (or a day marker if it is null) before returning it.
+    */
+    @Override
+    public CharSequence nextMessage()
+    {
+        CharSequence message = source.nextMessage();
+        if(out != null)
+        {
+            try
+            {
+                if(message == null)
+                {
+                    day++;
+                    writeByte(DAY_MARKER);
+                    writeLine(Integer.toString(day));
+                    flush();
+                }
+                else
+                {
+                    writeLine(message);
+                }
+            }
+            catch(IOException e)
+            {
+                recordingFailed(e);
+            }
+        }
+        return message;
+    }
+
+    /**
+    METHOD: getDaysRecorded
+    IMPORT: None
+    EXPORT: days (int)
+    ALGORITHM:
+    Returns the number of complete days written to the trace.
+    */
+    public int getDaysRecorded()
+    {
+        return day;
+    }
+
+    /**
+    METHOD: close
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Writes out anything still buffered and closes the trace file.
+    */
+    @Override
+    public void close() throws IOException
+    {
+        if(out == null)
+        {
+            return;
+        }
+        try
+        {
+            flush();
+        }
+        finally
+        {
+            out.close();
+            out = null;
+        }
+        logger.info(() -> "Recorded " + day + " days to trace " + file);
+    }
+
+    /**
+    METHOD: writeLine
+    IMPORT: text (CharSequence)
+    EXPORT: None
+    ALGORITHM:
+    Buffers text followed by '\n', one byte per character. Characters that would break the line format (line endings, the day marker) or do not fit in one byte are replaced
+    with a space or '?', with a warning, so the replayed trace still has one message per line.
+    */
+    private void writeLine(CharSequence text) throws IOException
+    {
+        boolean altered = false;
+        int length = text.length();
+        for(int i = 0; i < length; i++)
+        {
+            char c = text.charAt(i);
+            if(c == '\n' || c == '\r' || (c == DAY_MARKER && i == 0))
+            {
+                c = ' ';
+                altered = true;
+            }
+            else if(c > 0xFF)
+            {
+                c = '?';
+                altered = true;
+            }
+            writeByte((byte) c);
+        }
+        writeByte((byte) '\n');
+        if(altered)
+        {
+            logger.warning(() -> "Message recorded with unrepresentable characters replaced: " + text);
+        }
+    }
+
+    /**
+    METHOD: writeByte
+    IMPORT: b (byte)
+    EXPORT: None
+    ALGORITHM:
+    Adds one byte to the buffer, writing the buffer out first if it is full.
+    */
+    private void writeByte(byte b) throws IOException
+    {
+        if(buffered == buffer.length)
+        {
+            flush();
+        }
+        buffer[buffered++] = b;
+    }
+
+    /**
+    METHOD: flush
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Writes the buffered bytes to the file.
+    */
+    private void flush() throws IOException
+    {
+        out.write(buffer, 0, buffered);
+        buffered = 0;
+        out.flush();
+    }
+
+    /**
+    METHOD: recordingFailed
+    IMPORT: e (IOException)
+    EXPORT: None
+    ALGORITHM:
+    Logs the error and stops recording, closing the file as far as possible.
+    */
+    private void recordingFailed(IOException e)
+    {
+        logger.severe(() -> "Error writing the trace, recording stopped: " + e.getMessage());
+        try
+        {
+            out.close();
+        }
+        catch(IOException closeError)
+        {
+            logger.warning(() -> "Error closing the trace: " + closeError.getMessage());
+        }
+        out = null;
+    }
+}
@@ -0,0 +1,342 @@
+package edu.curtin.oose2024s1.assignment2.input;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+Purpose:
+    - Describes a synthetic workload for SyntheticMessageSource: the mean number of messages of each type per day, how often a message is malformed, the size and skew
+      of the customer email pool, and how the rates vary from day to day.
+Role:
+    - Loaded from a small properties file (see workload.properties); any key left out keeps its default. The defaults match BikeShopInput's average rates.
+    - Values are checked when the file is loaded, so a bad workload fails with a clear message before the simulation starts.
+*/
+// Parameters of a synthetic message workload.
+public final class Workload
+{
+    /** Number of message types a workload generates. */
+    public static final int TYPE_COUNT = 5;
+
+    /** Index (for getRate and typeName) of each message type. */
+    public static final int DELIVERY = 0;
+    public static final int DROP_OFF = 1;
+    public static final int PURCHASE_ONLINE = 2;
+    public static final int PURCHASE_IN_STORE = 3;
+    public static final int PICK_UP = 4;
+
+    private static final String[] TYPES = { "DELIVERY", "DROP-OFF", "PURCHASE-ONLINE", "PURCHASE-IN-STORE", "PICK-UP" };
+    private static final int MAX_EMAILS = 10_000_000;
+
+    // BikeShopInput draws "while(random < p)" for each type, which gives a mean of p / (1 - p) messages per day.
+    private final double[] rates = { 0.1 / 0.9, 0.25 / 0.75, 0.4 / 0.6, 0.4 / 0.6, 0.25 / 0.75 };
+    private double scale = 1.0;
+    private double malformedRate = 0.03;
+    private int emailPoolSize = 10_000;
+    private double zipfExponent = 1.0;
+    private LoadProfile profile = LoadProfile.STEADY;
+    private double burstProbability = 0.05;
+    private double burstFactor = 10.0;
+    private int seasonDays = 365;
+    private double seasonAmplitude = 0.5;
+
+    /**
+    METHOD: Workload
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Private constructor; use defaults() or load().
+    */
+    private Workload()
+    {
+    }
+
+    /**
+    METHOD: defaults
+    IMPORT: None
+    EXPORT: workload (Workload)
+    ALGORITHM:
+    Returns a workload with BikeShopInput's average rates, a steady profile and 10000 Zipf-skewed customer emails.
+    */
+    public static Workload defaults()
+    {
+        return new Workload();
+    }
+
+    /**
+    METHOD: load
+    IMPORT: file (Path)
+    EXPORT: workload (Workload)
+    ALGORITHM:
+    Reads a workload properties file (see parse). Throws IllegalArgumentException for unknown keys or bad values.
+    */
+    public static Workload load(Path file) throws IOException
+    {
+        Properties properties = new Properties();
+        try(Reader reader = Files.newBufferedReader(file))
+        {
+            properties.load(reader);
+        }
+        try
+        {
+            return parse(properties);
+        }
+        catch(IllegalArgumentException e)
+        {
+            throw new IllegalArgumentException(e.getMessage() + " (in " + file + ")", e);
+        }
+    }
+
+    /**
+    METHOD: parse
+    IMPORT: properties (Properties)
+    EXPORT: workload (Workload)
+    ALGORITHM:
+    Applies workload properties over the defaults. Keys: one rate per message type (lower case, e.g. "drop-off"), "scale" (multiplies every rate), "malformed", "emails",
+    "zipf", "profile" (steady, bursty or seasonal), "burst.probability", "burst.factor", "season.days" and "season.amplitude".
+    Throws IllegalArgumentException for unknown keys or bad values.
+    */
+    public static Workload parse(Properties properties)
+    {
+        Workload workload = new Workload();
+        for(String key : properties.stringPropertyNames())
+        {
+            String value = properties.getProperty(key).trim();
+            try
+            {
+                workload.set(key, value);
+            }
+            catch(NumberFormatException e)
+            {
+                throw new IllegalArgumentException("Bad value for " + key + ": " + value, e);
+            }
+        }
+        return workload;
+    }
+
+    /**
+    METHOD: typeName
+    IMPORT: type (int)
+    EXPORT: name (String)
+    ALGORITHM:
+    Returns the message text of the given type (e.g. "DROP-OFF").
+    */
+    public static String typeName(int type)
+    {
+        return TYPES[type];
+    }
+
+    /**
+    METHOD: getRate
+    IMPORT: type (int)
+    EXPORT: rate (double)
+    ALGORITHM:
+    Returns the mean number of messages per day of the given type (DELIVERY to PICK_UP), including the scale but before the profile is applied.
+    */
+    public double getRate(int type)
+    {
+        return rates[type] * scale;
+    }
+
+    /**
+    METHOD: getMalformedRate
+    IMPORT: None
+    EXPORT: rate (double)
+    ALGORITHM:
+    Returns the fraction of messages replaced by malformed text.
+    */
+    public double getMalformedRate()
+    {
+        return malformedRate;
+    }
+
+    /**
+    METHOD: getEmailPoolSize
+    IMPORT: None
+    EXPORT: size (int)
+    ALGORITHM:
+    Returns the number of distinct customer emails.
+    */
+    public int getEmailPoolSize()
+    {
+        return emailPoolSize;
+    }
+
+    /**
+    METHOD: getZipfExponent
+    IMPORT: None
+    EXPORT: exponent (double)
+    ALGORITHM:
+    Returns the Zipf exponent for choosing emails (0 for uniform; larger values make a few customers come back more often).
+    */
+    public double getZipfExponent()
+    {
+        return zipfExponent;
+    }
+
+    /**
+    METHOD: getProfile
+    IMPORT: None
+    EXPORT: profile (LoadProfile)
+    ALGORITHM:
+    Returns how the rates vary from day to day.
+    */
+    public LoadProfile getProfile()
+    {
+        return profile;
+    }
+
+    /**
+    METHOD: getBurstProbability
+    IMPORT: None
+    EXPORT: probability (double)
+    ALGORITHM:
+    Returns the chance that a day is a burst day (BURSTY profile).
+    */
+    public double getBurstProbability()
+    {
+        return burstProbability;
+    }
+
+    /**
+    METHOD: getBurstFactor
+    IMPORT: None
+    EXPORT: factor (double)
+    ALGORITHM:
+    Returns the rate multiplier on burst days (BURSTY profile).
+    */
+    public double getBurstFactor()
+    {
+        return burstFactor;
+    }
+
+    /**
+    METHOD: getSeasonDays
+    IMPORT: None
+    EXPORT: days (int)
+    ALGORITHM:
+    Returns the length of one season cycle in days (SEASONAL profile).
+    */
+    public int getSeasonDays()
+    {
+        return seasonDays;
+    }
+
+    /**
+    METHOD: getSeasonAmplitude
+    IMPORT: None
+    EXPORT: amplitude (double)
+    ALGORITHM:
+    Returns how far the rates swing above and below their mean, as a fraction of it (SEASONAL profile).
+    */
+    public double getSeasonAmplitude()
+    {
+        return seasonAmplitude;
+    }
+
+    /**
+    METHOD: describe
+    IMPORT: None
+    EXPORT: String
+    ALGORITHM:
+    Returns a one-line summary for the log.
+    */
+    public String describe()
+    {
+        var sb = new StringBuilder("Workload:");
+        for(int i = 0; i < TYPES.length; i++)
+        {
+            sb.append(' ').append(TYPES[i]).append('=').append(String.format(Locale.ROOT, "%.3f", getRate(i)));
+        }
+        sb.append(String.format(Locale.ROOT, " malformed=%.3f emails=%d zipf=%.2f profile=%s", malformedRate, emailPoolSize, zipfExponent, profile));
+        return sb.toString();
+    }
+
+    /**
+    METHOD: set
+    IMPORT: key (String), value (String)
+    EXPORT: None
+    ALGORITHM:
+    Sets one workload parameter from the file, checking its range.
+    */
+    private void set(String key, String value)
+    {
+        switch(key)
+        {
+            case "scale" -> scale = checkRange(key, Double.parseDouble(value), 0.0, 1e9);
+            case "malformed" -> malformedRate = checkRange(key, Double.parseDouble(value), 0.0, 1.0);
+            case "emails" -> emailPoolSize = (int) checkRange(key, Integer.parseInt(value), 1, MAX_EMAILS);
+            case "zipf" -> zipfExponent = checkRange(key, Double.parseDouble(value), 0.0, 10.0);
+            case "profile" -> profile = parseProfile(value);
+            case "burst.probability" -> burstProbability = checkRange(key, Double.parseDouble(value), 0.0, 1.0);
+            case "burst.factor" -> burstFactor = checkRange(key, Double.parseDouble(value), 0.0, 1e6);
+            case "season.days" -> seasonDays = (int) checkRange(key, Integer.parseInt(value), 1, Integer.MAX_VALUE);
+            case "season.amplitude" -> seasonAmplitude = checkRange(key, Double.parseDouble(value), 0.0, 1.0);
+            default ->
+            {
+                int type = typeIndex(key);
+                if(type < 0)
+                {
+                    throw new IllegalArgumentException("Unknown workload key: " + key);
+                }
+                rates[type] = checkRange(key, Double.parseDouble(value), 0.0, 1e9);
+            }
+        }
+    }
+
+    /**
+    METHOD: typeIndex
+    IMPORT: key (String)
+    EXPORT: index (int)
+    ALGORITHM:
+    Returns the index of the message type named by key (in any case), or -1.
+    */
+    private static int typeIndex(String key)
+    {
+        for(int i = 0; i < TYPES.length; i++)
+        {
+            if(TYPES[i].equalsIgnoreCase(key))
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+    METHOD: parseProfile
+    IMPORT: name (String)
+    EXPORT: profile (LoadProfile)
+    ALGORITHM:
+    Maps a "profile" value to its LoadProfile.
+    */
+    private static LoadProfile parseProfile(String name)
+    {
+        return switch(name.toLowerCase(Locale.ROOT))
+        {
+            case "steady" -> LoadProfile.STEADY;
+            case "bursty" -> LoadProfile.BURSTY;
+            case "seasonal" -> LoadProfile.SEASONAL;
+            default -> throw new IllegalArgumentException("Unknown workload profile: " + name);
+        };
+    }
+
+    /**
+    METHOD: checkRange
+    IMPORT: key (String), value (double), min (double), max (double)
+    EXPORT: value (double)
+    ALGORITHM:
+    Returns value if it lies in [min, max], otherwise throws IllegalArgumentException.
+    */
+    private static double checkRange(String key, double value, double min, double max)
+    {
+        if(!(value >= min && value <= max))
+        {
+            throw new IllegalArgumentException("Workload " + key + " must be between " + min + " and " + max + ": " + value);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,93 @@
+package edu.curtin.oose2024s1.assignment2.input;
+
+import java.util.SplittableRandom;
+
+/**
+Purpose:
+    - Draws ranks 0..n-1 with Zipf probabilities (rank k is chosen in proportion to 1 / (k + 1)^s).
+Role:
+    - Uses Walker's alias method: the table is built once in O(n), after which every draw costs one random number and at most two array reads,
+      whatever the size of the email pool.
+*/
+// Constant-time Zipf sampler.
+/* default */ final class ZipfSampler
+{
+    private final double[] probability;
+    private final int[] alias;
+
+    /**
+    METHOD: ZipfSampler
+    IMPORT: n (int), exponent (double)
+    EXPORT: None
+    ALGORITHM:
+    Builds the alias table: scales the weights so they average 1, then repeatedly pairs an under-full column with an over-full one that tops it up.
+    */
+    /* default */ ZipfSampler(int n, double exponent)
+    {
+        probability = new double[n];
+        alias = new int[n];
+
+        double total = 0.0;
+        for(int k = 0; k < n; k++)
+        {
+            probability[k] = Math.pow(k + 1.0, -exponent);
+            total += probability[k];
+        }
+
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        for(int k = 0; k < n; k++)
+        {
+            probability[k] *= n / total;
+            if(probability[k] < 1.0)
+            {
+                small[smallCount++] = k;
+            }
+            else
+            {
+                large[largeCount++] = k;
+            }
+        }
+        while(smallCount > 0 && largeCount > 0)
+        {
+            int under = small[--smallCount];
+            int over = large[--largeCount];
+            alias[under] = over;
+            probability[over] -= 1.0 - probability[under];
+            if(probability[over] < 1.0)
+            {
+                small[smallCount++] = over;
+            }
+            else
+            {
+                large[largeCount++] = over;
+            }
+        }
+        // Whatever is left is full up to rounding error.
+        while(largeCount > 0)
+        {
+            probability[large[--largeCount]] = 1.0;
+        }
+        while(smallCount > 0)
+        {
+            probability[small[--smallCount]] = 1.0;
+        }
+    }
+
+    /**
+    METHOD: next
+    IMPORT: random (SplittableRandom)
+    EXPORT: rank (int)
+    ALGORITHM:
+    Picks a column uniformly, then keeps it or takes its alias depending on the column's probability (one 64-bit random number supplies both choices).
+    */
+    /* default */ int next(SplittableRandom random)
+    {
+        long bits = random.nextLong();
+        int column = (int) ((bits >>> 32) * probability.length >>> 32);
+        double keep = (bits & 0xFFFFFFFFL) * 0x1.0p-32;
+        return keep < probability[column] ? column : alias[column];
+    }
+}
@@ -0,0 +1,62 @@
+package edu.curtin.oose2024s1.assignment2.journal;
+
+/**
+Purpose:
+    - Identifies each kind of record in a journal segment by the one-byte tag written before it.
+Role:
+    - MESSAGE holds the text of a message that changed the shop, FAILURE only the ResultCode of one that did not, PAYROLL an employee payment,
+      and END_OF_DAY closes a day (servicing advances) with a checksum over the day's records.
+*/
+// Journal record tags.
+public enum JournalRecordType
+{
+    MESSAGE(1),
+    FAILURE(2),
+    PAYROLL(3),
+    END_OF_DAY(4);
+
+    private final byte tag;
+
+    /**
+    METHOD: JournalRecordType
+    IMPORT: tag (int)
+    EXPORT: None
+    ALGORITHM:
+    Constructor that records the tag byte.
+    */
+    JournalRecordType(int tag)
+    {
+        this.tag = (byte) tag;
+    }
+
+    /**
+    METHOD: getTag
+    IMPORT: None
+    EXPORT: tag (byte)
+    ALGORITHM:
+    Returns the byte written before records of this type.
+    */
+    public byte getTag()
+    {
+        return tag;
+    }
+
+    /**
+    METHOD: fromTag
+    IMPORT: tag (byte)
+    EXPORT: type (JournalRecordType)
+    ALGORITHM:
+    Returns the record type for a tag byte, or null if the byte is not a known tag (e.g. a torn write).
+    */
+    public static JournalRecordType fromTag(byte tag)
+    {
+        for(JournalRecordType type : values())
+        {
+            if(type.tag == tag)
+            {
+                return type;
+            }
+        }
+        return null;
+    }
+}
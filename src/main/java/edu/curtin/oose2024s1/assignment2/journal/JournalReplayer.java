@@ -0,0 +1,279 @@
+package edu.curtin.oose2024s1.assignment2.journal;
+
+import edu.curtin.oose2024s1.assignment2.controller.BikeShopController;
+import edu.curtin.oose2024s1.assignment2.controller.ResultCode;
+import edu.curtin.oose2024s1.assignment2.controller.ResultCounters;
+import edu.curtin.oose2024s1.assignment2.model.BankAccount;
+import edu.curtin.oose2024s1.assignment2.model.Inventory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+import java.util.logging.Logger;
+
+/**
+Purpose:
+    - Rebuilds a shop from a journal directory: loads the newest usable snapshot at or before a target day, then replays the journal segment(s) after it.
+Role:
+    - A segment only holds the days since its snapshot, so restoring never replays more than one snapshot interval (plus any segment whose snapshot was lost).
+    - Each day is applied only once its END_OF_DAY record has been read and its checksum matches, so a torn write at the end of a segment is ignored and the
+      valid length is reported, letting ShopJournal cut the tail off before appending.
+    - Messages are replayed through the controller, so replay produces exactly the same model as the original run (each result is checked against the recorded one).
+*/
+// Snapshot-plus-journal replay.
+/* default */ final class JournalReplayer
+{
+    private static final Logger logger = Logger.getLogger(JournalReplayer.class.getName());
+    private static final ResultCode[] CODES = ResultCode.values();
+    private static final int END_OF_DAY_BYTES = 1 + 2 * Integer.BYTES;
+    private static final int MESSAGE_HEADER_BYTES = 2 + Short.BYTES;
+
+    private final Inventory inventory;
+    private final BankAccount bankAccount;
+    private final BikeShopController controller;
+    private final ResultCounters counters;
+
+    private int day = -1;
+    private int snapshotDay = -1;
+    private Path segment;
+    private long validLength;
+
+    /**
+    METHOD: JournalReplayer
+    IMPORT: inventory (Inventory), bankAccount (BankAccount), controller (BikeShopController), counters (ResultCounters)
+    EXPORT: None
+    ALGORITHM:
+    Constructor that records the (freshly created, empty) model objects to rebuild.
+    */
+    /* default */ JournalReplayer(Inventory inventory, BankAccount bankAccount, BikeShopController controller, ResultCounters counters)
+    {
+        this.inventory = inventory;
+        this.bankAccount = bankAccount;
+        this.controller = controller;
+        this.counters = counters;
+    }
+
+    /**
+    METHOD: replay
+    IMPORT: directory (Path), targetDay (int)
+    EXPORT: day (int)
+    ALGORITHM:
+    Loads the newest valid snapshot taken at or before targetDay (skipping corrupt ones), then replays segments until targetDay or the end of the journal.
+    Returns the day reached, or -1 if the directory holds no usable snapshot.
+    */
+    /* default */ int replay(Path directory, int targetDay) throws IOException
+    {
+        for(int candidate : ShopJournal.listDays(directory, ShopJournal.SNAPSHOT_PREFIX))
+        {
+            if(candidate <= targetDay && loadSnapshot(ShopJournal.snapshotPath(directory, candidate)))
+            {
+                snapshotDay = candidate;
+                break;
+            }
+        }
+        if(snapshotDay < 0)
+        {
+            return -1;
+        }
+
+        day = snapshotDay;
+        segment = ShopJournal.segmentPath(directory, day);
+        validLength = 0;
+        while(day < targetDay && Files.exists(segment))
+        {
+            int segmentStart = day;
+            replaySegment(Files.readAllBytes(segment), targetDay);
+            Path next = ShopJournal.segmentPath(directory, day);
+            if(day == segmentStart || day >= targetDay || !Files.exists(next))
+            {
+                break;
+            }
+            // The snapshot that started the next segment was unusable, so carry on through it.
+            segment = next;
+            validLength = 0;
+        }
+        return day;
+    }
+
+    /**
+    METHOD: getSnapshotDay
+    IMPORT: None
+    EXPORT: day (int)
+    ALGORITHM:
+    Returns the day of the snapshot the replay started from (-1 before replay).
+    */
+    /* default */ int getSnapshotDay()
+    {
+        return snapshotDay;
+    }
+
+    /**
+    METHOD: getSegment
+    IMPORT: None
+    EXPORT: segment (Path)
+    ALGORITHM:
+    Returns the last segment replayed, which is the one new days should be appended to.
+    */
+    /* default */ Path getSegment()
+    {
+        return segment;
+    }
+
+    /**
+    METHOD: getValidLength
+    IMPORT: None
+    EXPORT: length (long)
+    ALGORITHM:
+    Returns the number of bytes of the last segment that held complete, checksummed days.
+    */
+    /* default */ long getValidLength()
+    {
+        return validLength;
+    }
+
+    /**
+    METHOD: loadSnapshot
+    IMPORT: file (Path)
+    EXPORT: loaded (boolean)
+    ALGORITHM:
+    Loads a snapshot, returning false (and logging why) if it is not valid.
+    */
+    private boolean loadSnapshot(Path file)
+    {
+        try
+        {
+            ShopSnapshot.read(file, inventory, bankAccount, controller.getCustomers(), counters);
+            return true;
+        }
+        catch(IOException e)
+        {
+            logger.warning(() -> "Skipping unusable snapshot: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+    METHOD: replaySegment
+    IMPORT: bytes (byte ARRAY), targetDay (int)
+    EXPORT: None
+    ALGORITHM:
+    Applies each complete, checksummed day in the segment in turn, stopping at targetDay or at the first incomplete or damaged day.
+    */
+    private void replaySegment(byte[] bytes, int targetDay)
+    {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        CRC32 crc = new CRC32();
+        int start = 0;
+        while(day < targetDay)
+        {
+            int end = findEndOfDay(buffer, start);
+            if(end < 0 || end + END_OF_DAY_BYTES > bytes.length)
+            {
+                break;
+            }
+            int recordedDay = buffer.getInt(end + 1);
+            crc.reset();
+            crc.update(bytes, start, end - start);
+            if(recordedDay != day + 1 || buffer.getInt(end + 1 + Integer.BYTES) != (int) crc.getValue())
+            {
+                int expected = day + 1;
+                logger.warning(() -> "Journal day " + expected + " is damaged; replay stops there.");
+                break;
+            }
+            applyDay(buffer, start, end);
+            day = recordedDay;
+            start = end + END_OF_DAY_BYTES;
+        }
+        if(start < bytes.length && day < targetDay)
+        {
+            int dropped = bytes.length - start;
+            logger.warning(() -> "Ignoring " + dropped + " bytes of incomplete journal after day " + day + ".");
+        }
+        validLength = start;
+    }
+
+    /**
+    METHOD: findEndOfDay
+    IMPORT: buffer (ByteBuffer), start (int)
+    EXPORT: position (int)
+    ALGORITHM:
+    Walks the records from start and returns the position of the next END_OF_DAY tag, or -1 if the records run off the end or an unknown tag is found.
+    */
+    private static int findEndOfDay(ByteBuffer buffer, int start)
+    {
+        int position = start;
+        while(position < buffer.limit())
+        {
+            JournalRecordType type = JournalRecordType.fromTag(buffer.get(position));
+            if(type == null)
+            {
+                return -1;
+            }
+            switch(type)
+            {
+                case END_OF_DAY ->
+                {
+                    return position;
+                }
+                case MESSAGE ->
+                {
+                    if(position + MESSAGE_HEADER_BYTES > buffer.limit())
+                    {
+                        return -1;
+                    }
+                    position += MESSAGE_HEADER_BYTES + Short.toUnsignedInt(buffer.getShort(position + 2));
+                }
+                case FAILURE -> position += 2;
+                case PAYROLL -> position += 1 + Integer.BYTES;
+            }
+        }
+        return -1;
+    }
+
+    /**
+    METHOD: applyDay
+    IMPORT: buffer (ByteBuffer), start (int), end (int)
+    EXPORT: None
+    ALGORITHM:
+    Applies one day's records (already checked) in order, then advances servicing as the event loop does at the end of a day.
+    */
+    private void applyDay(ByteBuffer buffer, int start, int end)
+    {
+        int position = start;
+        while(position < end)
+        {
+            JournalRecordType type = JournalRecordType.fromTag(buffer.get(position));
+            switch(type)
+            {
+                case MESSAGE ->
+                {
+                    ResultCode expected = CODES[buffer.get(position + 1)];
+                    int length = Short.toUnsignedInt(buffer.getShort(position + 2));
+                    String message = new String(buffer.array(), position + MESSAGE_HEADER_BYTES, length, StandardCharsets.UTF_8);
+                    ResultCode result = controller.process(message);
+                    counters.record(result);
+                    if(result != expected)
+                    {
+                        logger.warning(() -> "Replayed message gave " + result + " instead of " + expected + ": " + message);
+                    }
+                    position += MESSAGE_HEADER_BYTES + length;
+                }
+                case FAILURE ->
+                {
+                    counters.record(CODES[buffer.get(position + 1)]);
+                    position += 2;
+                }
+                case PAYROLL ->
+                {
+                    bankAccount.withdraw(buffer.getInt(position + 1), true);
+                    position += 1 + Integer.BYTES;
+                }
+                case END_OF_DAY -> throw new IllegalStateException("END_OF_DAY inside a day at " + position);
+            }
+        }
+        inventory.incrementDaysInServicingState();
+    }
+}
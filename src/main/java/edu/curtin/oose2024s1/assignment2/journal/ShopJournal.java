@@ -0,0 +1,359 @@
+package edu.curtin.oose2024s1.assignment2.journal;
+
+import edu.curtin.oose2024s1.assignment2.controller.BikeShopController;
+import edu.curtin.oose2024s1.assignment2.controller.ResultCode;
+import edu.curtin.oose2024s1.assignment2.controller.ResultCounters;
+import edu.curtin.oose2024s1.assignment2.model.BankAccount;
+import edu.curtin.oose2024s1.assignment2.model.Inventory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+Purpose:
+    - Makes a shop's state survive a restart: every message outcome, employee payment and day end is appended to a compact binary journal, and a snapshot is taken every N days.
+Role:
+    - A journal directory holds snapshot-DAY.bin files and journal-DAY.bin segments; each segment holds the days after the snapshot of the same day, so restoring only ever
+      replays the days since the last snapshot, however long the shop has been running.
+    - A message that changed the shop is stored as its text and result (replayed through the controller and checked); a failed message only as its ResultCode, since it changed nothing but the counters.
+    - Records are collected in memory and written as one block when the day ends, closed by an END_OF_DAY record with a checksum, so a crash loses at most the day in progress.
+    - With sync on, each day's block is forced to disk before the next day starts; otherwise it survives a process crash but not necessarily a power cut.
+    - Snapshots and segments are kept, so replayTo() can rebuild the shop as it was at the end of any past day.
+*/
+// Event journal with periodic snapshots.
+public final class ShopJournal implements AutoCloseable
+{
+    private static final Logger logger = Logger.getLogger(ShopJournal.class.getName());
+    /* default */ static final String SNAPSHOT_PREFIX = "snapshot-";
+    /* default */ static final String SEGMENT_PREFIX = "journal-";
+    private static final String SUFFIX = ".bin";
+    private static final int MAX_MESSAGE_BYTES = 0xFFFF;
+
+    private final Path directory;
+    private final int snapshotInterval;
+    private final boolean sync;
+    private final DayBuffer dayBuffer = new DayBuffer();
+    private final DataOutputStream records = new DataOutputStream(dayBuffer);
+    private final CRC32 crc = new CRC32();
+
+    private Inventory inventory;
+    private BankAccount bankAccount;
+    private BikeShopController controller;
+    private ResultCounters counters;
+    private FileChannel segment;
+    private long bytesWritten;
+    private int daysWritten;
+    private int snapshotsWritten;
+
+    /**
+    METHOD: ShopJournal
+    IMPORT: directory (Path), snapshotInterval (int), sync (boolean)
+    EXPORT: None
+    ALGORITHM:
+    Constructor that creates the journal directory if needed. Nothing is read or written until open() is called.
+    */
+    public ShopJournal(Path directory, int snapshotInterval, boolean sync) throws IOException
+    {
+        if(snapshotInterval < 1)
+        {
+            throw new IllegalArgumentException("snapshotInterval must be at least 1: " + snapshotInterval);
+        }
+        this.directory = directory;
+        this.snapshotInterval = snapshotInterval;
+        this.sync = sync;
+        Files.createDirectories(directory);
+    }
+
+    /**
+    METHOD: open
+    IMPORT: inventory (Inventory), bankAccount (BankAccount), controller (BikeShopController), counters (ResultCounters)
+    EXPORT: day (int)
+    ALGORITHM:
+    Binds the journal to the shop's (freshly created, empty) model. If the directory already holds a journal, restores the shop from the latest snapshot and the
+    journal after it, cuts off any incomplete tail and returns the last complete day. Otherwise returns -1, and the caller should set up a new shop and call start().
+    */
+    public int open(Inventory inventory, BankAccount bankAccount, BikeShopController controller, ResultCounters counters) throws IOException
+    {
+        this.inventory = inventory;
+        this.bankAccount = bankAccount;
+        this.controller = controller;
+        this.counters = counters;
+
+        long start = System.nanoTime();
+        JournalReplayer replayer = new JournalReplayer(inventory, bankAccount, controller, counters);
+        int day = replayer.replay(directory, Integer.MAX_VALUE);
+        if(day < 0)
+        {
+            return -1;
+        }
+
+        segment = FileChannel.open(replayer.getSegment(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        segment.truncate(replayer.getValidLength());
+        segment.position(replayer.getValidLength());
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        logger.info(() -> "Recovered day " + day + " from the day " + replayer.getSnapshotDay() + " snapshot, replaying "
+                + (day - replayer.getSnapshotDay()) + " days in " + elapsedMillis + " ms.");
+        return day;
+    }
+
+    /**
+    METHOD: start
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Starts a new journal for a shop that has just been set up: takes the day 0 snapshot and opens the first segment.
+    */
+    public void start() throws IOException
+    {
+        snapshot(0);
+    }
+
+    /**
+    METHOD: recordMessage
+    IMPORT: message (CharSequence), result (ResultCode)
+    EXPORT: None
+    ALGORITHM:
+    Adds a processed message to the current day: its result code and text if it may have changed the shop, otherwise just its result code.
+    */
+    public void recordMessage(CharSequence message, ResultCode result) throws IOException
+    {
+        if(leavesShopUnchanged(result))
+        {
+            records.writeByte(JournalRecordType.FAILURE.getTag());
+            records.writeByte(result.ordinal());
+            return;
+        }
+
+        byte[] text = message.toString().getBytes(StandardCharsets.UTF_8);
+        if(text.length > MAX_MESSAGE_BYTES)
+        {
+            throw new IOException("Message too long to journal (" + text.length + " bytes).");
+        }
+        records.writeByte(JournalRecordType.MESSAGE.getTag());
+        records.writeByte(result.ordinal());
+        records.writeShort(text.length);
+        records.write(text);
+    }
+
+    /**
+    METHOD: recordPayroll
+    IMPORT: amount (int)
+    EXPORT: None
+    ALGORITHM:
+    Adds an employee payment (a withdrawal allowed to overdraw the account) to the current day.
+    */
+    public void recordPayroll(int amount) throws IOException
+    {
+        records.writeByte(JournalRecordType.PAYROLL.getTag());
+        records.writeInt(amount);
+    }
+
+    /**
+    METHOD: endDay
+    IMPORT: day (int)
+    EXPORT: None
+    ALGORITHM:
+    Closes the day with a checksummed END_OF_DAY record and appends the day's records to the segment in one write (forcing it to disk if sync is on).
+    Every snapshotInterval days, then takes a snapshot and starts a new segment.
+    */
+    public void endDay(int day) throws IOException
+    {
+        crc.reset();
+        dayBuffer.updateChecksum(crc);
+        records.writeByte(JournalRecordType.END_OF_DAY.getTag());
+        records.writeInt(day);
+        records.writeInt((int) crc.getValue());
+
+        ByteBuffer block = dayBuffer.asByteBuffer();
+        bytesWritten += block.remaining();
+        while(block.hasRemaining())
+        {
+            segment.write(block);
+        }
+        if(sync)
+        {
+            segment.force(false);
+        }
+        dayBuffer.reset();
+        daysWritten++;
+
+        if(day % snapshotInterval == 0)
+        {
+            snapshot(day);
+        }
+    }
+
+    /**
+    METHOD: close
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Closes the current segment (any day in progress is discarded, as it would be after a crash) and logs how much was written.
+    */
+    @Override
+    public void close() throws IOException
+    {
+        if(segment != null)
+        {
+            segment.close();
+            segment = null;
+        }
+        logger.info(() -> "Journal closed: " + daysWritten + " days, " + bytesWritten + " bytes, " + snapshotsWritten + " snapshots written.");
+    }
+
+    /**
+    METHOD: replayTo
+    IMPORT: directory (Path), day (int), inventory (Inventory), bankAccount (BankAccount), controller (BikeShopController), counters (ResultCounters)
+    EXPORT: day (int)
+    ALGORITHM:
+    Rebuilds the shop as it was at the end of the given past day into the given (freshly created, empty) model, without changing the journal.
+    Returns the day actually reached (earlier if the journal ends first), or -1 if the directory holds no journal.
+    */
+    public static int replayTo(Path directory, int day, Inventory inventory, BankAccount bankAccount, BikeShopController controller, ResultCounters counters) throws IOException
+    {
+        return new JournalReplayer(inventory, bankAccount, controller, counters).replay(directory, day);
+    }
+
+    /**
+    METHOD: snapshot
+    IMPORT: day (int)
+    EXPORT: None
+    ALGORITHM:
+    Writes the snapshot for day, then closes the current segment and starts the segment for the days after it.
+    */
+    private void snapshot(int day) throws IOException
+    {
+        ShopSnapshot.write(snapshotPath(directory, day), day, inventory, bankAccount, controller.getCustomers(), counters);
+        snapshotsWritten++;
+        if(segment != null)
+        {
+            segment.close();
+        }
+        segment = FileChannel.open(segmentPath(directory, day), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        logger.info(() -> "Snapshot written for day " + day + ".");
+    }
+
+    /**
+    METHOD: leavesShopUnchanged
+    IMPORT: result (ResultCode)
+    EXPORT: boolean
+    ALGORITHM:
+    Returns true for failures the controller detects before touching the model. FAIL_BIKE_NOT_AVAILABLE (a bike was already taken) and FAIL_UNKNOWN_DROP_OFF
+    (a customer was already created) are journalled as text like successes.
+    */
+    private static boolean leavesShopUnchanged(ResultCode result)
+    {
+        return result.isFailure() && result != ResultCode.FAIL_BIKE_NOT_AVAILABLE && result != ResultCode.FAIL_UNKNOWN_DROP_OFF;
+    }
+
+    /**
+    METHOD: snapshotPath
+    IMPORT: directory (Path), day (int)
+    EXPORT: path (Path)
+    ALGORITHM:
+    Returns the path of the snapshot taken at the end of day.
+    */
+    /* default */ static Path snapshotPath(Path directory, int day)
+    {
+        return directory.resolve(String.format(Locale.ROOT, "%s%010d%s", SNAPSHOT_PREFIX, day, SUFFIX));
+    }
+
+    /**
+    METHOD: segmentPath
+    IMPORT: directory (Path), day (int)
+    EXPORT: path (Path)
+    ALGORITHM:
+    Returns the path of the segment holding the days after the snapshot of day.
+    */
+    /* default */ static Path segmentPath(Path directory, int day)
+    {
+        return directory.resolve(String.format(Locale.ROOT, "%s%010d%s", SEGMENT_PREFIX, day, SUFFIX));
+    }
+
+    /**
+    METHOD: listDays
+    IMPORT: directory (Path), prefix (String)
+    EXPORT: days (List<Integer>)
+    ALGORITHM:
+    Returns the days of all files named prefix + DAY + ".bin" in the directory, newest first.
+    */
+    /* default */ static List<Integer> listDays(Path directory, String prefix) throws IOException
+    {
+        List<Integer> days = new ArrayList<>();
+        try(DirectoryStream<Path> files = Files.newDirectoryStream(directory, prefix + "*" + SUFFIX))
+        {
+            for(Path file : files)
+            {
+                String name = file.getFileName().toString();
+                try
+                {
+                    days.add(Integer.parseInt(name.substring(prefix.length(), name.length() - SUFFIX.length())));
+                }
+                catch(NumberFormatException e)
+                {
+                    logger.warning(() -> "Ignoring unexpected journal file: " + name);
+                }
+            }
+        }
+        days.sort(Collections.reverseOrder());
+        return days;
+    }
+
+    /**
+    Purpose:
+        - Holds one day's records and exposes them without copying, for the checksum and the segment write.
+    */
+    // Reusable day buffer.
+    private static final class DayBuffer extends ByteArrayOutputStream
+    {
+        /**
+        METHOD: DayBuffer
+        IMPORT: None
+        EXPORT: None
+        ALGORITHM:
+        Constructor that starts with room for a typical day.
+        */
+        private DayBuffer()
+        {
+            super(4096);
+        }
+
+        /**
+        METHOD: updateChecksum
+        IMPORT: checksum (CRC32)
+        EXPORT: None
+        ALGORITHM:
+        Adds the buffered bytes to the checksum.
+        */
+        private void updateChecksum(CRC32 checksum)
+        {
+            checksum.update(buf, 0, count);
+        }
+
+        /**
+        METHOD: asByteBuffer
+        IMPORT: None
+        EXPORT: buffer (ByteBuffer)
+        ALGORITHM:
+        Wraps the buffered bytes (not a copy).
+        */
+        private ByteBuffer asByteBuffer()
+        {
+            return ByteBuffer.wrap(buf, 0, count);
+        }
+    }
+}
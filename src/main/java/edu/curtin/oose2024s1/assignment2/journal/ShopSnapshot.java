@@ -0,0 +1,242 @@
+package edu.curtin.oose2024s1.assignment2.journal;
+
+import edu.curtin.oose2024s1.assignment2.controller.ResultCode;
+import edu.curtin.oose2024s1.assignment2.controller.ResultCounters;
+import edu.curtin.oose2024s1.assignment2.model.*;
+import edu.curtin.oose2024s1.assignment2.state.BikeStateType;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+Purpose:
+    - Writes and loads a binary snapshot of one shop at the end of a day: the balance, the result counters, every customer and every bike in the Inventory.
+Role:
+    - Bikes are written per Inventory list in list order (serviced bikes with the days they have left, bikes awaiting pick-up with the days they have waited), each with
+      its state, servicing days, email and owning customer, so loading rebuilds the lists, their query indexes, each customer's pick-up queue and every bike's owner exactly as they were.
+    - Version 1 snapshots (without waiting days) can still be loaded; their bikes awaiting pick-up count as having waited 0 days.
+    - The file ends with a CRC32 of its contents. It is written to a temporary file, forced to disk and renamed, so a crash never leaves a half-written snapshot under the real name.
+    - A snapshot is checked in full before anything is loaded, so a corrupt one leaves the model untouched and an older snapshot can be tried instead.
+*/
+// Binary snapshot of a shop's state.
+public final class ShopSnapshot
+{
+    private static final int MAGIC = 0x42534e50; // "BSNP"
+    private static final int VERSION = 2;
+    private static final int TRAILER_BYTES = Long.BYTES;
+
+    /**
+    METHOD: ShopSnapshot
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Private constructor; this class only has static methods.
+    */
+    private ShopSnapshot()
+    {
+    }
+
+    /**
+    METHOD: write
+    IMPORT: file (Path), day (int), inventory (Inventory), bankAccount (BankAccount), customers (CustomerDirectory), counters (ResultCounters)
+    EXPORT: None
+    ALGORITHM:
+    Writes the snapshot to a temporary file next to file, forces it to disk and atomically renames it to file.
+    */
+    public static void write(Path file, int day, Inventory inventory, BankAccount bankAccount, CustomerDirectory customers, ResultCounters counters) throws IOException
+    {
+        List<Customer> customerList = new ArrayList<>(customers.size());
+        customers.forEach(customerList::add);
+        Map<Customer, Integer> customerIndex = new IdentityHashMap<>();
+        for(Customer customer : customerList)
+        {
+            customerIndex.put(customer, customerIndex.size());
+        }
+
+        List<Bike> available = new ArrayList<>();
+        inventory.forEachAvailableBike(available::add);
+        List<Bike> serviced = new ArrayList<>();
+        List<Integer> servicedDays = new ArrayList<>();
+        inventory.forEachServicedBike((bike, days) ->
+        {
+            serviced.add(bike);
+            servicedDays.add(days);
+        });
+        List<Bike> awaiting = new ArrayList<>();
+        inventory.forEachAwaitingPickupBike(awaiting::add);
+
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+        try(FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))
+        {
+            DataOutputStream out = new DataOutputStream(new CheckedOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)), crc));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(day);
+            out.writeInt(bankAccount.getBalance());
+
+            ResultCode[] codes = ResultCode.values();
+            out.writeInt(codes.length);
+            for(ResultCode code : codes)
+            {
+                out.writeUTF(code.name());
+                out.writeLong(counters.getCount(code));
+            }
+
+            out.writeInt(customerList.size());
+            for(Customer customer : customerList)
+            {
+                out.writeUTF(customer.getEmail());
+            }
+
+            out.writeInt(available.size());
+            for(Bike bike : available)
+            {
+                writeBike(out, bike, customerIndex);
+            }
+            out.writeInt(serviced.size());
+            for(int i = 0; i < serviced.size(); i++)
+            {
+                out.writeByte(servicedDays.get(i));
+                writeBike(out, serviced.get(i), customerIndex);
+            }
+            out.writeInt(awaiting.size());
+            for(Bike bike : awaiting)
+            {
+                out.writeInt(inventory.getDaysAwaitingPickup(bike));
+                writeBike(out, bike, customerIndex);
+            }
+
+            out.writeLong(crc.getValue());
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+    METHOD: read
+    IMPORT: file (Path), inventory (Inventory), bankAccount (BankAccount), customers (CustomerDirectory), counters (ResultCounters)
+    EXPORT: day (int)
+    ALGORITHM:
+    Checks the snapshot's header and checksum, then loads it into the given (freshly created, empty) model objects and returns the day it was taken at.
+    Throws IOException without touching the model if the file is not a complete, valid snapshot.
+    */
+    public static int read(Path file, Inventory inventory, BankAccount bankAccount, CustomerDirectory customers, ResultCounters counters) throws IOException
+    {
+        byte[] bytes = Files.readAllBytes(file);
+        if(bytes.length < 2 * Integer.BYTES + TRAILER_BYTES)
+        {
+            throw new IOException("Snapshot is too short: " + file);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length - TRAILER_BYTES);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        int version = in.readInt() == MAGIC ? in.readInt() : -1;
+        if(version < 1 || version > VERSION)
+        {
+            throw new IOException("Not a version 1 to " + VERSION + " snapshot: " + file);
+        }
+        in.skipNBytes(bytes.length - TRAILER_BYTES - 2L * Integer.BYTES);
+        if(in.readLong() != crc.getValue())
+        {
+            throw new IOException("Snapshot checksum mismatch: " + file);
+        }
+
+        in = new DataInputStream(new ByteArrayInputStream(bytes, 2 * Integer.BYTES, bytes.length - TRAILER_BYTES));
+        int day = in.readInt();
+        bankAccount.restoreBalance(in.readInt());
+
+        int codeCount = in.readInt();
+        for(int i = 0; i < codeCount; i++)
+        {
+            String name = in.readUTF();
+            long count = in.readLong();
+            counters.add(ResultCode.valueOf(name), count);
+        }
+
+        Customer[] customerTable = new Customer[in.readInt()];
+        for(int i = 0; i < customerTable.length; i++)
+        {
+            customerTable[i] = customers.findOrCreate(in.readUTF());
+        }
+
+        int availableCount = in.readInt();
+        for(int i = 0; i < availableCount; i++)
+        {
+            inventory.addAvailableBike(readBike(in, customerTable));
+        }
+        int servicedCount = in.readInt();
+        for(int i = 0; i < servicedCount; i++)
+        {
+            int daysRemaining = in.readByte();
+            inventory.addServicedBike(readBike(in, customerTable), daysRemaining);
+        }
+        int awaitingCount = in.readInt();
+        for(int i = 0; i < awaitingCount; i++)
+        {
+            int daysWaiting = version >= 2 ? in.readInt() : 0;
+            inventory.addAwaitingPickupBike(readBike(in, customerTable), daysWaiting);
+        }
+        return day;
+    }
+
+    /**
+    METHOD: writeBike
+    IMPORT: out (DataOutputStream), bike (Bike), customerIndex (Map<Customer, Integer>)
+    EXPORT: None
+    ALGORITHM:
+    Writes a bike's state, servicing days, email (if any) and the index of its owning customer (-1 for none).
+    */
+    private static void writeBike(DataOutputStream out, Bike bike, Map<Customer, Integer> customerIndex) throws IOException
+    {
+        out.writeByte(bike.getStateType().ordinal());
+        out.writeInt(bike.getDaysInServicingState());
+        String email = bike.getCustomerEmail();
+        out.writeBoolean(email != null);
+        if(email != null)
+        {
+            out.writeUTF(email);
+        }
+        Customer owner = bike.getOwner();
+        out.writeInt(owner == null ? -1 : customerIndex.get(owner));
+    }
+
+    /**
+    METHOD: readBike
+    IMPORT: in (DataInputStream), customerTable (Customer ARRAY)
+    EXPORT: bike (Bike)
+    ALGORITHM:
+    Rebuilds a bike written by writeBike and hands it to its owning customer (before it is added to the Inventory, as the controller does).
+    */
+    private static Bike readBike(DataInputStream in, Customer[] customerTable) throws IOException
+    {
+        Bike bike = new Bike();
+        bike.restore(BikeStateType.values()[in.readByte()], in.readInt());
+        if(in.readBoolean())
+        {
+            bike.setAssociatedEmail(in.readUTF());
+        }
+        int owner = in.readInt();
+        if(owner >= 0)
+        {
+            customerTable[owner].addBike(bike);
+        }
+        return bike;
+    }
+}
@@ -0,0 +1,481 @@
+package edu.curtin.oose2024s1.assignment2.logging;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.ErrorManager;
+import java.util.logging.FileHandler;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogManager;
+import java.util.logging.LogRecord;
+
+/**
+Purpose:
+    - java.util.logging Handler that takes records off the calling thread: publish() only enqueues the record into a preallocated ring buffer, and a background thread formats and writes it through a target handler (a FileHandler by default).
+Role:
+    - Formatting (including MessageFormat substitution of "{0}" parameters, and so their toString()) happens on the background thread, so parameterised records cost the caller almost nothing.
+    - The ring is a bounded multi-producer/single-consumer queue with a sequence number per slot; producers claim slots with a CAS and never take a lock.
+    - When producers outrun the disk, the OverflowAction decides whether records are dropped (counted) or producers wait. Dropped records and records that waited longer than the lag threshold are reported as WARNING records through the target.
+    - Configured from logging.properties, like the JDK handlers (all optional):
+        <class>.level, <class>.target (handler class, default java.util.logging.FileHandler, which reads its own properties),
+        <class>.capacity (power of two, default 8192), <class>.overflow (DROP or BLOCK, default DROP),
+        <class>.lagWarningMillis (default 1000), <class>.inferCaller (default false).
+    - By default (inferCaller=false) no stack walk is done on the calling thread: the source is reported as the logger name (the logging class, as every logger here
+      is named after its class) with no method name. inferCaller=true captures the caller's class and method on the calling thread, as the JDK handlers do,
+      at the cost of a stack walk per record.
+*/
+// Asynchronous, ring-buffered log handler.
+public final class AsyncLogHandler extends Handler
+{
+    private static final int DEFAULT_CAPACITY = 8192;
+    private static final long DEFAULT_LAG_WARNING_MILLIS = 1000;
+    private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long CLOSE_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long FULL = -1;
+
+    private final Handler target;
+    private final OverflowAction overflowAction;
+    private final long lagWarningNanos;
+    private final boolean inferCaller;
+    private final int mask;
+    private final AtomicReferenceArray<LogRecord> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong lagging = new AtomicLong();
+    private final AtomicLong maxLagNanos = new AtomicLong();
+    private final Thread consumer;
+
+    private volatile boolean consumerWaiting;
+    private volatile boolean running = true;
+
+    // Consumer thread only (then the closing thread, after it has joined the consumer)
+    private long droppedReported;
+    private long laggingReported;
+
+    /**
+    METHOD: AsyncLogHandler
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Constructor used by the LogManager: reads the configuration from logging.properties and creates the target handler from its class name.
+    */
+    public AsyncLogHandler()
+    {
+        this(createTarget(property("target", FileHandler.class.getName())),
+             Integer.parseInt(property("capacity", String.valueOf(DEFAULT_CAPACITY))),
+             OverflowAction.valueOf(property("overflow", OverflowAction.DROP.name())),
+             Long.parseLong(property("lagWarningMillis", String.valueOf(DEFAULT_LAG_WARNING_MILLIS))),
+             Boolean.parseBoolean(property("inferCaller", "false")));
+        setLevel(Level.parse(property("level", Level.ALL.getName())));
+    }
+
+    /**
+    METHOD: AsyncLogHandler
+    IMPORT: target (Handler), capacity (int), overflowAction (OverflowAction), lagWarningMillis (long), inferCaller (boolean)
+    EXPORT: None
+    ALGORITHM:
+    Constructor that preallocates the ring (capacity must be a power of two) and starts the background writer thread.
+    */
+    public AsyncLogHandler(Handler target, int capacity, OverflowAction overflowAction, long lagWarningMillis, boolean inferCaller)
+    {
+        super();
+        if(capacity <= 0 || Integer.bitCount(capacity) != 1)
+        {
+            throw new IllegalArgumentException("Ring capacity must be a positive power of two: " + capacity);
+        }
+
+        this.target = target;
+        this.overflowAction = overflowAction;
+        this.lagWarningNanos = TimeUnit.MILLISECONDS.toNanos(lagWarningMillis);
+        this.inferCaller = inferCaller;
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for(int i = 0; i < capacity; i++)
+        {
+            sequences.set(i, i);
+        }
+
+        consumer = new Thread(this::drainLoop, "async-log-handler");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    /**
+    METHOD: publish
+    IMPORT: record (LogRecord)
+    EXPORT: None
+    ALGORITHM:
+    Enqueues a loggable record without formatting it. If the ring is full, drops it or waits, according to the overflow action.
+    A producer that got past the running check just as close() ran may enqueue after the final drain; if it then sees the handler closed, it takes its
+    record back out of the slot and counts it as dropped, unless a drain has already taken (and written) it.
+    */
+    @Override
+    public void publish(LogRecord record)
+    {
+        if(!running || !isLoggable(record))
+        {
+            return;
+        }
+
+        if(inferCaller)
+        {
+            // Forces the caller lookup now; on the writer thread it would find the wrong stack
+            record.getSourceClassName();
+        }
+        else
+        {
+            record.setSourceClassName(record.getLoggerName());
+            record.setSourceMethodName(null);
+        }
+
+        long position;
+        while((position = offer(record)) == FULL)
+        {
+            if(overflowAction == OverflowAction.DROP || !consumer.isAlive())
+            {
+                dropped.incrementAndGet();
+                return;
+            }
+            LockSupport.unpark(consumer);
+            Thread.onSpinWait();
+        }
+
+        if(!running && slots.compareAndSet((int) (position & mask), record, null))
+        {
+            dropped.incrementAndGet();
+        }
+    }
+
+    /**
+    METHOD: flush
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Waits until every record enqueued before the call has been written, then flushes the target.
+    */
+    @Override
+    public void flush()
+    {
+        if(Thread.currentThread() != consumer) // NOPMD - identity check: are we the writer thread?
+        {
+            long enqueued = tail.get();
+            while(head.get() < enqueued && consumer.isAlive())
+            {
+                LockSupport.unpark(consumer);
+                LockSupport.parkNanos(IDLE_NANOS);
+            }
+        }
+        target.flush();
+    }
+
+    /**
+    METHOD: close
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Stops accepting records, lets the writer thread drain the ring, then writes whatever producers published while it was stopping, reports any losses
+    and closes the target.
+    */
+    @Override
+    public void close()
+    {
+        if(!running)
+        {
+            return;
+        }
+
+        running = false;
+        LockSupport.unpark(consumer);
+        try
+        {
+            consumer.join();
+        }
+        catch(InterruptedException e)
+        {
+            reportError("Interrupted while draining the log ring.", e, ErrorManager.CLOSE_FAILURE);
+            Thread.currentThread().interrupt();
+        }
+        drainAfterClose();
+        reportLosses();
+        target.close();
+    }
+
+    /**
+    METHOD: getQueueDepth
+    IMPORT: None
+    EXPORT: depth (long)
+    ALGORITHM:
+    Returns how many records are waiting to be written.
+    */
+    public long getQueueDepth()
+    {
+        return tail.get() - head.get();
+    }
+
+    /**
+    METHOD: getDroppedCount
+    IMPORT: None
+    EXPORT: count (long)
+    ALGORITHM:
+    Returns how many records were dropped because the ring was full or they were logged while the handler was closing.
+    */
+    public long getDroppedCount()
+    {
+        return dropped.get();
+    }
+
+    /**
+    METHOD: getLaggingCount
+    IMPORT: None
+    EXPORT: count (long)
+    ALGORITHM:
+    Returns how many records were written more than the lag threshold after they were logged.
+    */
+    public long getLaggingCount()
+    {
+        return lagging.get();
+    }
+
+    /**
+    METHOD: getMaxLagMillis
+    IMPORT: None
+    EXPORT: lag (long)
+    ALGORITHM:
+    Returns the longest time a record has waited between being logged and being written.
+    */
+    public long getMaxLagMillis()
+    {
+        return TimeUnit.NANOSECONDS.toMillis(maxLagNanos.get());
+    }
+
+    /**
+    METHOD: offer
+    IMPORT: record (LogRecord)
+    EXPORT: position (long)
+    ALGORITHM:
+    Claims the next slot with a CAS on the tail (retrying if another producer won), stores the record, publishes the slot by advancing its sequence and
+    returns the claimed position. Returns FULL if the slot at the tail has not been consumed yet (ring full).
+    The sequence is advanced with a volatile write, not a lazySet, so the read of consumerWaiting that follows cannot be ordered before the publish
+    (which could leave the writer thread parked on a record it never saw).
+    */
+    private long offer(LogRecord record)
+    {
+        while(true)
+        {
+            long position = tail.get();
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if(difference == 0)
+            {
+                if(tail.compareAndSet(position, position + 1))
+                {
+                    slots.lazySet(index, record);
+                    sequences.set(index, position + 1);
+                    if(consumerWaiting)
+                    {
+                        LockSupport.unpark(consumer);
+                    }
+                    return position;
+                }
+            }
+            else if(difference < 0)
+            {
+                return FULL;
+            }
+        }
+    }
+
+    /**
+    METHOD: drainLoop
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Writer thread body: writes every published record through the target in order, flushing the target after each batch, and parks when the ring is empty.
+    Exits once closed and the ring is empty.
+    */
+    private void drainLoop()
+    {
+        while(true)
+        {
+            int written = drainBatch();
+            if(written > 0)
+            {
+                target.flush();
+                reportLosses();
+            }
+            else if(!running && head.get() == tail.get())
+            {
+                return;
+            }
+            else
+            {
+                consumerWaiting = true;
+                if(head.get() == tail.get() && running)
+                {
+                    LockSupport.parkNanos(this, IDLE_NANOS);
+                }
+                consumerWaiting = false;
+            }
+        }
+    }
+
+    /**
+    METHOD: drainBatch
+    IMPORT: None
+    EXPORT: written (int)
+    ALGORITHM:
+    Writes records until the next slot is not yet published (a producer may have claimed it but not filled it), releasing each slot for reuse.
+    A slot found empty was taken back by its producer after close() (see publish) and is skipped.
+    */
+    private int drainBatch()
+    {
+        int written = 0;
+        long position = head.get();
+        while(true)
+        {
+            int index = (int) (position & mask);
+            if(sequences.get(index) != position + 1)
+            {
+                head.lazySet(position);
+                return written;
+            }
+
+            LogRecord record = slots.getAndSet(index, null);
+            sequences.lazySet(index, position + mask + 1);
+            position++;
+            head.lazySet(position);
+
+            if(record != null)
+            {
+                write(record);
+                written++;
+            }
+        }
+    }
+
+    /**
+    METHOD: drainAfterClose
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Run by close() once the writer thread has exited: writes records that producers enqueued after the writer's last look at the ring. Waits briefly for
+    claimed slots to be published; a slot still unpublished after that is skipped, and its producer, which is bound to see running == false once it publishes,
+    counts the record as dropped itself (see publish). Published records behind it are still written.
+    */
+    private void drainAfterClose()
+    {
+        long deadline = System.nanoTime() + CLOSE_WAIT_NANOS;
+        while(head.get() < tail.get() && System.nanoTime() - deadline < 0)
+        {
+            drainBatch();
+            Thread.onSpinWait();
+        }
+
+        long end = tail.get();
+        for(long position = head.get(); position < end; position++)
+        {
+            int index = (int) (position & mask);
+            if(sequences.get(index) == position + 1)
+            {
+                LogRecord record = slots.getAndSet(index, null);
+                if(record != null)
+                {
+                    write(record);
+                }
+            }
+        }
+        target.flush();
+    }
+
+    /**
+    METHOD: write
+    IMPORT: record (LogRecord)
+    EXPORT: None
+    ALGORITHM:
+    Measures how long the record waited, then hands it to the target (which formats it).
+    */
+    private void write(LogRecord record)
+    {
+        long lag = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis() - record.getMillis());
+        if(lag > lagWarningNanos)
+        {
+            lagging.incrementAndGet();
+        }
+        maxLagNanos.accumulateAndGet(lag, Math::max);
+
+        try
+        {
+            target.publish(record);
+        }
+        catch(RuntimeException e) // NOPMD - a bad record (e.g. a throwing toString) must not stop the writer
+        {
+            reportError("Failed to write log record.", e, ErrorManager.WRITE_FAILURE);
+        }
+    }
+
+    /**
+    METHOD: reportLosses
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Writes a WARNING record through the target if more records have been dropped, or have lagged, since the last report.
+    */
+    private void reportLosses()
+    {
+        long droppedNow = dropped.get();
+        long laggingNow = lagging.get();
+        if(droppedNow == droppedReported && laggingNow == laggingReported)
+        {
+            return;
+        }
+
+        LogRecord warning = new LogRecord(Level.WARNING,
+                "Async log handler: " + (droppedNow - droppedReported) +  " records dropped (ring full or closing), " +
+                (laggingNow - laggingReported) + " written more than " + TimeUnit.NANOSECONDS.toMillis(lagWarningNanos) +
+                " ms late; totals " + droppedNow + " dropped, " + laggingNow + " late, max lag " + getMaxLagMillis() + " ms.");
+        warning.setLoggerName(AsyncLogHandler.class.getName());
+        warning.setSourceClassName(AsyncLogHandler.class.getName());
+        warning.setSourceMethodName("reportLosses");
+        target.publish(warning);
+        droppedReported = droppedNow;
+        laggingReported = laggingNow;
+    }
+
+    /**
+    METHOD: property
+    IMPORT: name (String), defaultValue (String)
+    EXPORT: value (String)
+    ALGORITHM:
+    Reads "<this class>.<name>" from the LogManager configuration, falling back to the default.
+    */
+    private static String property(String name, String defaultValue)
+    {
+        String value = LogManager.getLogManager().getProperty(AsyncLogHandler.class.getName() + "." + name);
+        return value == null ? defaultValue : value.trim();
+    }
+
+    /**
+    METHOD: createTarget
+    IMPORT: className (String)
+    EXPORT: target (Handler)
+    ALGORITHM:
+    Instantiates the target handler class through its no-argument constructor (as the LogManager does for "handlers").
+    */
+    private static Handler createTarget(String className)
+    {
+        try
+        {
+            return (Handler) ClassLoader.getSystemClassLoader().loadClass(className).getDeclaredConstructor().newInstance();
+        }
+        catch(ReflectiveOperationException | ClassCastException e)
+        {
+            throw new IllegalStateException("Cannot create log handler " + className + ": " + e.getMessage(), e);
+        }
+    }
+}
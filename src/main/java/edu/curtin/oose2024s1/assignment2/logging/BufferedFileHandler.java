@@ -0,0 +1,131 @@
+package edu.curtin.oose2024s1.assignment2.logging;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.logging.ErrorManager;
+import java.util.logging.Level;
+import java.util.logging.LogManager;
+import java.util.logging.SimpleFormatter;
+import java.util.logging.StreamHandler;
+
+/**
+Purpose:
+    - File handler that buffers formatted records and only writes them out on flush() (StreamHandler behaviour), unlike FileHandler, which flushes after every record.
+Role:
+    - Intended as the target of AsyncLogHandler, which flushes once per drained batch, so a burst of records becomes one write.
+    - Configured from logging.properties (all optional): <class>.pattern (default "app%u.log"), <class>.append (default false), <class>.bufferSize (default 65536),
+      <class>.level (default ALL, since AsyncLogHandler already filters). Records are formatted with SimpleFormatter.
+    - Like FileHandler, holds a lock on "<file>.lck" while the file is open and replaces "%u" in the pattern with the lowest number whose file is not locked,
+      so simultaneous runs write to app0.log, app1.log, ... instead of over each other. A pattern without "%u" fails if its file is already in use.
+*/
+// Buffered, explicitly flushed log file handler.
+public final class BufferedFileHandler extends StreamHandler
+{
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_UNIQUE = 100;
+
+    private FileChannel lockChannel;
+    private Path lockFile;
+
+    /**
+    METHOD: BufferedFileHandler
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Constructor used by AsyncLogHandler (or the LogManager): locks the first free file matching the configured pattern and opens it behind a buffered stream.
+    */
+    public BufferedFileHandler() throws IOException
+    {
+        super();
+        setFormatter(new SimpleFormatter());
+        setLevel(Level.parse(property("level", Level.ALL.getName())));
+        open(property("pattern", "app%u.log"), Boolean.parseBoolean(property("append", "false")),
+             Integer.parseInt(property("bufferSize", String.valueOf(DEFAULT_BUFFER_SIZE))));
+    }
+
+    /**
+    METHOD: close
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Flushes and closes the file, then releases and deletes its lock file.
+    */
+    @Override
+    public synchronized void close()
+    {
+        super.close();
+        if(lockChannel == null)
+        {
+            return;
+        }
+        try
+        {
+            lockChannel.close();
+            Files.deleteIfExists(lockFile);
+        }
+        catch(IOException e)
+        {
+            reportError("Cannot remove " + lockFile, e, ErrorManager.CLOSE_FAILURE);
+        }
+        lockChannel = null;
+    }
+
+    /**
+    METHOD: open
+    IMPORT: pattern (String), append (boolean), bufferSize (int)
+    EXPORT: None
+    ALGORITHM:
+    Tries "%u" = 0, 1, 2, ... until it gets the lock on a file's ".lck" file (without blocking), then opens that file as the output stream.
+    Throws IOException if every candidate (or, without "%u", the only one) is locked by another handler or process.
+    */
+    private void open(String pattern, boolean append, int bufferSize) throws IOException
+    {
+        boolean unique = pattern.contains("%u");
+        for(int u = 0; u < (unique ? MAX_UNIQUE : 1); u++)
+        {
+            Path file = Path.of(pattern.replace("%u", String.valueOf(u)));
+            Path lock = Path.of(file + ".lck");
+            FileChannel channel = FileChannel.open(lock, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            FileLock fileLock;
+            try
+            {
+                fileLock = channel.tryLock();
+            }
+            catch(OverlappingFileLockException e) // NOPMD - locked by another handler in this JVM; try the next file
+            {
+                fileLock = null;
+            }
+            if(fileLock == null)
+            {
+                channel.close();
+                continue;
+            }
+
+            lockChannel = channel;
+            lockFile = lock;
+            setOutputStream(new BufferedOutputStream(new FileOutputStream(file.toFile(), append), bufferSize));
+            return;
+        }
+        throw new IOException("No unlocked log file for pattern " + pattern);
+    }
+
+    /**
+    METHOD: property
+    IMPORT: name (String), defaultValue (String)
+    EXPORT: value (String)
+    ALGORITHM:
+    Reads "<this class>.<name>" from the LogManager configuration, falling back to the default.
+    */
+    private static String property(String name, String defaultValue)
+    {
+        String value = LogManager.getLogManager().getProperty(BufferedFileHandler.class.getName() + "." + name);
+        return value == null ? defaultValue : value.trim();
+    }
+}
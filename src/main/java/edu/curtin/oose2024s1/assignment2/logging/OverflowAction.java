@@ -0,0 +1,15 @@
+package edu.curtin.oose2024s1.assignment2.logging;
+
+/**
+Purpose:
+    - Names what AsyncLogHandler does with a new record when its ring buffer is full (the disk cannot keep up).
+Role:
+    - DROP discards the record and counts it, so logging never slows the simulation down (the default).
+    - BLOCK makes the logging thread wait for space, so no record is lost.
+*/
+// Enum of overflow actions for the async log handler.
+public enum OverflowAction
+{
+    DROP,
+    BLOCK
+}
@@ -0,0 +1,155 @@
+package edu.curtin.oose2024s1.assignment2.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+Purpose:
+    - A fixed-size, HDR-style histogram of durations in nanoseconds, accurate to about 3% of each value from 1ns up to centuries.
+Role:
+    - Values below 64 get a bucket each; above that, every power of two is split into 32 equal buckets, so the bucket index is found with a
+      leading-zero count and a shift, and recording never allocates.
+    - Written by a single thread (the EventLoop) with plain read-then-release-store updates, which is cheaper than an atomic add. Any thread
+      (JMX, the /metrics endpoint) can read it at the same time; a reading may be a few records behind, but never torn.
+*/
+// Log-linear latency histogram.
+public final class LatencyHistogram
+{
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_LIMIT = 2 * SUB_BUCKETS;
+    private static final int BUCKETS = (63 - SUB_BUCKET_BITS) * SUB_BUCKETS + SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLongArray totals = new AtomicLongArray(2); // count, sum
+    private volatile long max;
+
+    /**
+    METHOD: record
+    IMPORT: nanos (long)
+    EXPORT: None
+    ALGORITHM:
+    Adds one duration (negative values count as 0). Must only be called from the one writing thread.
+    */
+    public void record(long nanos)
+    {
+        long value = Math.max(0L, nanos);
+        int index = indexOf(value);
+        counts.setRelease(index, counts.getPlain(index) + 1);
+        totals.setRelease(1, totals.getPlain(1) + value);
+        totals.setRelease(0, totals.getPlain(0) + 1);
+        if(value > max)
+        {
+            max = value;
+        }
+    }
+
+    /**
+    METHOD: getCount
+    IMPORT: None
+    EXPORT: count (long)
+    ALGORITHM:
+    Returns the number of durations recorded.
+    */
+    public long getCount()
+    {
+        return totals.getAcquire(0);
+    }
+
+    /**
+    METHOD: getSum
+    IMPORT: None
+    EXPORT: nanos (long)
+    ALGORITHM:
+    Returns the total of all durations recorded.
+    */
+    public long getSum()
+    {
+        return totals.getAcquire(1);
+    }
+
+    /**
+    METHOD: getMax
+    IMPORT: None
+    EXPORT: nanos (long)
+    ALGORITHM:
+    Returns the longest duration recorded (exact).
+    */
+    public long getMax()
+    {
+        return max;
+    }
+
+    /**
+    METHOD: getValueAtPercentiles
+    IMPORT: percentiles (double ARRAY)
+    EXPORT: values (long ARRAY)
+    ALGORITHM:
+    Walks the buckets once and returns, for each percentile (0-100, in ascending order), the upper bound of the bucket it falls in (capped at the maximum).
+    Returns zeros if nothing has been recorded.
+    */
+    public long[] getValueAtPercentiles(double... percentiles)
+    {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for(int i = 0; i < BUCKETS; i++)
+        {
+            snapshot[i] = counts.getAcquire(i);
+            total += snapshot[i];
+        }
+
+        long[] values = new long[percentiles.length];
+        if(total == 0)
+        {
+            return values;
+        }
+        long highest = max;
+        long seen = 0;
+        int bucket = -1;
+        for(int p = 0; p < percentiles.length; p++)
+        {
+            long rank = Math.max(1L, (long) Math.ceil(percentiles[p] / 100.0 * total));
+            while(seen < rank && bucket < BUCKETS - 1)
+            {
+                bucket++;
+                seen += snapshot[bucket];
+            }
+            values[p] = Math.min(highestValueIn(bucket), highest);
+        }
+        return values;
+    }
+
+    /**
+    METHOD: indexOf
+    IMPORT: value (long)
+    EXPORT: index (int)
+    ALGORITHM:
+    Returns the bucket for a non-negative value: the value itself below LINEAR_LIMIT, otherwise its power of two times SUB_BUCKETS plus its top SUB_BUCKET_BITS + 1 bits.
+    */
+    /* default */ static int indexOf(long value)
+    {
+        if(value < LINEAR_LIMIT)
+        {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    /**
+    METHOD: highestValueIn
+    IMPORT: index (int)
+    EXPORT: value (long)
+    ALGORITHM:
+    Returns the largest value that falls in the given bucket (the inverse of indexOf).
+    */
+    /* default */ static long highestValueIn(int index)
+    {
+        if(index < LINEAR_LIMIT)
+        {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long top = index - (long) shift * SUB_BUCKETS;
+        return ((top + 1) << shift) - 1;
+    }
+}
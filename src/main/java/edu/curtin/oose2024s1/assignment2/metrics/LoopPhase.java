@@ -0,0 +1,19 @@
+package edu.curtin.oose2024s1.assignment2.metrics;
+
+/**
+Purpose:
+    - Enumerates the phases of one EventLoop day, in the order they run.
+Role:
+    - ShopMetrics keeps a latency histogram per phase, so the time a day takes can be broken down: showing the status, paying the employee (every 7th day only),
+      draining the day's messages, advancing servicing, committing the day (journal and results file) and waiting for the clock.
+*/
+// Timed phases of the event loop.
+public enum LoopPhase
+{
+    STATUS,
+    PAYROLL,
+    DRAIN,
+    SERVICING,
+    END_OF_DAY,
+    SLEEP
+}
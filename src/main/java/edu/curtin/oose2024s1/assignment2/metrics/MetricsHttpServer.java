@@ -0,0 +1,215 @@
+package edu.curtin.oose2024s1.assignment2.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import edu.curtin.oose2024s1.assignment2.command.MessageType;
+import edu.curtin.oose2024s1.assignment2.controller.ResultCode;
+import edu.curtin.oose2024s1.assignment2.state.BikeStateType;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.logging.Logger;
+
+/**
+Purpose:
+    - Serves a shop's ShopMetrics at http://127.0.0.1:PORT/metrics in the Prometheus text exposition format, so a Prometheus server (or curl) can scrape them live.
+Role:
+    - Result counts are counters; message and phase latencies are summaries (quantiles, sum and count, in seconds) labelled by message type or phase; day figures, the balance and bikes per state are gauges.
+    - Runs on the JDK's built-in HTTP server, on its own thread, reading the metrics as they are written; a scrape never blocks the shop.
+    - Listens on the loopback interface only.
+*/
+// Loopback Prometheus endpoint for the shop's metrics.
+public final class MetricsHttpServer implements Closeable
+{
+    private static final Logger logger = Logger.getLogger(MetricsHttpServer.class.getName());
+    private static final String PATH = "/metrics";
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final double[] PERCENTILES = { 50.0, 90.0, 99.0, 99.9 };
+    private static final String[] QUANTILE_LABELS = { "0.5", "0.9", "0.99", "0.999" };
+
+    private final ShopMetrics metrics;
+    private final HttpServer server;
+
+    /**
+    METHOD: MetricsHttpServer
+    IMPORT: port (int), metrics (ShopMetrics)
+    EXPORT: None
+    ALGORITHM:
+    Constructor that binds to the given loopback port (0 for any free port) and starts serving the metrics.
+    */
+    public MetricsHttpServer(int port, ShopMetrics metrics) throws IOException
+    {
+        this.metrics = metrics;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext(PATH, this::handle);
+        server.start();
+        logger.info(() -> "Serving metrics on " + server.getAddress() + PATH);
+    }
+
+    /**
+    METHOD: getPort
+    IMPORT: None
+    EXPORT: port (int)
+    ALGORITHM:
+    Returns the port the server is listening on.
+    */
+    public int getPort()
+    {
+        return server.getAddress().getPort();
+    }
+
+    /**
+    METHOD: close
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Stops the server straight away (any scrape in progress is cut off).
+    */
+    @Override
+    public void close()
+    {
+        server.stop(0);
+    }
+
+    /**
+    METHOD: render
+    IMPORT: None
+    EXPORT: text (String)
+    ALGORITHM:
+    Renders the current metrics in the Prometheus text format.
+    */
+    public String render()
+    {
+        var sb = new StringBuilder(16 * 1024);
+
+        header(sb, "bikeshop_messages_total", "counter", "Messages processed, by result.");
+        for(ResultCode code : ResultCode.values())
+        {
+            sb.append("bikeshop_messages_total{result=\"").append(code.name()).append("\"} ").append(metrics.getResultCount(code)).append('\n');
+        }
+
+        header(sb, "bikeshop_message_duration_seconds", "summary", "Time to process a message, by message type.");
+        for(MessageType type : MessageType.values())
+        {
+            summary(sb, "bikeshop_message_duration_seconds", "type", type.name(), metrics.getMessageLatency(type));
+        }
+
+        header(sb, "bikeshop_message_duration_max_seconds", "gauge", "Longest time taken to process a message, by message type.");
+        for(MessageType type : MessageType.values())
+        {
+            sb.append("bikeshop_message_duration_max_seconds{type=\"").append(type.name()).append("\"} ")
+                    .append(seconds(metrics.getMessageLatency(type).getMax())).append('\n');
+        }
+
+        header(sb, "bikeshop_loop_phase_duration_seconds", "summary", "Duration of each event loop phase.");
+        for(LoopPhase phase : LoopPhase.values())
+        {
+            summary(sb, "bikeshop_loop_phase_duration_seconds", "phase", phase.name(), metrics.getPhaseLatency(phase));
+        }
+
+        header(sb, "bikeshop_days_total", "counter", "Simulated days completed.");
+        sb.append("bikeshop_days_total ").append(metrics.getDaysElapsed()).append('\n');
+        header(sb, "bikeshop_last_day_messages", "gauge", "Messages processed on the last completed day.");
+        sb.append("bikeshop_last_day_messages ").append(metrics.getLastDayMessages()).append('\n');
+        header(sb, "bikeshop_last_day_messages_per_second", "gauge", "Messages per second of drain time on the last completed day.");
+        sb.append("bikeshop_last_day_messages_per_second ").append(String.format(Locale.ROOT, "%.1f", metrics.getLastDayMessagesPerSecond())).append('\n');
+        header(sb, "bikeshop_balance", "gauge", "Bank balance.");
+        sb.append("bikeshop_balance ").append(metrics.getBalance()).append('\n');
+        header(sb, "bikeshop_bikes", "gauge", "Bikes in the shop, by state.");
+        for(BikeStateType type : BikeStateType.values())
+        {
+            sb.append("bikeshop_bikes{state=\"").append(type.name()).append("\"} ").append(metrics.getBikeCount(type)).append('\n');
+        }
+        header(sb, "bikeshop_model_mutations_total", "counter", "Changes made to the shop's balance and bikes.");
+        sb.append("bikeshop_model_mutations_total ").append(metrics.getModelMutationCount()).append('\n');
+        return sb.toString();
+    }
+
+    /**
+    METHOD: handle
+    IMPORT: exchange (HttpExchange)
+    EXPORT: None
+    ALGORITHM:
+    Answers GET (or HEAD) /metrics with the rendered metrics, anything else with 404 or 405.
+    */
+    private void handle(HttpExchange exchange) throws IOException
+    {
+        try(exchange)
+        {
+            String method = exchange.getRequestMethod();
+            if(!PATH.equals(exchange.getRequestURI().getPath()))
+            {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            if(!"GET".equals(method) && !"HEAD".equals(method))
+            {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            byte[] body = render().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            if("HEAD".equals(method))
+            {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try(OutputStream out = exchange.getResponseBody())
+            {
+                out.write(body);
+            }
+        }
+    }
+
+    /**
+    METHOD: header
+    IMPORT: sb (StringBuilder), name (String), type (String), help (String)
+    EXPORT: None
+    ALGORITHM:
+    Appends the HELP and TYPE lines of a metric family.
+    */
+    private static void header(StringBuilder sb, String name, String type, String help)
+    {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    /**
+    METHOD: summary
+    IMPORT: sb (StringBuilder), name (String), label (String), value (String), histogram (LatencyHistogram)
+    EXPORT: None
+    ALGORITHM:
+    Appends one labelled summary: a line per quantile, then its sum and count.
+    */
+    private static void summary(StringBuilder sb, String name, String label, String value, LatencyHistogram histogram)
+    {
+        long[] values = histogram.getValueAtPercentiles(PERCENTILES);
+        String labels = label + "=\"" + value + "\"";
+        for(int i = 0; i < PERCENTILES.length; i++)
+        {
+            sb.append(name).append('{').append(labels).append(",quantile=\"").append(QUANTILE_LABELS[i]).append("\"} ").append(seconds(values[i])).append('\n');
+        }
+        sb.append(name).append("_sum{").append(labels).append("} ").append(seconds(histogram.getSum())).append('\n');
+        sb.append(name).append("_count{").append(labels).append("} ").append(histogram.getCount()).append('\n');
+    }
+
+    /**
+    METHOD: seconds
+    IMPORT: nanos (long)
+    EXPORT: text (String)
+    ALGORITHM:
+    Formats a duration in nanoseconds as seconds.
+    */
+    private static String seconds(long nanos)
+    {
+        return String.format(Locale.ROOT, "%.9f", nanos / 1e9);
+    }
+}
@@ -0,0 +1,487 @@
+package edu.curtin.oose2024s1.assignment2.metrics;
+
+import edu.curtin.oose2024s1.assignment2.command.MessageType;
+import edu.curtin.oose2024s1.assignment2.controller.ResultCode;
+import edu.curtin.oose2024s1.assignment2.observer.ChangeSet;
+import edu.curtin.oose2024s1.assignment2.observer.Observer;
+import edu.curtin.oose2024s1.assignment2.state.BikeStateType;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.Logger;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+Purpose:
+    - Live operational metrics for one shop: a latency histogram per message type and per event loop phase, a counter per result code and per-day throughput.
+    - Also observes the model, keeping the bank balance, the number of bikes in each state and the number of model mutations up to date from each ChangeSet.
+Role:
+    - Written only by the thread running the EventLoop, through methods that do no more than index an array and store a few longs, so instrumenting the hot path
+      costs a pair of System.nanoTime() calls per message and never allocates.
+    - Read from any thread while the shop runs (only readers allocate): published as an MXBean on the platform MBean server and rendered by MetricsHttpServer.
+    - As an observer it has a single writer too, but not necessarily the EventLoop thread: wrapped in an AsyncObserver ("--async-metrics"), the model figures are
+      written by the AsyncObserver's consumer thread, so they can lag the model slightly but never slow the EventLoop down.
+*/
+// Live latency and outcome metrics for the shop.
+public final class ShopMetrics implements ShopMetricsMXBean, Observer
+{
+    private static final Logger logger = Logger.getLogger(ShopMetrics.class.getName());
+    private static final String OBJECT_NAME = "edu.curtin.oose2024s1.assignment2:type=ShopMetrics";
+    private static final MessageType[] TYPES = MessageType.values();
+    private static final LoopPhase[] PHASES = LoopPhase.values();
+    private static final ResultCode[] CODES = ResultCode.values();
+    private static final BikeStateType[] STATES = BikeStateType.values();
+    private static final double NANOS_PER_MICRO = 1e3;
+
+    private final LatencyHistogram[] messageLatency = newHistograms(TYPES.length);
+    private final LatencyHistogram[] phaseLatency = newHistograms(PHASES.length);
+    private final AtomicLongArray resultCounts = new AtomicLongArray(CODES.length);
+    private volatile long daysElapsed;
+    private volatile long lastDayMessages;
+    private volatile long lastDayDrainNanos;
+    private final AtomicLongArray bikeCounts = new AtomicLongArray(STATES.length);
+    private volatile long balance;
+    private volatile long modelMutations;
+    private ObjectName registeredName;
+
+    /**
+    METHOD: recordMessage
+    IMPORT: type (MessageType), result (ResultCode), nanos (long)
+    EXPORT: None
+    ALGORITHM:
+    Records how long one message of the given type took to process and counts its outcome. EventLoop thread only.
+    */
+    public void recordMessage(MessageType type, ResultCode result, long nanos)
+    {
+        messageLatency[type.ordinal()].record(nanos);
+        int code = result.ordinal();
+        resultCounts.setRelease(code, resultCounts.getPlain(code) + 1);
+    }
+
+    /**
+    METHOD: recordPhase
+    IMPORT: phase (LoopPhase), nanos (long)
+    EXPORT: None
+    ALGORITHM:
+    Records how long one run of an event loop phase took. EventLoop thread only.
+    */
+    public void recordPhase(LoopPhase phase, long nanos)
+    {
+        phaseLatency[phase.ordinal()].record(nanos);
+    }
+
+    /**
+    METHOD: recordDay
+    IMPORT: day (long), messages (long), drainNanos (long)
+    EXPORT: None
+    ALGORITHM:
+    Records the end of a day: its number, how many messages it processed and how long draining them took. EventLoop thread only.
+    */
+    public void recordDay(long day, long messages, long drainNanos)
+    {
+        lastDayMessages = messages;
+        lastDayDrainNanos = drainNanos;
+        daysElapsed = day;
+    }
+
+    /**
+    METHOD: setModelTotals
+    IMPORT: balance (long), available (int), servicing (int), awaitingPickup (int)
+    EXPORT: None
+    ALGORITHM:
+    Sets the model figures the ChangeSets are applied to (e.g. after the shop is restored from a journal). Call before registering these metrics as an observer.
+    */
+    public void setModelTotals(long balance, int available, int servicing, int awaitingPickup)
+    {
+        bikeCounts.set(BikeStateType.AVAILABLE.ordinal(), available);
+        bikeCounts.set(BikeStateType.SERVICING.ordinal(), servicing);
+        bikeCounts.set(BikeStateType.AWAITING_PICKUP.ordinal(), awaitingPickup);
+        this.balance = balance;
+    }
+
+    /**
+    METHOD: update
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Does nothing: the model figures are only updated from a ChangeSet.
+    */
+    @Override
+    public void update() {}
+
+    /**
+    METHOD: update
+    IMPORT: changes (ChangeSet)
+    EXPORT: None
+    ALGORITHM:
+    Applies the balance and bike count deltas and counts the mutations. Called by one thread at a time (the model's, or an AsyncObserver's consumer).
+    */
+    @Override
+    public void update(ChangeSet changes)
+    {
+        for(BikeStateType type : STATES)
+        {
+            int delta = changes.getBikeCountDelta(type);
+            if(delta != 0)
+            {
+                int state = type.ordinal();
+                bikeCounts.setRelease(state, bikeCounts.getPlain(state) + delta);
+            }
+        }
+        balance += changes.getBalanceDelta(); // NOPMD - single writer, see the class comment
+        modelMutations += changes.getMutationCount(); // NOPMD - single writer, see the class comment
+    }
+
+    /**
+    METHOD: getMessageLatency
+    IMPORT: type (MessageType)
+    EXPORT: histogram (LatencyHistogram)
+    ALGORITHM:
+    Returns the processing time histogram for the given message type.
+    */
+    public LatencyHistogram getMessageLatency(MessageType type)
+    {
+        return messageLatency[type.ordinal()];
+    }
+
+    /**
+    METHOD: getPhaseLatency
+    IMPORT: phase (LoopPhase)
+    EXPORT: histogram (LatencyHistogram)
+    ALGORITHM:
+    Returns the duration histogram for the given event loop phase.
+    */
+    public LatencyHistogram getPhaseLatency(LoopPhase phase)
+    {
+        return phaseLatency[phase.ordinal()];
+    }
+
+    /**
+    METHOD: getResultCount
+    IMPORT: result (ResultCode)
+    EXPORT: count (long)
+    ALGORITHM:
+    Returns the number of messages with the given outcome.
+    */
+    public long getResultCount(ResultCode result)
+    {
+        return resultCounts.getAcquire(result.ordinal());
+    }
+
+    /**
+    METHOD: getBikeCount
+    IMPORT: type (BikeStateType)
+    EXPORT: count (long)
+    ALGORITHM:
+    Returns the number of bikes in the given state, as of the last ChangeSet observed.
+    */
+    public long getBikeCount(BikeStateType type)
+    {
+        return bikeCounts.getAcquire(type.ordinal());
+    }
+
+    /**
+    METHOD: register
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Publishes these metrics on the platform MBean server. If that fails (e.g. another shop in this JVM already has the name) the error is logged and the metrics stay unpublished.
+    */
+    public void register()
+    {
+        try
+        {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+            registeredName = name;
+        }
+        catch(JMException e)
+        {
+            logger.warning(() -> "Could not publish the metrics over JMX: " + e.getMessage());
+        }
+    }
+
+    /**
+    METHOD: unregister
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Removes these metrics from the platform MBean server, if register() published them.
+    */
+    public void unregister()
+    {
+        if(registeredName == null)
+        {
+            return;
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try
+        {
+            server.unregisterMBean(registeredName);
+        }
+        catch(JMException e)
+        {
+            logger.warning(() -> "Could not unpublish the metrics: " + e.getMessage());
+        }
+        registeredName = null;
+    }
+
+    /**
+    METHOD: getDaysElapsed
+    IMPORT: None
+    EXPORT: days (long)
+    ALGORITHM:
+    Returns the number of days completed.
+    */
+    @Override
+    public long getDaysElapsed()
+    {
+        return daysElapsed;
+    }
+
+    /**
+    METHOD: getMessageCount
+    IMPORT: None
+    EXPORT: count (long)
+    ALGORITHM:
+    Returns the total of the result counters.
+    */
+    @Override
+    public long getMessageCount()
+    {
+        long total = 0;
+        for(ResultCode code : CODES)
+        {
+            total += getResultCount(code);
+        }
+        return total;
+    }
+
+    /**
+    METHOD: getFailureCount
+    IMPORT: None
+    EXPORT: count (long)
+    ALGORITHM:
+    Returns the total of the failure result counters.
+    */
+    @Override
+    public long getFailureCount()
+    {
+        long failures = 0;
+        for(ResultCode code : CODES)
+        {
+            if(code.isFailure())
+            {
+                failures += getResultCount(code);
+            }
+        }
+        return failures;
+    }
+
+    /**
+    METHOD: getResultCounts
+    IMPORT: None
+    EXPORT: counts (Map of String to Long)
+    ALGORITHM:
+    Returns every result counter, keyed by result code name.
+    */
+    @Override
+    public Map<String, Long> getResultCounts()
+    {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for(ResultCode code : CODES)
+        {
+            counts.put(code.name(), getResultCount(code));
+        }
+        return counts;
+    }
+
+    /**
+    METHOD: getBalance
+    IMPORT: None
+    EXPORT: balance (long)
+    ALGORITHM:
+    Returns the bank balance, as of the last ChangeSet observed.
+    */
+    @Override
+    public long getBalance()
+    {
+        return balance;
+    }
+
+    /**
+    METHOD: getBikeCounts
+    IMPORT: None
+    EXPORT: counts (Map of String to Long)
+    ALGORITHM:
+    Returns the number of bikes in each state, keyed by state name.
+    */
+    @Override
+    public Map<String, Long> getBikeCounts()
+    {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for(BikeStateType type : STATES)
+        {
+            counts.put(type.name(), getBikeCount(type));
+        }
+        return counts;
+    }
+
+    /**
+    METHOD: getModelMutationCount
+    IMPORT: None
+    EXPORT: count (long)
+    ALGORITHM:
+    Returns the number of model mutations observed.
+    */
+    @Override
+    public long getModelMutationCount()
+    {
+        return modelMutations;
+    }
+
+    /**
+    METHOD: getLastDayMessages
+    IMPORT: None
+    EXPORT: count (long)
+    ALGORITHM:
+    Returns the number of messages processed on the last completed day.
+    */
+    @Override
+    public long getLastDayMessages()
+    {
+        return lastDayMessages;
+    }
+
+    /**
+    METHOD: getLastDayMessagesPerSecond
+    IMPORT: None
+    EXPORT: rate (double)
+    ALGORITHM:
+    Returns the last completed day's messages divided by its drain time, or 0 before the first day (or for a day without messages).
+    */
+    @Override
+    public double getLastDayMessagesPerSecond()
+    {
+        long nanos = lastDayDrainNanos;
+        return nanos == 0 ? 0.0 : lastDayMessages * 1e9 / nanos;
+    }
+
+    /**
+    METHOD: getMessageLatencyP50Micros
+    IMPORT: None
+    EXPORT: latencies (Map of String to Double)
+    ALGORITHM:
+    Returns the median processing time of each message type.
+    */
+    @Override
+    public Map<String, Double> getMessageLatencyP50Micros()
+    {
+        return messagePercentiles(50.0);
+    }
+
+    /**
+    METHOD: getMessageLatencyP99Micros
+    IMPORT: None
+    EXPORT: latencies (Map of String to Double)
+    ALGORITHM:
+    Returns the 99th percentile processing time of each message type.
+    */
+    @Override
+    public Map<String, Double> getMessageLatencyP99Micros()
+    {
+        return messagePercentiles(99.0);
+    }
+
+    /**
+    METHOD: getMessageLatencyMaxMicros
+    IMPORT: None
+    EXPORT: latencies (Map of String to Double)
+    ALGORITHM:
+    Returns the longest processing time of each message type.
+    */
+    @Override
+    public Map<String, Double> getMessageLatencyMaxMicros()
+    {
+        Map<String, Double> latencies = new LinkedHashMap<>();
+        for(MessageType type : TYPES)
+        {
+            latencies.put(type.name(), getMessageLatency(type).getMax() / NANOS_PER_MICRO);
+        }
+        return latencies;
+    }
+
+    /**
+    METHOD: getPhaseP99Micros
+    IMPORT: None
+    EXPORT: latencies (Map of String to Double)
+    ALGORITHM:
+    Returns the 99th percentile duration of each event loop phase.
+    */
+    @Override
+    public Map<String, Double> getPhaseP99Micros()
+    {
+        Map<String, Double> latencies = new LinkedHashMap<>();
+        for(LoopPhase phase : PHASES)
+        {
+            latencies.put(phase.name(), getPhaseLatency(phase).getValueAtPercentiles(99.0)[0] / NANOS_PER_MICRO);
+        }
+        return latencies;
+    }
+
+    /**
+    METHOD: getPhaseTotalMillis
+    IMPORT: None
+    EXPORT: totals (Map of String to Double)
+    ALGORITHM:
+    Returns the total time spent in each event loop phase.
+    */
+    @Override
+    public Map<String, Double> getPhaseTotalMillis()
+    {
+        Map<String, Double> totals = new LinkedHashMap<>();
+        for(LoopPhase phase : PHASES)
+        {
+            totals.put(phase.name(), getPhaseLatency(phase).getSum() / 1e6);
+        }
+        return totals;
+    }
+
+    /**
+    METHOD: messagePercentiles
+    IMPORT: percentile (double)
+    EXPORT: latencies (Map of String to Double)
+    ALGORITHM:
+    Returns the given percentile of the processing time of each message type, in microseconds.
+    */
+    private Map<String, Double> messagePercentiles(double percentile)
+    {
+        Map<String, Double> latencies = new LinkedHashMap<>();
+        for(MessageType type : TYPES)
+        {
+            latencies.put(type.name(), getMessageLatency(type).getValueAtPercentiles(percentile)[0] / NANOS_PER_MICRO);
+        }
+        return latencies;
+    }
+
+    /**
+    METHOD: newHistograms
+    IMPORT: count (int)
+    EXPORT: histograms (LatencyHistogram ARRAY)
+    ALGORITHM:
+    Returns count empty histograms.
+    */
+    private static LatencyHistogram[] newHistograms(int count)
+    {
+        LatencyHistogram[] histograms = new LatencyHistogram[count];
+        for(int i = 0; i < count; i++)
+        {
+            histograms[i] = new LatencyHistogram();
+        }
+        return histograms;
+    }
+}
@@ -0,0 +1,140 @@
+package edu.curtin.oose2024s1.assignment2.metrics;
+
+import java.util.Map;
+
+/**
+Purpose:
+    - The management interface ShopMetrics publishes over JMX (e.g. to JConsole or VisualVM) as edu.curtin.oose2024s1.assignment2:type=ShopMetrics.
+Role:
+    - Only uses types an MXBean can map to open types (numbers and maps keyed by name), so any JMX client can read it without the shop's classes.
+    - Latencies are in microseconds; maps are keyed by the message type, loop phase or result code name.
+*/
+// JMX view of the shop's live metrics.
+public interface ShopMetricsMXBean
+{
+    /**
+    METHOD: getDaysElapsed
+    IMPORT: None
+    EXPORT: days (long)
+    ALGORITHM:
+    Returns the number of days completed.
+    */
+    long getDaysElapsed();
+
+    /**
+    METHOD: getMessageCount
+    IMPORT: None
+    EXPORT: count (long)
+    ALGORITHM:
+    Returns the number of messages processed.
+    */
+    long getMessageCount();
+
+    /**
+    METHOD: getFailureCount
+    IMPORT: None
+    EXPORT: count (long)
+    ALGORITHM:
+    Returns the number of messages that failed, for any reason.
+    */
+    long getFailureCount();
+
+    /**
+    METHOD: getResultCounts
+    IMPORT: None
+    EXPORT: counts (Map of String to Long)
+    ALGORITHM:
+    Returns the number of messages with each outcome.
+    */
+    Map<String, Long> getResultCounts();
+
+    /**
+    METHOD: getBalance
+    IMPORT: None
+    EXPORT: balance (long)
+    ALGORITHM:
+    Returns the bank balance, as of the last model change observed.
+    */
+    long getBalance();
+
+    /**
+    METHOD: getBikeCounts
+    IMPORT: None
+    EXPORT: counts (Map of String to Long)
+    ALGORITHM:
+    Returns the number of bikes in each state, keyed by state name, as of the last model change observed.
+    */
+    Map<String, Long> getBikeCounts();
+
+    /**
+    METHOD: getModelMutationCount
+    IMPORT: None
+    EXPORT: count (long)
+    ALGORITHM:
+    Returns the number of model mutations observed.
+    */
+    long getModelMutationCount();
+
+    /**
+    METHOD: getLastDayMessages
+    IMPORT: None
+    EXPORT: count (long)
+    ALGORITHM:
+    Returns the number of messages processed on the last completed day.
+    */
+    long getLastDayMessages();
+
+    /**
+    METHOD: getLastDayMessagesPerSecond
+    IMPORT: None
+    EXPORT: rate (double)
+    ALGORITHM:
+    Returns how fast the last completed day's messages were drained (messages per second of drain time).
+    */
+    double getLastDayMessagesPerSecond();
+
+    /**
+    METHOD: getMessageLatencyP50Micros
+    IMPORT: None
+    EXPORT: latencies (Map of String to Double)
+    ALGORITHM:
+    Returns the median time to process a message, per message type.
+    */
+    Map<String, Double> getMessageLatencyP50Micros();
+
+    /**
+    METHOD: getMessageLatencyP99Micros
+    IMPORT: None
+    EXPORT: latencies (Map of String to Double)
+    ALGORITHM:
+    Returns the 99th percentile time to process a message, per message type.
+    */
+    Map<String, Double> getMessageLatencyP99Micros();
+
+    /**
+    METHOD: getMessageLatencyMaxMicros
+    IMPORT: None
+    EXPORT: latencies (Map of String to Double)
+    ALGORITHM:
+    Returns the longest time taken to process a message, per message type.
+    */
+    Map<String, Double> getMessageLatencyMaxMicros();
+
+    /**
+    METHOD: getPhaseP99Micros
+    IMPORT: None
+    EXPORT: latencies (Map of String to Double)
+    ALGORITHM:
+    Returns the 99th percentile duration of each event loop phase.
+    */
+    Map<String, Double> getPhaseP99Micros();
+
+    /**
+    METHOD: getPhaseTotalMillis
+    IMPORT: None
+    EXPORT: totals (Map of String to Double)
+    ALGORITHM:
+    Returns the total time spent in each event loop phase.
+    */
+    Map<String, Double> getPhaseTotalMillis();
+}
@@ -2,9 +2,9 @@ package edu.curtin.oose2024s1.assignment2.model;
 
 import edu.curtin.oose2024s1.assignment2.observer.Observable;
 import edu.curtin.oose2024s1.assignment2.observer.Observer;
+import edu.curtin.oose2024s1.assignment2.observer.ObserverRegistry;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
@@ -22,7 +22,7 @@ public class BankAccount implements Observable
     private static final Logger logger = Logger.getLogger(BankAccount.class.getName());
 
     private int balance;
-    private final List<Observer> observers = new ArrayList<>();
+    private final ObserverRegistry observers = new ObserverRegistry();
 
     /**
     METHOD: BankAccount
@@ -54,13 +54,49 @@ public class BankAccount implements Observable
     IMPORT: amount (double)
     EXPORT: None
     ALGORITHM:
-    Adds the specified amount to the balance and notifies observers of the change.
+    Adds the specified amount to the balance and records the change for observers.
     */
     public void deposit(int amount)
     {
         balance += amount;
-        logger.info(() -> "Deposited: " + amount + ", New Balance: " + balance);
-        notifyObservers();
+        if(logger.isLoggable(Level.INFO))
+        {
+            logger.log(Level.INFO, "Deposited: {0,number,#}, New Balance: {1,number,#}", new Object[] { amount, balance });
+        }
+        observers.recordBalanceChange(amount);
+    }
+
+    /**
+    METHOD: depositPayments
+    IMPORT: amount (int), count (int)
+    EXPORT: None
+    ALGORITHM:
+    Deposits count payments of amount in one update of the balance. Observers see the same change as count separate deposits (one mutation each).
+    */
+    public void depositPayments(int amount, int count)
+    {
+        int total = amount * count;
+        balance += total;
+        if(logger.isLoggable(Level.INFO))
+        {
+            logger.log(Level.INFO, "Deposited: {0,number,#} ({1} x {2,number,#}), New Balance: {3,number,#}", new Object[] { total, count, amount, balance });
+        }
+        observers.recordBalanceChange(total, count);
+    }
+
+    /**
+    METHOD: restoreBalance
+    IMPORT: savedBalance (int)
+    EXPORT: None
+    ALGORITHM:
+    Sets the balance to a saved value (used when loading a snapshot) and records the difference for observers.
+    */
+    public void restoreBalance(int savedBalance)
+    {
+        int previous = balance;
+        balance = savedBalance;
+        logger.info(() -> "Balance restored: " + savedBalance);
+        observers.recordBalanceChange(savedBalance - previous);
     }
 
     /**
@@ -85,11 +121,9 @@ public class BankAccount implements Observable
     */
     public void withdraw(int amount, boolean isEmployeePayment)
     {
-        if (isEmployeePayment || balance >= amount)
+        if(isEmployeePayment || balance >= amount)
         {
-            balance -= amount;
-            logger.info(() -> "Withdrew: " + amount + ", New Balance: " + balance);
-            notifyObservers();
+            subtract(amount, 1);
         }
         else
         {
@@ -97,6 +131,43 @@ public class BankAccount implements Observable
         }
     }
 
+    /**
+    METHOD: withdrawPayments
+    IMPORT: amount (int), count (int)
+    EXPORT: withdrawn (boolean)
+    ALGORITHM:
+    Withdraws count payments of amount in one update of the balance, if the balance covers all of them (no overdraft). Observers see the same change as
+    count separate withdrawals (one mutation each).
+    */
+    public boolean withdrawPayments(int amount, int count)
+    {
+        int total = amount * count;
+        if(balance < total)
+        {
+            logger.warning(() -> "Insufficient funds for withdrawal: " + total);
+            return false;
+        }
+        subtract(total, count);
+        return true;
+    }
+
+    /**
+    METHOD: subtract
+    IMPORT: amount (int), mutations (int)
+    EXPORT: None
+    ALGORITHM:
+    Subtracts amount from the balance and records the change for observers as the given number of mutations.
+    */
+    private void subtract(int amount, int mutations)
+    {
+        balance -= amount;
+        if(logger.isLoggable(Level.INFO))
+        {
+            logger.log(Level.INFO, "Withdrew: {0,number,#}, New Balance: {1,number,#}", new Object[] { amount, balance });
+        }
+        observers.recordBalanceChange(-amount, mutations);
+    }
+
     /**
     METHOD: addObserver
     IMPORT: observer (Observer)
@@ -131,14 +202,37 @@ public class BankAccount implements Observable
     IMPORT: None
     EXPORT: None
     ALGORITHM:
-    Notifies all registered observers of changes by calling their update method.
+    Delivers any pending changes to all registered observers (no-op inside a batch, which delivers on endBatch).
     */
     @Override
     public void notifyObservers()
     {
-        for (Observer observer : observers)
-        {
-            observer.update();
-        }
+        observers.notifyObservers();
+    }
+
+    /**
+    METHOD: beginBatch
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Starts a unit of work; changes are collected and delivered as one ChangeSet by endBatch.
+    */
+    @Override
+    public void beginBatch()
+    {
+        observers.beginBatch();
+    }
+
+    /**
+    METHOD: endBatch
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Ends a unit of work and delivers the collected changes to each observer once.
+    */
+    @Override
+    public void endBatch()
+    {
+        observers.endBatch();
     }
 }
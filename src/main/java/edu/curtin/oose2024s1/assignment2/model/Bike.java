@@ -3,8 +3,9 @@ package edu.curtin.oose2024s1.assignment2.model;
 import edu.curtin.oose2024s1.assignment2.state.AwaitingPickupState;
 import edu.curtin.oose2024s1.assignment2.state.BikeState;
 import edu.curtin.oose2024s1.assignment2.state.AvailableState;
-import edu.curtin.oose2024s1.assignment2.state.ServicingState;
+import edu.curtin.oose2024s1.assignment2.state.BikeStateType;
 
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
@@ -26,6 +27,17 @@ public class Bike
     private String associatedEmail;
     private int daysInServicingState;
 
+    // Links used by BikeList, so the inventory can remove this bike in O(1).
+    /* default */ BikeList list;
+    /* default */ Bike prev;
+    /* default */ Bike next;
+
+    // Inventory day on which the bike started awaiting pick-up, so the inventory can tell how long it has waited.
+    /* default */ long awaitingPickupSince;
+
+    // Customer that owns this bike (if any), told about every state transition so it can keep its indexes up to date.
+    private Customer owner;
+
     /**
      METHOD: Bike
      IMPORT: None
@@ -35,7 +47,7 @@ public class Bike
      */
     public Bike()
     {
-        this.state = new AvailableState();
+        this.state = AvailableState.INSTANCE;
         this.daysInServicingState = 0;
     }
 
@@ -51,16 +63,57 @@ public class Bike
         return state;
     }
 
+    /**
+     METHOD: getStateType
+     IMPORT: None
+     EXPORT: type (BikeStateType)
+     ALGORITHM:
+     Returns the constant identifying the bike's current state (cheap to compare or switch on).
+     */
+    public BikeStateType getStateType()
+    {
+        return state.getType();
+    }
+
     /**
      METHOD: setState
      IMPORT: state (BikeState)
      EXPORT: None
      ALGORITHM:
-     Sets the state of the bike to the given state.
+     Sets the state of the bike to the given state and tells the owning customer (if any) about the transition.
      */
     public void setState(BikeState state)
     {
+        BikeState oldState = this.state;
         this.state = state;
+        if (owner != null)
+        {
+            owner.onBikeStateChanged(this, oldState, state);
+        }
+    }
+
+    /**
+     METHOD: setOwner
+     IMPORT: owner (Customer)
+     EXPORT: None
+     ALGORITHM:
+     Records the customer that owns this bike (null when no customer owns it). Only called by Customer.
+     */
+    /* default */ void setOwner(Customer owner)
+    {
+        this.owner = owner;
+    }
+
+    /**
+     METHOD: getOwner
+     IMPORT: None
+     EXPORT: owner (Customer)
+     ALGORITHM:
+     Returns the customer that owns this bike, or null if no customer owns it.
+     */
+    public Customer getOwner()
+    {
+        return owner;
     }
 
     /**
@@ -75,12 +128,24 @@ public class Bike
         this.associatedEmail = email;
     }
 
+    /**
+     METHOD: getCustomerEmail
+     IMPORT: None
+     EXPORT: email (String)
+     ALGORITHM:
+     Returns the email of the customer that owns the bike, falling back to the associated email (null if neither is known).
+     */
+    public String getCustomerEmail()
+    {
+        return owner == null ? associatedEmail : owner.getEmail();
+    }
+
     /**
      METHOD: dropOff
      IMPORT: None
      EXPORT: None
      ALGORITHM:
-     Delegates the drop-off action to the current state.
+     Delegates the drop-off action to the current state. Throws IllegalStateException if the transition is invalid.
      */
     public void dropOff()
     {
@@ -88,17 +153,57 @@ public class Bike
         daysInServicingState = 0; // Reset days in servicing state
     }
 
+    /**
+     METHOD: tryDropOff
+     IMPORT: None
+     EXPORT: valid (boolean)
+     ALGORITHM:
+     Delegates the drop-off action to the current state, returning false instead of throwing if the transition is invalid.
+     */
+    public boolean tryDropOff()
+    {
+        if (state.tryDropOff(this))
+        {
+            daysInServicingState = 0; // Reset days in servicing state
+            return true;
+        }
+        return false;
+    }
+
     /**
      METHOD: pickUp
      IMPORT: None
      EXPORT: None
      ALGORITHM:
-     Delegates the pick-up action to the current state.
+     Delegates the pick-up action to the current state. Throws IllegalStateException if the transition is invalid.
      */
     public void pickUp()
     {
         state.pickUp(this);
-        logger.info(() -> "Bike picked up. State: " + state);
+        if(logger.isLoggable(Level.INFO))
+        {
+            logger.log(Level.INFO, "Bike picked up. State: {0}", state);
+        }
+    }
+
+    /**
+     METHOD: tryPickUp
+     IMPORT: None
+     EXPORT: valid (boolean)
+     ALGORITHM:
+     Delegates the pick-up action to the current state, returning false instead of throwing if the transition is invalid.
+     */
+    public boolean tryPickUp()
+    {
+        if (state.tryPickUp(this))
+        {
+            if(logger.isLoggable(Level.INFO))
+            {
+                logger.log(Level.INFO, "Bike picked up. State: {0}", state);
+            }
+            return true;
+        }
+        return false;
     }
 
     /**
@@ -106,7 +211,7 @@ public class Bike
      IMPORT: None
      EXPORT: None
      ALGORITHM:
-     Delegates the purchase action to the current state.
+     Delegates the purchase action to the current state. Throws IllegalStateException if the transition is invalid.
      */
     public void purchase()
     {
@@ -114,27 +219,51 @@ public class Bike
     }
 
     /**
-     METHOD: incrementDaysInServicingState
+     METHOD: tryPurchase
      IMPORT: None
+     EXPORT: valid (boolean)
+     ALGORITHM:
+     Delegates the purchase action to the current state, returning false instead of throwing if the transition is invalid.
+     */
+    public boolean tryPurchase()
+    {
+        return state.tryPurchase(this);
+    }
+
+    /**
+     METHOD: completeServicing
+     IMPORT: days (int)
      EXPORT: None
      ALGORITHM:
-     Increments the days the bike has been in the servicing state.
+     Records how many days the bike spent being serviced and transitions it to AwaitingPickupState. Does nothing if the bike is not being serviced.
      */
-    public void incrementDaysInServicingState()
+    public void completeServicing(int days)
     {
-        if (state instanceof ServicingState)
+        if (state.getType() == BikeStateType.SERVICING)
         {
-            daysInServicingState++;
-            logger.fine(() -> "Incremented days in servicing state: " + daysInServicingState);
-            if (daysInServicingState > 2)
+            daysInServicingState = days;
+            // Transition to AwaitingPickupState after servicing
+            setState(AwaitingPickupState.INSTANCE);
+            if(logger.isLoggable(Level.INFO))
             {
-                // Transition to AwaitingPickupState after servicing
-                state = new AwaitingPickupState();
-                logger.info(() -> "Bike state changed to AwaitingPickupState after servicing. State: " + state);
+                logger.log(Level.INFO, "Bike state changed to AwaitingPickupState after servicing. State: {0}", state);
             }
         }
     }
 
+    /**
+     METHOD: restore
+     IMPORT: type (BikeStateType), daysInServicingState (int)
+     EXPORT: None
+     ALGORITHM:
+     Puts the bike straight into a saved state without running a transition or telling an owner. Only used when loading a snapshot, before the bike is given to its customer.
+     */
+    public void restore(BikeStateType type, int daysInServicingState)
+    {
+        this.state = type.toState();
+        this.daysInServicingState = daysInServicingState;
+    }
+
     /**
      METHOD: getDaysInServicingState
      IMPORT: None
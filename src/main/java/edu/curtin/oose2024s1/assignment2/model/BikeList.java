@@ -0,0 +1,196 @@
+package edu.curtin.oose2024s1.assignment2.model;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ Purpose:
+ - An insertion-ordered list of bikes that supports O(1) add, remove and take-first.
+ Responsibilities:
+ - Link bikes together through fields stored on the Bike itself (an intrusive doubly-linked list), so removing a bike by reference does not need to search for it or shift an array.
+ - Keep an exact count of its bikes.
+ Role:
+ - Used by Inventory for each of its bike states. A bike can be in at most one BikeList at a time.
+ */
+// Intrusive FIFO list of bikes.
+public class BikeList implements Iterable<Bike>
+{
+    private Bike head;
+    private Bike tail;
+    private int size;
+
+    /**
+     METHOD: add
+     IMPORT: bike (Bike)
+     EXPORT: None
+     ALGORITHM:
+     Appends the bike to the end of the list. Throws IllegalStateException if the bike is already in a list.
+     */
+    public void add(Bike bike)
+    {
+        if(bike.list != null)
+        {
+            throw new IllegalStateException("Bike is already in an inventory list.");
+        }
+        bike.list = this;
+        bike.prev = tail;
+        bike.next = null;
+        if(tail == null)
+        {
+            head = bike;
+        }
+        else
+        {
+            tail.next = bike;
+        }
+        tail = bike;
+        size++;
+    }
+
+    /**
+     METHOD: remove
+     IMPORT: bike (Bike)
+     EXPORT: removed (boolean)
+     ALGORITHM:
+     Unlinks the bike from this list. Returns false (and does nothing) if the bike is not in this list.
+     */
+    public boolean remove(Bike bike)
+    {
+        if(bike.list != this)
+        {
+            return false;
+        }
+        if(bike.prev == null)
+        {
+            head = bike.next;
+        }
+        else
+        {
+            bike.prev.next = bike.next;
+        }
+        if(bike.next == null)
+        {
+            tail = bike.prev;
+        }
+        else
+        {
+            bike.next.prev = bike.prev;
+        }
+        bike.list = null;
+        bike.prev = null;
+        bike.next = null;
+        size--;
+        return true;
+    }
+
+    /**
+     METHOD: pollFirst
+     IMPORT: None
+     EXPORT: bike (Bike)
+     ALGORITHM:
+     Removes and returns the oldest bike in the list, or null if the list is empty.
+     */
+    public Bike pollFirst()
+    {
+        Bike bike = head;
+        if(bike != null)
+        {
+            remove(bike);
+        }
+        return bike;
+    }
+
+    /**
+     METHOD: peekFirst
+     IMPORT: None
+     EXPORT: bike (Bike)
+     ALGORITHM:
+     Returns the oldest bike in the list without removing it, or null if the list is empty.
+     */
+    public Bike peekFirst()
+    {
+        return head;
+    }
+
+    /**
+     METHOD: contains
+     IMPORT: bike (Bike)
+     EXPORT: boolean
+     ALGORITHM:
+     Returns true if the bike is in this list.
+     */
+    public boolean contains(Bike bike)
+    {
+        return bike.list == this;
+    }
+
+    /**
+     METHOD: size
+     IMPORT: None
+     EXPORT: size (int)
+     ALGORITHM:
+     Returns the number of bikes in the list.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     METHOD: isEmpty
+     IMPORT: None
+     EXPORT: boolean
+     ALGORITHM:
+     Returns true if the list has no bikes.
+     */
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     METHOD: iterator
+     IMPORT: None
+     EXPORT: Iterator<Bike>
+     ALGORITHM:
+     Returns an iterator from oldest to newest. The iterator supports remove(); the list must not otherwise be modified while iterating.
+     */
+    @Override
+    public Iterator<Bike> iterator()
+    {
+        return new Iterator<>()
+        {
+            private Bike nextBike = head;
+            private Bike lastReturned;
+
+            @Override
+            public boolean hasNext()
+            {
+                return nextBike != null;
+            }
+
+            @Override
+            public Bike next()
+            {
+                if(nextBike == null)
+                {
+                    throw new NoSuchElementException();
+                }
+                lastReturned = nextBike;
+                nextBike = nextBike.next;
+                return lastReturned;
+            }
+
+            @Override
+            public void remove()
+            {
+                if(lastReturned == null)
+                {
+                    throw new IllegalStateException("next() has not been called.");
+                }
+                BikeList.this.remove(lastReturned);
+                lastReturned = null;
+            }
+        };
+    }
+}
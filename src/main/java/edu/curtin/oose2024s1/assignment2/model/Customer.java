@@ -1,7 +1,15 @@
 package edu.curtin.oose2024s1.assignment2.model;
 
-import java.util.ArrayList;
-import java.util.List;
+import edu.curtin.oose2024s1.assignment2.state.BikeState;
+import edu.curtin.oose2024s1.assignment2.state.BikeStateType;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
@@ -10,6 +18,8 @@ import java.util.logging.Logger;
  Responsibilities:
  - Store customer information, such as email address.
  - Track bikes associated with the customer (dropped off for service or purchased online).
+ - Keep a FIFO index of the customer's bikes that are awaiting pick-up, updated on every state transition of those bikes, so a pick-up never scans the customer's bikes.
+ - Tell its directory's CustomerRanking whenever its number of bikes changes.
  */
 // Represents a customer.
 public class Customer
@@ -17,32 +27,87 @@ public class Customer
     private static final Logger logger = Logger.getLogger(Customer.class.getName());
 
     private final String email;
-    private final List<Bike> bikes;
+    private final Set<Bike> bikes;
+    private final Deque<Bike> awaitingPickup;
+
+    // Ranking this customer belongs to (set by its CustomerDirectory), and the links used by it.
+    /* default */ CustomerRanking ranking;
+    /* default */ Customer prevByBikeCount;
+    /* default */ Customer nextByBikeCount;
 
     /**
      METHOD: Customer
      IMPORT: email (String)
      EXPORT: None
      ALGORITHM:
-     Constructor initialises the customer with an email and an empty list of bikes.
+     Constructor initialises the customer with an email, an empty (insertion-ordered) set of bikes and an empty pick-up queue.
      */
     public Customer(String email)
     {
         this.email = email;
-        this.bikes = new ArrayList<>();
+        this.bikes = new LinkedHashSet<>();
+        this.awaitingPickup = new ArrayDeque<>();
         logger.info(() -> "Customer created with email: " + email);
     }
 
+    /**
+     METHOD: getEmail
+     IMPORT: None
+     EXPORT: email (String)
+     ALGORITHM:
+     Returns the customer's email address.
+     */
+    public String getEmail()
+    {
+        return email;
+    }
+
     /**
      METHOD: getBikes
      IMPORT: None
-     EXPORT: bikes (List<Bike>)
+     EXPORT: bikes (Collection<Bike>)
+     ALGORITHM:
+     Returns a read-only view of the bikes associated with the customer, in the order they were added.
+     */
+    public Collection<Bike> getBikes()
+    {
+        return Collections.unmodifiableSet(bikes);
+    }
+
+    /**
+     METHOD: getBikeCount
+     IMPORT: None
+     EXPORT: int
+     ALGORITHM:
+     Returns the number of bikes associated with the customer.
+     */
+    public int getBikeCount()
+    {
+        return bikes.size();
+    }
+
+    /**
+     METHOD: getNextBikeAwaitingPickup
+     IMPORT: None
+     EXPORT: bike (Bike)
      ALGORITHM:
-     Returns the list of bikes associated with the customer.
+     Returns the customer's bike that has been awaiting pick-up the longest, or null if none are awaiting pick-up.
      */
-    public List<Bike> getBikes()
+    public Bike getNextBikeAwaitingPickup()
     {
-        return bikes;
+        return awaitingPickup.peekFirst();
+    }
+
+    /**
+     METHOD: getAwaitingPickupCount
+     IMPORT: None
+     EXPORT: int
+     ALGORITHM:
+     Returns the number of the customer's bikes awaiting pick-up.
+     */
+    public int getAwaitingPickupCount()
+    {
+        return awaitingPickup.size();
     }
 
     /**
@@ -50,13 +115,25 @@ public class Customer
      IMPORT: bike (Bike)
      EXPORT: None
      ALGORITHM:
-     Adds the specified bike to the customer's list of bikes.
+     Adds the specified bike to the customer's bikes and takes ownership of it, so the customer hears about its state transitions.
+     If the bike is already awaiting pick-up (e.g. purchased online), it joins the pick-up queue straight away. Updates the customer's ranking.
      Logs the action.
      */
     public void addBike(Bike bike)
     {
-        bikes.add(bike);
-        logger.info(() -> "Bike added to customer " + email + ": " + bike);
+        if (bikes.add(bike) && ranking != null)
+        {
+            ranking.bikeCountChanged(this, bikes.size() - 1, bikes.size());
+        }
+        bike.setOwner(this);
+        if (bike.getStateType() == BikeStateType.AWAITING_PICKUP)
+        {
+            awaitingPickup.addLast(bike);
+        }
+        if(logger.isLoggable(Level.INFO))
+        {
+            logger.log(Level.INFO, "Bike added to customer {0}: state={1}", new Object[] { email, bike.getStateType() });
+        }
     }
 
     /**
@@ -64,13 +141,68 @@ public class Customer
      IMPORT: bike (Bike)
      EXPORT: None
      ALGORITHM:
-     Removes the specified bike from the customer's list of bikes.
+     Removes the specified bike from the customer's bikes (and from the pick-up queue) and gives up ownership of it. Updates the customer's ranking.
      Logs the action.
      */
     public void removeBike(Bike bike)
     {
-        bikes.remove(bike);
-        logger.info(() -> "Bike removed from customer " + email + ": " + bike);
+        if (!bikes.remove(bike))
+        {
+            return;
+        }
+        if (ranking != null)
+        {
+            ranking.bikeCountChanged(this, bikes.size() + 1, bikes.size());
+        }
+        bike.setOwner(null);
+        if (bike.getStateType() == BikeStateType.AWAITING_PICKUP)
+        {
+            removeFromPickupQueue(bike);
+        }
+        if(logger.isLoggable(Level.INFO))
+        {
+            logger.log(Level.INFO, "Bike removed from customer {0}: state={1}", new Object[] { email, bike.getStateType() });
+        }
+    }
+
+    /**
+     METHOD: onBikeStateChanged
+     IMPORT: bike (Bike), oldState (BikeState), newState (BikeState)
+     EXPORT: None
+     ALGORITHM:
+     Called by one of the customer's bikes whenever it changes state. Adds the bike to the pick-up queue when it starts awaiting pick-up and removes it when it stops.
+     */
+    /* default */ void onBikeStateChanged(Bike bike, BikeState oldState, BikeState newState)
+    {
+        boolean wasAwaiting = oldState.getType() == BikeStateType.AWAITING_PICKUP;
+        boolean isAwaiting = newState.getType() == BikeStateType.AWAITING_PICKUP;
+        if (isAwaiting && !wasAwaiting)
+        {
+            awaitingPickup.addLast(bike);
+        }
+        else if (wasAwaiting && !isAwaiting)
+        {
+            removeFromPickupQueue(bike);
+        }
+    }
+
+    /**
+     METHOD: removeFromPickupQueue
+     IMPORT: bike (Bike)
+     EXPORT: None
+     ALGORITHM:
+     Removes the bike from the pick-up queue. This is O(1) for the bike at the head of the queue, which is the one picked up.
+     */
+    private void removeFromPickupQueue(Bike bike)
+    {
+        if (awaitingPickup.peekFirst() == bike) // NOPMD - identity check is intended: the same Bike object
+        {
+            awaitingPickup.pollFirst();
+        }
+        else
+        {
+            awaitingPickup.remove(bike);
+        }
     }
 
     /**
@@ -0,0 +1,193 @@
+package edu.curtin.oose2024s1.assignment2.model;
+
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+Purpose:
+    - Stores the shop's customers, keyed by email address.
+Responsibilities:
+    - Look customers up by any CharSequence (e.g. a slice of an input message), so a lookup does not need the email copied into a new String first.
+    - Create a customer (and copy its email) only the first time that email is seen.
+    - Rank its customers by how many bikes they have (see CustomerRanking), so the top customers can be listed without scanning the table.
+ Role:
+    - Replaces a HashMap<String, Customer>, which can only be queried with String keys. Uses open addressing with linear probing; customers are never removed.
+ */
+// Email-keyed table of customers.
+public class CustomerDirectory
+{
+    private static final Logger logger = Logger.getLogger(CustomerDirectory.class.getName());
+    private static final int INITIAL_CAPACITY = 64;
+
+    private Customer[] table = new Customer[INITIAL_CAPACITY];
+    private int[] hashes = new int[INITIAL_CAPACITY];
+    private int size;
+    private final CustomerRanking ranking = new CustomerRanking();
+
+    /**
+     METHOD: find
+     IMPORT: email (CharSequence)
+     EXPORT: customer (Customer)
+     ALGORITHM:
+     Returns the customer with the given email, or null if there is none.
+     */
+    public Customer find(CharSequence email)
+    {
+        int hash = hash(email);
+        int mask = table.length - 1;
+        for(int i = hash & mask; table[i] != null; i = (i + 1) & mask)
+        {
+            if(hashes[i] == hash && CharSequence.compare(table[i].getEmail(), email) == 0)
+            {
+                return table[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     METHOD: findOrCreate
+     IMPORT: email (CharSequence)
+     EXPORT: customer (Customer)
+     ALGORITHM:
+     Returns the customer with the given email, creating (and storing) a new one if none exists yet.
+     */
+    public Customer findOrCreate(CharSequence email)
+    {
+        int hash = hash(email);
+        int mask = table.length - 1;
+        int i = hash & mask;
+        while(table[i] != null)
+        {
+            if(hashes[i] == hash && CharSequence.compare(table[i].getEmail(), email) == 0)
+            {
+                return table[i];
+            }
+            i = (i + 1) & mask;
+        }
+
+        Customer customer = new Customer(email.toString());
+        customer.ranking = ranking;
+        table[i] = customer;
+        hashes[i] = hash;
+        size++;
+        if(size * 2 > table.length)
+        {
+            resize();
+        }
+        return customer;
+    }
+
+    /**
+     METHOD: forEachTopCustomer
+     IMPORT: limit (int), action (Consumer<Customer>)
+     EXPORT: None
+     ALGORITHM:
+     Calls action with up to limit customers, those with the most bikes in the shop first. Only the customers returned are visited.
+     */
+    public void forEachTopCustomer(int limit, Consumer<Customer> action)
+    {
+        ranking.forEachTop(limit, action);
+    }
+
+    /**
+     METHOD: getCustomersWithBikesCount
+     IMPORT: None
+     EXPORT: count (int)
+     ALGORITHM:
+     Returns the number of customers with at least one bike in the shop (a running count).
+     */
+    public int getCustomersWithBikesCount()
+    {
+        return ranking.getRankedCount();
+    }
+
+    /**
+     METHOD: getMaxBikesPerCustomer
+     IMPORT: None
+     EXPORT: count (int)
+     ALGORITHM:
+     Returns the most bikes any one customer has in the shop (a running maximum; 0 if no customer has any).
+     */
+    public int getMaxBikesPerCustomer()
+    {
+        return ranking.getMaxBikeCount();
+    }
+
+    /**
+     METHOD: size
+     IMPORT: None
+     EXPORT: size (int)
+     ALGORITHM:
+     Returns the number of customers.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     METHOD: forEach
+     IMPORT: action (Consumer<Customer>)
+     EXPORT: None
+     ALGORITHM:
+     Applies action to every customer (in no particular order).
+     */
+    public void forEach(Consumer<Customer> action)
+    {
+        for(Customer customer : table)
+        {
+            if(customer != null)
+            {
+                action.accept(customer);
+            }
+        }
+    }
+
+    /**
+     METHOD: resize
+     IMPORT: None
+     EXPORT: None
+     ALGORITHM:
+     Doubles the table and re-inserts every customer using its stored hash.
+     */
+    private void resize()
+    {
+        Customer[] oldTable = table;
+        int[] oldHashes = hashes;
+        table = new Customer[oldTable.length * 2];
+        hashes = new int[oldTable.length * 2];
+        int mask = table.length - 1;
+        for(int j = 0; j < oldTable.length; j++)
+        {
+            if(oldTable[j] != null)
+            {
+                int i = oldHashes[j] & mask;
+                while(table[i] != null)
+                {
+                    i = (i + 1) & mask;
+                }
+                table[i] = oldTable[j];
+                hashes[i] = oldHashes[j];
+            }
+        }
+        logger.fine(() -> "Customer directory resized to " + table.length + " slots.");
+    }
+
+    /**
+     METHOD: hash
+     IMPORT: email (CharSequence)
+     EXPORT: hash (int)
+     ALGORITHM:
+     Computes String.hashCode() over the characters of email and spreads the high bits into the low bits.
+     */
+    private static int hash(CharSequence email)
+    {
+        int h = 0;
+        for(int i = 0; i < email.length(); i++)
+        {
+            h = 31 * h + email.charAt(i);
+        }
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,153 @@
+package edu.curtin.oose2024s1.assignment2.model;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ Purpose:
+ - Ranks the customers of one CustomerDirectory by how many bikes they have in the shop, kept up to date as bikes are added to and removed from customers.
+ Responsibilities:
+ - Keep one intrusive list of customers per bike count (customers with no bikes are not ranked), so a customer gaining or losing a bike moves to the next
+   or previous list in O(1).
+ - Keep a running count of ranked customers and the highest bike count, so "top customers" starts at the right list and only visits the customers it returns.
+ Role:
+ - Written to by Customer.addBike() and Customer.removeBike(); read through CustomerDirectory. Within one bike count, customers are ranked by how long they have had it.
+ */
+// Customers bucketed by bike count.
+class CustomerRanking
+{
+    private static final int INITIAL_COUNTS = 8;
+
+    // heads[n] and tails[n] are the ends of the list of customers with n bikes (index 0 is unused).
+    private Customer[] heads = new Customer[INITIAL_COUNTS];
+    private Customer[] tails = new Customer[INITIAL_COUNTS];
+    private int maxCount;
+    private int rankedCount;
+
+    /**
+     METHOD: bikeCountChanged
+     IMPORT: customer (Customer), oldCount (int), newCount (int)
+     EXPORT: None
+     ALGORITHM:
+     Moves the customer from the end of the list for oldCount bikes to the end of the list for newCount bikes, and updates the running counts.
+     */
+    /* default */ void bikeCountChanged(Customer customer, int oldCount, int newCount)
+    {
+        if(oldCount > 0)
+        {
+            unlink(customer, oldCount);
+            rankedCount--;
+        }
+        if(newCount > 0)
+        {
+            link(customer, newCount);
+            rankedCount++;
+        }
+        maxCount = Math.max(maxCount, newCount);
+        while(maxCount > 0 && heads[maxCount] == null)
+        {
+            maxCount--;
+        }
+    }
+
+    /**
+     METHOD: forEachTop
+     IMPORT: limit (int), action (Consumer<Customer>)
+     EXPORT: None
+     ALGORITHM:
+     Calls action with up to limit customers, most bikes first (longest-held count first within a count).
+     */
+    /* default */ void forEachTop(int limit, Consumer<Customer> action)
+    {
+        int remaining = limit;
+        for(int count = maxCount; count > 0 && remaining > 0; count--)
+        {
+            for(Customer customer = heads[count]; customer != null && remaining > 0; customer = customer.nextByBikeCount)
+            {
+                action.accept(customer);
+                remaining--;
+            }
+        }
+    }
+
+    /**
+     METHOD: getRankedCount
+     IMPORT: None
+     EXPORT: count (int)
+     ALGORITHM:
+     Returns the number of customers with at least one bike in the shop.
+     */
+    /* default */ int getRankedCount()
+    {
+        return rankedCount;
+    }
+
+    /**
+     METHOD: getMaxBikeCount
+     IMPORT: None
+     EXPORT: count (int)
+     ALGORITHM:
+     Returns the most bikes any one customer has in the shop (0 if none has any).
+     */
+    /* default */ int getMaxBikeCount()
+    {
+        return maxCount;
+    }
+
+    /**
+     METHOD: link
+     IMPORT: customer (Customer), count (int)
+     EXPORT: None
+     ALGORITHM:
+     Appends the customer to the list for count bikes, growing the lists if count is new.
+     */
+    private void link(Customer customer, int count)
+    {
+        if(count >= heads.length)
+        {
+            int length = Math.max(count + 1, heads.length * 2);
+            heads = Arrays.copyOf(heads, length);
+            tails = Arrays.copyOf(tails, length);
+        }
+        customer.prevByBikeCount = tails[count];
+        customer.nextByBikeCount = null;
+        if(tails[count] == null)
+        {
+            heads[count] = customer;
+        }
+        else
+        {
+            tails[count].nextByBikeCount = customer;
+        }
+        tails[count] = customer;
+    }
+
+    /**
+     METHOD: unlink
+     IMPORT: customer (Customer), count (int)
+     EXPORT: None
+     ALGORITHM:
+     Removes the customer from the list for count bikes.
+     */
+    private void unlink(Customer customer, int count)
+    {
+        if(customer.prevByBikeCount == null)
+        {
+            heads[count] = customer.nextByBikeCount;
+        }
+        else
+        {
+            customer.prevByBikeCount.nextByBikeCount = customer.nextByBikeCount;
+        }
+        if(customer.nextByBikeCount == null)
+        {
+            tails[count] = customer.prevByBikeCount;
+        }
+        else
+        {
+            customer.nextByBikeCount.prevByBikeCount = customer.prevByBikeCount;
+        }
+        customer.prevByBikeCount = null;
+        customer.nextByBikeCount = null;
+    }
+}
@@ -2,11 +2,13 @@ package edu.curtin.oose2024s1.assignment2.model;
 
 import edu.curtin.oose2024s1.assignment2.observer.Observable;
 import edu.curtin.oose2024s1.assignment2.observer.Observer;
-import edu.curtin.oose2024s1.assignment2.state.AwaitingPickupState;
+import edu.curtin.oose2024s1.assignment2.observer.ObserverRegistry;
+import edu.curtin.oose2024s1.assignment2.state.BikeStateType;
 
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Supplier;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
@@ -15,6 +17,9 @@ import java.util.logging.Logger;
  Responsibilities:
  - Keep track of all bikes in different states (available, being serviced, awaiting pickup).
  - Manage adding and removing bikes from the inventory.
+ - Keep a count of every bike in the shop (the occupancy), so capacity checks are a single read rather than three size() calls.
+ - Keep its lists ordered so they double as indexes for queries: bikes awaiting pick-up are in the order they started waiting (each stamped with that day),
+   and serviced bikes are bucketed by the day their servicing completes, so "waiting for more than N days" and "dropped off N days ago" only visit the bikes they return.
  Reference:
  - Dewan, P. (2000). 15. Model-View-Controller (MVC) and Observer. University of North Carolina Computer Science at Chapel Hill. https://www.cs.unc.edu/~carterjl/teaching/notes/15_MVC_Notes.pdf - Used to help understand and implement observer pattern (only used for contextual based knowledge and further understanding of observer pattern).
  */
@@ -23,10 +28,14 @@ public class Inventory implements Observable
 {
     private static final Logger logger = Logger.getLogger(Inventory.class.getName());
 
-    private final List<Bike> availableBikes;
-    private final List<Bike> servicedBikes;
-    private final List<Bike> awaitingPickupBikes;
-    private final List<Observer> observers = new ArrayList<>();
+    // Number of days a bike spends being serviced before it is ready for pick-up.
+    public static final int SERVICE_DAYS = 3;
+
+    private final BikeList availableBikes;
+    private final ServiceWheel servicedBikes;
+    private final BikeList awaitingPickupBikes;
+    private final ObserverRegistry observers = new ObserverRegistry();
+    private int occupancy;
 
     /**
      METHOD: Inventory
@@ -34,25 +43,37 @@ public class Inventory implements Observable
      EXPORT: None
      ALGORITHM:
      Constructor initialises the inventory lists for available bikes, serviced bikes, and bikes awaiting pickup.
+     Each list is an intrusive BikeList, so adding, removing and taking the next bike are all O(1). Serviced bikes are kept in a ServiceWheel keyed by completion day.
      */
     public Inventory()
     {
-        availableBikes = new ArrayList<>();
-        servicedBikes = new ArrayList<>();
-        awaitingPickupBikes = new ArrayList<>();
+        availableBikes = new BikeList();
+        servicedBikes = new ServiceWheel(SERVICE_DAYS);
+        awaitingPickupBikes = new BikeList();
         logger.info("Inventory initialised.");
     }
 
     /**
-     METHOD: getAvailableBikes
+     METHOD: takeNextAvailableBike
      IMPORT: None
-     EXPORT: availableBikes (List<Bike>)
+     EXPORT: bike (Bike)
      ALGORITHM:
-     Returns the list of available bikes.
+     Removes and returns the oldest available bike (or null if there are none).
+     Logs the action and records the change for observers.
      */
-    public List<Bike> getAvailableBikes()
+    public Bike takeNextAvailableBike()
     {
-        return availableBikes;
+        Bike bike = availableBikes.pollFirst();
+        if(bike != null)
+        {
+            occupancy--;
+            if(logger.isLoggable(Level.INFO))
+            {
+                logger.log(Level.INFO, "Bike removed from available: email={0}", bike.getCustomerEmail());
+            }
+            observers.recordBikeCountChange(BikeStateType.AVAILABLE, -1, bike.getCustomerEmail());
+        }
+        return bike;
     }
 
     /**
@@ -61,12 +82,87 @@ public class Inventory implements Observable
      EXPORT: None
      ALGORITHM:
      Adds a bike to the available bikes list.
-     Logs the action and notifies observers.
+     Logs the action and records the change for observers.
      */
     public void addAvailableBike(Bike bike)
     {
         availableBikes.add(bike);
-        notifyObservers();
+        occupancy++;
+        observers.recordBikeCountChange(BikeStateType.AVAILABLE, 1, bike.getCustomerEmail());
+    }
+
+    /**
+     METHOD: takeAvailableBikes
+     IMPORT: count (int), action (ObjIntConsumer<Bike>)
+     EXPORT: taken (int)
+     ALGORITHM:
+     Removes up to count of the oldest available bikes, passing each to action with its position (0 for the oldest), and returns how many were taken.
+     Equivalent to calling takeNextAvailableBike() that many times, but updates the occupancy once and delivers the change to observers as one ChangeSet,
+     which counts one mutation per bike and lists the bikes' emails in the same order as the separate calls would.
+     */
+    public int takeAvailableBikes(int count, ObjIntConsumer<Bike> action)
+    {
+        observers.beginBatch();
+        try
+        {
+            int taken = 0;
+            Bike bike = count > 0 ? availableBikes.pollFirst() : null;
+            while(bike != null)
+            {
+                if(logger.isLoggable(Level.INFO))
+                {
+                    logger.log(Level.INFO, "Bike removed from available: email={0}", bike.getCustomerEmail());
+                }
+                observers.recordAffectedEmail(bike.getCustomerEmail());
+                action.accept(bike, taken);
+                taken++;
+                bike = taken < count ? availableBikes.pollFirst() : null;
+            }
+            if(taken > 0)
+            {
+                occupancy -= taken;
+                observers.recordBikeCountChange(BikeStateType.AVAILABLE, -taken, null, taken);
+            }
+            return taken;
+        }
+        finally
+        {
+            observers.endBatch();
+        }
+    }
+
+    /**
+     METHOD: addAvailableBikes
+     IMPORT: count (int), supplier (Supplier<Bike>)
+     EXPORT: None
+     ALGORITHM:
+     Adds count bikes from supplier to the available bikes list, in the order supplied.
+     Equivalent to calling addAvailableBike() for each, but updates the occupancy once and delivers the change to observers as one ChangeSet,
+     which counts one mutation per bike and lists the bikes' emails in the same order as the separate calls would.
+     */
+    public void addAvailableBikes(int count, Supplier<Bike> supplier)
+    {
+        if(count <= 0)
+        {
+            return;
+        }
+
+        observers.beginBatch();
+        try
+        {
+            for(int i = 0; i < count; i++)
+            {
+                Bike bike = supplier.get();
+                availableBikes.add(bike);
+                observers.recordAffectedEmail(bike.getCustomerEmail());
+            }
+            occupancy += count;
+            observers.recordBikeCountChange(BikeStateType.AVAILABLE, count, null, count);
+        }
+        finally
+        {
+            observers.endBatch();
+        }
     }
 
     /**
@@ -75,13 +171,17 @@ public class Inventory implements Observable
      EXPORT: None
      ALGORITHM:
      Removes a bike from the available bikes list.
-     Logs the action and notifies observers.
+     Logs the action and records the change for observers.
      */
     public void removeAvailableBike(Bike bike)
     {
-        availableBikes.remove(bike);
-        logger.info(() -> "Bike removed from available: " + bike);
-        notifyObservers();
+        int delta = availableBikes.remove(bike) ? -1 : 0;
+        occupancy += delta;
+        if(logger.isLoggable(Level.INFO))
+        {
+            logger.log(Level.INFO, "Bike removed from available: email={0}", bike.getCustomerEmail());
+        }
+        observers.recordBikeCountChange(BikeStateType.AVAILABLE, delta, bike.getCustomerEmail());
     }
 
     /**
@@ -89,14 +189,31 @@ public class Inventory implements Observable
      IMPORT: bike (Bike)
      EXPORT: None
      ALGORITHM:
-     Adds a bike to the serviced bikes list.
-     Logs the action and notifies observers.
+     Schedules a bike for servicing; it will be ready for pick-up SERVICE_DAYS days from now.
+     Logs the action and records the change for observers.
      */
     public void addServicedBike(Bike bike)
     {
-        servicedBikes.add(bike);
-        logger.info(() -> "Bike added to serviced: " + bike);
-        notifyObservers();
+        addServicedBike(bike, SERVICE_DAYS);
+    }
+
+    /**
+     METHOD: addServicedBike
+     IMPORT: bike (Bike), daysRemaining (int)
+     EXPORT: None
+     ALGORITHM:
+     Schedules a bike for servicing that will be ready for pick-up daysRemaining days from now (1 to SERVICE_DAYS; used when loading a snapshot).
+     Logs the action and records the change for observers.
+     */
+    public void addServicedBike(Bike bike, int daysRemaining)
+    {
+        servicedBikes.schedule(bike, daysRemaining);
+        occupancy++;
+        if(logger.isLoggable(Level.INFO))
+        {
+            logger.log(Level.INFO, "Bike added to serviced: email={0}", bike.getCustomerEmail());
+        }
+        observers.recordBikeCountChange(BikeStateType.SERVICING, 1, bike.getCustomerEmail());
     }
 
     /**
@@ -105,13 +222,31 @@ public class Inventory implements Observable
      EXPORT: None
      ALGORITHM:
      Adds a bike to the awaiting pickup bikes list.
-     Logs the action and notifies observers.
+     Logs the action and records the change for observers.
      */
     public void addAwaitingPickupBike(Bike bike)
     {
+        addAwaitingPickupBike(bike, 0);
+    }
+
+    /**
+     METHOD: addAwaitingPickupBike
+     IMPORT: bike (Bike), daysWaiting (int)
+     EXPORT: None
+     ALGORITHM:
+     Adds a bike that has already been awaiting pickup for daysWaiting days (used when loading a snapshot, which lists the bikes longest-waiting first, so the list stays in waiting order).
+     Logs the action and records the change for observers.
+     */
+    public void addAwaitingPickupBike(Bike bike, int daysWaiting)
+    {
+        bike.awaitingPickupSince = servicedBikes.getCurrentDay() - daysWaiting;
         awaitingPickupBikes.add(bike);
-        logger.info(() -> "Bike added to awaiting pickup: " + bike);
-        notifyObservers();
+        occupancy++;
+        if(logger.isLoggable(Level.INFO))
+        {
+            logger.log(Level.INFO, "Bike added to awaiting pickup: email={0}", bike.getCustomerEmail());
+        }
+        observers.recordBikeCountChange(BikeStateType.AWAITING_PICKUP, 1, bike.getCustomerEmail());
     }
 
     /**
@@ -120,13 +255,74 @@ public class Inventory implements Observable
      EXPORT: None
      ALGORITHM:
      Removes a bike from the awaiting pickup bikes list.
-     Logs the action and notifies observers.
+     Logs the action and records the change for observers.
      */
     public void removeAwaitingPickupBike(Bike bike)
     {
-        awaitingPickupBikes.remove(bike);
-        logger.info(() -> "Bike removed from awaiting pickup: " + bike);
-        notifyObservers();
+        int delta = awaitingPickupBikes.remove(bike) ? -1 : 0;
+        occupancy += delta;
+        if(logger.isLoggable(Level.INFO))
+        {
+            logger.log(Level.INFO, "Bike removed from awaiting pickup: email={0}", bike.getCustomerEmail());
+        }
+        observers.recordBikeCountChange(BikeStateType.AWAITING_PICKUP, delta, bike.getCustomerEmail());
+    }
+
+    /**
+     METHOD: getDaysAwaitingPickup
+     IMPORT: bike (Bike)
+     EXPORT: days (int)
+     ALGORITHM:
+     Returns how many days the given bike (which must be awaiting pickup) has been waiting: 0 on the day it became ready, going up by one at every servicing tick.
+     */
+    public int getDaysAwaitingPickup(Bike bike)
+    {
+        return (int) (servicedBikes.getCurrentDay() - bike.awaitingPickupSince);
+    }
+
+    /**
+     METHOD: forEachBikeAwaitingPickupLongerThan
+     IMPORT: days (int), action (Consumer<Bike>)
+     EXPORT: None
+     ALGORITHM:
+     Calls action with every bike that has been awaiting pickup for more than days days, longest-waiting first. The list is in waiting order,
+     so the walk stops at the first bike that has not waited long enough and never visits the rest.
+     */
+    public void forEachBikeAwaitingPickupLongerThan(int days, Consumer<Bike> action)
+    {
+        long cutoff = servicedBikes.getCurrentDay() - days;
+        for(Bike bike : awaitingPickupBikes)
+        {
+            if(bike.awaitingPickupSince >= cutoff)
+            {
+                return;
+            }
+            action.accept(bike);
+        }
+    }
+
+    /**
+     METHOD: getServicedBikeCountDroppedOff
+     IMPORT: daysAgo (int)
+     EXPORT: int
+     ALGORITHM:
+     Returns the number of bikes being serviced that were dropped off daysAgo days ago (0 to SERVICE_DAYS - 1), read from the size of their servicing bucket.
+     */
+    public int getServicedBikeCountDroppedOff(int daysAgo)
+    {
+        return servicedBikes.sizeDueIn(SERVICE_DAYS - daysAgo);
+    }
+
+    /**
+     METHOD: forEachServicedBikeDroppedOff
+     IMPORT: daysAgo (int), action (Consumer<Bike>)
+     EXPORT: None
+     ALGORITHM:
+     Calls action with every bike being serviced that was dropped off daysAgo days ago (0 to SERVICE_DAYS - 1), in drop-off order. Only that day's servicing bucket is visited.
+     */
+    public void forEachServicedBikeDroppedOff(int daysAgo, Consumer<Bike> action)
+    {
+        servicedBikes.forEachDueIn(SERVICE_DAYS - daysAgo, action);
     }
 
     /**
@@ -165,26 +361,76 @@ public class Inventory implements Observable
         return awaitingPickupBikes.size();
     }
 
+    /**
+     METHOD: forEachAvailableBike
+     IMPORT: action (Consumer<Bike>)
+     EXPORT: None
+     ALGORITHM:
+     Calls action with every available bike, oldest first.
+     */
+    public void forEachAvailableBike(Consumer<Bike> action)
+    {
+        availableBikes.forEach(action);
+    }
+
+    /**
+     METHOD: forEachServicedBike
+     IMPORT: action (ObjIntConsumer<Bike>)
+     EXPORT: None
+     ALGORITHM:
+     Calls action with every bike being serviced and the number of days until it is ready, soonest first.
+     */
+    public void forEachServicedBike(ObjIntConsumer<Bike> action)
+    {
+        servicedBikes.forEachScheduled(action);
+    }
+
+    /**
+     METHOD: forEachAwaitingPickupBike
+     IMPORT: action (Consumer<Bike>)
+     EXPORT: None
+     ALGORITHM:
+     Calls action with every bike awaiting pickup, oldest first.
+     */
+    public void forEachAwaitingPickupBike(Consumer<Bike> action)
+    {
+        awaitingPickupBikes.forEach(action);
+    }
+
+    /**
+     METHOD: getOccupancy
+     IMPORT: None
+     EXPORT: int
+     ALGORITHM:
+     Returns the total number of bikes in the shop (available + being serviced + awaiting pickup), kept as a running count.
+     */
+    public int getOccupancy()
+    {
+        return occupancy;
+    }
+
     /**
      METHOD: incrementDaysInServicingState
      IMPORT: None
      EXPORT: None
      ALGORITHM:
-     Increments the days in servicing state for all serviced bikes.
+     Advances servicing by one day. Only the bikes whose servicing finishes today are touched: each is marked as serviced and moved to awaiting pickup.
      */
     public void incrementDaysInServicingState()
     {
-        Iterator<Bike> iterator = servicedBikes.iterator();
-        while (iterator.hasNext())
+        BikeList due = servicedBikes.advance();
+        Bike bike = due.pollFirst();
+        while (bike != null)
         {
-            Bike bike = iterator.next();
-            bike.incrementDaysInServicingState();
-            if (bike.getState() instanceof AwaitingPickupState)
+            bike.completeServicing(SERVICE_DAYS);
+            occupancy--; // addAwaitingPickupBike counts it again
+            observers.recordBikeCountChange(BikeStateType.SERVICING, -1, bike.getCustomerEmail());
+            addAwaitingPickupBike(bike);
+            if(logger.isLoggable(Level.INFO))
             {
-                iterator.remove();
-                addAwaitingPickupBike(bike);
-                logger.info(() -> "Bike transitioned from servicing to awaiting pickup: " + bike);
+                logger.log(Level.INFO, "Bike transitioned from servicing to awaiting pickup: email={0}", bike.getCustomerEmail());
             }
+            bike = due.pollFirst();
         }
         notifyObservers();
     }
@@ -222,14 +468,37 @@ public class Inventory implements Observable
      IMPORT: None
      EXPORT: None
      ALGORITHM:
-     Notifies all observers of changes to the inventory.
+     Delivers any pending changes to the inventory to all observers (no-op inside a batch, which delivers on endBatch).
      */
     @Override
     public void notifyObservers()
     {
-        for (Observer observer : observers)
-        {
-            observer.update();
-        }
+        observers.notifyObservers();
+    }
+
+    /**
+     METHOD: beginBatch
+     IMPORT: None
+     EXPORT: None
+     ALGORITHM:
+     Starts a unit of work; changes are collected and delivered as one ChangeSet by endBatch.
+     */
+    @Override
+    public void beginBatch()
+    {
+        observers.beginBatch();
+    }
+
+    /**
+     METHOD: endBatch
+     IMPORT: None
+     EXPORT: None
+     ALGORITHM:
+     Ends a unit of work and delivers the collected changes to each observer once.
+     */
+    @Override
+    public void endBatch()
+    {
+        observers.endBatch();
     }
 }
@@ -0,0 +1,169 @@
+package edu.curtin.oose2024s1.assignment2.model;
+
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
+
+/**
+ Purpose:
+ - Schedules bikes being serviced by the day their servicing completes (a hashed timer wheel with one bucket per day).
+ Responsibilities:
+ - Place each bike in the bucket for its completion day when it is dropped off.
+ - On each daily tick, hand back only the bucket of bikes that finish that day, so the daily cost scales with completions rather than with the number of bikes being serviced.
+ - Keep an exact count of all scheduled bikes.
+ Role:
+ - Used by Inventory in place of a single list of serviced bikes that was scanned every day.
+ */
+// Timer wheel of bikes being serviced, keyed by completion day.
+public class ServiceWheel
+{
+    private final BikeList[] buckets;
+    private long currentDay;
+    private int size;
+
+    /**
+     METHOD: ServiceWheel
+     IMPORT: maxDays (int)
+     EXPORT: None
+     ALGORITHM:
+     Constructor that creates one bucket per day for schedules of up to maxDays days ahead.
+     */
+    public ServiceWheel(int maxDays)
+    {
+        if (maxDays < 1)
+        {
+            throw new IllegalArgumentException("maxDays must be at least 1: " + maxDays);
+        }
+        buckets = new BikeList[maxDays + 1];
+        for (int i = 0; i < buckets.length; i++)
+        {
+            buckets[i] = new BikeList();
+        }
+        currentDay = 0;
+    }
+
+    /**
+     METHOD: schedule
+     IMPORT: bike (Bike), days (int)
+     EXPORT: None
+     ALGORITHM:
+     Places the bike in the bucket for the day that is days ticks from now.
+     */
+    public void schedule(Bike bike, int days)
+    {
+        if (days < 1 || days >= buckets.length)
+        {
+            throw new IllegalArgumentException("Cannot schedule " + days + " days ahead on a wheel of " + buckets.length + " days.");
+        }
+        buckets[bucketFor(currentDay + days)].add(bike);
+        size++;
+    }
+
+    /**
+     METHOD: advance
+     IMPORT: None
+     EXPORT: due (BikeList)
+     ALGORITHM:
+     Moves the wheel forward one day and returns the bucket of bikes due that day. The caller must drain the returned list (via pollFirst) before the next call to schedule or advance.
+     */
+    public BikeList advance()
+    {
+        currentDay++;
+        BikeList due = buckets[bucketFor(currentDay)];
+        size -= due.size();
+        return due;
+    }
+
+    /**
+     METHOD: getCurrentDay
+     IMPORT: None
+     EXPORT: day (long)
+     ALGORITHM:
+     Returns the number of times the wheel has been advanced.
+     */
+    public long getCurrentDay()
+    {
+        return currentDay;
+    }
+
+    /**
+     METHOD: sizeDueIn
+     IMPORT: days (int)
+     EXPORT: size (int)
+     ALGORITHM:
+     Returns the number of bikes due days ticks from now (1 to maxDays).
+     */
+    public int sizeDueIn(int days)
+    {
+        return bucketDueIn(days).size();
+    }
+
+    /**
+     METHOD: forEachDueIn
+     IMPORT: days (int), action (Consumer<Bike>)
+     EXPORT: None
+     ALGORITHM:
+     Calls action with every bike due days ticks from now (1 to maxDays), in scheduling order. Only that day's bucket is visited.
+     */
+    public void forEachDueIn(int days, Consumer<Bike> action)
+    {
+        bucketDueIn(days).forEach(action);
+    }
+
+    /**
+     METHOD: size
+     IMPORT: None
+     EXPORT: size (int)
+     ALGORITHM:
+     Returns the number of bikes still scheduled (not yet handed back by advance).
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     METHOD: forEachScheduled
+     IMPORT: action (ObjIntConsumer<Bike>)
+     EXPORT: None
+     ALGORITHM:
+     Calls action with every scheduled bike and the number of days until it is due, soonest first (and in scheduling order within a day).
+     */
+    public void forEachScheduled(ObjIntConsumer<Bike> action)
+    {
+        for (int days = 1; days < buckets.length; days++)
+        {
+            for (Bike bike : buckets[bucketFor(currentDay + days)])
+            {
+                action.accept(bike, days);
+            }
+        }
+    }
+
+    /**
+     METHOD: bucketDueIn
+     IMPORT: days (int)
+     EXPORT: bucket (BikeList)
+     ALGORITHM:
+     Returns the bucket of bikes due days ticks from now, or throws IllegalArgumentException if days is outside 1 to maxDays.
+     */
+    private BikeList bucketDueIn(int days)
+    {
+        if (days < 1 || days >= buckets.length)
+        {
+            throw new IllegalArgumentException("No bucket " + days + " days ahead on a wheel of " + buckets.length + " days.");
+        }
+        return buckets[bucketFor(currentDay + days)];
+    }
+
+    /**
+     METHOD: bucketFor
+     IMPORT: day (long)
+     EXPORT: index (int)
+     ALGORITHM:
+     Maps an absolute day onto a bucket index.
+     */
+    private int bucketFor(long day)
+    {
+        return (int)(day % buckets.length);
+    }
+}
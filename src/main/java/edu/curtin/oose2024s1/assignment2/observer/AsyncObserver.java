@@ -0,0 +1,386 @@
+package edu.curtin.oose2024s1.assignment2.observer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+Purpose:
+    - Decouples a (possibly slow) observer from the model: notifications are copied into a bounded ring buffer and a dedicated consumer thread calls the wrapped observer.
+Role:
+    - Opt-in: register an AsyncObserver wrapping the real observer instead of the observer itself (e.g. inventory.addObserver(new AsyncObserver(metrics)), as "--async-metrics" does).
+    - The ring is single-producer/single-consumer and lock-free: the simulation thread is the only producer, the consumer thread the only consumer, and each side publishes its position through an AtomicLong.
+    - Slots hold pre-allocated ChangeSets which are copied into, so the model can reuse its own ChangeSet as soon as update() returns.
+    - When the subscriber falls behind and the ring is full, the OverflowPolicy decides whether to drop, block or coalesce; the WaitStrategy decides how idle threads wait.
+    - The wrapped observer is called on the consumer thread, so it must not touch the model directly; it should work from the ChangeSet it receives.
+*/
+// Observer that dispatches notifications asynchronously over a ring buffer.
+public final class AsyncObserver implements Observer, AutoCloseable
+{
+    private static final Logger logger = Logger.getLogger(AsyncObserver.class.getName());
+    private static final AtomicInteger threadCount = new AtomicInteger();
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private final Observer delegate;
+    private final WaitStrategy waitStrategy;
+    private final OverflowPolicy overflowPolicy;
+    private final ChangeSet[] slots;
+    private final int mask;
+    private final Thread consumer;
+
+    // Written by the producer only
+    private final ChangeSet overflow = new ChangeSet();
+    private final ChangeSet empty = new ChangeSet();
+    private long nextSequence;
+    private volatile Thread producer;
+
+    // Shared between the producer and the consumer
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong consumed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private volatile boolean consumerWaiting;
+    private volatile boolean producerWaiting;
+    private volatile boolean running = true;
+
+    /**
+    METHOD: AsyncObserver
+    IMPORT: delegate (Observer)
+    EXPORT: None
+    ALGORITHM:
+    Constructor with a 1024-slot ring, the BLOCKING wait strategy and the COALESCE overflow policy.
+    */
+    public AsyncObserver(Observer delegate)
+    {
+        this(delegate, DEFAULT_CAPACITY, WaitStrategy.BLOCKING, OverflowPolicy.COALESCE);
+    }
+
+    /**
+    METHOD: AsyncObserver
+    IMPORT: delegate (Observer), capacity (int), waitStrategy (WaitStrategy), overflowPolicy (OverflowPolicy)
+    EXPORT: None
+    ALGORITHM:
+    Constructor that allocates the ring (capacity must be a power of two) and starts the consumer thread.
+    */
+    public AsyncObserver(Observer delegate, int capacity, WaitStrategy waitStrategy, OverflowPolicy overflowPolicy)
+    {
+        if(capacity <= 0 || Integer.bitCount(capacity) != 1)
+        {
+            throw new IllegalArgumentException("Ring capacity must be a positive power of two: " + capacity);
+        }
+
+        this.delegate = delegate;
+        this.waitStrategy = waitStrategy;
+        this.overflowPolicy = overflowPolicy;
+        this.slots = new ChangeSet[capacity];
+        this.mask = capacity - 1;
+        for(int i = 0; i < capacity; i++)
+        {
+            slots[i] = new ChangeSet();
+        }
+
+        consumer = new Thread(this::consume, "async-observer-" + threadCount.incrementAndGet());
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    /**
+    METHOD: update
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Queues a notification with no recorded changes.
+    */
+    @Override
+    public void update()
+    {
+        update(empty);
+    }
+
+    /**
+    METHOD: update
+    IMPORT: changes (ChangeSet)
+    EXPORT: None
+    ALGORITHM:
+    Copies the changes into the next free slot and publishes it. If the ring is full, applies the overflow policy.
+    Changes held back by COALESCE go out ahead of (merged with) the next notification, so ordering is preserved.
+    */
+    @Override
+    public void update(ChangeSet changes)
+    {
+        if(!running)
+        {
+            throw new IllegalStateException("AsyncObserver has been closed.");
+        }
+
+        if(!overflow.isEmpty())
+        {
+            // Something is already held back; merge so it stays ahead of this notification
+            overflow.addAll(changes);
+            coalesced.incrementAndGet();
+            if(tryPublish(overflow))
+            {
+                overflow.clear();
+            }
+            return;
+        }
+
+        if(tryPublish(changes))
+        {
+            return;
+        }
+
+        switch(overflowPolicy)
+        {
+            case DROP -> dropped.incrementAndGet();
+            case BLOCK -> publishBlocking(changes);
+            case COALESCE ->
+            {
+                overflow.addAll(changes);
+                coalesced.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+    METHOD: flush
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Publishes any coalesced changes (waiting for space if needed), then waits until the consumer has delivered everything published so far.
+    Must be called from the producer thread.
+    */
+    public void flush()
+    {
+        if(!overflow.isEmpty())
+        {
+            publishBlocking(overflow);
+            overflow.clear();
+        }
+
+        int attempt = 0;
+        while(consumed.get() < nextSequence && consumer.isAlive())
+        {
+            waitForConsumer(nextSequence, attempt++);
+        }
+    }
+
+    /**
+    METHOD: close
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Flushes outstanding notifications, stops the consumer thread and waits for it to exit.
+    */
+    @Override
+    public void close()
+    {
+        if(!running)
+        {
+            return;
+        }
+
+        flush();
+        running = false;
+        LockSupport.unpark(consumer);
+        try
+        {
+            consumer.join();
+        }
+        catch(InterruptedException e)
+        {
+            logger.warning(() -> "Interrupted while stopping " + consumer.getName() + ": " + e.getMessage());
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+    METHOD: getQueueDepth
+    IMPORT: None
+    EXPORT: depth (long)
+    ALGORITHM:
+    Returns how many published notifications the consumer has not yet delivered (not counting held-back coalesced changes).
+    */
+    public long getQueueDepth()
+    {
+        return published.get() - consumed.get();
+    }
+
+    /**
+    METHOD: getCapacity
+    IMPORT: None
+    EXPORT: capacity (int)
+    ALGORITHM:
+    Returns the number of slots in the ring.
+    */
+    public int getCapacity()
+    {
+        return slots.length;
+    }
+
+    /**
+    METHOD: getDeliveredCount
+    IMPORT: None
+    EXPORT: count (long)
+    ALGORITHM:
+    Returns the number of notifications delivered to the wrapped observer so far.
+    */
+    public long getDeliveredCount()
+    {
+        return consumed.get();
+    }
+
+    /**
+    METHOD: getDroppedCount
+    IMPORT: None
+    EXPORT: count (long)
+    ALGORITHM:
+    Returns the number of notifications discarded by the DROP policy.
+    */
+    public long getDroppedCount()
+    {
+        return dropped.get();
+    }
+
+    /**
+    METHOD: getCoalescedCount
+    IMPORT: None
+    EXPORT: count (long)
+    ALGORITHM:
+    Returns the number of notifications merged into a held-back ChangeSet by the COALESCE policy.
+    */
+    public long getCoalescedCount()
+    {
+        return coalesced.get();
+    }
+
+    /**
+    METHOD: tryPublish
+    IMPORT: changes (ChangeSet)
+    EXPORT: boolean
+    ALGORITHM:
+    If a slot is free, copies the changes into it, publishes it and wakes a parked consumer. Returns false if the ring is full.
+    The publish is a volatile write, not a lazySet: a release write could be ordered after the read of consumerWaiting, and the consumer could park
+    having missed it just as this thread decides not to wake it.
+    */
+    private boolean tryPublish(ChangeSet changes)
+    {
+        if(nextSequence - consumed.get() >= slots.length)
+        {
+            return false;
+        }
+
+        ChangeSet slot = slots[(int) (nextSequence & mask)];
+        slot.clear();
+        slot.addAll(changes);
+        nextSequence++;
+        published.set(nextSequence);
+
+        if(consumerWaiting)
+        {
+            LockSupport.unpark(consumer);
+        }
+        return true;
+    }
+
+    /**
+    METHOD: publishBlocking
+    IMPORT: changes (ChangeSet)
+    EXPORT: None
+    ALGORITHM:
+    Waits, using the wait strategy, until a slot is free and publishes the changes into it.
+    */
+    private void publishBlocking(ChangeSet changes)
+    {
+        int attempt = 0;
+        while(!tryPublish(changes))
+        {
+            if(!consumer.isAlive())
+            {
+                throw new IllegalStateException("Consumer thread " + consumer.getName() + " is not running.");
+            }
+            waitForConsumer(nextSequence - slots.length + 1, attempt++);
+        }
+    }
+
+    /**
+    METHOD: waitForConsumer
+    IMPORT: target (long), attempt (int)
+    EXPORT: None
+    ALGORITHM:
+    Idles the producer once, advertising itself so the consumer can unpark it under the BLOCKING strategy.
+    Re-checks after advertising that the consumer has not yet consumed up to target, as it may have caught up just before the flag was set.
+    */
+    private void waitForConsumer(long target, int attempt)
+    {
+        producer = Thread.currentThread();
+        producerWaiting = true;
+        if(consumed.get() < target)
+        {
+            waitStrategy.idle(attempt);
+        }
+        producerWaiting = false;
+    }
+
+    /**
+    METHOD: consume
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Consumer thread body: delivers every published slot to the wrapped observer in order, idling with the wait strategy when the ring is empty.
+    Exits once closed and the ring has been drained.
+    */
+    private void consume()
+    {
+        long next = consumed.get();
+        int attempt = 0;
+        while(running || next < published.get())
+        {
+            long available = published.get();
+            if(next < available)
+            {
+                while(next < available)
+                {
+                    deliver(slots[(int) (next & mask)]);
+                    next++;
+                    consumed.set(next); // volatile, so the producerWaiting read below cannot overtake it
+                }
+                if(producerWaiting)
+                {
+                    LockSupport.unpark(producer);
+                }
+                attempt = 0;
+            }
+            else
+            {
+                consumerWaiting = true;
+                if(published.get() == next && running)
+                {
+                    waitStrategy.idle(attempt++);
+                }
+                consumerWaiting = false;
+            }
+        }
+    }
+
+    /**
+    METHOD: deliver
+    IMPORT: changes (ChangeSet)
+    EXPORT: None
+    ALGORITHM:
+    Calls the wrapped observer, logging (rather than propagating) any failure so one bad notification does not stop the consumer.
+    */
+    private void deliver(ChangeSet changes)
+    {
+        try
+        {
+            delegate.update(changes);
+        }
+        catch(RuntimeException e) // NOPMD - a faulty subscriber must not kill the dispatch thread
+        {
+            logger.log(Level.SEVERE, "Observer failed on " + consumer.getName(), e);
+        }
+    }
+}
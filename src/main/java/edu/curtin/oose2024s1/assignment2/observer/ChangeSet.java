@@ -0,0 +1,207 @@
+package edu.curtin.oose2024s1.assignment2.observer;
+
+import edu.curtin.oose2024s1.assignment2.state.BikeStateType;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+Purpose:
+    - Describes what changed in an Observable since observers were last notified: balance delta, per-state bike count deltas and the emails affected.
+Role:
+    - Delivered to Observer.update(ChangeSet) so observers can apply only the changes instead of re-reading the whole model.
+    - Owned and reused by the ObserverRegistry that delivers it; observers must copy anything they want to keep after update() returns.
+*/
+// Typed delta of changes to an observable model.
+public class ChangeSet
+{
+    private static final int STATE_COUNT = BikeStateType.values().length;
+
+    private final int[] bikeCountDeltas = new int[STATE_COUNT];
+    private final Set<String> affectedEmails = new LinkedHashSet<>();
+    private long balanceDelta;
+    private int mutationCount;
+
+    /**
+    METHOD: getBalanceDelta
+    IMPORT: None
+    EXPORT: delta (long)
+    ALGORITHM:
+    Returns the net change in bank balance.
+    */
+    public long getBalanceDelta()
+    {
+        return balanceDelta;
+    }
+
+    /**
+    METHOD: getBikeCountDelta
+    IMPORT: type (BikeStateType)
+    EXPORT: delta (int)
+    ALGORITHM:
+    Returns the net change in the number of bikes in the given state.
+    */
+    public int getBikeCountDelta(BikeStateType type)
+    {
+        return bikeCountDeltas[type.ordinal()];
+    }
+
+    /**
+    METHOD: getAffectedEmails
+    IMPORT: None
+    EXPORT: emails (Set<String>)
+    ALGORITHM:
+    Returns a read-only view of the customer emails whose bikes were affected, in first-affected order.
+    */
+    public Set<String> getAffectedEmails()
+    {
+        return Collections.unmodifiableSet(affectedEmails);
+    }
+
+    /**
+    METHOD: getMutationCount
+    IMPORT: None
+    EXPORT: count (int)
+    ALGORITHM:
+    Returns the number of individual mutations folded into this change set.
+    */
+    public int getMutationCount()
+    {
+        return mutationCount;
+    }
+
+    /**
+    METHOD: isEmpty
+    IMPORT: None
+    EXPORT: boolean
+    ALGORITHM:
+    Returns true if no mutations have been recorded.
+    */
+    public boolean isEmpty()
+    {
+        return mutationCount == 0;
+    }
+
+    /**
+    METHOD: addBalanceChange
+    IMPORT: delta (int)
+    EXPORT: None
+    ALGORITHM:
+    Folds a balance change into the set.
+    */
+    /* default */ void addBalanceChange(int delta)
+    {
+        addBalanceChange(delta, 1);
+    }
+
+    /**
+    METHOD: addBalanceChange
+    IMPORT: delta (int), mutations (int)
+    EXPORT: None
+    ALGORITHM:
+    Folds the net balance change of several mutations (e.g. one bulk deposit standing for several payments) into the set.
+    */
+    /* default */ void addBalanceChange(int delta, int mutations)
+    {
+        balanceDelta += delta;
+        mutationCount += mutations;
+    }
+
+    /**
+    METHOD: addBikeCountChange
+    IMPORT: type (BikeStateType), delta (int), email (String)
+    EXPORT: None
+    ALGORITHM:
+    Folds a bike count change into the set and records the affected email (if any).
+    */
+    /* default */ void addBikeCountChange(BikeStateType type, int delta, String email)
+    {
+        addBikeCountChange(type, delta, email, 1);
+    }
+
+    /**
+    METHOD: addBikeCountChange
+    IMPORT: type (BikeStateType), delta (int), email (String), mutations (int)
+    EXPORT: None
+    ALGORITHM:
+    Folds the net bike count change of several mutations (e.g. one bulk removal standing for several bikes) into the set and records the affected email (if any).
+    */
+    /* default */ void addBikeCountChange(BikeStateType type, int delta, String email, int mutations)
+    {
+        bikeCountDeltas[type.ordinal()] += delta;
+        addAffectedEmail(email);
+        mutationCount += mutations;
+    }
+
+    /**
+    METHOD: addAffectedEmail
+    IMPORT: email (String)
+    EXPORT: None
+    ALGORITHM:
+    Records an affected email (if not null) without counting a mutation, for a bulk change that reports its emails one at a time.
+    */
+    /* default */ void addAffectedEmail(String email)
+    {
+        if(email != null)
+        {
+            affectedEmails.add(email);
+        }
+    }
+
+    /**
+    METHOD: addAll
+    IMPORT: other (ChangeSet)
+    EXPORT: None
+    ALGORITHM:
+    Folds every change in another set into this one (used to copy a set, or to coalesce several).
+    */
+    /* default */ void addAll(ChangeSet other)
+    {
+        for(int i = 0; i < STATE_COUNT; i++)
+        {
+            bikeCountDeltas[i] += other.bikeCountDeltas[i];
+        }
+        affectedEmails.addAll(other.affectedEmails);
+        balanceDelta += other.balanceDelta;
+        mutationCount += other.mutationCount;
+    }
+
+    /**
+    METHOD: clear
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Resets the set to empty so it can be reused.
+    */
+    /* default */ void clear()
+    {
+        for(int i = 0; i < STATE_COUNT; i++)
+        {
+            bikeCountDeltas[i] = 0;
+        }
+        affectedEmails.clear();
+        balanceDelta = 0;
+        mutationCount = 0;
+    }
+
+    /**
+    METHOD: toString
+    IMPORT: None
+    EXPORT: String
+    ALGORITHM:
+    Returns a string representation of the change set.
+    */
+    @Override
+    public String toString()
+    {
+        return "ChangeSet{" +
+                "balanceDelta=" + balanceDelta +
+                ", available=" + getBikeCountDelta(BikeStateType.AVAILABLE) +
+                ", servicing=" + getBikeCountDelta(BikeStateType.SERVICING) +
+                ", awaitingPickup=" + getBikeCountDelta(BikeStateType.AWAITING_PICKUP) +
+                ", affectedEmails=" + affectedEmails +
+                ", mutations=" + mutationCount +
+                '}';
+    }
+}
@@ -4,7 +4,7 @@ package edu.curtin.oose2024s1.assignment2.observer;
 Purpose:
     - Defines the contract for the subject that maintains a list of observers and notifies them of changes.
 Role:
-    - Provides methods to add, remove, and notify observers.
+    - Provides methods to add, remove, and notify observers, and to batch changes into a single notification per unit of work.
  Reference:
  - Dewan, P. (2000). 15. Model-View-Controller (MVC) and Observer. University of North Carolina Computer Science at Chapel Hill. https://www.cs.unc.edu/~carterjl/teaching/notes/15_MVC_Notes.pdf - Used to help understand and implement observer pattern (only used for contextual based knowledge and further understanding of observer pattern).
 */
@@ -37,4 +37,22 @@ public interface Observable
     Notifies all observers of changes.
     */
     void notifyObservers();
+
+    /**
+    METHOD: beginBatch
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Starts a unit of work; changes are collected instead of being delivered one mutation at a time.
+    */
+    void beginBatch();
+
+    /**
+    METHOD: endBatch
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Ends a unit of work and delivers the collected changes to each observer as a single ChangeSet.
+    */
+    void endBatch();
 }
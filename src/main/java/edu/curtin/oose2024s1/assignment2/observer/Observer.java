@@ -18,4 +18,17 @@ public interface Observer {
     Called by the observable to notify the observer of changes.
     */
     void update();
+
+    /**
+    METHOD: update
+    IMPORT: changes (ChangeSet)
+    EXPORT: None
+    ALGORITHM:
+    Called by the observable with the changes since the last notification (a single mutation, or a whole batch).
+    By default this just calls update(); observers that can apply deltas should override it. The ChangeSet is reused after this returns.
+    */
+    default void update(ChangeSet changes)
+    {
+        update();
+    }
 }
@@ -0,0 +1,193 @@
+package edu.curtin.oose2024s1.assignment2.observer;
+
+import edu.curtin.oose2024s1.assignment2.state.BikeStateType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+Purpose:
+    - Holds the observers of one Observable and delivers ChangeSets to them.
+Role:
+    - Outside a batch, every recorded mutation is delivered straight away (one update per mutation, as before).
+    - Inside a batch (beginBatch ... endBatch, e.g. one message or one simulated day), mutations are only folded into a pending ChangeSet, and each observer receives a single update when the outermost batch ends.
+    - Shared by BankAccount and Inventory so both observables batch in the same way.
+    - Not thread-safe: only the thread that owns the shop records changes. Observers that work on another thread hand the ChangeSet over themselves (see AsyncObserver).
+*/
+// Observer list with optional change coalescing.
+public class ObserverRegistry
+{
+    private final List<Observer> observers = new ArrayList<>();
+    private final ChangeSet pending = new ChangeSet();
+    private int batchDepth;
+
+    /**
+    METHOD: add
+    IMPORT: observer (Observer)
+    EXPORT: None
+    ALGORITHM:
+    Adds an observer.
+    */
+    public void add(Observer observer)
+    {
+        observers.add(observer);
+    }
+
+    /**
+    METHOD: remove
+    IMPORT: observer (Observer)
+    EXPORT: None
+    ALGORITHM:
+    Removes an observer.
+    */
+    public void remove(Observer observer)
+    {
+        observers.remove(observer);
+    }
+
+    /**
+    METHOD: beginBatch
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Starts (or nests) a batch; changes are held back until the outermost batch ends.
+    */
+    public void beginBatch()
+    {
+        batchDepth++;
+    }
+
+    /**
+    METHOD: endBatch
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Ends a batch. When the outermost batch ends, delivers the accumulated changes (if any) to every observer once.
+    */
+    public void endBatch()
+    {
+        if(batchDepth == 0)
+        {
+            throw new IllegalStateException("endBatch() called without a matching beginBatch().");
+        }
+        batchDepth--;
+        if(batchDepth == 0 && !pending.isEmpty())
+        {
+            deliver();
+        }
+    }
+
+    /**
+    METHOD: isBatching
+    IMPORT: None
+    EXPORT: boolean
+    ALGORITHM:
+    Returns true while a batch is open.
+    */
+    public boolean isBatching()
+    {
+        return batchDepth > 0;
+    }
+
+    /**
+    METHOD: recordBalanceChange
+    IMPORT: delta (int)
+    EXPORT: None
+    ALGORITHM:
+    Records a balance change, delivering it immediately unless a batch is open.
+    */
+    public void recordBalanceChange(int delta)
+    {
+        recordBalanceChange(delta, 1);
+    }
+
+    /**
+    METHOD: recordBalanceChange
+    IMPORT: delta (int), mutations (int)
+    EXPORT: None
+    ALGORITHM:
+    Records the net balance change of several mutations made at once, so observers count them as they would if each had been recorded on its own.
+    Delivers it immediately unless a batch is open.
+    */
+    public void recordBalanceChange(int delta, int mutations)
+    {
+        pending.addBalanceChange(delta, mutations);
+        if(batchDepth == 0)
+        {
+            deliver();
+        }
+    }
+
+    /**
+    METHOD: recordBikeCountChange
+    IMPORT: type (BikeStateType), delta (int), email (String)
+    EXPORT: None
+    ALGORITHM:
+    Records a bike count change (and the affected email, if any), delivering it immediately unless a batch is open.
+    */
+    public void recordBikeCountChange(BikeStateType type, int delta, String email)
+    {
+        recordBikeCountChange(type, delta, email, 1);
+    }
+
+    /**
+    METHOD: recordBikeCountChange
+    IMPORT: type (BikeStateType), delta (int), email (String), mutations (int)
+    EXPORT: None
+    ALGORITHM:
+    Records the net bike count change of several mutations made at once (and the affected email, if any), so observers count them as they would if each had
+    been recorded on its own. Delivers it immediately unless a batch is open.
+    */
+    public void recordBikeCountChange(BikeStateType type, int delta, String email, int mutations)
+    {
+        pending.addBikeCountChange(type, delta, email, mutations);
+        if(batchDepth == 0)
+        {
+            deliver();
+        }
+    }
+
+    /**
+    METHOD: recordAffectedEmail
+    IMPORT: email (String)
+    EXPORT: None
+    ALGORITHM:
+    Records an email affected by a bulk change without counting a mutation. Never delivers on its own: it goes out with the change it belongs to,
+    so it should be recorded inside the same batch as that change.
+    */
+    public void recordAffectedEmail(String email)
+    {
+        pending.addAffectedEmail(email);
+    }
+
+    /**
+    METHOD: notifyObservers
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Delivers any pending changes now (an empty ChangeSet if there are none). Does nothing while a batch is open, since the batch will deliver them.
+    */
+    public void notifyObservers()
+    {
+        if(batchDepth == 0)
+        {
+            deliver();
+        }
+    }
+
+    /**
+    METHOD: deliver
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Calls update(ChangeSet) on every observer with the pending changes, then clears them.
+    */
+    private void deliver()
+    {
+        for(Observer observer : observers)
+        {
+            observer.update(pending);
+        }
+        pending.clear();
+    }
+}
@@ -0,0 +1,17 @@
+package edu.curtin.oose2024s1.assignment2.observer;
+
+/**
+Purpose:
+    - Names what an AsyncObserver does with a new notification when its subscriber has fallen behind and the ring buffer is full.
+Role:
+    - DROP discards the notification (and counts it), so the producer never waits.
+    - BLOCK makes the producer wait for space, so nothing is lost but a slow subscriber slows the simulation again.
+    - COALESCE folds the notification into a held-back ChangeSet that is published as one entry once space frees up, so no change is lost and the producer never waits.
+*/
+// Enum of policies for a full async observer ring buffer.
+public enum OverflowPolicy
+{
+    DROP,
+    BLOCK,
+    COALESCE
+}
@@ -0,0 +1,68 @@
+package edu.curtin.oose2024s1.assignment2.observer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+Purpose:
+    - Names how an AsyncObserver thread waits when it has nothing to do (consumer: ring empty; producer under BLOCK: ring full).
+Role:
+    - BUSY_SPIN burns a core for the lowest latency, YIELDING spins briefly then yields, SLEEPING parks for a short fixed time, and BLOCKING parks until woken (with a timeout as a safety net).
+    - Trades hand-off latency against CPU use; the default is BLOCKING so an idle subscriber costs nothing.
+*/
+// Enum of idle strategies for the async observer ring buffer.
+public enum WaitStrategy
+{
+    BUSY_SPIN
+    {
+        @Override
+        public void idle(int attempt)
+        {
+            Thread.onSpinWait();
+        }
+    },
+    YIELDING
+    {
+        @Override
+        public void idle(int attempt)
+        {
+            if(attempt < SPIN_TRIES)
+            {
+                Thread.onSpinWait();
+            }
+            else
+            {
+                Thread.yield();
+            }
+        }
+    },
+    SLEEPING
+    {
+        @Override
+        public void idle(int attempt)
+        {
+            LockSupport.parkNanos(SLEEP_NANOS);
+        }
+    },
+    BLOCKING
+    {
+        @Override
+        public void idle(int attempt)
+        {
+            LockSupport.parkNanos(this, BLOCK_NANOS);
+        }
+    };
+
+    private static final int SPIN_TRIES = 100;
+    private static final long SLEEP_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long BLOCK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+    METHOD: idle
+    IMPORT: attempt (int)
+    EXPORT: None
+    ALGORITHM:
+    Waits once, given how many times in a row the caller has found nothing to do. BLOCKING callers are woken early with LockSupport.unpark.
+    */
+    public abstract void idle(int attempt);
+}
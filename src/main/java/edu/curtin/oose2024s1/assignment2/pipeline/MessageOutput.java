@@ -0,0 +1,23 @@
+package edu.curtin.oose2024s1.assignment2.pipeline;
+
+import edu.curtin.oose2024s1.assignment2.command.Command;
+import edu.curtin.oose2024s1.assignment2.controller.ResultCode;
+
+/**
+Purpose:
+    - The output/persist stage of a MessagePipeline: receives every applied message with its result, in order, on the pipeline's output thread.
+Role:
+    - Lets the EventLoop keep writing results and journal records as it always has, while the pipeline decides which thread does it.
+*/
+// Callback for the pipeline's output stage.
+public interface MessageOutput
+{
+    /**
+    METHOD: write
+    IMPORT: message (CharSequence), command (Command), result (ResultCode)
+    EXPORT: None
+    ALGORITHM:
+    Called once for each applied message with its text, its decoded form and its result. Both views are only valid until the call returns.
+    */
+    void write(CharSequence message, Command command, ResultCode result);
+}
@@ -0,0 +1,379 @@
+package edu.curtin.oose2024s1.assignment2.pipeline;
+
+import edu.curtin.oose2024s1.assignment2.command.MessageParser;
+import edu.curtin.oose2024s1.assignment2.controller.ResultCode;
+import edu.curtin.oose2024s1.assignment2.input.MessageSource;
+import edu.curtin.oose2024s1.assignment2.observer.WaitStrategy;
+
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+Purpose:
+    - Runs the EventLoop's message handling as a pipeline of four stages on separate threads: ingest/parse, validate, apply and output/persist, so a day's messages
+      take as long as the slowest stage rather than the sum of all of them.
+Role:
+    - The stages share one ring of pre-allocated MessageSlots. Each stage has a StageCursor and only works on the slots between its predecessor's cursor and its own,
+      so every hand-off is single-producer/single-consumer and lock-free, and nothing is copied or allocated per message.
+    - The parse thread pulls messages from the MessageSource, copies and decodes them; the validate thread runs the stateless pre-check; the apply stage is whichever thread
+      calls nextMessage() (the EventLoop's), the single writer that owns the model; the output thread hands each result to a MessageOutput.
+    - Day boundaries are kept: the parse thread only starts pulling a day's messages once startDay() releases it (after the clock has moved), closes the day with a marker,
+      and awaitOutput() lets the apply thread wait until the output stage has caught up before it does its end-of-day work.
+    - If a stage thread fails, the pipeline stops and the apply thread's next call throws.
+*/
+// Staged, multi-threaded message pipeline.
+public final class MessagePipeline implements AutoCloseable
+{
+    private static final Logger logger = Logger.getLogger(MessagePipeline.class.getName());
+    private static final int DEFAULT_CAPACITY = 1 << 12;
+    private static final int PUBLISH_BATCH = 64;
+
+    private final MessageSource source;
+    private final MessageOutput output;
+    private final WaitStrategy waitStrategy;
+    private final MessageSlot[] slots;
+    private final int mask;
+
+    private final StageWaiter parseWaiter = new StageWaiter();
+    private final StageWaiter validateWaiter = new StageWaiter();
+    private final StageWaiter applyWaiter = new StageWaiter();
+    private final StageWaiter outputWaiter = new StageWaiter();
+    private final StageCursor released = new StageCursor(parseWaiter);
+    private final StageCursor parsed = new StageCursor(validateWaiter);
+    private final StageCursor validated = new StageCursor(applyWaiter);
+    private final StageCursor applied = new StageCursor(outputWaiter);
+    private final StageCursor written = new StageCursor(parseWaiter, applyWaiter);
+    private final Thread[] threads;
+    private volatile boolean running = true;
+    private volatile Throwable failure;
+
+    // Apply thread only
+    private long daysReleased;
+    private long applyNext;
+    private long applyAvailable;
+    private long applyPublished;
+
+    /**
+    METHOD: MessagePipeline
+    IMPORT: source (MessageSource), output (MessageOutput)
+    EXPORT: None
+    ALGORITHM:
+    Constructor with a 4096-slot ring and the BLOCKING wait strategy.
+    */
+    public MessagePipeline(MessageSource source, MessageOutput output)
+    {
+        this(source, output, DEFAULT_CAPACITY, WaitStrategy.BLOCKING);
+    }
+
+    /**
+    METHOD: MessagePipeline
+    IMPORT: source (MessageSource), output (MessageOutput), capacity (int), waitStrategy (WaitStrategy)
+    EXPORT: None
+    ALGORITHM:
+    Constructor that allocates the ring (capacity must be a power of two) and starts the parse, validate and output threads. From now on only the parse thread may call the source.
+    */
+    public MessagePipeline(MessageSource source, MessageOutput output, int capacity, WaitStrategy waitStrategy)
+    {
+        if(capacity <= 0 || Integer.bitCount(capacity) != 1)
+        {
+            throw new IllegalArgumentException("Ring capacity must be a positive power of two: " + capacity);
+        }
+
+        this.source = source;
+        this.output = output;
+        this.waitStrategy = waitStrategy;
+        this.slots = new MessageSlot[capacity];
+        this.mask = capacity - 1;
+        for(int i = 0; i < capacity; i++)
+        {
+            slots[i] = new MessageSlot();
+        }
+
+        threads = new Thread[] {
+            startStage("pipeline-parse", parseWaiter, this::parse),
+            startStage("pipeline-validate", validateWaiter, this::validate),
+            startStage("pipeline-output", outputWaiter, this::write)
+        };
+    }
+
+    /**
+    METHOD: startDay
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Lets the parse thread start pulling the next day's messages. Called by the apply thread at the start of each day, once the clock has moved to it.
+    */
+    public void startDay()
+    {
+        applyWaiter.setThread(Thread.currentThread());
+        daysReleased++;
+        released.advance(daysReleased);
+    }
+
+    /**
+    METHOD: nextMessage
+    IMPORT: None
+    EXPORT: slot (MessageSlot)
+    ALGORITHM:
+    Returns the next validated message of the day, waiting for it if necessary, or null once the day's messages have all been returned.
+    The caller applies it and passes the result to applied() before asking for the next one. Throws IllegalStateException if the pipeline has stopped.
+    */
+    public MessageSlot nextMessage()
+    {
+        if(applyNext == applyAvailable)
+        {
+            publishApplied();
+            applyAvailable = applyWaiter.await(validated, applyNext + 1, waitStrategy, this);
+            if(applyAvailable < 0)
+            {
+                throw stopped();
+            }
+        }
+
+        MessageSlot slot = slots[(int) (applyNext & mask)];
+        if(slot.isDayEnd())
+        {
+            applyNext++;
+            publishApplied();
+            return null;
+        }
+        return slot;
+    }
+
+    /**
+    METHOD: applied
+    IMPORT: slot (MessageSlot), result (ResultCode)
+    EXPORT: None
+    ALGORITHM:
+    Records the result of the slot last returned by nextMessage() and passes it on to the output stage (in batches, or straight away when the apply thread would otherwise wait).
+    */
+    public void applied(MessageSlot slot, ResultCode result)
+    {
+        slot.setResult(result);
+        applyNext++;
+        if(applyNext - applyPublished >= PUBLISH_BATCH)
+        {
+            publishApplied();
+        }
+    }
+
+    /**
+    METHOD: awaitOutput
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Waits until the output stage has written every message applied so far, so the apply thread can do its end-of-day work (and touch the output's state) safely.
+    Throws IllegalStateException if the pipeline has stopped.
+    */
+    public void awaitOutput()
+    {
+        publishApplied();
+        if(applyWaiter.await(written, applyNext, waitStrategy, this) < 0)
+        {
+            throw stopped();
+        }
+    }
+
+    /**
+    METHOD: close
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Stops the stage threads and waits for them to exit. Messages the parse thread has already pulled but not yet handed to the apply stage are discarded.
+    */
+    @Override
+    public void close()
+    {
+        running = false;
+        for(Thread thread : threads)
+        {
+            LockSupport.unpark(thread);
+        }
+        for(Thread thread : threads)
+        {
+            try
+            {
+                thread.join();
+            }
+            catch(InterruptedException e)
+            {
+                logger.warning(() -> "Interrupted while stopping " + thread.getName() + ": " + e.getMessage());
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+    METHOD: isRunning
+    IMPORT: None
+    EXPORT: boolean
+    ALGORITHM:
+    Returns true until the pipeline is closed or a stage fails.
+    */
+    /* default */ boolean isRunning()
+    {
+        return running;
+    }
+
+    /**
+    METHOD: parse
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Parse thread body: for each released day, pulls messages from the source until it returns null, copying and decoding each into the next free slot, then adds a day-end marker.
+    Publishes slots in batches, and whenever it has to wait for a free slot.
+    */
+    private void parse()
+    {
+        MessageParser parser = new MessageParser();
+        long next = 0;
+        long published = 0;
+        long days = 0;
+        while(parseWaiter.await(released, days + 1, waitStrategy, this) >= 0)
+        {
+            days++;
+            boolean dayEnded = false;
+            while(!dayEnded)
+            {
+                if(next - written.get() >= slots.length)
+                {
+                    parsed.advance(next);
+                    published = next;
+                    if(parseWaiter.await(written, next - slots.length + 1, waitStrategy, this) < 0)
+                    {
+                        return;
+                    }
+                }
+
+                MessageSlot slot = slots[(int) (next & mask)];
+                CharSequence message = source.nextMessage();
+                if(message == null)
+                {
+                    slot.markDayEnd();
+                    dayEnded = true;
+                }
+                else
+                {
+                    slot.load(message, parser);
+                }
+                next++;
+                if(dayEnded || next - published >= PUBLISH_BATCH)
+                {
+                    parsed.advance(next);
+                    published = next;
+                }
+            }
+        }
+    }
+
+    /**
+    METHOD: validate
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Validate thread body: runs the pre-check on every parsed slot and passes each available batch on to the apply stage.
+    */
+    private void validate()
+    {
+        long next = 0;
+        long available;
+        while((available = validateWaiter.await(parsed, next + 1, waitStrategy, this)) >= 0)
+        {
+            while(next < available)
+            {
+                MessageSlot slot = slots[(int) (next & mask)];
+                if(!slot.isDayEnd())
+                {
+                    slot.setPrecheck(MessageValidator.check(slot.getText(), slot.getCommand()));
+                }
+                next++;
+            }
+            validated.advance(next);
+        }
+    }
+
+    /**
+    METHOD: write
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Output thread body: hands every applied message to the MessageOutput in order and frees each available batch of slots.
+    */
+    private void write()
+    {
+        long next = 0;
+        long available;
+        while((available = outputWaiter.await(applied, next + 1, waitStrategy, this)) >= 0)
+        {
+            while(next < available)
+            {
+                MessageSlot slot = slots[(int) (next & mask)];
+                if(!slot.isDayEnd())
+                {
+                    output.write(slot.getText(), slot.getCommand(), slot.getResult());
+                }
+                next++;
+            }
+            written.advance(next);
+        }
+    }
+
+    /**
+    METHOD: publishApplied
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Passes every slot applied so far on to the output stage, if any are new.
+    */
+    private void publishApplied()
+    {
+        if(applyNext > applyPublished)
+        {
+            applied.advance(applyNext);
+            applyPublished = applyNext;
+        }
+    }
+
+    /**
+    METHOD: startStage
+    IMPORT: name (String), waiter (StageWaiter), body (Runnable)
+    EXPORT: thread (Thread)
+    ALGORITHM:
+    Starts a daemon thread running one stage. If the stage throws, the failure is kept and the pipeline stops, so the apply thread does not wait forever.
+    */
+    private Thread startStage(String name, StageWaiter waiter, Runnable body)
+    {
+        Thread thread = new Thread(() ->
+        {
+            try
+            {
+                body.run();
+            }
+            catch(RuntimeException | Error e) // NOPMD - any stage failure must stop the pipeline rather than leave the apply thread waiting
+            {
+                logger.log(Level.SEVERE, "Pipeline stage " + name + " failed", e);
+                failure = e;
+                running = false;
+                applyWaiter.wake();
+            }
+        }, name);
+        thread.setDaemon(true);
+        waiter.setThread(thread);
+        thread.start();
+        return thread;
+    }
+
+    /**
+    METHOD: stopped
+    IMPORT: None
+    EXPORT: exception (IllegalStateException)
+    ALGORITHM:
+    Returns the exception the apply thread throws when the pipeline has stopped under it.
+    */
+    private IllegalStateException stopped()
+    {
+        return new IllegalStateException("The message pipeline has stopped.", failure);
+    }
+}
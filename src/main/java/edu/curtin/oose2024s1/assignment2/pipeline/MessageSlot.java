@@ -0,0 +1,168 @@
+package edu.curtin.oose2024s1.assignment2.pipeline;
+
+import edu.curtin.oose2024s1.assignment2.command.Command;
+import edu.curtin.oose2024s1.assignment2.command.MessageParser;
+import edu.curtin.oose2024s1.assignment2.command.MessageType;
+import edu.curtin.oose2024s1.assignment2.controller.ResultCode;
+
+import java.nio.CharBuffer;
+
+/**
+Purpose:
+    - One entry of a MessagePipeline's ring: a message (or a day-end marker) as it passes through the parse, validate, apply and output stages.
+Role:
+    - Pre-allocated and reused: the parse stage copies the message text into the slot's own buffer (the source's view is only valid until its next call) and decodes it into the slot's Command,
+      whose email then points into that buffer, so nothing is allocated per message.
+    - Each stage only touches a slot between its predecessor's cursor and its own, so a slot never needs a lock.
+*/
+// Reusable pipeline entry.
+public final class MessageSlot
+{
+    private static final int INITIAL_CAPACITY = 64;
+
+    private char[] chars = new char[INITIAL_CAPACITY];
+    private CharBuffer text = CharBuffer.wrap(chars);
+    private final Command command = new Command();
+    private boolean dayEnd;
+    private ResultCode precheck;
+    private ResultCode result;
+
+    /**
+    METHOD: getText
+    IMPORT: None
+    EXPORT: text (CharSequence)
+    ALGORITHM:
+    Returns the message text (valid until the slot is reused).
+    */
+    public CharSequence getText()
+    {
+        return text;
+    }
+
+    /**
+    METHOD: getCommand
+    IMPORT: None
+    EXPORT: command (Command)
+    ALGORITHM:
+    Returns the decoded message (valid until the slot is reused).
+    */
+    public Command getCommand()
+    {
+        return command;
+    }
+
+    /**
+    METHOD: getPrecheck
+    IMPORT: None
+    EXPORT: result (ResultCode)
+    ALGORITHM:
+    Returns the result the validation stage has already decided on (a failure that does not depend on the shop's state), or null if the message must be applied.
+    */
+    public ResultCode getPrecheck()
+    {
+        return precheck;
+    }
+
+    /**
+    METHOD: load
+    IMPORT: message (CharSequence), parser (MessageParser)
+    EXPORT: None
+    ALGORITHM:
+    Copies the message into the slot (growing the buffer if it is too small) and decodes it; an empty message is decoded as INVALID.
+    */
+    /* default */ void load(CharSequence message, MessageParser parser)
+    {
+        int length = message.length();
+        if(length > chars.length)
+        {
+            chars = new char[Math.max(length, chars.length * 2)];
+            text = CharBuffer.wrap(chars);
+        }
+        if(message instanceof String string)
+        {
+            string.getChars(0, length, chars, 0);
+        }
+        else
+        {
+            for(int i = 0; i < length; i++)
+            {
+                chars[i] = message.charAt(i);
+            }
+        }
+        text.clear().limit(length);
+
+        dayEnd = false;
+        precheck = null;
+        result = null;
+        if(length == 0)
+        {
+            command.set(MessageType.INVALID, text, -1, -1);
+        }
+        else
+        {
+            parser.parse(text, command);
+        }
+    }
+
+    /**
+    METHOD: markDayEnd
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Turns the slot into the marker that ends the day's messages.
+    */
+    /* default */ void markDayEnd()
+    {
+        dayEnd = true;
+        precheck = null;
+        result = null;
+    }
+
+    /**
+    METHOD: isDayEnd
+    IMPORT: None
+    EXPORT: boolean
+    ALGORITHM:
+    Returns true if the slot marks the end of a day rather than holding a message.
+    */
+    /* default */ boolean isDayEnd()
+    {
+        return dayEnd;
+    }
+
+    /**
+    METHOD: setPrecheck
+    IMPORT: precheck (ResultCode)
+    EXPORT: None
+    ALGORITHM:
+    Records the validation stage's verdict (null if the message must be applied).
+    */
+    /* default */ void setPrecheck(ResultCode precheck)
+    {
+        this.precheck = precheck;
+    }
+
+    /**
+    METHOD: getResult
+    IMPORT: None
+    EXPORT: result (ResultCode)
+    ALGORITHM:
+    Returns the result the apply stage recorded.
+    */
+    /* default */ ResultCode getResult()
+    {
+        return result;
+    }
+
+    /**
+    METHOD: setResult
+    IMPORT: result (ResultCode)
+    EXPORT: None
+    ALGORITHM:
+    Records the apply stage's result.
+    */
+    /* default */ void setResult(ResultCode result)
+    {
+        this.result = result;
+    }
+}
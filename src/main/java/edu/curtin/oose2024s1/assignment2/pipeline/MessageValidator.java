@@ -0,0 +1,48 @@
+package edu.curtin.oose2024s1.assignment2.pipeline;
+
+import edu.curtin.oose2024s1.assignment2.command.Command;
+import edu.curtin.oose2024s1.assignment2.controller.ResultCode;
+
+/**
+Purpose:
+    - The pure pre-check of the validation stage: decides, from a message alone, the failures that do not depend on the shop's state.
+Role:
+    - Rejects exactly what BikeShopController would reject whatever the state (an empty message, an unknown type, or a missing email for a type that needs one), with the
+      same ResultCode, so a pipelined run gives the same results as a sequential one while the apply stage skips those messages.
+    - Email text is not checked any further: the controller accepts whatever follows the type, so rejecting it here would change results.
+*/
+// Stateless message pre-check.
+/* default */ final class MessageValidator
+{
+    /**
+    METHOD: MessageValidator
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Private constructor; all methods are static.
+    */
+    private MessageValidator()
+    {
+    }
+
+    /**
+    METHOD: check
+    IMPORT: text (CharSequence), command (Command)
+    EXPORT: result (ResultCode)
+    ALGORITHM:
+    Returns the failure the message is bound to get, or null if only applying it can tell.
+    */
+    /* default */ static ResultCode check(CharSequence text, Command command)
+    {
+        if(text.length() == 0)
+        {
+            return ResultCode.FAIL_INVALID_MESSAGE;
+        }
+        return switch(command.getType())
+        {
+            case INVALID -> ResultCode.FAIL_INVALID_TYPE;
+            case DROP_OFF, PURCHASE_ONLINE, PICK_UP -> command.getEmail() == null ? ResultCode.FAIL_INVALID_EMAIL : null;
+            case DELIVERY, PURCHASE_IN_STORE -> null;
+        };
+    }
+}
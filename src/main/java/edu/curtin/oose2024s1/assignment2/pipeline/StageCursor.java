@@ -0,0 +1,57 @@
+package edu.curtin.oose2024s1.assignment2.pipeline;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+Purpose:
+    - How far one MessagePipeline stage has got: every slot (or, for day releases, every day) below the cursor's position has been handed on.
+Role:
+    - Written by one thread only and read by the stages that depend on it, so each hand-off between stages is single-producer/single-consumer.
+    - Moving the cursor publishes everything written to the slots before it, and wakes the stages waiting on it.
+*/
+// Published position of a pipeline stage.
+/* default */ final class StageCursor
+{
+    private final AtomicLong position = new AtomicLong();
+    private final StageWaiter[] dependents;
+
+    /**
+    METHOD: StageCursor
+    IMPORT: dependents (StageWaiter ARRAY)
+    EXPORT: None
+    ALGORITHM:
+    Constructor for a cursor at 0 that wakes the given waiters when it moves.
+    */
+    /* default */ StageCursor(StageWaiter... dependents)
+    {
+        this.dependents = dependents.clone();
+    }
+
+    /**
+    METHOD: get
+    IMPORT: None
+    EXPORT: position (long)
+    ALGORITHM:
+    Returns the published position.
+    */
+    /* default */ long get()
+    {
+        return position.get();
+    }
+
+    /**
+    METHOD: advance
+    IMPORT: to (long)
+    EXPORT: None
+    ALGORITHM:
+    Publishes a new position (a full volatile write, so it is ordered before the check for waiters) and wakes any dependent stage that is waiting.
+    */
+    /* default */ void advance(long to)
+    {
+        position.set(to);
+        for(StageWaiter dependent : dependents)
+        {
+            dependent.wake();
+        }
+    }
+}
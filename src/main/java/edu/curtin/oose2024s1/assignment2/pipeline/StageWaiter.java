@@ -0,0 +1,75 @@
+package edu.curtin.oose2024s1.assignment2.pipeline;
+
+import edu.curtin.oose2024s1.assignment2.observer.WaitStrategy;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+Purpose:
+    - The waiting side of one MessagePipeline stage thread: lets the stage idle until a StageCursor it depends on moves, and lets whoever moves it wake the stage.
+Role:
+    - The stage advertises that it is waiting before re-checking its condition, and the cursor checks the flag after publishing its new position (both volatile),
+      so a wake-up is never lost; the wait strategy's own timeout is only a safety net.
+*/
+// Idle/wake handshake for a pipeline stage.
+/* default */ final class StageWaiter
+{
+    private volatile Thread thread;
+    private volatile boolean waiting;
+
+    /**
+    METHOD: setThread
+    IMPORT: thread (Thread)
+    EXPORT: None
+    ALGORITHM:
+    Sets the thread this waiter belongs to (the one that will idle in it).
+    */
+    /* default */ void setThread(Thread thread)
+    {
+        this.thread = thread;
+    }
+
+    /**
+    METHOD: await
+    IMPORT: cursor (StageCursor), target (long), waitStrategy (WaitStrategy), pipeline (MessagePipeline)
+    EXPORT: position (long)
+    ALGORITHM:
+    Idles until the cursor reaches target and returns its position, or returns -1 if the pipeline stops first.
+    */
+    /* default */ long await(StageCursor cursor, long target, WaitStrategy waitStrategy, MessagePipeline pipeline)
+    {
+        long position = cursor.get();
+        int attempt = 0;
+        while(position < target)
+        {
+            if(!pipeline.isRunning())
+            {
+                return -1;
+            }
+            waiting = true;
+            if(cursor.get() < target)
+            {
+                waitStrategy.idle(attempt++);
+            }
+            waiting = false;
+            position = cursor.get();
+        }
+        return position;
+    }
+
+    /**
+    METHOD: wake
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Unparks the thread if it is waiting.
+    */
+    /* default */ void wake()
+    {
+        Thread waiter = thread;
+        if(waiting && waiter != null)
+        {
+            LockSupport.unpark(waiter);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package edu.curtin.oose2024s1.assignment2.query;
+
+import edu.curtin.oose2024s1.assignment2.model.Bike;
+import edu.curtin.oose2024s1.assignment2.model.Customer;
+import edu.curtin.oose2024s1.assignment2.model.CustomerDirectory;
+import edu.curtin.oose2024s1.assignment2.model.Inventory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+Purpose:
+    - Answers questions about one shop's state from outside its controller: which customers have bikes that have been waiting to be picked up for too long,
+      which bikes were dropped off for servicing on a given day, and which customers have the most bikes in the shop.
+Role:
+    - Every query is answered from an index or running aggregate that the model keeps up to date on each state transition (the Inventory's waiting-ordered
+      pick-up list and servicing buckets, and the CustomerDirectory's bike count ranking), so a query costs time in proportion to what it returns, not to the
+      size of the shop.
+    - Reads the model directly, so it must be used on the thread that applies messages (or between days), like the model itself.
+*/
+// Indexed queries over the shop's state.
+public final class ShopQueries
+{
+    private final Inventory inventory;
+    private final CustomerDirectory customers;
+
+    /**
+    METHOD: ShopQueries
+    IMPORT: inventory (Inventory), customers (CustomerDirectory)
+    EXPORT: None
+    ALGORITHM:
+    Constructor that answers queries about the given inventory and customers.
+    */
+    public ShopQueries(Inventory inventory, CustomerDirectory customers)
+    {
+        this.inventory = inventory;
+        this.customers = customers;
+    }
+
+    /**
+    METHOD: getCustomersAwaitingPickupLongerThan
+    IMPORT: days (int)
+    EXPORT: customers (List of Customer)
+    ALGORITHM:
+    Returns each customer with at least one bike that has been awaiting pick-up for more than days days, once, the customer with the longest-waiting bike first.
+    */
+    public List<Customer> getCustomersAwaitingPickupLongerThan(int days)
+    {
+        Set<Customer> waiting = new LinkedHashSet<>();
+        inventory.forEachBikeAwaitingPickupLongerThan(days, bike ->
+        {
+            if(bike.getOwner() != null)
+            {
+                waiting.add(bike.getOwner());
+            }
+        });
+        return List.copyOf(waiting);
+    }
+
+    /**
+    METHOD: getBikesAwaitingPickupLongerThan
+    IMPORT: days (int)
+    EXPORT: bikes (List of Bike)
+    ALGORITHM:
+    Returns every bike that has been awaiting pick-up for more than days days, longest-waiting first.
+    */
+    public List<Bike> getBikesAwaitingPickupLongerThan(int days)
+    {
+        List<Bike> bikes = new ArrayList<>();
+        inventory.forEachBikeAwaitingPickupLongerThan(days, bikes::add);
+        return Collections.unmodifiableList(bikes);
+    }
+
+    /**
+    METHOD: getDaysAwaitingPickup
+    IMPORT: bike (Bike)
+    EXPORT: days (int)
+    ALGORITHM:
+    Returns how many days a bike that is awaiting pick-up has been waiting.
+    */
+    public int getDaysAwaitingPickup(Bike bike)
+    {
+        return inventory.getDaysAwaitingPickup(bike);
+    }
+
+    /**
+    METHOD: getBikesInServicingDroppedOff
+    IMPORT: daysAgo (int)
+    EXPORT: bikes (List of Bike)
+    ALGORITHM:
+    Returns the bikes being serviced that were dropped off daysAgo days ago (0 for today, up to Inventory.SERVICE_DAYS - 1), in drop-off order.
+    */
+    public List<Bike> getBikesInServicingDroppedOff(int daysAgo)
+    {
+        List<Bike> bikes = new ArrayList<>(inventory.getServicedBikeCountDroppedOff(daysAgo));
+        inventory.forEachServicedBikeDroppedOff(daysAgo, bikes::add);
+        return Collections.unmodifiableList(bikes);
+    }
+
+    /**
+    METHOD: getServicingCountsByDropOffDay
+    IMPORT: None
+    EXPORT: counts (int ARRAY)
+    ALGORITHM:
+    Returns the number of bikes being serviced for each drop-off day, indexed by how many days ago they were dropped off (0 for today).
+    */
+    public int[] getServicingCountsByDropOffDay()
+    {
+        int[] counts = new int[Inventory.SERVICE_DAYS];
+        for(int daysAgo = 0; daysAgo < counts.length; daysAgo++)
+        {
+            counts[daysAgo] = inventory.getServicedBikeCountDroppedOff(daysAgo);
+        }
+        return counts;
+    }
+
+    /**
+    METHOD: getTopCustomersByBikeCount
+    IMPORT: limit (int)
+    EXPORT: customers (List of Customer)
+    ALGORITHM:
+    Returns up to limit customers with bikes in the shop, those with the most bikes first.
+    */
+    public List<Customer> getTopCustomersByBikeCount(int limit)
+    {
+        List<Customer> top = new ArrayList<>(Math.max(0, Math.min(limit, customers.getCustomersWithBikesCount())));
+        customers.forEachTopCustomer(limit, top::add);
+        return Collections.unmodifiableList(top);
+    }
+
+    /**
+    METHOD: getCustomersWithBikesCount
+    IMPORT: None
+    EXPORT: count (int)
+    ALGORITHM:
+    Returns the number of customers with at least one bike in the shop.
+    */
+    public int getCustomersWithBikesCount()
+    {
+        return customers.getCustomersWithBikesCount();
+    }
+
+    /**
+    METHOD: getMaxBikesPerCustomer
+    IMPORT: None
+    EXPORT: count (int)
+    ALGORITHM:
+    Returns the most bikes any one customer has in the shop.
+    */
+    public int getMaxBikesPerCustomer()
+    {
+        return customers.getMaxBikesPerCustomer();
+    }
+}
@@ -0,0 +1,29 @@
+package edu.curtin.oose2024s1.assignment2.simulation;
+
+/**
+Purpose:
+    - Defines the source of simulated time for the event loop and for any message source that generates traffic based on elapsed time.
+Role:
+    - Decouples the simulation from the wall clock so the same event loop can run in real time (1 second = 1 day) or as fast as the CPU allows.
+*/
+// Interface for simulation clocks.
+public interface SimulationClock
+{
+    /**
+    METHOD: currentDay
+    IMPORT: None
+    EXPORT: day (long)
+    ALGORITHM:
+    Returns the number of whole simulated days that have elapsed since the clock was created.
+    */
+    long currentDay();
+
+    /**
+    METHOD: advanceDay
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Moves the clock forward by one simulated day, blocking for as long as the clock requires.
+    */
+    void advanceDay() throws InterruptedException;
+}
@@ -0,0 +1,51 @@
+package edu.curtin.oose2024s1.assignment2.simulation;
+
+/**
+Purpose:
+    - Implements a simulated clock that only moves when it is told to, so days pass as quickly as they can be processed.
+Role:
+    - Used by the headless (fast-forward) run mode and by anything else that needs reproducible, time-independent runs.
+*/
+// Clock that advances one day per call without waiting.
+public class VirtualClock implements SimulationClock
+{
+    private long day;
+
+    /**
+    METHOD: VirtualClock
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Constructor that starts the clock at day zero.
+    */
+    public VirtualClock()
+    {
+        this.day = 0L;
+    }
+
+    /**
+    METHOD: currentDay
+    IMPORT: None
+    EXPORT: day (long)
+    ALGORITHM:
+    Returns the number of days the clock has been advanced.
+    */
+    @Override
+    public long currentDay()
+    {
+        return day;
+    }
+
+    /**
+    METHOD: advanceDay
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Increments the day counter immediately.
+    */
+    @Override
+    public void advanceDay()
+    {
+        day++;
+    }
+}
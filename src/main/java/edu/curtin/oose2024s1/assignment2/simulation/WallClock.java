@@ -0,0 +1,72 @@
+package edu.curtin.oose2024s1.assignment2.simulation;
+
+/**
+Purpose:
+    - Implements the original real-time behaviour of the simulation, where one simulated day lasts one second of wall-clock time.
+Role:
+    - Used by the interactive run mode so that the shop runs at a pace the user can watch.
+    - A speed multiple shortens or stretches the day, which lets a recorded trace be replayed at (or faster than) the pace it was captured at.
+*/
+// Clock that maps one simulated day onto one real second.
+public class WallClock implements SimulationClock
+{
+    private static final long MILLIS_PER_DAY = 1000L;
+
+    private final long startTime;
+    private final long millisPerDay;
+
+    /**
+    METHOD: WallClock
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Constructor that records the current time as the start of day zero.
+    */
+    public WallClock()
+    {
+        this(1.0);
+    }
+
+    /**
+    METHOD: WallClock
+    IMPORT: speed (double)
+    EXPORT: None
+    ALGORITHM:
+    Constructor for a clock running speed times faster than real time (e.g. 10 for 100ms per day, 0.5 for 2 seconds per day).
+    */
+    public WallClock(double speed)
+    {
+        if(!(speed > 0))
+        {
+            throw new IllegalArgumentException("speed must be positive: " + speed);
+        }
+        this.startTime = System.currentTimeMillis();
+        this.millisPerDay = Math.max(1L, Math.round(MILLIS_PER_DAY / speed));
+    }
+
+    /**
+    METHOD: currentDay
+    IMPORT: None
+    EXPORT: day (long)
+    ALGORITHM:
+    Returns the number of whole simulated days elapsed since the clock was created (at normal speed, whole seconds rounding up from 999ms, matching BikeShopInput).
+    */
+    @Override
+    public long currentDay()
+    {
+        return (System.currentTimeMillis() - startTime + 1L) / millisPerDay;
+    }
+
+    /**
+    METHOD: advanceDay
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Sleeps for one simulated day (one second at normal speed).
+    */
+    @Override
+    public void advanceDay() throws InterruptedException
+    {
+        Thread.sleep(millisPerDay);
+    }
+}
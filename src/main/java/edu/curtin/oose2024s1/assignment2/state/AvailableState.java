@@ -2,6 +2,7 @@ package edu.curtin.oose2024s1.assignment2.state;
 
 import edu.curtin.oose2024s1.assignment2.model.Bike;
 
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
@@ -13,51 +14,83 @@ import java.util.logging.Logger;
  Reference:
  - Geekific. (2020, June 6). Observer design pattern – Design patterns in plain English [Video]. YouTube. https://www.youtube.com/watch?v=abX4xzaAsoc - Used to help understand and implement state pattern (only used for contextual based knowledge and further understanding of state pattern).
  */
-// Concrete state for bikes that are available.
+// Concrete (flyweight) state for bikes that are available.
 public class AvailableState implements BikeState
 {
     private static final Logger logger = Logger.getLogger(AvailableState.class.getName());
 
+    // Shared flyweight instance; the state holds no per-bike data.
+    public static final AvailableState INSTANCE = new AvailableState();
+
     /**
-     METHOD: dropOff
-     IMPORT: bike (Bike)
+     METHOD: AvailableState
+     IMPORT: None
      EXPORT: None
      ALGORITHM:
+     Private constructor; use INSTANCE.
+     */
+    private AvailableState()
+    {
+    }
+
+    /**
+     METHOD: getType
+     IMPORT: None
+     EXPORT: type (BikeStateType)
+     ALGORITHM:
+     Returns AVAILABLE.
+     */
+    @Override
+    public BikeStateType getType()
+    {
+        return BikeStateType.AVAILABLE;
+    }
+
+    /**
+     METHOD: tryDropOff
+     IMPORT: bike (Bike)
+     EXPORT: valid (boolean)
+     ALGORITHM:
      Transitions the bike to the servicing state and disassociates any email.
      */
     @Override
-    public void dropOff(Bike bike)
+    public boolean tryDropOff(Bike bike)
     {
-        bike.setState(new ServicingState());
+        bike.setState(ServicingState.INSTANCE);
         bike.setAssociatedEmail(null);
-        logger.info(() -> "Bike dropped off for servicing. New state: " + bike.getState());
+        if(logger.isLoggable(Level.INFO))
+        {
+            logger.log(Level.INFO, "Bike dropped off for servicing. New state: {0}", bike.getState());
+        }
+        return true;
     }
 
     /**
-     METHOD: pickUp
+     METHOD: tryPickUp
      IMPORT: bike (Bike)
-     EXPORT: None
+     EXPORT: valid (boolean)
      ALGORITHM:
-     Throws an IllegalStateException because picking up a bike is not valid in the available state.
+     Returns false because picking up a bike is not valid in the available state.
      */
     @Override
-    public void pickUp(Bike bike)
+    public boolean tryPickUp(Bike bike)
     {
         logger.warning("Attempt to pick up a bike in the available state.");
-        throw new IllegalStateException("Bike cannot be picked up when it is available.");
+        return false;
     }
 
     /**
-     METHOD: purchase
+     METHOD: tryPurchase
      IMPORT: bike (Bike)
-     EXPORT: None
+     EXPORT: valid (boolean)
      ALGORITHM:
      Transitions the bike to the awaiting pickup state.
      */
     @Override
-    public void purchase(Bike bike)
+    public boolean tryPurchase(Bike bike)
     {
-        bike.setState(new AwaitingPickupState());
+        bike.setState(AwaitingPickupState.INSTANCE);
+        return true;
     }
 
     /**
@@ -2,6 +2,7 @@ package edu.curtin.oose2024s1.assignment2.state;
 
 import edu.curtin.oose2024s1.assignment2.model.Bike;
 
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
@@ -13,51 +14,82 @@ import java.util.logging.Logger;
  Reference:
  - Geekific. (2020, June 6). Observer design pattern – Design patterns in plain English [Video]. YouTube. https://www.youtube.com/watch?v=abX4xzaAsoc - Used to help understand and implement state pattern (only used for contextual based knowledge and further understanding of state pattern).
  */
-// Concrete state for bikes that are awaiting pickup.
+// Concrete (flyweight) state for bikes that are awaiting pickup.
 public class AwaitingPickupState implements BikeState
 {
     private static final Logger logger = Logger.getLogger(AwaitingPickupState.class.getName());
 
+    // Shared flyweight instance; the state holds no per-bike data.
+    public static final AwaitingPickupState INSTANCE = new AwaitingPickupState();
+
     /**
-     METHOD: dropOff
-     IMPORT: bike (Bike)
+     METHOD: AwaitingPickupState
+     IMPORT: None
      EXPORT: None
      ALGORITHM:
-     Throws an IllegalStateException because dropping off a bike is not valid in the awaiting pickup state.
+     Private constructor; use INSTANCE.
+     */
+    private AwaitingPickupState()
+    {
+    }
+
+    /**
+     METHOD: getType
+     IMPORT: None
+     EXPORT: type (BikeStateType)
+     ALGORITHM:
+     Returns AWAITING_PICKUP.
      */
     @Override
-    public void dropOff(Bike bike)
+    public BikeStateType getType()
+    {
+        return BikeStateType.AWAITING_PICKUP;
+    }
+
+    /**
+     METHOD: tryDropOff
+     IMPORT: bike (Bike)
+     EXPORT: valid (boolean)
+     ALGORITHM:
+     Returns false because dropping off a bike is not valid in the awaiting pickup state.
+     */
+    @Override
+    public boolean tryDropOff(Bike bike)
     {
         logger.warning("Attempt to drop off a bike in the awaiting pickup state.");
-        throw new IllegalStateException("Bike cannot be dropped off when it is awaiting pickup.");
+        return false;
     }
 
     /**
-     METHOD: pickUp
+     METHOD: tryPickUp
      IMPORT: bike (Bike)
-     EXPORT: None
+     EXPORT: valid (boolean)
      ALGORITHM:
-     Transitions the bike to the available state and disassociates any email.
+     Transitions the bike to the available state.
      */
     @Override
-    public void pickUp(Bike bike)
+    public boolean tryPickUp(Bike bike)
     {
-        bike.setState(new AvailableState());
-        logger.info(() -> "Bike picked up. New state: " + bike.getState());
+        bike.setState(AvailableState.INSTANCE);
+        if(logger.isLoggable(Level.INFO))
+        {
+            logger.log(Level.INFO, "Bike picked up. New state: {0}", bike.getState());
+        }
+        return true;
     }
 
     /**
-     METHOD: purchase
+     METHOD: tryPurchase
      IMPORT: bike (Bike)
-     EXPORT: None
+     EXPORT: valid (boolean)
      ALGORITHM:
-     Throws an IllegalStateException because purchasing a bike is not valid in the awaiting pickup state.
+     Returns false because purchasing a bike is not valid in the awaiting pickup state.
      */
     @Override
-    public void purchase(Bike bike)
+    public boolean tryPurchase(Bike bike)
     {
         logger.warning("Attempt to purchase a bike in the awaiting pickup state.");
-        throw new IllegalStateException("Bike is already purchased.");
+        return false;
     }
 
     /**
@@ -7,36 +7,92 @@ Purpose:
     - Define the operations that each bike state must implement.
 Role:
     - Provide a contract for state-specific behavior in the Bike class.
+    - States hold no per-bike data, so each concrete state is a shared flyweight (see INSTANCE) rather than being allocated per transition.
+    - The try* transitions report invalid transitions by returning false, so the hot path never builds an exception; the original void methods still throw for callers that want that.
 Reference:
     - Geekific. (2020, June 6). Observer design pattern – Design patterns in plain English [Video]. YouTube. https://www.youtube.com/watch?v=abX4xzaAsoc - Used to help understand and implement state pattern (only used for contextual based knowledge and further understanding of state pattern).
 */
 // Interface for bike states.
 public interface BikeState
 {
+    /**
+    METHOD: getType
+    IMPORT: None
+    EXPORT: type (BikeStateType)
+    ALGORITHM:
+    Returns the constant identifying this state.
+    */
+    BikeStateType getType();
+
+    /**
+    METHOD: tryDropOff
+    IMPORT: bike (Bike)
+    EXPORT: valid (boolean)
+    ALGORITHM:
+    Performs the drop-off transition if it is valid in this state. Returns false (without throwing) if it is not.
+    */
+    boolean tryDropOff(Bike bike);
+
+    /**
+    METHOD: tryPickUp
+    IMPORT: bike (Bike)
+    EXPORT: valid (boolean)
+    ALGORITHM:
+    Performs the pick-up transition if it is valid in this state. Returns false (without throwing) if it is not.
+    */
+    boolean tryPickUp(Bike bike);
+
+    /**
+    METHOD: tryPurchase
+    IMPORT: bike (Bike)
+    EXPORT: valid (boolean)
+    ALGORITHM:
+    Performs the purchase transition if it is valid in this state. Returns false (without throwing) if it is not.
+    */
+    boolean tryPurchase(Bike bike);
+
     /**
     METHOD: dropOff
     IMPORT: bike (Bike)
     EXPORT: None
     ALGORITHM:
-    Defines the behavior for dropping off a bike in a specific state.
+    Defines the behavior for dropping off a bike in a specific state. Throws IllegalStateException if the transition is invalid.
     */
-    void dropOff(Bike bike);
+    default void dropOff(Bike bike)
+    {
+        if(!tryDropOff(bike))
+        {
+            throw new IllegalStateException("Bike cannot be dropped off when it is " + this + ".");
+        }
+    }
 
     /**
     METHOD: pickUp
     IMPORT: bike (Bike)
     EXPORT: None
     ALGORITHM:
-    Defines the behavior for picking up a bike in a specific state.
+    Defines the behavior for picking up a bike in a specific state. Throws IllegalStateException if the transition is invalid.
     */
-    void pickUp(Bike bike);
+    default void pickUp(Bike bike)
+    {
+        if(!tryPickUp(bike))
+        {
+            throw new IllegalStateException("Bike cannot be picked up when it is " + this + ".");
+        }
+    }
 
     /**
     METHOD: purchase
     IMPORT: bike (Bike)
     EXPORT: None
     ALGORITHM:
-    Defines the behavior for purchasing a bike in a specific state.
+    Defines the behavior for purchasing a bike in a specific state. Throws IllegalStateException if the transition is invalid.
     */
-    void purchase(Bike bike);
+    default void purchase(Bike bike)
+    {
+        if(!tryPurchase(bike))
+        {
+            throw new IllegalStateException("Bike cannot be purchased when it is " + this + ".");
+        }
+    }
 }
@@ -0,0 +1,32 @@
+package edu.curtin.oose2024s1.assignment2.state;
+
+/**
+Purpose:
+    - Identifies each concrete BikeState with a constant.
+Role:
+    - Gives Inventory, Customer and the controller a cheap value to compare or switch on (including by ordinal) instead of instanceof chains.
+*/
+// Enumeration of bike state kinds.
+public enum BikeStateType
+{
+    AVAILABLE,
+    SERVICING,
+    AWAITING_PICKUP;
+
+    /**
+    METHOD: toState
+    IMPORT: None
+    EXPORT: state (BikeState)
+    ALGORITHM:
+    Returns the shared BikeState instance for this type.
+    */
+    public BikeState toState()
+    {
+        return switch(this)
+        {
+            case AVAILABLE -> AvailableState.INSTANCE;
+            case SERVICING -> ServicingState.INSTANCE;
+            case AWAITING_PICKUP -> AwaitingPickupState.INSTANCE;
+        };
+    }
+}
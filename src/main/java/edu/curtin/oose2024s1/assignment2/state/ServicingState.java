@@ -2,6 +2,7 @@ package edu.curtin.oose2024s1.assignment2.state;
 
 import edu.curtin.oose2024s1.assignment2.model.Bike;
 
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
@@ -13,51 +14,82 @@ import java.util.logging.Logger;
  Reference:
  - Geekific. (2020, June 6). Observer design pattern – Design patterns in plain English [Video]. YouTube. https://www.youtube.com/watch?v=abX4xzaAsoc - Used to help understand and implement state pattern (only used for contextual based knowledge and further understanding of state pattern).
  */
-// Concrete state for bikes that are being serviced.
+// Concrete (flyweight) state for bikes that are being serviced.
 public class ServicingState implements BikeState
 {
     private static final Logger logger = Logger.getLogger(ServicingState.class.getName());
 
+    // Shared flyweight instance; the state holds no per-bike data.
+    public static final ServicingState INSTANCE = new ServicingState();
+
     /**
-     METHOD: dropOff
-     IMPORT: bike (Bike)
+     METHOD: ServicingState
+     IMPORT: None
      EXPORT: None
      ALGORITHM:
-     Throws an exception as dropping off a bike is not a valid operation when the bike is already being serviced.
+     Private constructor; use INSTANCE.
+     */
+    private ServicingState()
+    {
+    }
+
+    /**
+     METHOD: getType
+     IMPORT: None
+     EXPORT: type (BikeStateType)
+     ALGORITHM:
+     Returns SERVICING.
      */
     @Override
-    public void dropOff(Bike bike)
+    public BikeStateType getType()
+    {
+        return BikeStateType.SERVICING;
+    }
+
+    /**
+     METHOD: tryDropOff
+     IMPORT: bike (Bike)
+     EXPORT: valid (boolean)
+     ALGORITHM:
+     Returns false because dropping off a bike is not a valid operation when the bike is already being serviced.
+     */
+    @Override
+    public boolean tryDropOff(Bike bike)
     {
         logger.warning("Attempt to drop off a bike in the servicing state.");
-        throw new IllegalStateException("Bike is already being serviced.");
+        return false;
     }
 
     /**
-     METHOD: pickUp
+     METHOD: tryPickUp
      IMPORT: bike (Bike)
-     EXPORT: None
+     EXPORT: valid (boolean)
      ALGORITHM:
-     Transitions the bike to the Available state and clears the associated email.
+     Transitions the bike to the awaiting pickup state.
      */
     @Override
-    public void pickUp(Bike bike)
+    public boolean tryPickUp(Bike bike)
     {
-        bike.setState(new AwaitingPickupState());
-        logger.info(() -> "Bike picked up. New state: " + bike.getState());
+        bike.setState(AwaitingPickupState.INSTANCE);
+        if(logger.isLoggable(Level.INFO))
+        {
+            logger.log(Level.INFO, "Bike picked up. New state: {0}", bike.getState());
+        }
+        return true;
     }
 
     /**
-     METHOD: purchase
+     METHOD: tryPurchase
      IMPORT: bike (Bike)
-     EXPORT: None
+     EXPORT: valid (boolean)
      ALGORITHM:
-     Throws an exception as purchasing a bike is not a valid operation when the bike is being serviced.
+     Returns false because purchasing a bike is not a valid operation when the bike is being serviced.
      */
     @Override
-    public void purchase(Bike bike)
+    public boolean tryPurchase(Bike bike)
     {
         logger.warning("Attempt to purchase a bike in the servicing state.");
-        throw new IllegalStateException("Bike cannot be purchased when it is being serviced.");
+        return false;
     }
 
     /**
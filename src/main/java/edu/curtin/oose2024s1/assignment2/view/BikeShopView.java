@@ -1,11 +1,11 @@
 package edu.curtin.oose2024s1.assignment2.view;
 
+import edu.curtin.oose2024s1.assignment2.controller.ResultCode;
 import edu.curtin.oose2024s1.assignment2.model.*;
 import edu.curtin.oose2024s1.assignment2.observer.Observer;
 
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.nio.file.Path;
 import java.util.logging.Logger;
 
 /**
@@ -13,6 +13,8 @@ import java.util.logging.Logger;
  - This class will manage the display of the bike shop's status, such as the number of bikes available, being serviced, and awaiting pickup, as well as the bank account balance. It will also handle logging messages to the console and writing them to the "sim_results.txt" file.
  Role:
  - Acts as the presentation layer of the application, showing the current state of the bike shop to the user and ensuring that all output is logged appropriately.
+ - Console output is either printed line by line, or (if a ConsoleRenderer is set) handed to the renderer, which redraws a summary from its own thread.
+ - File output goes through a ResultsWriter, which batches it into a few large writes according to a FlushPolicy (once per day by default).
  Reference:
  - Dewan, P. (2000). 15. Model-View-Controller (MVC) and Observer. University of North Carolina Computer Science at Chapel Hill. https://www.cs.unc.edu/~carterjl/teaching/notes/15_MVC_Notes.pdf - Used to help understand and implement observer pattern (only used for contextual based knowledge and further understanding of observer pattern).
  */
@@ -20,28 +22,79 @@ import java.util.logging.Logger;
 public class BikeShopView implements Observer
 {
     private static final Logger logger = Logger.getLogger(BikeShopView.class.getName());
-    private PrintWriter writer;
+    private static final String RESULTS_FILE = "sim_results.txt";
+    private ResultsWriter writer;
+    private ConsoleRenderer renderer;
+    private boolean consoleOutput = true;
 
     /**
      METHOD: BikeShopView
      IMPORT: None
      EXPORT: None
      ALGORITHM:
-     Constructor that initialises the PrintWriter for writing to the "sim_results.txt" file.
+     Constructor that opens the "sim_results.txt" file, committing output once per simulated day.
      */
     public BikeShopView()
+    {
+        this(FlushPolicy.PER_DAY, 0);
+    }
+
+    /**
+     METHOD: BikeShopView
+     IMPORT: flushPolicy (FlushPolicy), flushThreshold (long)
+     EXPORT: None
+     ALGORITHM:
+     Constructor that opens the "sim_results.txt" file with the given flush policy (the threshold is in bytes for BYTES and milliseconds for INTERVAL).
+     */
+    public BikeShopView(FlushPolicy flushPolicy, long flushThreshold)
+    {
+        this(Path.of(RESULTS_FILE), flushPolicy, flushThreshold);
+    }
+
+    /**
+     METHOD: BikeShopView
+     IMPORT: resultsFile (Path), flushPolicy (FlushPolicy), flushThreshold (long)
+     EXPORT: None
+     ALGORITHM:
+     Constructor that opens the given results file (e.g. one per shop of a chain) with the given flush policy.
+     */
+    public BikeShopView(Path resultsFile, FlushPolicy flushPolicy, long flushThreshold)
     {
         try
         {
-            writer = new PrintWriter(new FileWriter("sim_results.txt", true));
-            logger.info("sim_results.txt opened successfully.");
+            writer = new ResultsWriter(resultsFile, flushPolicy, flushThreshold);
+            logger.info(() -> resultsFile + " opened successfully.");
         }
         catch(IOException e)
         {
-            logger.severe(() -> "Error opening sim_results.txt: " + e.getMessage());
+            logger.severe(() -> "Error opening " + resultsFile + ": " + e.getMessage());
         }
     }
 
+    /**
+     METHOD: BikeShopView
+     IMPORT: writer (ResultsWriter)
+     EXPORT: None
+     ALGORITHM:
+     Constructor that uses the given results writer (null for no file output).
+     */
+    private BikeShopView(ResultsWriter writer)
+    {
+        this.writer = writer;
+    }
+
+    /**
+     METHOD: withoutResultsFile
+     IMPORT: None
+     EXPORT: view (BikeShopView)
+     ALGORITHM:
+     Returns a view that writes no results file, for runs that only need the statistics (e.g. the shops of a chain).
+     */
+    public static BikeShopView withoutResultsFile()
+    {
+        return new BikeShopView((ResultsWriter) null);
+    }
+
     /**
      METHOD: registerObservers
      IMPORT: bankAccount (BankAccount), inventory (Inventory)
@@ -55,6 +108,58 @@ public class BikeShopView implements Observer
         inventory.addObserver(this);
     }
 
+    /**
+     METHOD: setConsoleOutput
+     IMPORT: consoleOutput (boolean)
+     EXPORT: None
+     ALGORITHM:
+     Enables or disables printing to the console. File output is unaffected (used by the headless run mode).
+     */
+    public void setConsoleOutput(boolean consoleOutput)
+    {
+        this.consoleOutput = consoleOutput;
+    }
+
+    /**
+     METHOD: setRenderer
+     IMPORT: renderer (ConsoleRenderer)
+     EXPORT: None
+     ALGORITHM:
+     Hands console output to a ConsoleRenderer (or back to line-by-line printing if null). The renderer is used even when console output is disabled.
+     */
+    public void setRenderer(ConsoleRenderer renderer)
+    {
+        this.renderer = renderer;
+    }
+
+    /**
+     METHOD: isRendering
+     IMPORT: None
+     EXPORT: boolean
+     ALGORITHM:
+     Returns true if a ConsoleRenderer owns the console.
+     */
+    public boolean isRendering()
+    {
+        return renderer != null;
+    }
+
+    /**
+     METHOD: stopRendering
+     IMPORT: None
+     EXPORT: None
+     ALGORITHM:
+     Draws the renderer's final frame and stops it, so later output (e.g. the final statistics) prints below the display.
+     */
+    public void stopRendering()
+    {
+        if(renderer != null)
+        {
+            renderer.close();
+            renderer = null;
+        }
+    }
+
     /**
      METHOD: displayStatus
      IMPORT: daysElapsed (int), bankAccount (BankAccount), inventory (Inventory)
@@ -69,22 +174,113 @@ public class BikeShopView implements Observer
                         "\nNumber of bikes available for purchase: " + inventory.getAvailableBikeCount() +
                         "\nNumber of bikes being serviced: " + inventory.getServicedBikeCount() +
                         "\nNumber of bikes awaiting pick-up: " + inventory.getAwaitingPickupBikeCount();
-        System.out.println(status);
+        if(renderer != null)
+        {
+            renderer.updateStatus(daysElapsed, bankAccount.getBalance(), inventory.getAvailableBikeCount(),
+                    inventory.getServicedBikeCount(), inventory.getAwaitingPickupBikeCount());
+        }
+        else if(consoleOutput)
+        {
+            System.out.println(status);
+        }
         logToFile(status);
         logger.fine(() -> "Displayed status: " + status + "\n");
     }
 
+    /**
+     METHOD: displayResult
+     IMPORT: result (String)
+     EXPORT: None
+     ALGORITHM:
+     Displays the result of a processed message (if console output is enabled) and writes it to the file.
+     */
+    public void displayResult(String result)
+    {
+        if(consoleOutput)
+        {
+            System.out.println(result);
+        }
+        logToFile(result);
+    }
+
+    /**
+     METHOD: displayResult
+     IMPORT: code (ResultCode), result (String)
+     EXPORT: None
+     ALGORITHM:
+     Displays the result of a processed message: counted by the renderer if one is set, otherwise printed (if console output is enabled). Always written to the file.
+     */
+    public void displayResult(ResultCode code, String result)
+    {
+        if(renderer != null)
+        {
+            renderer.recordResult(code);
+            logToFile(result);
+        }
+        else
+        {
+            displayResult(result);
+        }
+    }
+
+    /**
+     METHOD: isDisplayingResults
+     IMPORT: None
+     EXPORT: boolean
+     ALGORITHM:
+     Returns true if message results go anywhere (console, renderer or file), so callers can skip building the result text when they do not.
+     */
+    public boolean isDisplayingResults()
+    {
+        return consoleOutput || renderer != null || writer != null;
+    }
+
     /**
      METHOD: logToFile
      IMPORT: message (String)
      EXPORT: None
      ALGORITHM:
-     Writes a message to the "sim_results.txt" file and flushes the writer.
+     Writes a message to the "sim_results.txt" file. It reaches the disk when the flush policy next commits.
      */
     public void logToFile(String message)
     {
-        writer.println(message);
-        writer.flush();
+        if(writer == null)
+        {
+            return;
+        }
+
+        try
+        {
+            writer.println(message);
+        }
+        catch(IOException e)
+        {
+            logger.severe(() -> "Error writing to sim_results.txt: " + e.getMessage());
+        }
+    }
+
+    /**
+     METHOD: endOfDay
+     IMPORT: None
+     EXPORT: None
+     ALGORITHM:
+     Tells the results writer a simulated day has ended (commits under the PER_DAY policy).
+     */
+    public void endOfDay()
+    {
+        if(writer == null)
+        {
+            return;
+        }
+
+        try
+        {
+            writer.endOfDay();
+        }
+        catch(IOException e)
+        {
+            logger.severe(() -> "Error writing to sim_results.txt: " + e.getMessage());
+        }
     }
 
     /**
@@ -92,14 +288,21 @@ public class BikeShopView implements Observer
      IMPORT: None
      EXPORT: None
      ALGORITHM:
-     Closes the PrintWriter if it is not null.
+     Commits any buffered output and closes the results writer if it is not null.
      */
     public void close()
     {
         if(writer != null)
         {
-            writer.close();
-            logger.info("sim_results.txt closed successfully.");
+            try
+            {
+                writer.close();
+                logger.info("sim_results.txt closed successfully.");
+            }
+            catch(IOException e)
+            {
+                logger.severe(() -> "Error closing sim_results.txt: " + e.getMessage());
+            }
         }
     }
 
@@ -0,0 +1,212 @@
+package edu.curtin.oose2024s1.assignment2.view;
+
+import edu.curtin.oose2024s1.assignment2.controller.ResultCode;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Logger;
+
+/**
+Purpose:
+    - Draws the shop status on the console from its own thread at a capped frame rate, so terminal I/O no longer limits how fast the simulation can run.
+Role:
+    - The simulation thread only publishes the latest status (one small array per day) and bumps a per-ResultCode counter per message; it never writes to the terminal.
+    - Each frame redraws only the screen rows whose text changed since the previous frame (cursor addressing plus erase-line), in a single write.
+    - Instead of one line per message, shows how many messages of each result type arrived since the last frame.
+*/
+// Frame-rate-capped, diff-based console status display.
+public final class ConsoleRenderer implements AutoCloseable
+{
+    private static final Logger logger = Logger.getLogger(ConsoleRenderer.class.getName());
+    private static final String ESC = "\033[";
+    private static final ResultCode[] RESULT_CODES = ResultCode.values();
+
+    // Screen rows (1-based)
+    private static final int ROW_DAY = 1;
+    private static final int ROW_CASH = 2;
+    private static final int ROW_AVAILABLE = 3;
+    private static final int ROW_SERVICING = 4;
+    private static final int ROW_AWAITING = 5;
+    private static final int ROW_FRAME_TOTAL = 7;
+    private static final int ROW_FIRST_RESULT = 8;
+    private static final int ROW_COUNT = ROW_FIRST_RESULT + RESULT_CODES.length;
+
+    // Indices into a published status array
+    private static final int DAY = 0;
+    private static final int CASH = 1;
+    private static final int AVAILABLE = 2;
+    private static final int SERVICING = 3;
+    private static final int AWAITING = 4;
+
+    private final PrintStream out;
+    private final long frameNanos;
+    private final Thread thread;
+
+    // Written by the simulation thread, read by the render thread
+    private final AtomicLongArray resultCounts = new AtomicLongArray(RESULT_CODES.length);
+    private volatile long[] status;
+    private volatile boolean running = true;
+
+    // Render thread only
+    private final long[] countsAtLastFrame = new long[RESULT_CODES.length];
+    private final String[] screen = new String[ROW_COUNT];
+    private boolean cleared;
+    private long frameCount;
+
+    /**
+    METHOD: ConsoleRenderer
+    IMPORT: out (PrintStream), maxFramesPerSecond (int)
+    EXPORT: None
+    ALGORITHM:
+    Constructor that starts the render thread, drawing at most maxFramesPerSecond frames per second to out.
+    */
+    public ConsoleRenderer(PrintStream out, int maxFramesPerSecond)
+    {
+        if(maxFramesPerSecond <= 0)
+        {
+            throw new IllegalArgumentException("Frame rate must be positive: " + maxFramesPerSecond);
+        }
+
+        this.out = out;
+        this.frameNanos = TimeUnit.SECONDS.toNanos(1) / maxFramesPerSecond;
+        this.thread = new Thread(this::renderLoop, "console-renderer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+    METHOD: updateStatus
+    IMPORT: day (int), cash (int), available (int), servicing (int), awaitingPickup (int)
+    EXPORT: None
+    ALGORITHM:
+    Publishes the latest status; the next frame shows it. Called from the simulation thread.
+    */
+    public void updateStatus(int day, int cash, int available, int servicing, int awaitingPickup)
+    {
+        status = new long[] { day, cash, available, servicing, awaitingPickup };
+    }
+
+    /**
+    METHOD: recordResult
+    IMPORT: result (ResultCode)
+    EXPORT: None
+    ALGORITHM:
+    Counts one message with the given result. Called from the simulation thread.
+    */
+    public void recordResult(ResultCode result)
+    {
+        resultCounts.incrementAndGet(result.ordinal());
+    }
+
+    /**
+    METHOD: close
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Stops the render thread, draws a final frame and leaves the cursor below the display.
+    */
+    @Override
+    public void close()
+    {
+        if(!running)
+        {
+            return;
+        }
+
+        running = false;
+        LockSupport.unpark(thread);
+        try
+        {
+            thread.join();
+        }
+        catch(InterruptedException e)
+        {
+            logger.warning(() -> "Interrupted while stopping the console renderer: " + e.getMessage());
+            Thread.currentThread().interrupt();
+        }
+        logger.info(() -> "Console renderer drew " + frameCount + " frames.");
+    }
+
+    /**
+    METHOD: renderLoop
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Render thread body: draws a frame, then sleeps for the rest of the frame interval, until closed. Draws one last frame on exit.
+    */
+    private void renderLoop()
+    {
+        while(running)
+        {
+            long start = System.nanoTime();
+            renderFrame();
+            long remaining = frameNanos - (System.nanoTime() - start);
+            if(remaining > 0)
+            {
+                LockSupport.parkNanos(this, remaining);
+            }
+        }
+        renderFrame();
+        out.print(ESC + (ROW_COUNT + 1) + ";1H");
+        out.flush();
+    }
+
+    /**
+    METHOD: renderFrame
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Builds the text of every row, and writes only the rows that differ from what is on screen in a single print.
+    */
+    private void renderFrame()
+    {
+        long[] current = status;
+        if(current == null)
+        {
+            return;
+        }
+
+        String[] rows = new String[ROW_COUNT];
+        rows[ROW_DAY] = "Number of days elapsed: " + current[DAY];
+        rows[ROW_CASH] = "Total cash in the bank account: $" + current[CASH];
+        rows[ROW_AVAILABLE] = "Number of bikes available for purchase: " + current[AVAILABLE];
+        rows[ROW_SERVICING] = "Number of bikes being serviced: " + current[SERVICING];
+        rows[ROW_AWAITING] = "Number of bikes awaiting pick-up: " + current[AWAITING];
+
+        long frameTotal = 0;
+        for(int i = 0; i < RESULT_CODES.length; i++)
+        {
+            long count = resultCounts.get(i);
+            long delta = count - countsAtLastFrame[i];
+            countsAtLastFrame[i] = count;
+            frameTotal += delta;
+            rows[ROW_FIRST_RESULT + i] = String.format("  %-28s %8d  (total %d)", RESULT_CODES[i], delta, count);
+        }
+        rows[ROW_FRAME_TOTAL] = "Messages since last frame: " + frameTotal;
+
+        StringBuilder frame = new StringBuilder();
+        if(!cleared)
+        {
+            frame.append(ESC).append("H").append(ESC).append("2J");
+            cleared = true;
+        }
+        for(int row = 1; row < ROW_COUNT; row++)
+        {
+            if(rows[row] != null && !rows[row].equals(screen[row]))
+            {
+                frame.append(ESC).append(row).append(";1H").append(ESC).append("2K").append(rows[row]);
+                screen[row] = rows[row];
+            }
+        }
+
+        if(frame.length() > 0)
+        {
+            frame.append(ESC).append(ROW_COUNT + 1).append(";1H");
+            out.print(frame);
+            out.flush();
+        }
+        frameCount++;
+    }
+}
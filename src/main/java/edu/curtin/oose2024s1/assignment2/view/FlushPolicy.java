@@ -0,0 +1,20 @@
+package edu.curtin.oose2024s1.assignment2.view;
+
+/**
+Purpose:
+    - Names when a ResultsWriter commits its buffered output to disk.
+Role:
+    - PER_DAY writes once at the end of every simulated day (the default).
+    - BYTES writes whenever at least the threshold number of bytes is buffered.
+    - INTERVAL writes on the first line or day end after the threshold number of milliseconds has passed since the last write.
+    - SHUTDOWN only writes when the buffer fills up or the writer is closed.
+    - Whatever the policy, a full buffer is always written out and close() always writes the rest.
+*/
+// Enum of flush policies for the results file.
+public enum FlushPolicy
+{
+    PER_DAY,
+    BYTES,
+    INTERVAL,
+    SHUTDOWN
+}
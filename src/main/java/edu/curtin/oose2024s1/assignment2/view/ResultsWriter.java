@@ -0,0 +1,287 @@
+package edu.curtin.oose2024s1.assignment2.view;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+Purpose:
+    - Group-commit sink for "sim_results.txt": lines are encoded into one large direct buffer and written to a FileChannel in a few big writes instead of one write per line.
+Role:
+    - Produces exactly the bytes PrintWriter(FileWriter(file, true)).println would: the platform default charset (with the same replacement of unmappable characters) and the platform line separator, appended to the file.
+    - Commits according to a FlushPolicy; a full buffer and close() always commit.
+    - Tracks bytes written, the number of commits and their latency, and logs a summary (including bytes/sec) on close.
+    - Not thread-safe; used from the simulation thread only.
+*/
+// Buffered FileChannel writer for the simulation results.
+public class ResultsWriter implements AutoCloseable
+{
+    private static final Logger logger = Logger.getLogger(ResultsWriter.class.getName());
+    private static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+    private static final int MIN_BUFFER_SIZE = 64;
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final CharsetEncoder encoder;
+    private final FlushPolicy policy;
+    private final long threshold;
+
+    private final long openedAt = System.nanoTime();
+    private long lastCommitAt = openedAt;
+    private long bytesWritten;
+    private long commitCount;
+    private long totalCommitNanos;
+    private long maxCommitNanos;
+
+    /**
+    METHOD: ResultsWriter
+    IMPORT: path (Path), policy (FlushPolicy), threshold (long)
+    EXPORT: None
+    ALGORITHM:
+    Opens the file for appending (creating it if needed) with a 256 KiB buffer. The threshold is in bytes for BYTES, milliseconds for INTERVAL, and ignored otherwise.
+    */
+    public ResultsWriter(Path path, FlushPolicy policy, long threshold) throws IOException
+    {
+        this(path, policy, threshold, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+    METHOD: ResultsWriter
+    IMPORT: path (Path), policy (FlushPolicy), threshold (long), bufferSize (int)
+    EXPORT: None
+    ALGORITHM:
+    Opens the file for appending (creating it if needed) with a direct buffer of the given size (at least 64 bytes, so any character fits).
+    */
+    public ResultsWriter(Path path, FlushPolicy policy, long threshold, int bufferSize) throws IOException
+    {
+        if(bufferSize < MIN_BUFFER_SIZE)
+        {
+            throw new IllegalArgumentException("Buffer size must be at least " + MIN_BUFFER_SIZE + " bytes: " + bufferSize);
+        }
+        if((policy == FlushPolicy.BYTES || policy == FlushPolicy.INTERVAL) && threshold <= 0)
+        {
+            throw new IllegalArgumentException(policy + " flush policy needs a positive threshold: " + threshold);
+        }
+
+        this.policy = policy;
+        this.threshold = policy == FlushPolicy.INTERVAL ? TimeUnit.MILLISECONDS.toNanos(threshold) : threshold;
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        this.encoder = Charset.defaultCharset().newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+    METHOD: println
+    IMPORT: line (String)
+    EXPORT: None
+    ALGORITHM:
+    Encodes the line and a line separator into the buffer (committing whenever it fills), then commits if the BYTES or INTERVAL policy is due.
+    */
+    public void println(String line) throws IOException
+    {
+        encode(line);
+        encode(LINE_SEPARATOR);
+
+        boolean due = switch(policy)
+        {
+            case BYTES -> buffer.position() >= threshold;
+            case INTERVAL -> System.nanoTime() - lastCommitAt >= threshold;
+            case PER_DAY, SHUTDOWN -> false;
+        };
+        if(due)
+        {
+            commit();
+        }
+    }
+
+    /**
+    METHOD: endOfDay
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Called once per simulated day; commits under the PER_DAY policy, or under INTERVAL if it is due.
+    */
+    public void endOfDay() throws IOException
+    {
+        if(policy == FlushPolicy.PER_DAY ||
+           policy == FlushPolicy.INTERVAL && System.nanoTime() - lastCommitAt >= threshold)
+        {
+            commit();
+        }
+    }
+
+    /**
+    METHOD: flush
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Commits all buffered output now, whatever the policy.
+    */
+    public void flush() throws IOException
+    {
+        commit();
+    }
+
+    /**
+    METHOD: close
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Commits the remaining output, closes the channel and logs the write statistics.
+    */
+    @Override
+    public void close() throws IOException
+    {
+        try
+        {
+            commit();
+        }
+        finally
+        {
+            channel.close();
+            logger.info(this::describeStatistics);
+        }
+    }
+
+    /**
+    METHOD: getBytesWritten
+    IMPORT: None
+    EXPORT: bytes (long)
+    ALGORITHM:
+    Returns the number of bytes committed to the file so far.
+    */
+    public long getBytesWritten()
+    {
+        return bytesWritten;
+    }
+
+    /**
+    METHOD: getCommitCount
+    IMPORT: None
+    EXPORT: count (long)
+    ALGORITHM:
+    Returns the number of (non-empty) commits so far.
+    */
+    public long getCommitCount()
+    {
+        return commitCount;
+    }
+
+    /**
+    METHOD: getBytesPerSecond
+    IMPORT: None
+    EXPORT: rate (double)
+    ALGORITHM:
+    Returns the average throughput since the writer was opened.
+    */
+    public double getBytesPerSecond()
+    {
+        long elapsed = System.nanoTime() - openedAt;
+        return elapsed == 0 ? 0.0 : bytesWritten * 1e9 / elapsed;
+    }
+
+    /**
+    METHOD: getMeanCommitNanos
+    IMPORT: None
+    EXPORT: nanos (long)
+    ALGORITHM:
+    Returns the mean time taken by a commit.
+    */
+    public long getMeanCommitNanos()
+    {
+        return commitCount == 0 ? 0 : totalCommitNanos / commitCount;
+    }
+
+    /**
+    METHOD: getMaxCommitNanos
+    IMPORT: None
+    EXPORT: nanos (long)
+    ALGORITHM:
+    Returns the longest time taken by a commit.
+    */
+    public long getMaxCommitNanos()
+    {
+        return maxCommitNanos;
+    }
+
+    /**
+    METHOD: describeStatistics
+    IMPORT: None
+    EXPORT: String
+    ALGORITHM:
+    Returns a one-line summary of the write statistics.
+    */
+    public String describeStatistics()
+    {
+        return String.format("Results writer (%s): %d bytes in %d commits, %.0f bytes/sec, commit latency mean %d us, max %d us",
+                policy, bytesWritten, commitCount, getBytesPerSecond(),
+                TimeUnit.NANOSECONDS.toMicros(getMeanCommitNanos()), TimeUnit.NANOSECONDS.toMicros(maxCommitNanos));
+    }
+
+    /**
+    METHOD: encode
+    IMPORT: text (String)
+    EXPORT: None
+    ALGORITHM:
+    Encodes the text into the buffer, committing each time the buffer fills.
+    */
+    private void encode(String text) throws IOException
+    {
+        CharBuffer chars = CharBuffer.wrap(text);
+        encoder.reset();
+        CoderResult result = encoder.encode(chars, buffer, true);
+        while(result.isOverflow())
+        {
+            commit();
+            result = encoder.encode(chars, buffer, true);
+        }
+        result = encoder.flush(buffer);
+        while(result.isOverflow())
+        {
+            commit();
+            result = encoder.flush(buffer);
+        }
+    }
+
+    /**
+    METHOD: commit
+    IMPORT: None
+    EXPORT: None
+    ALGORITHM:
+    Writes the whole buffer to the channel (a write may be partial, so loops), records the latency and clears the buffer.
+    */
+    private void commit() throws IOException
+    {
+        lastCommitAt = System.nanoTime();
+        if(buffer.position() == 0)
+        {
+            return;
+        }
+
+        buffer.flip();
+        int length = buffer.remaining();
+        while(buffer.hasRemaining())
+        {
+            channel.write(buffer);
+        }
+        buffer.clear();
+
+        long elapsed = System.nanoTime() - lastCommitAt;
+        bytesWritten += length;
+        commitCount++;
+        totalCommitNanos += elapsed;
+        maxCommitNanos = Math.max(maxCommitNanos, elapsed);
+    }
+}